@@ -49,6 +49,8 @@ CREATE TABLE cuentas (
     tipo_cuenta VARCHAR(50) NOT NULL,
     saldo_inicial DECIMAL(15,2) NOT NULL DEFAULT 0.00,
     saldo_actual DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    -- Total of the active holds; the available balance is the balance minus this
+    saldo_retenido DECIMAL(15,2) NOT NULL DEFAULT 0.00,
     estado BOOLEAN DEFAULT true,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
@@ -66,9 +68,213 @@ CREATE TABLE movimientos (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Idempotency keys of movement postings (the primary key rejects a second posting with the same key)
+CREATE TABLE movimiento_claves_idempotencia (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    movement_id BIGINT,
+    response TEXT,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Sub-balances of split accounts; an account's balance is saldo_actual plus its sub-balances
+CREATE TABLE cuenta_subsaldos (
+    numero_cuenta VARCHAR(20) NOT NULL REFERENCES cuentas(numero_cuenta) ON DELETE CASCADE,
+    slot INT NOT NULL,
+    saldo DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (numero_cuenta, slot)
+);
+
+-- Payroll jobs: the total is debited from cuenta_origen once (debito_id), the payments are
+-- credited from it, and rejected payments are credited back when the job completes (reintegro_id)
+CREATE TABLE nominas (
+    id BIGSERIAL PRIMARY KEY,
+    cuenta_origen VARCHAR(20) NOT NULL REFERENCES cuentas(numero_cuenta) ON DELETE CASCADE,
+    descripcion VARCHAR(255),
+    total DECIMAL(15,2) NOT NULL,
+    pagos INT NOT NULL,
+    estado VARCHAR(20) NOT NULL CHECK (estado IN ('RUNNING', 'COMPLETED')),
+    debito_id BIGINT,
+    reintegro_id BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP
+);
+
+-- Payments of a payroll job, in submission order (destination accounts may not exist; those are rejected)
+CREATE TABLE nomina_pagos (
+    nomina_id BIGINT NOT NULL REFERENCES nominas(id) ON DELETE CASCADE,
+    indice INT NOT NULL,
+    cuenta_destino VARCHAR(20) NOT NULL,
+    valor DECIMAL(15,2) NOT NULL,
+    estado VARCHAR(20) NOT NULL CHECK (estado IN ('PENDING', 'POSTED', 'REJECTED')),
+    movimiento_id BIGINT,
+    error VARCHAR(255),
+    PRIMARY KEY (nomina_id, indice)
+);
+
+-- Card authorizations: an ACTIVE hold counts in cuentas.saldo_retenido until it is captured as a
+-- DEBITO movement (movimiento_id), released, or expired by the sweeper at expires_at
+CREATE TABLE retenciones (
+    id BIGSERIAL PRIMARY KEY,
+    numero_cuenta VARCHAR(20) NOT NULL REFERENCES cuentas(numero_cuenta) ON DELETE CASCADE,
+    valor DECIMAL(15,2) NOT NULL,
+    valor_capturado DECIMAL(15,2),
+    descripcion VARCHAR(255),
+    estado VARCHAR(20) NOT NULL CHECK (estado IN ('ACTIVE', 'CAPTURED', 'RELEASED', 'EXPIRED')),
+    movimiento_id BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP
+);
+
+-- Standing orders: run n is due at primera_ejecucion + n * frecuencia (ISO-8601 period); proxima_ejecucion
+-- is the next run, NULL once the order is cancelled or completed
+CREATE TABLE ordenes_permanentes (
+    id BIGSERIAL PRIMARY KEY,
+    cuenta_origen VARCHAR(20) NOT NULL,
+    cuenta_destino VARCHAR(20) NOT NULL,
+    valor DECIMAL(15,2) NOT NULL,
+    descripcion VARCHAR(255),
+    frecuencia VARCHAR(20) NOT NULL,
+    primera_ejecucion TIMESTAMP NOT NULL,
+    fin TIMESTAMP,
+    proxima_ejecucion TIMESTAMP,
+    ejecuciones INT NOT NULL,
+    estado VARCHAR(20) NOT NULL CHECK (estado IN ('ACTIVE', 'CANCELLED', 'COMPLETED')),
+    created_at TIMESTAMP NOT NULL
+);
+
+-- One row per run of a standing order; the key makes a run execute at most once
+CREATE TABLE orden_permanente_ejecuciones (
+    orden_id BIGINT NOT NULL REFERENCES ordenes_permanentes(id) ON DELETE CASCADE,
+    numero INT NOT NULL,
+    fecha_programada TIMESTAMP NOT NULL,
+    estado VARCHAR(20) NOT NULL CHECK (estado IN ('POSTED', 'REJECTED')),
+    debito_id BIGINT,
+    credito_id BIGINT,
+    error VARCHAR(255),
+    executed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (orden_id, numero)
+);
+
+-- Interest accrual runs over the AHORRO accounts, one per cut-off date; tasa_anual is percent a year
+CREATE TABLE devengos_interes (
+    id BIGSERIAL PRIMARY KEY,
+    fecha_corte DATE NOT NULL UNIQUE,
+    tasa_anual DECIMAL(7,4) NOT NULL,
+    dias INT NOT NULL,
+    tramos INT NOT NULL,
+    estado VARCHAR(20) NOT NULL CHECK (estado IN ('RUNNING', 'COMPLETED')),
+    cuentas BIGINT,
+    total DECIMAL(15,2),
+    created_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP
+);
+
+-- Checkpoints of an accrual: the accounts with desde < numero_cuenta <= hasta, credited in one transaction
+CREATE TABLE devengo_interes_tramos (
+    devengo_id BIGINT NOT NULL REFERENCES devengos_interes(id) ON DELETE CASCADE,
+    tramo INT NOT NULL,
+    desde VARCHAR(20) NOT NULL,
+    hasta VARCHAR(20) NOT NULL,
+    estado VARCHAR(20) NOT NULL CHECK (estado IN ('PENDING', 'DONE')),
+    cuentas INT,
+    total DECIMAL(15,2),
+    duracion_ms BIGINT,
+    finished_at TIMESTAMP,
+    PRIMARY KEY (devengo_id, tramo)
+);
+
+-- Maintenance fee runs over the CORRIENTE accounts, one per cut-off date
+CREATE TABLE cobros_comision (
+    id BIGSERIAL PRIMARY KEY,
+    fecha_corte DATE NOT NULL UNIQUE,
+    comision DECIMAL(15,2) NOT NULL,
+    tramos INT NOT NULL,
+    estado VARCHAR(20) NOT NULL CHECK (estado IN ('RUNNING', 'COMPLETED')),
+    cuentas BIGINT,
+    omitidas BIGINT,
+    total DECIMAL(15,2),
+    created_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP
+);
+
+-- Checkpoints of a fee run: the accounts with desde < numero_cuenta <= hasta, charged in one transaction
+CREATE TABLE cobro_comision_tramos (
+    cobro_id BIGINT NOT NULL REFERENCES cobros_comision(id) ON DELETE CASCADE,
+    tramo INT NOT NULL,
+    desde VARCHAR(20) NOT NULL,
+    hasta VARCHAR(20) NOT NULL,
+    estado VARCHAR(20) NOT NULL CHECK (estado IN ('PENDING', 'DONE')),
+    cuentas INT,
+    omitidas INT,
+    total DECIMAL(15,2),
+    duracion_ms BIGINT,
+    finished_at TIMESTAMP,
+    PRIMARY KEY (cobro_id, tramo)
+);
+
+-- Accounts a fee run skipped because their available balance did not cover the fee
+CREATE TABLE cobro_comision_omisiones (
+    cobro_id BIGINT NOT NULL REFERENCES cobros_comision(id) ON DELETE CASCADE,
+    numero_cuenta VARCHAR(20) NOT NULL REFERENCES cuentas(numero_cuenta) ON DELETE CASCADE,
+    disponible DECIMAL(15,2) NOT NULL,
+    PRIMARY KEY (cobro_id, numero_cuenta)
+);
+
+-- Ledger reconciliation runs: running balances and account balances checked against the movements
+CREATE TABLE conciliaciones (
+    id BIGSERIAL PRIMARY KEY,
+    tramos INT NOT NULL,
+    estado VARCHAR(20) NOT NULL CHECK (estado IN ('RUNNING', 'COMPLETED')),
+    cuentas BIGINT,
+    movimientos BIGINT,
+    discrepancias BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP
+);
+
+-- Checkpoints of a reconciliation: the accounts with desde < numero_cuenta <= hasta, verified together
+CREATE TABLE conciliacion_tramos (
+    conciliacion_id BIGINT NOT NULL REFERENCES conciliaciones(id) ON DELETE CASCADE,
+    tramo INT NOT NULL,
+    desde VARCHAR(20) NOT NULL,
+    hasta VARCHAR(20) NOT NULL,
+    estado VARCHAR(20) NOT NULL CHECK (estado IN ('PENDING', 'DONE')),
+    cuentas INT,
+    movimientos BIGINT,
+    discrepancias INT,
+    duracion_ms BIGINT,
+    finished_at TIMESTAMP,
+    PRIMARY KEY (conciliacion_id, tramo)
+);
+
+-- Discrepancy report of a reconciliation; accounts are not referenced so the report outlives them
+CREATE TABLE conciliacion_discrepancias (
+    id BIGSERIAL PRIMARY KEY,
+    conciliacion_id BIGINT NOT NULL REFERENCES conciliaciones(id) ON DELETE CASCADE,
+    numero_cuenta VARCHAR(20) NOT NULL,
+    tipo VARCHAR(20) NOT NULL CHECK (tipo IN ('MOVIMIENTO', 'CUENTA')),
+    movimiento_id BIGINT,
+    esperado DECIMAL(15,2) NOT NULL,
+    registrado DECIMAL(15,2) NOT NULL,
+    movimientos_afectados BIGINT
+);
+
+-- Movement ids are allocated by Hibernate in blocks of 50 (must match allocationSize in Movement);
+-- existing databases get this through BaseDatos_upgrade.sql
+ALTER SEQUENCE movimientos_id_seq INCREMENT BY 50;
+
 -- Indexes for better performance
 CREATE INDEX IF NOT EXISTS idx_movimientos_cuenta_fecha ON movimientos(numero_cuenta, fecha DESC);
 CREATE INDEX IF NOT EXISTS idx_movimientos_tipo ON movimientos(tipo_movimiento);
+CREATE INDEX IF NOT EXISTS idx_cuentas_cliente_id ON cuentas(cliente_id);
+CREATE INDEX IF NOT EXISTS idx_cuentas_tipo_numero ON cuentas(tipo_cuenta, numero_cuenta);
+CREATE INDEX IF NOT EXISTS idx_movimiento_claves_idempotencia_created_at ON movimiento_claves_idempotencia(created_at);
+CREATE INDEX IF NOT EXISTS idx_retenciones_estado_expires_at ON retenciones(estado, expires_at);
+CREATE INDEX IF NOT EXISTS idx_ordenes_permanentes_estado_proxima ON ordenes_permanentes(estado, proxima_ejecucion);
+CREATE INDEX IF NOT EXISTS idx_conciliacion_discrepancias ON conciliacion_discrepancias(conciliacion_id, id);
 CREATE INDEX IF NOT EXISTS idx_clientes_estado ON clientes(estado);
 CREATE INDEX IF NOT EXISTS idx_clientes_persona_id ON clientes(persona_id);
 
@@ -126,4 +332,4 @@ GRANT ALL PRIVILEGES ON ALL SEQUENCES IN SCHEMA public TO testuser;
 GRANT USAGE ON SCHEMA public TO testuser;
 
 ALTER DEFAULT PRIVILEGES IN SCHEMA public GRANT ALL ON TABLES TO testuser;
-ALTER DEFAULT PRIVILEGES IN SCHEMA public GRANT ALL ON SEQUENCES TO testuser;
\ No newline at end of file
+ALTER DEFAULT PRIVILEGES IN SCHEMA public GRANT ALL ON SEQUENCES TO testuser;
@@ -1,14 +1,19 @@
 package com.bank.account_service.controller;
 
+import com.bank.account_service.service.AccountLaneExecutor;
 import com.bank.account_service.service.AccountService;
+import com.bank.account_service.service.AccountSubLedgerService;
+import com.bank.account_service.service.BalanceEngineService;
 import jakarta.validation.Valid;
 import com.bank.account_service.dto.AccountCreateDto;
 import com.bank.account_service.dto.AccountResponseDto;
 import com.bank.account_service.dto.AccountUpdateDto;
+import com.bank.account_service.utils.PageResponses;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.Objects;
@@ -17,11 +22,23 @@ import java.util.Objects;
 @RequestMapping("/api/cuentas")
 public class AccountController {
 
+    static final int MAX_SUB_CUENTAS = 64;
+
     private final AccountService accountService;
+    private final AccountSubLedgerService accountSubLedgerService;
+    private final AccountLaneExecutor accountLanes;
+    private final BalanceEngineService balanceEngine;
 
-    public AccountController(final AccountService accountService) {
+    public AccountController(final AccountService accountService,
+                             final AccountSubLedgerService accountSubLedgerService,
+                             final AccountLaneExecutor accountLanes,
+                             final BalanceEngineService balanceEngine) {
         // Using final parameter and direct assignment for immutability
         this.accountService = Objects.requireNonNull(accountService, "AccountService must not be null");
+        this.accountSubLedgerService = Objects.requireNonNull(accountSubLedgerService,
+                "AccountSubLedgerService must not be null");
+        this.accountLanes = Objects.requireNonNull(accountLanes, "AccountLaneExecutor must not be null");
+        this.balanceEngine = Objects.requireNonNull(balanceEngine, "BalanceEngineService must not be null");
     }
 
     @PostMapping
@@ -43,7 +60,13 @@ public class AccountController {
     }
 
     @GetMapping
-    public ResponseEntity<List<AccountResponseDto>> getAllAccounts(@RequestParam(required = false) Boolean estado) {
+    public ResponseEntity<List<AccountResponseDto>> getAllAccounts(@RequestParam(required = false) Boolean estado,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer limit) {
+        // Unpaged unless the caller asks for a page
+        if (cursor != null || limit != null) {
+            return PageResponses.ok(accountService.getAccountsPage(estado, cursor, limit));
+        }
         if (estado != null) {
             return ResponseEntity.ok(accountService.getAccountsByStatus(estado));
         }
@@ -53,13 +76,36 @@ public class AccountController {
     @PatchMapping("/{id}")
     public ResponseEntity<AccountResponseDto> updateAccountStatus(@PathVariable String id,
                                                                   @Valid @RequestBody AccountUpdateDto updateDto) {
-        return ResponseEntity.ok(accountService.updateAccountStatus(id, updateDto));
+        return ResponseEntity.ok(accountLanes.execute(id,
+                () -> balanceEngine.exclusive(List.of(id), () -> accountService.updateAccountStatus(id, updateDto))));
+    }
+
+    /**
+     * Spreads a hot account over {@code cantidad} sub-balances; 1 merges them back.
+     */
+    @PutMapping("/{id}/sub-cuentas")
+    public ResponseEntity<AccountResponseDto> splitAccount(@PathVariable String id, @RequestParam int cantidad) {
+        if (cantidad < 1 || cantidad > MAX_SUB_CUENTAS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "cantidad must be between 1 and " + MAX_SUB_CUENTAS);
+        }
+        return ResponseEntity.ok(accountLanes.execute(id,
+                () -> balanceEngine.exclusive(List.of(id), () -> accountSubLedgerService.splitAccount(id, cantidad))));
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteAccount(@PathVariable Long id) {
-        accountService.deleteAccount(id);
+        if (!accountLanes.isEnabled() && !balanceEngine.isEnabled()) {
+            accountService.deleteAccount(id);
+            return;
+        }
+        // Postings the engine acknowledged are applied first, and later ones find no account
+        String numeroCuenta = accountService.getAccountNumber(id);
+        accountLanes.run(numeroCuenta, () -> balanceEngine.exclusive(List.of(numeroCuenta), () -> {
+            accountService.deleteAccount(id);
+            return null;
+        }));
     }
 
 }
@@ -0,0 +1,50 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.FeeRunCreateDto;
+import com.bank.account_service.dto.FeeRunResponseDto;
+import com.bank.account_service.dto.FeeRunSkipResponseDto;
+import com.bank.account_service.service.FeeRunService;
+import com.bank.account_service.utils.PageResponses;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api/comisiones/cobros")
+public class FeeRunController {
+
+    private final FeeRunService feeRunService;
+
+    public FeeRunController(FeeRunService feeRunService) {
+        this.feeRunService = Objects.requireNonNull(feeRunService, "FeeRunService must not be null");
+    }
+
+    /**
+     * Answers 202 once the run is planned; the accounts are charged in the background and the run,
+     * with its totals, is polled at its Location.
+     */
+    @PostMapping
+    public ResponseEntity<FeeRunResponseDto> startFeeRun(@Valid @RequestBody FeeRunCreateDto feeRunDto) {
+        FeeRunResponseDto feeRun = feeRunService.startFeeRun(feeRunDto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/comisiones/cobros/" + feeRun.getId()))
+                .body(feeRun);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<FeeRunResponseDto> getFeeRun(@PathVariable Long id) {
+        return ResponseEntity.ok(feeRunService.getFeeRun(id));
+    }
+
+    @GetMapping("/{id}/omitidas")
+    public ResponseEntity<List<FeeRunSkipResponseDto>> getSkipped(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(feeRunService.getSkipped(id, cursor, limit));
+    }
+}
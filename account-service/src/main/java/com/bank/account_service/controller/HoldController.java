@@ -0,0 +1,48 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.HoldCaptureDto;
+import com.bank.account_service.dto.HoldCreateDto;
+import com.bank.account_service.dto.HoldResponseDto;
+import com.bank.account_service.service.HoldService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api/retenciones")
+public class HoldController {
+
+    private final HoldService holdService;
+
+    public HoldController(HoldService holdService) {
+        this.holdService = Objects.requireNonNull(holdService, "HoldService must not be null");
+    }
+
+    @PostMapping
+    public ResponseEntity<HoldResponseDto> authorize(@Valid @RequestBody HoldCreateDto holdDto) {
+        HoldResponseDto hold = holdService.authorize(holdDto);
+        return ResponseEntity.created(URI.create("/api/retenciones/" + hold.getId())).body(hold);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<HoldResponseDto> getHold(@PathVariable Long id) {
+        return ResponseEntity.ok(holdService.getHold(id));
+    }
+
+    /**
+     * Captures the hold as a DEBITO movement; without a body the whole amount is captured.
+     */
+    @PostMapping("/{id}/captura")
+    public ResponseEntity<HoldResponseDto> capture(@PathVariable Long id,
+                                                   @Valid @RequestBody(required = false) HoldCaptureDto captureDto) {
+        return ResponseEntity.ok(holdService.capture(id, captureDto != null ? captureDto : new HoldCaptureDto()));
+    }
+
+    @PostMapping("/{id}/liberacion")
+    public ResponseEntity<HoldResponseDto> release(@PathVariable Long id) {
+        return ResponseEntity.ok(holdService.release(id));
+    }
+}
@@ -0,0 +1,41 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.InterestAccrualCreateDto;
+import com.bank.account_service.dto.InterestAccrualResponseDto;
+import com.bank.account_service.service.InterestAccrualService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api/intereses/devengos")
+public class InterestAccrualController {
+
+    private final InterestAccrualService interestAccrualService;
+
+    public InterestAccrualController(InterestAccrualService interestAccrualService) {
+        this.interestAccrualService = Objects.requireNonNull(interestAccrualService,
+                "InterestAccrualService must not be null");
+    }
+
+    /**
+     * Answers 202 once the accrual is planned; the accounts are credited in the background and the
+     * accrual is polled at its Location.
+     */
+    @PostMapping
+    public ResponseEntity<InterestAccrualResponseDto> startAccrual(
+            @Valid @RequestBody InterestAccrualCreateDto accrualDto) {
+        InterestAccrualResponseDto accrual = interestAccrualService.startAccrual(accrualDto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/intereses/devengos/" + accrual.getId()))
+                .body(accrual);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<InterestAccrualResponseDto> getAccrual(@PathVariable Long id) {
+        return ResponseEntity.ok(interestAccrualService.getAccrual(id));
+    }
+}
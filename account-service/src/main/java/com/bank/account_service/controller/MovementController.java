@@ -1,45 +1,163 @@
 package com.bank.account_service.controller;
 
+import com.bank.account_service.dto.MovementBatchItemResultDto;
+import com.bank.account_service.dto.MovementBatchResultDto;
 import com.bank.account_service.dto.MovementCreateDto;
 import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.dto.MovementSubmissionDto;
 import com.bank.account_service.entity.Movement;
+import com.bank.account_service.service.AccountLaneExecutor;
+import com.bank.account_service.service.BalanceEngineService;
+import com.bank.account_service.service.MovementBatchService;
+import com.bank.account_service.service.MovementIdempotencyService;
+import com.bank.account_service.service.MovementPostingService;
 import com.bank.account_service.service.MovementService;
+import com.bank.account_service.service.MovementSubmissionService;
+import com.bank.account_service.utils.PageResponses;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/movimientos")
 public class MovementController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final MovementService movementService;
+    private final MovementBatchService movementBatchService;
+    private final MovementIdempotencyService movementIdempotencyService;
+    private final MovementPostingService movementPostingService;
+    private final AccountLaneExecutor accountLanes;
+    private final BalanceEngineService balanceEngine;
+    private final MovementSubmissionService movementSubmissionService;
+    private final ObjectMapper objectMapper;
 
 
-    public MovementController(MovementService movementService) {
+    public MovementController(MovementService movementService, MovementBatchService movementBatchService,
+                              MovementIdempotencyService movementIdempotencyService,
+                              MovementPostingService movementPostingService,
+                              AccountLaneExecutor accountLanes, BalanceEngineService balanceEngine,
+                              MovementSubmissionService movementSubmissionService, ObjectMapper objectMapper) {
         this.movementService = Objects.requireNonNull(movementService, "MovementService must not be null");
+        this.movementBatchService = Objects.requireNonNull(movementBatchService,
+                "MovementBatchService must not be null");
+        this.movementIdempotencyService = Objects.requireNonNull(movementIdempotencyService,
+                "MovementIdempotencyService must not be null");
+        this.movementPostingService = Objects.requireNonNull(movementPostingService,
+                "MovementPostingService must not be null");
+        this.accountLanes = Objects.requireNonNull(accountLanes, "AccountLaneExecutor must not be null");
+        this.balanceEngine = Objects.requireNonNull(balanceEngine, "BalanceEngineService must not be null");
+        this.movementSubmissionService = Objects.requireNonNull(movementSubmissionService,
+                "MovementSubmissionService must not be null");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "ObjectMapper must not be null");
     }
 
     @PostMapping
-    public ResponseEntity<MovementResponseDto> createMovement(@Valid @RequestBody MovementCreateDto movementDto) {
+    public ResponseEntity<MovementResponseDto> createMovement(
+            @Valid @RequestBody MovementCreateDto movementDto,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return new ResponseEntity<>(movementPostingService.postMovement(movementDto), HttpStatus.CREATED);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        // Replays answer with the original status and body
         return new ResponseEntity<>(
-            movementService.createMovement(movementDto), 
+            accountLanes.execute(movementDto.getCuentaId(),
+                    () -> balanceEngine.exclusive(accountsOf(List.of(movementDto)),
+                            () -> movementIdempotencyService.createMovement(idempotencyKey, movementDto))),
             HttpStatus.CREATED
         );
     }
 
+    /**
+     * Queues the posting and answers 202 with a tracking id to poll; 429 when the queue is full.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<MovementSubmissionDto> submitMovement(@Valid @RequestBody MovementCreateDto movementDto) {
+        MovementSubmissionDto submission = movementSubmissionService.submit(movementDto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/movimientos/async/" + submission.getTrackingId()))
+                .body(submission);
+    }
+
+    @GetMapping("/async/{trackingId}")
+    public ResponseEntity<MovementSubmissionDto> getSubmission(@PathVariable String trackingId) {
+        return ResponseEntity.ok(movementSubmissionService.getSubmission(trackingId));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<MovementBatchResultDto> createMovements(@RequestBody List<MovementCreateDto> movements) {
+        return ResponseEntity.ok(balanceEngine.exclusive(accountsOf(movements),
+                () -> movementBatchService.createMovements(movements)));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<MovementBatchResultDto> createMovementsFromNdjson(InputStream body) throws IOException {
+        try (MappingIterator<MovementCreateDto> lines = objectMapper.readerFor(MovementCreateDto.class)
+                .readValues(body)) {
+            NdjsonMovements movements = new NdjsonMovements(lines);
+            MovementBatchResultDto result;
+            if (balanceEngine.isEnabled()) {
+                // The engine has to know every account up front, so the stream is read in full
+                List<MovementCreateDto> buffered = new ArrayList<>();
+                movements.forEachRemaining(buffered::add);
+                result = balanceEngine.exclusive(accountsOf(buffered),
+                        () -> movementBatchService.createMovementsFromStream(buffered.iterator()));
+            } else {
+                result = movementBatchService.createMovementsFromStream(movements);
+            }
+            if (movements.error != null) {
+                // Earlier lines may already be committed, so the parse failure is reported as the
+                // last item instead of failing the whole request
+                result.getItems().add(MovementBatchItemResultDto.builder()
+                        .index(result.getReceived())
+                        .status(MovementBatchItemResultDto.ItemStatus.REJECTED)
+                        .error("Malformed NDJSON: " + movements.error.getOriginalMessage())
+                        .build());
+                result.setReceived(result.getReceived() + 1);
+                result.setRejected(result.getRejected() + 1);
+            }
+            return ResponseEntity.ok(result);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MovementResponseDto> getMovementById(@PathVariable Long id) {
         return ResponseEntity.ok(movementService.getMovementById(id));
     }
 
     @GetMapping("/account/{accountId}")
-    public ResponseEntity<List<MovementResponseDto>> getMovementsByAccountId(@PathVariable String accountId) {
+    public ResponseEntity<List<MovementResponseDto>> getMovementsByAccountId(
+            @PathVariable String accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        // Unpaged unless the caller asks for a page
+        if (cursor != null || limit != null) {
+            return PageResponses.ok(movementService.getMovementsPageByAccountId(accountId, cursor, limit));
+        }
         return ResponseEntity.ok(movementService.getMovementsByAccountId(accountId));
     }
 
@@ -65,6 +183,61 @@ public class MovementController {
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteMovement(@PathVariable Long id) {
-        movementService.deleteMovement(id);
+        if (!accountLanes.isEnabled() && !balanceEngine.isEnabled()) {
+            movementService.deleteMovement(id);
+            return;
+        }
+        // The lane and the engine account are chosen by the movement's account
+        String numeroCuenta = movementService.getMovementById(id).getCuentaId();
+        accountLanes.run(numeroCuenta, () -> balanceEngine.exclusive(List.of(numeroCuenta), () -> {
+            movementService.deleteMovement(id);
+            return null;
+        }));
+    }
+
+    private static List<String> accountsOf(List<MovementCreateDto> movements) {
+        return movements.stream()
+                .map(MovementCreateDto::getCuentaId)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * NDJSON lines read one at a time; a malformed line ends the stream and is kept in {@code error}.
+     */
+    private static final class NdjsonMovements implements Iterator<MovementCreateDto> {
+        private final MappingIterator<MovementCreateDto> lines;
+        private MovementCreateDto next;
+        private JsonProcessingException error;
+
+        private NdjsonMovements(MappingIterator<MovementCreateDto> lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && error == null) {
+                try {
+                    if (lines.hasNextValue()) {
+                        next = lines.nextValue();
+                    }
+                } catch (JsonProcessingException ex) {
+                    error = ex;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public MovementCreateDto next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            MovementCreateDto current = next;
+            next = null;
+            return current;
+        }
     }
 }
@@ -0,0 +1,61 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.PayrollCreateDto;
+import com.bank.account_service.dto.PayrollPaymentCreateDto;
+import com.bank.account_service.dto.PayrollPaymentResponseDto;
+import com.bank.account_service.dto.PayrollResponseDto;
+import com.bank.account_service.entity.PayrollPayment;
+import com.bank.account_service.service.PayrollService;
+import com.bank.account_service.utils.PageResponses;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api/nominas")
+public class PayrollController {
+
+    private final PayrollService payrollService;
+
+    public PayrollController(PayrollService payrollService) {
+        this.payrollService = Objects.requireNonNull(payrollService, "PayrollService must not be null");
+    }
+
+    /**
+     * Reserves the total from the source account and answers 202; the payments are credited in
+     * the background and the job is polled at its Location.
+     */
+    @PostMapping
+    public ResponseEntity<PayrollResponseDto> createPayroll(@Valid @RequestBody PayrollCreateDto payrollDto) {
+        for (PayrollPaymentCreateDto pago : payrollDto.getPagos()) {
+            if (payrollDto.getCuentaOrigen().equals(pago.getCuentaDestino())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Payments cannot go to the source account");
+            }
+        }
+        PayrollResponseDto payroll = payrollService.createPayroll(payrollDto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/nominas/" + payroll.getId()))
+                .body(payroll);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PayrollResponseDto> getPayroll(@PathVariable Long id) {
+        return ResponseEntity.ok(payrollService.getPayroll(id));
+    }
+
+    @GetMapping("/{id}/pagos")
+    public ResponseEntity<List<PayrollPaymentResponseDto>> getPayments(
+            @PathVariable Long id,
+            @RequestParam(required = false) PayrollPayment.PaymentStatus estado,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(payrollService.getPayments(id, estado, cursor, limit));
+    }
+}
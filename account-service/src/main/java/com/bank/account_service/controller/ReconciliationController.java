@@ -0,0 +1,49 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.ReconciliationDiscrepancyResponseDto;
+import com.bank.account_service.dto.ReconciliationResponseDto;
+import com.bank.account_service.service.ReconciliationService;
+import com.bank.account_service.utils.PageResponses;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api/conciliaciones")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    public ReconciliationController(ReconciliationService reconciliationService) {
+        this.reconciliationService = Objects.requireNonNull(reconciliationService,
+                "ReconciliationService must not be null");
+    }
+
+    /**
+     * Answers 202 once the reconciliation is planned; the accounts are checked in the background
+     * and the reconciliation is polled at its Location.
+     */
+    @PostMapping
+    public ResponseEntity<ReconciliationResponseDto> startReconciliation() {
+        ReconciliationResponseDto reconciliation = reconciliationService.startReconciliation();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/conciliaciones/" + reconciliation.getId()))
+                .body(reconciliation);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReconciliationResponseDto> getReconciliation(@PathVariable Long id) {
+        return ResponseEntity.ok(reconciliationService.getReconciliation(id));
+    }
+
+    @GetMapping("/{id}/discrepancias")
+    public ResponseEntity<List<ReconciliationDiscrepancyResponseDto>> getDiscrepancies(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(reconciliationService.getDiscrepancies(id, cursor, limit));
+    }
+}
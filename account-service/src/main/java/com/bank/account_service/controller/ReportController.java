@@ -1,14 +1,21 @@
 package com.bank.account_service.controller;
 
 import com.bank.account_service.dto.ReportDto;
+import com.bank.account_service.service.ReportExport;
+import com.bank.account_service.service.ReportFormat;
 import com.bank.account_service.service.ReportService;
+import com.bank.account_service.utils.PageResponses;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,7 +36,13 @@ public class ReportController {
     public ResponseEntity<List<ReportDto>> getReportByClientId(
             @PathVariable Long clientId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        // Unpaged unless the caller asks for a page
+        if (cursor != null || limit != null) {
+            return PageResponses.ok(reportService.getReportPageByClientId(clientId, startDate, endDate, cursor, limit));
+        }
         return ResponseEntity.ok(reportService.getReportByClientId(clientId, startDate, endDate));
     }
 
@@ -37,7 +50,44 @@ public class ReportController {
     public ResponseEntity<List<ReportDto>> getReportByPersonaId(
             @PathVariable String personaId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        // Unpaged unless the caller asks for a page
+        if (cursor != null || limit != null) {
+            return PageResponses.ok(reportService.getReportPageByPersonaId(personaId, startDate, endDate, cursor, limit));
+        }
         return ResponseEntity.ok(reportService.getReportByPersonaId(personaId, startDate, endDate));
     }
+
+    @GetMapping("/client/{clientId}/date-range/export")
+    public ResponseEntity<StreamingResponseBody> exportReportByClientId(
+            @PathVariable Long clientId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "NDJSON") ReportFormat format) {
+        return streaming(reportService.exportReportByClientId(clientId, startDate, endDate, format),
+                format, "report-client-" + clientId);
+    }
+
+    @GetMapping("/persona/{personaId}/date-range/export")
+    public ResponseEntity<StreamingResponseBody> exportReportByPersonaId(
+            @PathVariable String personaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "NDJSON") ReportFormat format) {
+        return streaming(reportService.exportReportByPersonaId(personaId, startDate, endDate, format),
+                format, "report-persona-" + personaId);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> streaming(ReportExport export, ReportFormat format,
+                                                                   String fileName) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(export::writeTo);
+    }
 }
@@ -0,0 +1,65 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.StandingOrderCreateDto;
+import com.bank.account_service.dto.StandingOrderExecutionResponseDto;
+import com.bank.account_service.dto.StandingOrderResponseDto;
+import com.bank.account_service.service.StandingOrderService;
+import com.bank.account_service.utils.PageResponses;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api/transferencias/programadas")
+public class StandingOrderController {
+
+    private final StandingOrderService standingOrderService;
+
+    public StandingOrderController(StandingOrderService standingOrderService) {
+        this.standingOrderService = Objects.requireNonNull(standingOrderService,
+                "StandingOrderService must not be null");
+    }
+
+    /**
+     * Schedules a transfer repeated every {@code frecuencia}, an ISO-8601 period such as {@code P1M}
+     * or {@code P7D}, from {@code primeraEjecucion} until {@code fin} if given.
+     */
+    @PostMapping
+    public ResponseEntity<StandingOrderResponseDto> createStandingOrder(
+            @Valid @RequestBody StandingOrderCreateDto orderDto) {
+        if (orderDto.getCuentaOrigen().equals(orderDto.getCuentaDestino())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Source and destination accounts must differ");
+        }
+        if (orderDto.getFin() != null && orderDto.getFin().isBefore(orderDto.getPrimeraEjecucion())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End must not be before the first run");
+        }
+        StandingOrderResponseDto order = standingOrderService.createStandingOrder(orderDto);
+        return ResponseEntity.created(URI.create("/api/transferencias/programadas/" + order.getId()))
+                .body(order);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StandingOrderResponseDto> getStandingOrder(@PathVariable Long id) {
+        return ResponseEntity.ok(standingOrderService.getStandingOrder(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<StandingOrderResponseDto> cancelStandingOrder(@PathVariable Long id) {
+        return ResponseEntity.ok(standingOrderService.cancelStandingOrder(id));
+    }
+
+    @GetMapping("/{id}/ejecuciones")
+    public ResponseEntity<List<StandingOrderExecutionResponseDto>> getExecutions(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(standingOrderService.getExecutions(id, cursor, limit));
+    }
+}
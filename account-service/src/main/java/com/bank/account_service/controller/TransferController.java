@@ -0,0 +1,43 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.TransferCreateDto;
+import com.bank.account_service.dto.TransferResponseDto;
+import com.bank.account_service.service.BalanceEngineService;
+import com.bank.account_service.service.TransferService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api/transferencias")
+public class TransferController {
+
+    private final TransferService transferService;
+    private final BalanceEngineService balanceEngine;
+
+    public TransferController(TransferService transferService, BalanceEngineService balanceEngine) {
+        this.transferService = Objects.requireNonNull(transferService, "TransferService must not be null");
+        this.balanceEngine = Objects.requireNonNull(balanceEngine, "BalanceEngineService must not be null");
+    }
+
+    @PostMapping
+    public ResponseEntity<TransferResponseDto> createTransfer(@Valid @RequestBody TransferCreateDto transferDto) {
+        if (transferDto.getCuentaOrigen().equals(transferDto.getCuentaDestino())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Source and destination accounts must differ");
+        }
+        // Spans two accounts, so it meets other writers on the row locks rather than on a lane
+        return new ResponseEntity<>(
+            balanceEngine.exclusive(List.of(transferDto.getCuentaOrigen(), transferDto.getCuentaDestino()),
+                    () -> transferService.createTransfer(transferDto)),
+            HttpStatus.CREATED
+        );
+    }
+}
@@ -11,6 +11,8 @@ public class AccountResponseDto {
     private AccountType tipoCuenta;
     private BigDecimal saldoInicial;
     private BigDecimal saldoActual;
+    private BigDecimal saldoRetenido;
+    private BigDecimal saldoDisponible;
     private Boolean estado;
     private Long clienteId;
     private LocalDateTime createdAt;
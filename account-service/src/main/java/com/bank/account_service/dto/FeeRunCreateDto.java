@@ -0,0 +1,17 @@
+package com.bank.account_service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class FeeRunCreateDto {
+    @NotNull(message = "Cut-off date is required")
+    private LocalDate fechaCorte;
+
+    @NotNull(message = "Fee is required")
+    @Positive(message = "Fee must be positive")
+    private BigDecimal comision;
+}
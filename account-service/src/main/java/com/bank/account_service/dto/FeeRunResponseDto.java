@@ -0,0 +1,31 @@
+package com.bank.account_service.dto;
+
+import com.bank.account_service.entity.FeeRun;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeRunResponseDto {
+    private Long id;
+    private LocalDate fechaCorte;
+    private BigDecimal comision;
+    private FeeRun.FeeRunStatus estado;
+    private int tramos;
+    private long tramosPendientes;
+    private long cuentas;
+    private long omitidas;
+    private BigDecimal total;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private long elapsedMillis;
+    private double cuentasPorSegundo;
+}
@@ -0,0 +1,17 @@
+package com.bank.account_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeRunSkipResponseDto {
+    private String numeroCuenta;
+    private BigDecimal disponible;
+}
@@ -0,0 +1,17 @@
+package com.bank.account_service.dto;
+
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import java.math.BigDecimal;
+
+/**
+ * Capture of a hold; without {@code valor} the whole hold is captured, with a smaller one the rest
+ * is released.
+ */
+@Data
+public class HoldCaptureDto {
+    @Positive(message = "Amount must be positive")
+    private BigDecimal valor;
+
+    private String descripcion;
+}
@@ -0,0 +1,18 @@
+package com.bank.account_service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+public class HoldCreateDto {
+    @NotNull(message = "Account is required")
+    private String cuentaId;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private BigDecimal valor;
+
+    private String descripcion;
+}
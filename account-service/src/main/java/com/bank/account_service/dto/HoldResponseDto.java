@@ -0,0 +1,27 @@
+package com.bank.account_service.dto;
+
+import com.bank.account_service.entity.Hold;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldResponseDto {
+    private Long id;
+    private String cuentaId;
+    private BigDecimal valor;
+    private BigDecimal valorCapturado;
+    private String descripcion;
+    private Hold.HoldStatus estado;
+    private Long movimientoId;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private LocalDateTime finishedAt;
+}
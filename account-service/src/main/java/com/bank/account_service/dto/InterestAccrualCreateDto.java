@@ -0,0 +1,24 @@
+package com.bank.account_service.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class InterestAccrualCreateDto {
+    @NotNull(message = "Cut-off date is required")
+    private LocalDate fechaCorte;
+
+    // Percent a year
+    @NotNull(message = "Annual rate is required")
+    @Positive(message = "Annual rate must be positive")
+    private BigDecimal tasaAnual;
+
+    @NotNull(message = "Days are required")
+    @Positive(message = "Days must be positive")
+    @Max(value = 366, message = "Days cannot exceed a year")
+    private Integer dias;
+}
@@ -0,0 +1,31 @@
+package com.bank.account_service.dto;
+
+import com.bank.account_service.entity.InterestAccrual;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterestAccrualResponseDto {
+    private Long id;
+    private LocalDate fechaCorte;
+    private BigDecimal tasaAnual;
+    private int dias;
+    private InterestAccrual.AccrualStatus estado;
+    private int tramos;
+    private long tramosPendientes;
+    private long cuentas;
+    private BigDecimal total;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private long elapsedMillis;
+    private double cuentasPorSegundo;
+}
@@ -0,0 +1,25 @@
+package com.bank.account_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovementBatchItemResultDto {
+    private int index;
+    private String cuentaId;
+    private ItemStatus status;
+    private Long movementId;
+    private BigDecimal saldo;
+    private String error;
+
+    public enum ItemStatus {
+        ACCEPTED, REJECTED
+    }
+}
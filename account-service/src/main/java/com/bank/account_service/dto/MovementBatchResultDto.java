@@ -0,0 +1,21 @@
+package com.bank.account_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovementBatchResultDto {
+    private int received;
+    private int accepted;
+    private int rejected;
+    private long elapsedMillis;
+    private double movementsPerSecond;
+    private List<MovementBatchItemResultDto> items;
+}
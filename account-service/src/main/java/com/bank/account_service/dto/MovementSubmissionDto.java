@@ -0,0 +1,21 @@
+package com.bank.account_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovementSubmissionDto {
+    private String trackingId;
+    private SubmissionStatus status;
+    private MovementResponseDto movimiento;
+    private String error;
+
+    public enum SubmissionStatus {
+        PENDING, COMPLETED, REJECTED
+    }
+}
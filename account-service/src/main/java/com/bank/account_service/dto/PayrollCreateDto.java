@@ -0,0 +1,18 @@
+package com.bank.account_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class PayrollCreateDto {
+    @NotNull(message = "Source account is required")
+    private String cuentaOrigen;
+
+    private String descripcion;
+
+    @NotEmpty(message = "At least one payment is required")
+    private List<@Valid PayrollPaymentCreateDto> pagos;
+}
@@ -0,0 +1,16 @@
+package com.bank.account_service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+public class PayrollPaymentCreateDto {
+    @NotNull(message = "Destination account is required")
+    private String cuentaDestino;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private BigDecimal valor;
+}
@@ -0,0 +1,22 @@
+package com.bank.account_service.dto;
+
+import com.bank.account_service.entity.PayrollPayment;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollPaymentResponseDto {
+    private int indice;
+    private String cuentaDestino;
+    private BigDecimal valor;
+    private PayrollPayment.PaymentStatus estado;
+    private Long movimientoId;
+    private String error;
+}
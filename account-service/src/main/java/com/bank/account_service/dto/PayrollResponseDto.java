@@ -0,0 +1,37 @@
+package com.bank.account_service.dto;
+
+import com.bank.account_service.entity.Payroll;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a payroll job. {@code debito} is the single debit that reserved the total;
+ * {@code reintegro} credits back the rejected payments once the job completes. Elapsed time runs
+ * from creation to completion, or to now while the job runs.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollResponseDto {
+    private Long id;
+    private String cuentaOrigen;
+    private String descripcion;
+    private BigDecimal total;
+    private Payroll.PayrollStatus estado;
+    private int pagos;
+    private long acreditados;
+    private long rechazados;
+    private long pendientes;
+    private MovementResponseDto debito;
+    private MovementResponseDto reintegro;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private long elapsedMillis;
+    private double pagosPorSegundo;
+}
@@ -0,0 +1,23 @@
+package com.bank.account_service.dto;
+
+import com.bank.account_service.entity.ReconciliationDiscrepancy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationDiscrepancyResponseDto {
+    private Long id;
+    private String numeroCuenta;
+    private ReconciliationDiscrepancy.DiscrepancyType tipo;
+    private Long movimientoId;
+    private BigDecimal esperado;
+    private BigDecimal registrado;
+    private Long movimientosAfectados;
+}
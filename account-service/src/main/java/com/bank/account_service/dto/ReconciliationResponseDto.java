@@ -0,0 +1,27 @@
+package com.bank.account_service.dto;
+
+import com.bank.account_service.entity.Reconciliation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationResponseDto {
+    private Long id;
+    private Reconciliation.ReconciliationStatus estado;
+    private int tramos;
+    private long tramosPendientes;
+    private long cuentas;
+    private long movimientos;
+    private long discrepancias;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private long elapsedMillis;
+    private double movimientosPorSegundo;
+}
@@ -0,0 +1,32 @@
+package com.bank.account_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class StandingOrderCreateDto {
+    @NotNull(message = "Source account is required")
+    private String cuentaOrigen;
+
+    @NotNull(message = "Destination account is required")
+    private String cuentaDestino;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private BigDecimal valor;
+
+    private String descripcion;
+
+    // ISO-8601 period between runs, e.g. P1M or P7D
+    @NotBlank(message = "Frequency is required")
+    private String frecuencia;
+
+    @NotNull(message = "First run is required")
+    private LocalDateTime primeraEjecucion;
+
+    private LocalDateTime fin;
+}
@@ -0,0 +1,23 @@
+package com.bank.account_service.dto;
+
+import com.bank.account_service.entity.StandingOrderExecution;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandingOrderExecutionResponseDto {
+    private int numero;
+    private LocalDateTime fechaProgramada;
+    private StandingOrderExecution.ExecutionStatus estado;
+    private Long debitoId;
+    private Long creditoId;
+    private String error;
+    private LocalDateTime executedAt;
+}
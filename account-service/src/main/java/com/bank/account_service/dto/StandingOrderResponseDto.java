@@ -0,0 +1,29 @@
+package com.bank.account_service.dto;
+
+import com.bank.account_service.entity.StandingOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandingOrderResponseDto {
+    private Long id;
+    private String cuentaOrigen;
+    private String cuentaDestino;
+    private BigDecimal valor;
+    private String descripcion;
+    private String frecuencia;
+    private LocalDateTime primeraEjecucion;
+    private LocalDateTime fin;
+    private LocalDateTime proximaEjecucion;
+    private int ejecuciones;
+    private StandingOrder.StandingOrderStatus estado;
+    private LocalDateTime createdAt;
+}
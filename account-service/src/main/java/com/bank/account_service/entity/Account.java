@@ -7,11 +7,16 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -20,7 +25,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "cuentas")
+@Table(name = "cuentas", indexes = {
+        @Index(name = "idx_cuentas_cliente_id", columnList = "cliente_id"),
+        @Index(name = "idx_cuentas_tipo_numero", columnList = "tipo_cuenta, numero_cuenta")})
 @Data
 public class Account {
     @Id
@@ -37,14 +44,26 @@ public class Account {
     @Column(name = "saldo_actual", nullable = false, precision = 15, scale = 2)
     private BigDecimal saldoActual = BigDecimal.ZERO;
 
+    // Sub-balances of a split account; saldo_actual plus this is the account's balance
+    @Formula("(SELECT COALESCE(SUM(s.saldo), 0) FROM cuenta_subsaldos s WHERE s.numero_cuenta = numero_cuenta)")
+    private BigDecimal saldoSubCuentas = BigDecimal.ZERO;
+
+    // Total of the active holds; the available balance is the balance minus this
+    @Column(name = "saldo_retenido", nullable = false, precision = 15, scale = 2)
+    @ColumnDefault("0")
+    private BigDecimal saldoRetenido = BigDecimal.ZERO;
+
     @Column(nullable = false)
     private Boolean estado = true;
 
     @Column(name = "cliente_id", nullable = false)
     private Long clienteId;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // Lazy and left out of equals/hashCode/toString so reading an account never loads its history
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "numero_cuenta")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Movement> movimientos = new ArrayList<>();
 
     @CreationTimestamp
@@ -84,6 +103,8 @@ public class Account {
         this.tipoCuenta = cuenta.tipoCuenta;
         this.saldoInicial = cuenta.saldoInicial;
         this.saldoActual = cuenta.saldoActual;
+        this.saldoSubCuentas = cuenta.saldoSubCuentas;
+        this.saldoRetenido = cuenta.saldoRetenido;
         this.estado =cuenta. estado;
         this.clienteId = cuenta.clienteId;
         this.movimientos = cuenta.movimientos == null ? null : new ArrayList<>(cuenta.movimientos);
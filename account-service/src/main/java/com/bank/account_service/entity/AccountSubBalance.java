@@ -0,0 +1,52 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One sub-balance of a split account.
+ * <p>
+ * A split account's balance is {@code cuentas.saldo_actual} plus the sum of its sub-balances.
+ * Single postings touch one sub-balance row instead of the shared {@code cuentas} row.
+ */
+@Entity
+@Table(name = "cuenta_subsaldos")
+@IdClass(AccountSubBalance.Key.class)
+@Data
+public class AccountSubBalance {
+    @Id
+    @Column(name = "numero_cuenta", nullable = false)
+    private String numeroCuenta;
+
+    @Id
+    @Column(name = "slot", nullable = false)
+    private Integer slot;
+
+    @Column(name = "saldo", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldo = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private String numeroCuenta;
+        private Integer slot;
+    }
+}
@@ -0,0 +1,60 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A maintenance fee run over the CORRIENTE accounts: a {@code comision} DEBITO on each of them,
+ * charged once per {@code fechaCorte}. The accounts are split into {@code tramos} key ranges, each
+ * settled by one {@link FeeRunChunk}; {@code cuentas}, {@code omitidas} and {@code total} are
+ * filled in when the run completes.
+ */
+@Entity
+@Table(name = "cobros_comision")
+@Data
+public class FeeRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "fecha_corte", nullable = false, unique = true)
+    private LocalDate fechaCorte;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal comision;
+
+    @Column(nullable = false)
+    private Integer tramos;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private FeeRunStatus estado;
+
+    private Long cuentas;
+
+    private Long omitidas;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum FeeRunStatus {
+        RUNNING, COMPLETED
+    }
+}
@@ -0,0 +1,74 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of one key range of a fee run: the CORRIENTE accounts with
+ * {@code desde < numero_cuenta <= hasta}. It turns DONE in the transaction that charges them, with
+ * the accounts charged, those skipped for insufficient funds, the fees and the time it took.
+ */
+@Entity
+@Table(name = "cobro_comision_tramos")
+@IdClass(FeeRunChunk.Key.class)
+@Data
+public class FeeRunChunk {
+    @Id
+    @Column(name = "cobro_id", nullable = false)
+    private Long cobroId;
+
+    @Id
+    @Column(name = "tramo", nullable = false)
+    private Integer tramo;
+
+    @Column(nullable = false)
+    private String desde;
+
+    @Column(nullable = false)
+    private String hasta;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ChunkStatus estado;
+
+    private Integer cuentas;
+
+    private Integer omitidas;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "duracion_ms")
+    private Long duracionMs;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum ChunkStatus {
+        PENDING, DONE
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private Long cobroId;
+        private Integer tramo;
+    }
+}
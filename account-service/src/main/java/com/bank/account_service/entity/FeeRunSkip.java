@@ -0,0 +1,46 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * An account a fee run did not charge because its available balance, net of held funds, did not
+ * cover the fee.
+ */
+@Entity
+@Table(name = "cobro_comision_omisiones")
+@IdClass(FeeRunSkip.Key.class)
+@Data
+public class FeeRunSkip {
+    @Id
+    @Column(name = "cobro_id", nullable = false)
+    private Long cobroId;
+
+    @Id
+    @Column(name = "numero_cuenta", nullable = false)
+    private String numeroCuenta;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal disponible;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private Long cobroId;
+        private String numeroCuenta;
+    }
+}
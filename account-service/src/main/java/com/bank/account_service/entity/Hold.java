@@ -0,0 +1,61 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A card authorization: while ACTIVE its amount counts in {@code cuentas.saldo_retenido} and is not
+ * available to debits. Capturing it posts a DEBITO movement ({@code movimientoId}); releasing it, or
+ * the sweeper once {@code expiresAt} passes, gives the funds back.
+ */
+@Entity
+@Table(name = "retenciones",
+        indexes = @Index(name = "idx_retenciones_estado_expires_at", columnList = "estado, expires_at"))
+@Data
+public class Hold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "numero_cuenta", nullable = false)
+    private String numeroCuenta;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    @Column(name = "valor_capturado", precision = 15, scale = 2)
+    private BigDecimal valorCapturado;
+
+    private String descripcion;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private HoldStatus estado;
+
+    @Column(name = "movimiento_id")
+    private Long movimientoId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum HoldStatus {
+        ACTIVE, CAPTURED, RELEASED, EXPIRED
+    }
+}
@@ -0,0 +1,61 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An interest accrual run over the AHORRO accounts: {@code dias} days of interest at
+ * {@code tasaAnual} percent a year, credited once per {@code fechaCorte}. The accounts are split
+ * into {@code tramos} key ranges, each settled by one {@link InterestAccrualChunk}; {@code cuentas}
+ * and {@code total} are filled in when the run completes.
+ */
+@Entity
+@Table(name = "devengos_interes")
+@Data
+public class InterestAccrual {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "fecha_corte", nullable = false, unique = true)
+    private LocalDate fechaCorte;
+
+    @Column(name = "tasa_anual", nullable = false, precision = 7, scale = 4)
+    private BigDecimal tasaAnual;
+
+    @Column(nullable = false)
+    private Integer dias;
+
+    @Column(nullable = false)
+    private Integer tramos;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private AccrualStatus estado;
+
+    private Long cuentas;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum AccrualStatus {
+        RUNNING, COMPLETED
+    }
+}
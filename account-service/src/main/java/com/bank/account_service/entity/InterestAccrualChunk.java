@@ -0,0 +1,72 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of one key range of an interest accrual: the AHORRO accounts with
+ * {@code desde < numero_cuenta <= hasta}. It turns DONE in the transaction that credits them, with
+ * the accounts credited, the interest and the time it took.
+ */
+@Entity
+@Table(name = "devengo_interes_tramos")
+@IdClass(InterestAccrualChunk.Key.class)
+@Data
+public class InterestAccrualChunk {
+    @Id
+    @Column(name = "devengo_id", nullable = false)
+    private Long devengoId;
+
+    @Id
+    @Column(name = "tramo", nullable = false)
+    private Integer tramo;
+
+    @Column(nullable = false)
+    private String desde;
+
+    @Column(nullable = false)
+    private String hasta;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ChunkStatus estado;
+
+    private Integer cuentas;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "duracion_ms")
+    private Long duracionMs;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum ChunkStatus {
+        PENDING, DONE
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private Long devengoId;
+        private Integer tramo;
+    }
+}
@@ -11,13 +11,17 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "movimientos")
+@Table(name = "movimientos",
+        indexes = @Index(name = "idx_movimientos_cuenta_fecha", columnList = "numero_cuenta, fecha DESC"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Movement {
+    // Pooled sequence ids (not IDENTITY) so Hibernate can batch movement inserts; databases created
+    // before the switch need BaseDatos_upgrade.sql to move the sequence to the same increment
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_seq")
+    @SequenceGenerator(name = "movimientos_seq", sequenceName = "movimientos_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "numero_cuenta", nullable = false)
@@ -0,0 +1,38 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * An {@code Idempotency-Key} seen on {@code POST /api/movimientos} and the response it produced.
+ * <p>
+ * The key is the primary key, so a second node inserting the same key blocks until the first
+ * transaction ends and then fails instead of posting twice.
+ */
+@Entity
+@Table(name = "movimiento_claves_idempotencia",
+        indexes = @Index(name = "idx_movimiento_claves_idempotencia_created_at", columnList = "created_at"))
+@Data
+public class MovementIdempotencyKey {
+    @Id
+    @Column(name = "idempotency_key", nullable = false, length = 255)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "movement_id")
+    private Long movementId;
+
+    @Column(name = "response", columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,59 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A payroll job: the total is debited from {@code cuentaOrigen} once when the job is created, and
+ * the payments in {@code nomina_pagos} are credited from that reserve. Rejected payments are
+ * credited back to the source account when the job completes.
+ */
+@Entity
+@Table(name = "nominas")
+@Data
+public class Payroll {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cuenta_origen", nullable = false)
+    private String cuentaOrigen;
+
+    private String descripcion;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    private Integer pagos;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private PayrollStatus estado;
+
+    @Column(name = "debito_id")
+    private Long debitoId;
+
+    @Column(name = "reintegro_id")
+    private Long reintegroId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum PayrollStatus {
+        RUNNING, COMPLETED
+    }
+}
@@ -0,0 +1,63 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * One recipient of a payroll job, in the order the payments were submitted.
+ */
+@Entity
+@Table(name = "nomina_pagos")
+@IdClass(PayrollPayment.Key.class)
+@Data
+public class PayrollPayment {
+    @Id
+    @Column(name = "nomina_id", nullable = false)
+    private Long nominaId;
+
+    @Id
+    @Column(name = "indice", nullable = false)
+    private Integer indice;
+
+    @Column(name = "cuenta_destino", nullable = false)
+    private String cuentaDestino;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus estado;
+
+    @Column(name = "movimiento_id")
+    private Long movimientoId;
+
+    private String error;
+
+    public enum PaymentStatus {
+        PENDING, POSTED, REJECTED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private Long nominaId;
+        private Integer indice;
+    }
+}
@@ -0,0 +1,51 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A ledger reconciliation run: every account's movements checked against their running balances
+ * and the account's balance. The accounts are split into {@code tramos} key ranges, each verified
+ * by one {@link ReconciliationChunk}; {@code cuentas}, {@code movimientos} and
+ * {@code discrepancias} are filled in when the run completes.
+ */
+@Entity
+@Table(name = "conciliaciones")
+@Data
+public class Reconciliation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer tramos;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ReconciliationStatus estado;
+
+    private Long cuentas;
+
+    private Long movimientos;
+
+    private Long discrepancias;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum ReconciliationStatus {
+        RUNNING, COMPLETED
+    }
+}
@@ -0,0 +1,72 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of one key range of a reconciliation: the accounts with
+ * {@code desde < numero_cuenta <= hasta}. It turns DONE in the transaction that stores their
+ * discrepancies, with the accounts and movements checked and the time it took.
+ */
+@Entity
+@Table(name = "conciliacion_tramos")
+@IdClass(ReconciliationChunk.Key.class)
+@Data
+public class ReconciliationChunk {
+    @Id
+    @Column(name = "conciliacion_id", nullable = false)
+    private Long conciliacionId;
+
+    @Id
+    @Column(name = "tramo", nullable = false)
+    private Integer tramo;
+
+    @Column(nullable = false)
+    private String desde;
+
+    @Column(nullable = false)
+    private String hasta;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ChunkStatus estado;
+
+    private Integer cuentas;
+
+    private Long movimientos;
+
+    private Integer discrepancias;
+
+    @Column(name = "duracion_ms")
+    private Long duracionMs;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum ChunkStatus {
+        PENDING, DONE
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private Long conciliacionId;
+        private Integer tramo;
+    }
+}
@@ -0,0 +1,58 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * A disagreement found by a reconciliation.
+ * <p>
+ * MOVIMIENTO: the first movement of the account whose {@code saldo} is not the opening balance
+ * plus the movements before it; {@code movimientosAfectados} counts every movement of the account
+ * that disagrees; split accounts are not checked. CUENTA: the account's balance, sub-balances included, is not the opening balance
+ * plus all its movements.
+ */
+@Entity
+@Table(name = "conciliacion_discrepancias",
+        indexes = @Index(name = "idx_conciliacion_discrepancias", columnList = "conciliacion_id, id"))
+@Data
+public class ReconciliationDiscrepancy {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "conciliacion_id", nullable = false)
+    private Long conciliacionId;
+
+    @Column(name = "numero_cuenta", nullable = false)
+    private String numeroCuenta;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private DiscrepancyType tipo;
+
+    @Column(name = "movimiento_id")
+    private Long movimientoId;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal esperado;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal registrado;
+
+    @Column(name = "movimientos_afectados")
+    private Long movimientosAfectados;
+
+    public enum DiscrepancyType {
+        MOVIMIENTO, CUENTA
+    }
+}
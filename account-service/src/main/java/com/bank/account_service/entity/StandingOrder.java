@@ -0,0 +1,67 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A recurring transfer. Run {@code n} is due at {@code primeraEjecucion} plus {@code n} times
+ * {@code frecuencia} (an ISO-8601 period such as {@code P1M}), so month ends do not drift;
+ * {@code ejecuciones} counts the runs made and {@code proximaEjecucion} is when the next one is due.
+ * The order completes once the next run would fall after {@code fin}.
+ */
+@Entity
+@Table(name = "ordenes_permanentes",
+        indexes = @Index(name = "idx_ordenes_permanentes_estado_proxima", columnList = "estado, proxima_ejecucion"))
+@Data
+public class StandingOrder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cuenta_origen", nullable = false)
+    private String cuentaOrigen;
+
+    @Column(name = "cuenta_destino", nullable = false)
+    private String cuentaDestino;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    private String descripcion;
+
+    @Column(nullable = false)
+    private String frecuencia;
+
+    @Column(name = "primera_ejecucion", nullable = false)
+    private LocalDateTime primeraEjecucion;
+
+    private LocalDateTime fin;
+
+    @Column(name = "proxima_ejecucion")
+    private LocalDateTime proximaEjecucion;
+
+    @Column(nullable = false)
+    private Integer ejecuciones;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private StandingOrderStatus estado;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum StandingOrderStatus {
+        ACTIVE, CANCELLED, COMPLETED
+    }
+}
@@ -0,0 +1,66 @@
+package com.bank.account_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * The outcome of run {@code numero} of a standing order; the primary key allows one per run.
+ */
+@Entity
+@Table(name = "orden_permanente_ejecuciones")
+@IdClass(StandingOrderExecution.Key.class)
+@Data
+public class StandingOrderExecution {
+    @Id
+    @Column(name = "orden_id", nullable = false)
+    private Long ordenId;
+
+    @Id
+    @Column(name = "numero", nullable = false)
+    private Integer numero;
+
+    @Column(name = "fecha_programada", nullable = false)
+    private LocalDateTime fechaProgramada;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ExecutionStatus estado;
+
+    @Column(name = "debito_id")
+    private Long debitoId;
+
+    @Column(name = "credito_id")
+    private Long creditoId;
+
+    private String error;
+
+    @Column(name = "executed_at", nullable = false)
+    private LocalDateTime executedAt;
+
+    public enum ExecutionStatus {
+        POSTED, REJECTED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private Long ordenId;
+        private Integer numero;
+    }
+}
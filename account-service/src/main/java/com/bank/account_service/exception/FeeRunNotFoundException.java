@@ -0,0 +1,16 @@
+package com.bank.account_service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.Serial;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class FeeRunNotFoundException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public FeeRunNotFoundException(String message) {
+        super(message);
+    }
+}
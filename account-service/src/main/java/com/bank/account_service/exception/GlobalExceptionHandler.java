@@ -42,6 +42,177 @@ public class GlobalExceptionHandler {
             .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
     }
 
+    @ExceptionHandler(DailyDebitLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleDailyDebitLimitExceeded(
+            DailyDebitLimitExceededException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY;
+        log.debug("Daily debit limit exceeded: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(VelocityLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleVelocityLimitExceeded(
+            VelocityLimitExceededException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        log.debug("Velocity limit exceeded: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<Map<String, Object>> handleBatchTooLarge(
+            BatchTooLargeException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.PAYLOAD_TOO_LARGE;
+        log.debug("Batch too large: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCursor(
+            InvalidCursorException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        log.debug("Invalid cursor: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyReused(
+            IdempotencyKeyReusedException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY;
+        log.debug("Idempotency key reused: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyInProgress(
+            IdempotencyKeyInProgressException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT;
+        log.debug("Idempotency key in progress: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(SubmissionQueueFullException.class)
+    public ResponseEntity<Map<String, Object>> handleSubmissionQueueFull(
+            SubmissionQueueFullException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        log.debug("Submission queue full: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(SubmissionNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleSubmissionNotFound(
+            SubmissionNotFoundException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.NOT_FOUND;
+        log.debug("Submission not found: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(PayrollNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handlePayrollNotFound(
+            PayrollNotFoundException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.NOT_FOUND;
+        log.debug("Payroll not found: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(HoldNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleHoldNotFound(
+            HoldNotFoundException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.NOT_FOUND;
+        log.debug("Hold not found: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(InvalidHoldOperationException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidHoldOperation(
+            InvalidHoldOperationException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT;
+        log.debug("Invalid hold operation: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(StandingOrderNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleStandingOrderNotFound(
+            StandingOrderNotFoundException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.NOT_FOUND;
+        log.debug("Standing order not found: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(InvalidFrequencyException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidFrequency(
+            InvalidFrequencyException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        log.debug("Invalid frequency: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(InterestAccrualNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleInterestAccrualNotFound(
+            InterestAccrualNotFoundException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.NOT_FOUND;
+        log.debug("Interest accrual not found: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(InterestAccrualExistsException.class)
+    public ResponseEntity<Map<String, Object>> handleInterestAccrualExists(
+            InterestAccrualExistsException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT;
+        log.debug("Interest accrual exists: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(FeeRunNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleFeeRunNotFound(
+            FeeRunNotFoundException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.NOT_FOUND;
+        log.debug("Fee run not found: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(FeeRunExistsException.class)
+    public ResponseEntity<Map<String, Object>> handleFeeRunExists(
+            FeeRunExistsException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT;
+        log.debug("Fee run exists: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(ReconciliationNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleReconciliationNotFound(
+            ReconciliationNotFoundException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.NOT_FOUND;
+        log.debug("Reconciliation not found: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
+    @ExceptionHandler(ReconciliationRunningException.class)
+    public ResponseEntity<Map<String, Object>> handleReconciliationRunning(
+            ReconciliationRunningException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT;
+        log.debug("Reconciliation running: {}", ex.getMessage());
+        return ResponseEntity.status(status)
+            .body(buildErrorBody(status, ex.getMessage(), request.getRequestURI(), null));
+    }
+
     private Map<String, Object> buildErrorBody(HttpStatus status, String message, String path, Map<String,
             String> validationErrors) {
         Map<String, Object> body = new LinkedHashMap<>();
@@ -0,0 +1,16 @@
+package com.bank.account_service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.Serial;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ReconciliationRunningException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public ReconciliationRunningException(String message) {
+        super(message);
+    }
+}
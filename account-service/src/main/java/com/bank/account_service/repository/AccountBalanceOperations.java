@@ -0,0 +1,55 @@
+package com.bank.account_service.repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Single-statement balance changes on {@code cuentas}.
+ * <p>
+ * Each operation checks and changes the balance in one conditional UPDATE and returns the
+ * resulting {@code saldo_actual}, so concurrent postings cannot lose updates and no
+ * application-level lock is needed. An empty result means the row did not qualify
+ * (unknown or inactive account, or not enough funds for a debit). Funds count as available only
+ * above {@code saldo_retenido}, the total of the account's active holds.
+ */
+public interface AccountBalanceOperations {
+
+    Optional<BigDecimal> debit(String numeroCuenta, BigDecimal amount);
+
+    Optional<BigDecimal> credit(String numeroCuenta, BigDecimal amount);
+
+    /**
+     * Adds {@code delta} (negative to subtract) whatever the status and funds of the account, for
+     * reversing a movement that is removed.
+     */
+    Optional<BigDecimal> adjust(String numeroCuenta, BigDecimal delta);
+
+    /**
+     * Adds {@code amount} to the held funds of an active account whose available balance covers it;
+     * {@code false} otherwise.
+     */
+    boolean hold(String numeroCuenta, BigDecimal amount);
+
+    /**
+     * Takes {@code amount} off the held funds whatever the status of the account, for a hold that is
+     * captured, released or expires. Returns {@code false} for an unknown account.
+     */
+    boolean releaseHold(String numeroCuenta, BigDecimal amount);
+
+    /**
+     * Changes only {@code estado}, so a status change never writes back a balance read before a
+     * concurrent posting. Returns {@code false} for an unknown account.
+     */
+    boolean setEstado(String numeroCuenta, boolean estado);
+
+    /**
+     * Reads the balance with a row lock held until the surrounding transaction ends, for
+     * callers that apply several movements to one account and write the result once.
+     */
+    Optional<AccountBalanceView> lockBalance(String numeroCuenta);
+
+    /**
+     * Overwrites the balance of an account whose row the caller has locked with {@link #lockBalance}.
+     */
+    void setBalance(String numeroCuenta, BigDecimal saldoActual);
+}
@@ -0,0 +1,108 @@
+package com.bank.account_service.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public class AccountBalanceOperationsImpl implements AccountBalanceOperations {
+
+    private static final String DEBIT_UPDATE = "UPDATE cuentas SET saldo_actual = saldo_actual - ?, updated_at = ? " +
+            "WHERE numero_cuenta = ? AND estado = TRUE AND saldo_actual - saldo_retenido >= ?";
+
+    private static final String CREDIT_UPDATE = "UPDATE cuentas SET saldo_actual = saldo_actual + ?, updated_at = ? " +
+            "WHERE numero_cuenta = ? AND estado = TRUE";
+
+    private static final String ADJUST_UPDATE = "UPDATE cuentas SET saldo_actual = saldo_actual + ?, updated_at = ? " +
+            "WHERE numero_cuenta = ?";
+
+    private static final String HOLD_UPDATE = "UPDATE cuentas SET saldo_retenido = saldo_retenido + ?, " +
+            "updated_at = ? WHERE numero_cuenta = ? AND estado = TRUE AND saldo_actual - saldo_retenido >= ?";
+
+    private static final String RELEASE_HOLD_UPDATE = "UPDATE cuentas SET saldo_retenido = saldo_retenido - ?, " +
+            "updated_at = ? WHERE numero_cuenta = ?";
+
+    private static final String SET_ESTADO = "UPDATE cuentas SET estado = ?, updated_at = ? WHERE numero_cuenta = ?";
+
+    private static final String LOCK_BALANCE = "SELECT numero_cuenta, saldo_actual, saldo_retenido, estado " +
+            "FROM cuentas WHERE numero_cuenta = ? FOR UPDATE";
+
+    private static final String SET_BALANCE = "UPDATE cuentas SET saldo_actual = ?, updated_at = ? " +
+            "WHERE numero_cuenta = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean supportsReturning;
+
+    public AccountBalanceOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<BigDecimal> debit(String numeroCuenta, BigDecimal amount) {
+        return execute(DEBIT_UPDATE, amount, Timestamp.valueOf(LocalDateTime.now()), numeroCuenta, amount);
+    }
+
+    @Override
+    public Optional<BigDecimal> credit(String numeroCuenta, BigDecimal amount) {
+        return execute(CREDIT_UPDATE, amount, Timestamp.valueOf(LocalDateTime.now()), numeroCuenta);
+    }
+
+    @Override
+    public Optional<BigDecimal> adjust(String numeroCuenta, BigDecimal delta) {
+        return execute(ADJUST_UPDATE, delta, Timestamp.valueOf(LocalDateTime.now()), numeroCuenta);
+    }
+
+    @Override
+    public boolean hold(String numeroCuenta, BigDecimal amount) {
+        return jdbcTemplate.update(HOLD_UPDATE, amount, Timestamp.valueOf(LocalDateTime.now()), numeroCuenta,
+                amount) > 0;
+    }
+
+    @Override
+    public boolean releaseHold(String numeroCuenta, BigDecimal amount) {
+        return jdbcTemplate.update(RELEASE_HOLD_UPDATE, amount, Timestamp.valueOf(LocalDateTime.now()),
+                numeroCuenta) > 0;
+    }
+
+    @Override
+    public boolean setEstado(String numeroCuenta, boolean estado) {
+        return jdbcTemplate.update(SET_ESTADO, estado, Timestamp.valueOf(LocalDateTime.now()), numeroCuenta) > 0;
+    }
+
+    @Override
+    public Optional<AccountBalanceView> lockBalance(String numeroCuenta) {
+        return jdbcTemplate.query(LOCK_BALANCE, rs -> rs.next()
+                ? Optional.<AccountBalanceView>of(new LockedBalance(rs.getString(1), rs.getBigDecimal(2),
+                        rs.getBigDecimal(3), rs.getBoolean(4)))
+                : Optional.empty(), numeroCuenta);
+    }
+
+    @Override
+    public void setBalance(String numeroCuenta, BigDecimal saldoActual) {
+        jdbcTemplate.update(SET_BALANCE, saldoActual, Timestamp.valueOf(LocalDateTime.now()), numeroCuenta);
+    }
+
+    private Optional<BigDecimal> execute(String update, Object... args) {
+        return jdbcTemplate.query(returningBalance(update), rs -> rs.next()
+                ? Optional.of(rs.getBigDecimal(1))
+                : Optional.<BigDecimal>empty(), args);
+    }
+
+    /**
+     * PostgreSQL returns the new balance with {@code RETURNING}; H2 (tests) offers the same
+     * single-statement semantics through a data change delta table.
+     */
+    private String returningBalance(String update) {
+        if (supportsReturning == null) {
+            supportsReturning = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        }
+        return Boolean.TRUE.equals(supportsReturning)
+                ? update + " RETURNING saldo_actual"
+                : "SELECT saldo_actual FROM FINAL TABLE (" + update + ")";
+    }
+}
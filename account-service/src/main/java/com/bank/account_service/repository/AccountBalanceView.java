@@ -0,0 +1,17 @@
+package com.bank.account_service.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance-only projection of {@code cuentas}, used by the posting path so that
+ * the account's movement history is never loaded.
+ */
+public interface AccountBalanceView {
+    String getNumeroCuenta();
+
+    BigDecimal getSaldoActual();
+
+    BigDecimal getSaldoRetenido();
+
+    Boolean getEstado();
+}
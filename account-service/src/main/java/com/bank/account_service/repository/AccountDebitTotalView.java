@@ -0,0 +1,13 @@
+package com.bank.account_service.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Sum of an account's debits over a period.
+ */
+public interface AccountDebitTotalView {
+
+    String getNumeroCuenta();
+
+    BigDecimal getTotal();
+}
@@ -0,0 +1,45 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.Account;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Key-range access to {@code cuentas} for batch jobs that walk the whole book of one account type
+ * in account-number order, one range of accounts per transaction.
+ */
+public interface AccountRangeOperations {
+
+    /**
+     * Upper bounds, inclusive, of consecutive account-number ranges holding at most
+     * {@code rangeSize} accounts of type {@code tipo} each; the first range starts after the empty
+     * string and the last one ends at the highest account number of that type.
+     */
+    List<String> findRangeBounds(Account.AccountType tipo, int rangeSize);
+
+    /**
+     * Like {@link #findRangeBounds(Account.AccountType, int)} over the accounts of every type,
+     * walking the primary key.
+     */
+    List<String> findRangeBounds(int rangeSize);
+
+    /**
+     * Active accounts of type {@code tipo} with {@code desde < numero_cuenta <= hasta}, locked with
+     * {@code SELECT ... FOR UPDATE} in account-number order, the order transfers lock accounts in.
+     */
+    List<AccountBalanceView> lockRange(Account.AccountType tipo, String desde, String hasta);
+
+    /**
+     * Adds each delta (negative to subtract) to {@code saldo_actual} with one batched statement, for
+     * accounts the caller locked with {@link #lockRange}.
+     */
+    void addToBalances(Map<String, BigDecimal> deltas);
+
+    /**
+     * Every account with {@code desde < numero_cuenta <= hasta} in account-number order, with its
+     * balance including sub-balances, as seen by the current transaction and without locking.
+     */
+    List<LedgerBalance> findLedgerBalances(String desde, String hasta);
+}
@@ -0,0 +1,104 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.Account;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class AccountRangeOperationsImpl implements AccountRangeOperations {
+
+    // Served by idx_cuentas_tipo_numero: each bound skips rangeSize index entries
+    private static final String NEXT_BOUND = "SELECT numero_cuenta FROM cuentas " +
+            "WHERE tipo_cuenta = ? AND numero_cuenta > ? ORDER BY numero_cuenta LIMIT 1 OFFSET ?";
+
+    private static final String LAST_BOUND = "SELECT MAX(numero_cuenta) FROM cuentas " +
+            "WHERE tipo_cuenta = ? AND numero_cuenta > ?";
+
+    private static final String NEXT_BOUND_ANY_TYPE = "SELECT numero_cuenta FROM cuentas " +
+            "WHERE numero_cuenta > ? ORDER BY numero_cuenta LIMIT 1 OFFSET ?";
+
+    private static final String LAST_BOUND_ANY_TYPE = "SELECT MAX(numero_cuenta) FROM cuentas " +
+            "WHERE numero_cuenta > ?";
+
+    private static final String LOCK_RANGE = "SELECT numero_cuenta, saldo_actual, saldo_retenido, estado " +
+            "FROM cuentas WHERE tipo_cuenta = ? AND estado = TRUE AND numero_cuenta > ? AND numero_cuenta <= ? " +
+            "ORDER BY numero_cuenta FOR UPDATE";
+
+    private static final String ADD_TO_BALANCE = "UPDATE cuentas SET saldo_actual = saldo_actual + ?, " +
+            "updated_at = ? WHERE numero_cuenta = ?";
+
+    private static final String LEDGER_BALANCES = "SELECT c.numero_cuenta, c.saldo_inicial, c.saldo_actual + " +
+            "COALESCE((SELECT SUM(s.saldo) FROM cuenta_subsaldos s WHERE s.numero_cuenta = c.numero_cuenta), 0), " +
+            "CASE WHEN EXISTS (SELECT 1 FROM cuenta_subsaldos s WHERE s.numero_cuenta = c.numero_cuenta) " +
+            "THEN 1 ELSE 0 END " +
+            "FROM cuentas c WHERE c.numero_cuenta > ? AND c.numero_cuenta <= ? ORDER BY c.numero_cuenta";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountRangeOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<String> findRangeBounds(Account.AccountType tipo, int rangeSize) {
+        return findRangeBounds(NEXT_BOUND, LAST_BOUND, rangeSize, tipo.name());
+    }
+
+    @Override
+    public List<String> findRangeBounds(int rangeSize) {
+        return findRangeBounds(NEXT_BOUND_ANY_TYPE, LAST_BOUND_ANY_TYPE, rangeSize);
+    }
+
+    @Override
+    public List<AccountBalanceView> lockRange(Account.AccountType tipo, String desde, String hasta) {
+        return jdbcTemplate.query(LOCK_RANGE, (rs, rowNum) -> new LockedBalance(rs.getString(1),
+                rs.getBigDecimal(2), rs.getBigDecimal(3), rs.getBoolean(4)), tipo.name(), desde, hasta);
+    }
+
+    @Override
+    public List<LedgerBalance> findLedgerBalances(String desde, String hasta) {
+        return jdbcTemplate.query(LEDGER_BALANCES, (rs, rowNum) -> new LedgerBalance(rs.getString(1),
+                rs.getBigDecimal(2), rs.getBigDecimal(3), rs.getInt(4) > 0), desde, hasta);
+    }
+
+    @Override
+    public void addToBalances(Map<String, BigDecimal> deltas) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(ADD_TO_BALANCE, List.copyOf(deltas.entrySet()), 1000, (ps, delta) -> {
+            ps.setBigDecimal(1, delta.getValue());
+            ps.setTimestamp(2, now);
+            ps.setString(3, delta.getKey());
+        });
+    }
+
+    private List<String> findRangeBounds(String nextBound, String lastBound, int rangeSize, Object... filter) {
+        List<String> bounds = new ArrayList<>();
+        String desde = "";
+        while (true) {
+            List<String> next = jdbcTemplate.queryForList(nextBound, String.class, args(filter, desde,
+                    rangeSize - 1));
+            if (next.isEmpty()) {
+                break;
+            }
+            desde = next.get(0);
+            bounds.add(desde);
+        }
+        String last = jdbcTemplate.queryForObject(lastBound, String.class, args(filter, desde));
+        if (last != null) {
+            bounds.add(last);
+        }
+        return bounds;
+    }
+
+    private static Object[] args(Object[] filter, Object... rest) {
+        Object[] args = Arrays.copyOf(filter, filter.length + rest.length);
+        System.arraycopy(rest, 0, args, filter.length, rest.length);
+        return args;
+    }
+}
@@ -1,6 +1,7 @@
 package com.bank.account_service.repository;
 
 import com.bank.account_service.entity.Account;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,18 +12,83 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountBalanceOperations,
+        AccountRangeOperations, ReportRowStreaming {
+
+    String REPORT_ROWS = "SELECT a.numeroCuenta AS numeroCuenta, a.tipoCuenta AS tipoCuenta, " +
+            "a.saldoInicial AS saldoInicial, a.saldoActual + a.saldoSubCuentas AS saldoActual, m.id AS movementId, " +
+            "m.fecha AS fecha, m.tipoMovimiento AS tipoMovimiento, m.valor AS valor, m.saldo AS saldo, " +
+            "m.createdAt AS createdAt " +
+            "FROM Account a " +
+            "LEFT JOIN Movement m ON m.numeroCuenta = a.numeroCuenta " +
+            "AND m.fecha BETWEEN :startDate AND :endDate ";
+
+    String REPORT_ORDER = "ORDER BY a.numeroCuenta, m.fecha, m.id";
+
+    String CLIENT_REPORT_ROWS = REPORT_ROWS + "WHERE a.clienteId = :clienteId " + REPORT_ORDER;
+
     Optional<Account> findByNumeroCuenta(String numeroCuenta);
-    List<Account> findByClienteId(Long clienteId);
-    List<Account> findByEstado(Boolean estado);
     boolean existsByNumeroCuenta(String accountId);
-    @Query("SELECT DISTINCT a FROM Account a " +
-            "LEFT JOIN FETCH a.movimientos m " +
-            "WHERE a.clienteId = :clienteId " +
-            "AND (m IS NOT NULL OR m.fecha BETWEEN :startDate AND :endDate) " +
-            "ORDER BY a.numeroCuenta, m.fecha")
-    List<Account> findByClienteIdAndFechaBetween(
+
+    List<AccountSummaryView> findSummariesBy();
+    List<AccountSummaryView> findSummariesByClienteId(Long clienteId);
+    List<AccountSummaryView> findSummariesByEstado(Boolean estado);
+
+    // Keyset pages ordered by the primary key
+    List<AccountSummaryView> findSummariesByNumeroCuentaGreaterThanOrderByNumeroCuenta(String numeroCuenta,
+                                                                                       Limit limit);
+    List<AccountSummaryView> findSummariesByEstadoAndNumeroCuentaGreaterThanOrderByNumeroCuenta(Boolean estado,
+                                                                                                String numeroCuenta,
+                                                                                                Limit limit);
+
+    @Query("SELECT a.numeroCuenta AS numeroCuenta, a.saldoActual AS saldoActual, " +
+            "a.saldoRetenido AS saldoRetenido, a.estado AS estado " +
+            "FROM Account a WHERE a.numeroCuenta = :numeroCuenta")
+    Optional<AccountBalanceView> findBalanceByNumeroCuenta(@Param("numeroCuenta") String numeroCuenta);
+
+    // Accounts a range job touches, for the balance engine to hand over
+    @Query("SELECT a.numeroCuenta FROM Account a WHERE a.tipoCuenta = :tipo " +
+            "AND a.numeroCuenta > :desde AND a.numeroCuenta <= :hasta")
+    List<String> findNumerosCuentaInRange(@Param("tipo") Account.AccountType tipo, @Param("desde") String desde,
+                                          @Param("hasta") String hasta);
+
+    @Query("SELECT a.tipoCuenta FROM Account a WHERE a.numeroCuenta = :numeroCuenta")
+    Optional<Account.AccountType> findTipoCuentaByNumeroCuenta(@Param("numeroCuenta") String numeroCuenta);
+
+    /**
+     * Report lines for a client's accounts. The date range is part of the join condition, so it is
+     * resolved by the {@code (numero_cuenta, fecha)} index and accounts without movements in the range
+     * still come back as a single line.
+     */
+    @Query(CLIENT_REPORT_ROWS)
+    List<ReportRowView> findReportRows(
             @Param("clienteId") Long clienteId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Keyset page of report lines starting at the first account numbered after {@code numeroCuenta}.
+     */
+    @Query(REPORT_ROWS + "WHERE a.clienteId = :clienteId AND a.numeroCuenta > :numeroCuenta " + REPORT_ORDER)
+    List<ReportRowView> findReportRowsAfterAccount(
+            @Param("clienteId") Long clienteId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("numeroCuenta") String numeroCuenta,
+            Limit limit);
+
+    /**
+     * Keyset page of report lines following the movement {@code (numeroCuenta, fecha, movementId)}.
+     */
+    @Query(REPORT_ROWS + "WHERE a.clienteId = :clienteId AND (a.numeroCuenta > :numeroCuenta " +
+            "OR (a.numeroCuenta = :numeroCuenta AND (m.fecha > :fecha " +
+            "OR (m.fecha = :fecha AND m.id > :movementId)))) " + REPORT_ORDER)
+    List<ReportRowView> findReportRowsAfterMovement(
+            @Param("clienteId") Long clienteId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("numeroCuenta") String numeroCuenta,
+            @Param("fecha") LocalDateTime fecha,
+            @Param("movementId") Long movementId,
+            Limit limit);
 }
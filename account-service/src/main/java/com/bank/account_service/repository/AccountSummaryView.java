@@ -0,0 +1,31 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.Account;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Account columns served by the list endpoints; reading it never touches {@code movimientos}.
+ */
+public interface AccountSummaryView {
+    String getNumeroCuenta();
+
+    Account.AccountType getTipoCuenta();
+
+    BigDecimal getSaldoInicial();
+
+    BigDecimal getSaldoActual();
+
+    BigDecimal getSaldoSubCuentas();
+
+    BigDecimal getSaldoRetenido();
+
+    Boolean getEstado();
+
+    Long getClienteId();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
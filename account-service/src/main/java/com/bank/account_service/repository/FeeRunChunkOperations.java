@@ -0,0 +1,16 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.FeeRunChunk;
+
+import java.util.List;
+
+/**
+ * JDBC access to {@code cobro_comision_tramos}, batched for fee runs with many chunks.
+ */
+public interface FeeRunChunkOperations {
+
+    /**
+     * Inserts the chunks of a new fee run with one batched statement.
+     */
+    void insertChunks(List<FeeRunChunk> chunks);
+}
@@ -0,0 +1,29 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.FeeRunChunk;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class FeeRunChunkOperationsImpl implements FeeRunChunkOperations {
+
+    private static final String INSERT_CHUNK = "INSERT INTO cobro_comision_tramos " +
+            "(cobro_id, tramo, desde, hasta, estado) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FeeRunChunkOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertChunks(List<FeeRunChunk> chunks) {
+        jdbcTemplate.batchUpdate(INSERT_CHUNK, chunks, 1000, (ps, chunk) -> {
+            ps.setLong(1, chunk.getCobroId());
+            ps.setInt(2, chunk.getTramo());
+            ps.setString(3, chunk.getDesde());
+            ps.setString(4, chunk.getHasta());
+            ps.setString(5, chunk.getEstado().name());
+        });
+    }
+}
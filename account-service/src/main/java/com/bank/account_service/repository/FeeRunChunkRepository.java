@@ -0,0 +1,41 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.FeeRunChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FeeRunChunkRepository extends JpaRepository<FeeRunChunk, FeeRunChunk.Key>, FeeRunChunkOperations {
+
+    List<FeeRunChunk> findByCobroIdAndEstadoOrderByTramoAsc(Long cobroId, FeeRunChunk.ChunkStatus estado);
+
+    @Query("SELECT c.estado AS estado, COUNT(c) AS tramos, SUM(c.cuentas) AS cuentas, " +
+            "SUM(c.omitidas) AS omitidas, SUM(c.total) AS total " +
+            "FROM FeeRunChunk c WHERE c.cobroId = :cobroId GROUP BY c.estado")
+    List<FeeRunChunkTotalsView> findTotalsByCobroId(@Param("cobroId") Long cobroId);
+
+    /**
+     * Marks a pending chunk done inside the transaction that charges it; 0 when another node did.
+     * The row lock makes a node settling the same chunk wait, then change nothing.
+     */
+    @Modifying
+    @Query("UPDATE FeeRunChunk c SET c.estado = 'DONE' " +
+            "WHERE c.cobroId = :cobroId AND c.tramo = :tramo AND c.estado = 'PENDING'")
+    int claim(@Param("cobroId") Long cobroId, @Param("tramo") Integer tramo);
+
+    @Modifying
+    @Query("UPDATE FeeRunChunk c SET c.cuentas = :cuentas, c.omitidas = :omitidas, c.total = :total, " +
+            "c.duracionMs = :duracionMs, c.finishedAt = :finishedAt " +
+            "WHERE c.cobroId = :cobroId AND c.tramo = :tramo")
+    int recordOutcome(@Param("cobroId") Long cobroId, @Param("tramo") Integer tramo,
+                      @Param("cuentas") Integer cuentas, @Param("omitidas") Integer omitidas,
+                      @Param("total") BigDecimal total, @Param("duracionMs") Long duracionMs,
+                      @Param("finishedAt") LocalDateTime finishedAt);
+}
@@ -0,0 +1,21 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.FeeRunChunk;
+
+import java.math.BigDecimal;
+
+/**
+ * Chunk count, accounts charged and skipped and fees of a fee run per chunk status.
+ */
+public interface FeeRunChunkTotalsView {
+
+    FeeRunChunk.ChunkStatus getEstado();
+
+    Long getTramos();
+
+    Long getCuentas();
+
+    Long getOmitidas();
+
+    BigDecimal getTotal();
+}
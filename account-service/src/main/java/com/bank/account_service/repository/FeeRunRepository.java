@@ -0,0 +1,30 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.FeeRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FeeRunRepository extends JpaRepository<FeeRun, Long> {
+
+    boolean existsByFechaCorte(LocalDate fechaCorte);
+
+    List<FeeRun> findByEstado(FeeRun.FeeRunStatus estado);
+
+    /**
+     * Completes a running fee run; 0 when another node completed it first.
+     */
+    @Modifying
+    @Query("UPDATE FeeRun r SET r.estado = 'COMPLETED', r.cuentas = :cuentas, r.omitidas = :omitidas, " +
+            "r.total = :total, r.finishedAt = :finishedAt WHERE r.id = :id AND r.estado = 'RUNNING'")
+    int complete(@Param("id") Long id, @Param("cuentas") Long cuentas, @Param("omitidas") Long omitidas,
+                 @Param("total") BigDecimal total, @Param("finishedAt") LocalDateTime finishedAt);
+}
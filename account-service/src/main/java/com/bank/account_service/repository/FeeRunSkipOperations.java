@@ -0,0 +1,16 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.FeeRunSkip;
+
+import java.util.List;
+
+/**
+ * JDBC access to {@code cobro_comision_omisiones}.
+ */
+public interface FeeRunSkipOperations {
+
+    /**
+     * Inserts the accounts a chunk skipped with one batched statement.
+     */
+    void insertSkips(List<FeeRunSkip> skips);
+}
@@ -0,0 +1,27 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.FeeRunSkip;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class FeeRunSkipOperationsImpl implements FeeRunSkipOperations {
+
+    private static final String INSERT_SKIP = "INSERT INTO cobro_comision_omisiones " +
+            "(cobro_id, numero_cuenta, disponible) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FeeRunSkipOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertSkips(List<FeeRunSkip> skips) {
+        jdbcTemplate.batchUpdate(INSERT_SKIP, skips, 1000, (ps, skip) -> {
+            ps.setLong(1, skip.getCobroId());
+            ps.setString(2, skip.getNumeroCuenta());
+            ps.setBigDecimal(3, skip.getDisponible());
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.FeeRunSkip;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FeeRunSkipRepository extends JpaRepository<FeeRunSkip, FeeRunSkip.Key>, FeeRunSkipOperations {
+
+    List<FeeRunSkip> findByCobroIdAndNumeroCuentaGreaterThanOrderByNumeroCuentaAsc(Long cobroId,
+                                                                                 String numeroCuenta,
+                                                                                 Limit limit);
+}
@@ -0,0 +1,47 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.Hold;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    /**
+     * The earliest holds still in {@code estado} that expired by {@code expiresAt}, read from the
+     * {@code (estado, expires_at)} index; holds that have not expired are never visited.
+     */
+    List<Hold> findByEstadoAndExpiresAtLessThanEqualOrderByExpiresAt(Hold.HoldStatus estado,
+                                                                     LocalDateTime expiresAt, Limit limit);
+
+    /**
+     * Ends an active hold as RELEASED or EXPIRED; 0 when it was no longer active.
+     */
+    @Modifying
+    @Query("UPDATE Hold h SET h.estado = :estado, h.finishedAt = :finishedAt " +
+            "WHERE h.id = :id AND h.estado = 'ACTIVE'")
+    int finish(@Param("id") Long id, @Param("estado") Hold.HoldStatus estado,
+               @Param("finishedAt") LocalDateTime finishedAt);
+
+    /**
+     * Captures an active hold that has not expired by {@code finishedAt}; 0 when it was no longer
+     * active or has expired.
+     */
+    @Modifying
+    @Query("UPDATE Hold h SET h.estado = 'CAPTURED', h.valorCapturado = :valorCapturado, " +
+            "h.finishedAt = :finishedAt WHERE h.id = :id AND h.estado = 'ACTIVE' AND h.expiresAt > :finishedAt")
+    int capture(@Param("id") Long id, @Param("valorCapturado") BigDecimal valorCapturado,
+                @Param("finishedAt") LocalDateTime finishedAt);
+
+    @Modifying
+    @Query("UPDATE Hold h SET h.movimientoId = :movimientoId WHERE h.id = :id")
+    int setMovimientoId(@Param("id") Long id, @Param("movimientoId") Long movimientoId);
+}
@@ -0,0 +1,23 @@
+package com.bank.account_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Insert-first claiming of movement idempotency keys.
+ * <p>
+ * Callers claim a key as the first statement of the posting transaction and record the
+ * response in the same transaction, so the key and the movement commit or roll back together.
+ */
+public interface IdempotencyKeyClaims {
+
+    /**
+     * Inserts the key, first dropping a stored entry for it that was created before
+     * {@code expiredBefore}. Returns {@code false} when the key is already held; the
+     * surrounding transaction must then be rolled back.
+     */
+    boolean claim(String idempotencyKey, String requestHash, LocalDateTime now, LocalDateTime expiredBefore);
+
+    void complete(String idempotencyKey, Long movementId, String response);
+
+    int deleteExpired(LocalDateTime expiredBefore);
+}
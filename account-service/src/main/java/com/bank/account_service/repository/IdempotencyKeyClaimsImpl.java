@@ -0,0 +1,48 @@
+package com.bank.account_service.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+public class IdempotencyKeyClaimsImpl implements IdempotencyKeyClaims {
+
+    private static final String DELETE_EXPIRED_KEY = "DELETE FROM movimiento_claves_idempotencia " +
+            "WHERE idempotency_key = ? AND created_at < ?";
+
+    private static final String INSERT_KEY = "INSERT INTO movimiento_claves_idempotencia " +
+            "(idempotency_key, request_hash, created_at) VALUES (?, ?, ?)";
+
+    private static final String COMPLETE_KEY = "UPDATE movimiento_claves_idempotencia " +
+            "SET movement_id = ?, response = ? WHERE idempotency_key = ?";
+
+    private static final String DELETE_EXPIRED = "DELETE FROM movimiento_claves_idempotencia WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyClaimsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean claim(String idempotencyKey, String requestHash, LocalDateTime now, LocalDateTime expiredBefore) {
+        jdbcTemplate.update(DELETE_EXPIRED_KEY, idempotencyKey, Timestamp.valueOf(expiredBefore));
+        try {
+            jdbcTemplate.update(INSERT_KEY, idempotencyKey, requestHash, Timestamp.valueOf(now));
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void complete(String idempotencyKey, Long movementId, String response) {
+        jdbcTemplate.update(COMPLETE_KEY, movementId, response, idempotencyKey);
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime expiredBefore) {
+        return jdbcTemplate.update(DELETE_EXPIRED, Timestamp.valueOf(expiredBefore));
+    }
+}
@@ -0,0 +1,16 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.InterestAccrualChunk;
+
+import java.util.List;
+
+/**
+ * JDBC access to {@code devengo_interes_tramos}, batched for accruals with many chunks.
+ */
+public interface InterestAccrualChunkOperations {
+
+    /**
+     * Inserts the chunks of a new accrual with one batched statement.
+     */
+    void insertChunks(List<InterestAccrualChunk> chunks);
+}
@@ -0,0 +1,29 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.InterestAccrualChunk;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class InterestAccrualChunkOperationsImpl implements InterestAccrualChunkOperations {
+
+    private static final String INSERT_CHUNK = "INSERT INTO devengo_interes_tramos " +
+            "(devengo_id, tramo, desde, hasta, estado) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InterestAccrualChunkOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertChunks(List<InterestAccrualChunk> chunks) {
+        jdbcTemplate.batchUpdate(INSERT_CHUNK, chunks, 1000, (ps, chunk) -> {
+            ps.setLong(1, chunk.getDevengoId());
+            ps.setInt(2, chunk.getTramo());
+            ps.setString(3, chunk.getDesde());
+            ps.setString(4, chunk.getHasta());
+            ps.setString(5, chunk.getEstado().name());
+        });
+    }
+}
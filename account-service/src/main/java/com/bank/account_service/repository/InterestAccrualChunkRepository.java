@@ -0,0 +1,41 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.InterestAccrualChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InterestAccrualChunkRepository extends JpaRepository<InterestAccrualChunk, InterestAccrualChunk.Key>,
+        InterestAccrualChunkOperations {
+
+    List<InterestAccrualChunk> findByDevengoIdAndEstadoOrderByTramoAsc(Long devengoId,
+                                                                       InterestAccrualChunk.ChunkStatus estado);
+
+    @Query("SELECT c.estado AS estado, COUNT(c) AS tramos, SUM(c.cuentas) AS cuentas, SUM(c.total) AS total " +
+            "FROM InterestAccrualChunk c WHERE c.devengoId = :devengoId GROUP BY c.estado")
+    List<InterestAccrualChunkTotalsView> findTotalsByDevengoId(@Param("devengoId") Long devengoId);
+
+    /**
+     * Marks a pending chunk done inside the transaction that credits it; 0 when another node did.
+     * The row lock makes a node settling the same chunk wait, then change nothing.
+     */
+    @Modifying
+    @Query("UPDATE InterestAccrualChunk c SET c.estado = 'DONE' " +
+            "WHERE c.devengoId = :devengoId AND c.tramo = :tramo AND c.estado = 'PENDING'")
+    int claim(@Param("devengoId") Long devengoId, @Param("tramo") Integer tramo);
+
+    @Modifying
+    @Query("UPDATE InterestAccrualChunk c SET c.cuentas = :cuentas, c.total = :total, " +
+            "c.duracionMs = :duracionMs, c.finishedAt = :finishedAt " +
+            "WHERE c.devengoId = :devengoId AND c.tramo = :tramo")
+    int recordOutcome(@Param("devengoId") Long devengoId, @Param("tramo") Integer tramo,
+                      @Param("cuentas") Integer cuentas, @Param("total") BigDecimal total,
+                      @Param("duracionMs") Long duracionMs, @Param("finishedAt") LocalDateTime finishedAt);
+}
@@ -0,0 +1,19 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.InterestAccrualChunk;
+
+import java.math.BigDecimal;
+
+/**
+ * Chunk count, accounts credited and interest of an accrual per chunk status.
+ */
+public interface InterestAccrualChunkTotalsView {
+
+    InterestAccrualChunk.ChunkStatus getEstado();
+
+    Long getTramos();
+
+    Long getCuentas();
+
+    BigDecimal getTotal();
+}
@@ -0,0 +1,33 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.InterestAccrual;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InterestAccrualRepository extends JpaRepository<InterestAccrual, Long> {
+
+    boolean existsByFechaCorte(LocalDate fechaCorte);
+
+    Optional<InterestAccrual> findFirstByOrderByFechaCorteDesc();
+
+    List<InterestAccrual> findByEstado(InterestAccrual.AccrualStatus estado);
+
+    /**
+     * Completes a running accrual; 0 when another node completed it first.
+     */
+    @Modifying
+    @Query("UPDATE InterestAccrual a SET a.estado = 'COMPLETED', a.cuentas = :cuentas, a.total = :total, " +
+            "a.finishedAt = :finishedAt WHERE a.id = :id AND a.estado = 'RUNNING'")
+    int complete(@Param("id") Long id, @Param("cuentas") Long cuentas, @Param("total") BigDecimal total,
+                 @Param("finishedAt") LocalDateTime finishedAt);
+}
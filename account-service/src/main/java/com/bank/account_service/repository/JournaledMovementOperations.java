@@ -0,0 +1,36 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.Movement;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plain-SQL access to {@code movimientos} for movements whose id is assigned before they are
+ * stored, as the in-memory balance engine does when it acknowledges a posting from its journal.
+ */
+public interface JournaledMovementOperations {
+
+    /**
+     * Must match the allocationSize of the movement id generator.
+     */
+    int ID_BLOCK_SIZE = 50;
+
+    /**
+     * Reserves a block of {@link #ID_BLOCK_SIZE} movement ids from {@code movimientos_id_seq} and
+     * returns the highest; the block is the same Hibernate takes for one sequence call, so ids
+     * never collide with movements stored through JPA.
+     */
+    long reserveIdBlock();
+
+    /**
+     * The ids among {@code ids} already stored.
+     */
+    Set<Long> findExistingIds(Collection<Long> ids);
+
+    /**
+     * Batch-inserts movements with the ids they carry.
+     */
+    void insertWithIds(List<Movement> movements);
+}
@@ -0,0 +1,70 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.Movement;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class JournaledMovementOperationsImpl implements JournaledMovementOperations {
+
+    private static final String INSERT_MOVEMENT = "INSERT INTO movimientos (id, numero_cuenta, fecha, " +
+            "tipo_movimiento, valor, saldo, descripcion, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String EXISTING_IDS = "SELECT id FROM movimientos WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile String nextIdQuery;
+
+    public JournaledMovementOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long reserveIdBlock() {
+        return jdbcTemplate.queryForObject(nextIdQuery(), Long.class);
+    }
+
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(new NamedParameterJdbcTemplate(jdbcTemplate)
+                .queryForList(EXISTING_IDS, new MapSqlParameterSource("ids", ids), Long.class));
+    }
+
+    @Override
+    public void insertWithIds(List<Movement> movements) {
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT, movements, movements.size(), (ps, movement) -> {
+            ps.setLong(1, movement.getId());
+            ps.setString(2, movement.getNumeroCuenta());
+            ps.setTimestamp(3, Timestamp.valueOf(movement.getFecha()));
+            ps.setString(4, movement.getTipoMovimiento().name());
+            ps.setBigDecimal(5, movement.getValor());
+            ps.setBigDecimal(6, movement.getSaldo());
+            ps.setString(7, movement.getDescripcion());
+            ps.setTimestamp(8, Timestamp.valueOf(movement.getCreatedAt()));
+        });
+    }
+
+    /**
+     * PostgreSQL calls {@code nextval}; H2 (tests) uses the standard {@code NEXT VALUE FOR}.
+     */
+    private String nextIdQuery() {
+        if (nextIdQuery == null) {
+            nextIdQuery = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())
+                            ? "SELECT nextval('movimientos_id_seq')"
+                            : "SELECT NEXT VALUE FOR movimientos_id_seq");
+        }
+        return nextIdQuery;
+    }
+}
@@ -0,0 +1,10 @@
+package com.bank.account_service.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * An account's opening balance, its current balance, sub-balances included, and whether it is
+ * split into sub-balances.
+ */
+public record LedgerBalance(String numeroCuenta, BigDecimal saldoInicial, BigDecimal saldo, boolean split) {
+}
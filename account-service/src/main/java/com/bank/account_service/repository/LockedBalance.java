@@ -0,0 +1,40 @@
+package com.bank.account_service.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance of an account row read with {@code SELECT ... FOR UPDATE}.
+ */
+final class LockedBalance implements AccountBalanceView {
+    private final String numeroCuenta;
+    private final BigDecimal saldoActual;
+    private final BigDecimal saldoRetenido;
+    private final Boolean estado;
+
+    LockedBalance(String numeroCuenta, BigDecimal saldoActual, BigDecimal saldoRetenido, Boolean estado) {
+        this.numeroCuenta = numeroCuenta;
+        this.saldoActual = saldoActual;
+        this.saldoRetenido = saldoRetenido;
+        this.estado = estado;
+    }
+
+    @Override
+    public String getNumeroCuenta() {
+        return numeroCuenta;
+    }
+
+    @Override
+    public BigDecimal getSaldoActual() {
+        return saldoActual;
+    }
+
+    @Override
+    public BigDecimal getSaldoRetenido() {
+        return saldoRetenido;
+    }
+
+    @Override
+    public Boolean getEstado() {
+        return estado;
+    }
+}
@@ -0,0 +1,10 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.MovementIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MovementIdempotencyKeyRepository extends JpaRepository<MovementIdempotencyKey, String>,
+        IdempotencyKeyClaims {
+}
@@ -1,13 +1,51 @@
 package com.bank.account_service.repository;
 
 import com.bank.account_service.entity.Movement;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface MovementRepository extends JpaRepository<Movement, Long> {
+public interface MovementRepository extends JpaRepository<Movement, Long>, JournaledMovementOperations,
+        RunningBalanceStreaming, RunningBalanceRepairOperations {
     List<Movement> findByNumeroCuenta(String accountId);
     List<Movement> findByNumeroCuentaAndFechaBetween(String accountId, LocalDateTime startDate, LocalDateTime endDate);
     List<Movement> findByNumeroCuentaAndTipoMovimiento(String accountId, Movement.MovementType movementType);
+
+    // Keyset pages ordered by (fecha, id) within the account, served by idx_movimientos_cuenta_fecha
+    List<Movement> findByNumeroCuentaOrderByFechaAscIdAsc(String accountId, Limit limit);
+
+    @Query("SELECT m FROM Movement m WHERE m.numeroCuenta = :accountId " +
+            "AND (m.fecha > :fecha OR (m.fecha = :fecha AND m.id > :id)) " +
+            "ORDER BY m.fecha, m.id")
+    List<Movement> findByNumeroCuentaAfter(@Param("accountId") String accountId,
+                                           @Param("fecha") LocalDateTime fecha,
+                                           @Param("id") Long id,
+                                           Limit limit);
+
+    // Debits since a point in time, served by idx_movimientos_cuenta_fecha
+    @Query("SELECT COALESCE(SUM(m.valor), 0) FROM Movement m WHERE m.numeroCuenta = :accountId " +
+            "AND m.tipoMovimiento = 'DEBITO' AND m.fecha >= :desde")
+    BigDecimal sumDebitsSince(@Param("accountId") String accountId, @Param("desde") LocalDateTime desde);
+
+    @Query("SELECT m.numeroCuenta AS numeroCuenta, SUM(m.valor) AS total FROM Movement m " +
+            "WHERE m.numeroCuenta IN :accountIds AND m.tipoMovimiento = 'DEBITO' " +
+            "AND m.fecha >= :desde AND m.fecha < :hasta GROUP BY m.numeroCuenta")
+    List<AccountDebitTotalView> sumDebitsBetween(@Param("accountIds") Collection<String> accountIds,
+                                                 @Param("desde") LocalDateTime desde,
+                                                 @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Deletes the movement and returns the number of rows removed; the row lock makes a concurrent
+     * delete of the same movement wait and then remove nothing.
+     */
+    @Modifying
+    @Query("DELETE FROM Movement m WHERE m.id = :id")
+    int deleteMovementById(@Param("id") Long id);
 }
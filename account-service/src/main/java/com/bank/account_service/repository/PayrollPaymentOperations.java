@@ -0,0 +1,29 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.PayrollPayment;
+
+import java.util.List;
+
+/**
+ * JDBC access to {@code nomina_pagos} for the payroll runner, batched where the job touches many
+ * rows at once.
+ */
+public interface PayrollPaymentOperations {
+
+    /**
+     * Inserts the payments of a new job with one batched statement.
+     */
+    void insertPayments(List<PayrollPayment> payments);
+
+    /**
+     * Locks the payments of a job with {@code fromIndice <= indice < toIndice} that are still
+     * pending, in indice order. Payments another transaction settled while this one waited are
+     * not returned.
+     */
+    List<PayrollPayment> lockPending(Long nominaId, int fromIndice, int toIndice);
+
+    /**
+     * Stores the status, movement and error of settled payments with one batched statement.
+     */
+    void updateOutcomes(List<PayrollPayment> payments);
+}
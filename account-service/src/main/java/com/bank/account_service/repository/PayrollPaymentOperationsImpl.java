@@ -0,0 +1,60 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.PayrollPayment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+public class PayrollPaymentOperationsImpl implements PayrollPaymentOperations {
+
+    private static final String INSERT_PAYMENT = "INSERT INTO nomina_pagos " +
+            "(nomina_id, indice, cuenta_destino, valor, estado) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String LOCK_PENDING = "SELECT nomina_id, indice, cuenta_destino, valor FROM nomina_pagos " +
+            "WHERE nomina_id = ? AND indice >= ? AND indice < ? AND estado = 'PENDING' ORDER BY indice FOR UPDATE";
+
+    private static final String UPDATE_OUTCOME = "UPDATE nomina_pagos SET estado = ?, movimiento_id = ?, error = ? " +
+            "WHERE nomina_id = ? AND indice = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PayrollPaymentOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertPayments(List<PayrollPayment> payments) {
+        jdbcTemplate.batchUpdate(INSERT_PAYMENT, payments, 1000, (ps, payment) -> {
+            ps.setLong(1, payment.getNominaId());
+            ps.setInt(2, payment.getIndice());
+            ps.setString(3, payment.getCuentaDestino());
+            ps.setBigDecimal(4, payment.getValor());
+            ps.setString(5, payment.getEstado().name());
+        });
+    }
+
+    @Override
+    public List<PayrollPayment> lockPending(Long nominaId, int fromIndice, int toIndice) {
+        return jdbcTemplate.query(LOCK_PENDING, (rs, rowNum) -> {
+            PayrollPayment payment = new PayrollPayment();
+            payment.setNominaId(rs.getLong(1));
+            payment.setIndice(rs.getInt(2));
+            payment.setCuentaDestino(rs.getString(3));
+            payment.setValor(rs.getBigDecimal(4));
+            payment.setEstado(PayrollPayment.PaymentStatus.PENDING);
+            return payment;
+        }, nominaId, fromIndice, toIndice);
+    }
+
+    @Override
+    public void updateOutcomes(List<PayrollPayment> payments) {
+        jdbcTemplate.batchUpdate(UPDATE_OUTCOME, payments, 1000, (ps, payment) -> {
+            ps.setString(1, payment.getEstado().name());
+            ps.setObject(2, payment.getMovimientoId(), Types.BIGINT);
+            ps.setString(3, payment.getError());
+            ps.setLong(4, payment.getNominaId());
+            ps.setInt(5, payment.getIndice());
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.PayrollPayment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PayrollPaymentRepository extends JpaRepository<PayrollPayment, PayrollPayment.Key>,
+        PayrollPaymentOperations {
+
+    @Query("SELECT p.estado AS estado, COUNT(p) AS pagos, SUM(p.valor) AS total FROM PayrollPayment p " +
+            "WHERE p.nominaId = :nominaId GROUP BY p.estado")
+    List<PayrollPaymentTotalsView> findTotalsByNominaId(@Param("nominaId") Long nominaId);
+
+    @Query("SELECT DISTINCT p.cuentaDestino FROM PayrollPayment p WHERE p.nominaId = :nominaId " +
+            "AND p.indice >= :fromIndice AND p.indice < :toIndice " +
+            "AND p.estado = 'PENDING'")
+    List<String> findPendingAccounts(@Param("nominaId") Long nominaId, @Param("fromIndice") int fromIndice,
+                                     @Param("toIndice") int toIndice);
+
+    List<PayrollPayment> findByNominaIdAndIndiceGreaterThanOrderByIndiceAsc(Long nominaId, Integer indice,
+                                                                            Limit limit);
+
+    List<PayrollPayment> findByNominaIdAndEstadoAndIndiceGreaterThanOrderByIndiceAsc(
+            Long nominaId, PayrollPayment.PaymentStatus estado, Integer indice, Limit limit);
+}
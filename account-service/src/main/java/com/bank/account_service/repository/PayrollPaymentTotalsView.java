@@ -0,0 +1,17 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.PayrollPayment;
+
+import java.math.BigDecimal;
+
+/**
+ * Payment count and amount of a payroll job per status.
+ */
+public interface PayrollPaymentTotalsView {
+
+    PayrollPayment.PaymentStatus getEstado();
+
+    Long getPagos();
+
+    BigDecimal getTotal();
+}
@@ -0,0 +1,27 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.Payroll;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PayrollRepository extends JpaRepository<Payroll, Long> {
+
+    List<Payroll> findByEstado(Payroll.PayrollStatus estado);
+
+    /**
+     * Completes a running job; 0 when another node completed it first.
+     */
+    @Modifying
+    @Query("UPDATE Payroll p SET p.estado = 'COMPLETED', " +
+            "p.finishedAt = :finishedAt, p.reintegroId = :reintegroId " +
+            "WHERE p.id = :id AND p.estado = 'RUNNING'")
+    int complete(@Param("id") Long id, @Param("finishedAt") LocalDateTime finishedAt,
+                 @Param("reintegroId") Long reintegroId);
+}
@@ -0,0 +1,16 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.ReconciliationChunk;
+
+import java.util.List;
+
+/**
+ * JDBC access to {@code conciliacion_tramos}, batched for reconciliations with many chunks.
+ */
+public interface ReconciliationChunkOperations {
+
+    /**
+     * Inserts the chunks of a new reconciliation with one batched statement.
+     */
+    void insertChunks(List<ReconciliationChunk> chunks);
+}
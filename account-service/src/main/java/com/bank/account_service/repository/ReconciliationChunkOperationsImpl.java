@@ -0,0 +1,29 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.ReconciliationChunk;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class ReconciliationChunkOperationsImpl implements ReconciliationChunkOperations {
+
+    private static final String INSERT_CHUNK = "INSERT INTO conciliacion_tramos " +
+            "(conciliacion_id, tramo, desde, hasta, estado) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReconciliationChunkOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertChunks(List<ReconciliationChunk> chunks) {
+        jdbcTemplate.batchUpdate(INSERT_CHUNK, chunks, 1000, (ps, chunk) -> {
+            ps.setLong(1, chunk.getConciliacionId());
+            ps.setInt(2, chunk.getTramo());
+            ps.setString(3, chunk.getDesde());
+            ps.setString(4, chunk.getHasta());
+            ps.setString(5, chunk.getEstado().name());
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.ReconciliationChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReconciliationChunkRepository extends JpaRepository<ReconciliationChunk, ReconciliationChunk.Key>,
+        ReconciliationChunkOperations {
+
+    List<ReconciliationChunk> findByConciliacionIdAndEstadoOrderByTramoAsc(Long conciliacionId,
+                                                                           ReconciliationChunk.ChunkStatus estado);
+
+    @Query("SELECT c.estado AS estado, COUNT(c) AS tramos, SUM(c.cuentas) AS cuentas, " +
+            "SUM(c.movimientos) AS movimientos, SUM(c.discrepancias) AS discrepancias " +
+            "FROM ReconciliationChunk c WHERE c.conciliacionId = :conciliacionId GROUP BY c.estado")
+    List<ReconciliationChunkTotalsView> findTotalsByConciliacionId(@Param("conciliacionId") Long conciliacionId);
+
+    /**
+     * Marks a pending chunk done inside the transaction that stores its discrepancies; 0 when
+     * another node did. The row lock makes a node settling the same chunk wait, then change
+     * nothing.
+     */
+    @Modifying
+    @Query("UPDATE ReconciliationChunk c SET c.estado = 'DONE' " +
+            "WHERE c.conciliacionId = :conciliacionId AND c.tramo = :tramo AND c.estado = 'PENDING'")
+    int claim(@Param("conciliacionId") Long conciliacionId, @Param("tramo") Integer tramo);
+
+    @Modifying
+    @Query("UPDATE ReconciliationChunk c SET c.cuentas = :cuentas, c.movimientos = :movimientos, " +
+            "c.discrepancias = :discrepancias, c.duracionMs = :duracionMs, c.finishedAt = :finishedAt " +
+            "WHERE c.conciliacionId = :conciliacionId AND c.tramo = :tramo")
+    int recordOutcome(@Param("conciliacionId") Long conciliacionId, @Param("tramo") Integer tramo,
+                      @Param("cuentas") Integer cuentas, @Param("movimientos") Long movimientos,
+                      @Param("discrepancias") Integer discrepancias, @Param("duracionMs") Long duracionMs,
+                      @Param("finishedAt") LocalDateTime finishedAt);
+}
@@ -0,0 +1,20 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.ReconciliationChunk;
+
+/**
+ * Chunk count, accounts and movements checked and discrepancies of a reconciliation per chunk
+ * status.
+ */
+public interface ReconciliationChunkTotalsView {
+
+    ReconciliationChunk.ChunkStatus getEstado();
+
+    Long getTramos();
+
+    Long getCuentas();
+
+    Long getMovimientos();
+
+    Long getDiscrepancias();
+}
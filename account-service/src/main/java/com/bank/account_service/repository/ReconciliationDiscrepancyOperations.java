@@ -0,0 +1,16 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.ReconciliationDiscrepancy;
+
+import java.util.List;
+
+/**
+ * JDBC access to {@code conciliacion_discrepancias}.
+ */
+public interface ReconciliationDiscrepancyOperations {
+
+    /**
+     * Inserts the discrepancies a chunk found with one batched statement.
+     */
+    void insertDiscrepancies(List<ReconciliationDiscrepancy> discrepancies);
+}
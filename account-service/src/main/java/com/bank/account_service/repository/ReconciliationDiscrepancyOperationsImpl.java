@@ -0,0 +1,33 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.ReconciliationDiscrepancy;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+public class ReconciliationDiscrepancyOperationsImpl implements ReconciliationDiscrepancyOperations {
+
+    private static final String INSERT_DISCREPANCY = "INSERT INTO conciliacion_discrepancias " +
+            "(conciliacion_id, numero_cuenta, tipo, movimiento_id, esperado, registrado, movimientos_afectados) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReconciliationDiscrepancyOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertDiscrepancies(List<ReconciliationDiscrepancy> discrepancies) {
+        jdbcTemplate.batchUpdate(INSERT_DISCREPANCY, discrepancies, 1000, (ps, discrepancy) -> {
+            ps.setLong(1, discrepancy.getConciliacionId());
+            ps.setString(2, discrepancy.getNumeroCuenta());
+            ps.setString(3, discrepancy.getTipo().name());
+            ps.setObject(4, discrepancy.getMovimientoId(), Types.BIGINT);
+            ps.setBigDecimal(5, discrepancy.getEsperado());
+            ps.setBigDecimal(6, discrepancy.getRegistrado());
+            ps.setObject(7, discrepancy.getMovimientosAfectados(), Types.BIGINT);
+        });
+    }
+}
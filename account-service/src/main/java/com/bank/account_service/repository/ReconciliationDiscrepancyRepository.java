@@ -0,0 +1,16 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.ReconciliationDiscrepancy;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReconciliationDiscrepancyRepository extends JpaRepository<ReconciliationDiscrepancy, Long>,
+        ReconciliationDiscrepancyOperations {
+
+    List<ReconciliationDiscrepancy> findByConciliacionIdAndIdGreaterThanOrderByIdAsc(Long conciliacionId, Long id,
+                                                                                     Limit limit);
+}
@@ -0,0 +1,29 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.Reconciliation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReconciliationRepository extends JpaRepository<Reconciliation, Long> {
+
+    boolean existsByEstado(Reconciliation.ReconciliationStatus estado);
+
+    List<Reconciliation> findByEstado(Reconciliation.ReconciliationStatus estado);
+
+    /**
+     * Completes a running reconciliation; 0 when another node completed it first.
+     */
+    @Modifying
+    @Query("UPDATE Reconciliation r SET r.estado = 'COMPLETED', r.cuentas = :cuentas, " +
+            "r.movimientos = :movimientos, r.discrepancias = :discrepancias, r.finishedAt = :finishedAt " +
+            "WHERE r.id = :id AND r.estado = 'RUNNING'")
+    int complete(@Param("id") Long id, @Param("cuentas") Long cuentas, @Param("movimientos") Long movimientos,
+                 @Param("discrepancias") Long discrepancias, @Param("finishedAt") LocalDateTime finishedAt);
+}
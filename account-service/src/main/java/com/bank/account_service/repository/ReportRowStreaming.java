@@ -0,0 +1,21 @@
+package com.bank.account_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Cursor-based read of the client report.
+ * <p>
+ * Rows are handed to the consumer as they are fetched, {@code reports.export.fetch-size} at a
+ * time, so the caller never holds more than one fetch window of the report in memory.
+ */
+public interface ReportRowStreaming {
+
+    /**
+     * Runs {@link AccountRepository#CLIENT_REPORT_ROWS}, the query behind
+     * {@link AccountRepository#findReportRows}, inside a read-only transaction that stays open
+     * until the last row has been consumed.
+     */
+    void streamReportRows(Long clienteId, LocalDateTime startDate, LocalDateTime endDate,
+                          Consumer<ReportRowView> consumer);
+}
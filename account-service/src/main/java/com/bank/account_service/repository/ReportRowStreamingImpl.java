@@ -0,0 +1,75 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.Movement;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class ReportRowStreamingImpl implements ReportRowStreaming {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    public ReportRowStreamingImpl(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                  @Value("${reports.export.fetch-size:500}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void streamReportRows(Long clienteId, LocalDateTime startDate, LocalDateTime endDate,
+                                 Consumer<ReportRowView> consumer) {
+        // PostgreSQL only honours the fetch size (server-side cursor) with autocommit off
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Tuple> rows = entityManager.createQuery(AccountRepository.CLIENT_REPORT_ROWS, Tuple.class)
+                    .setParameter("clienteId", clienteId)
+                    .setParameter("startDate", startDate)
+                    .setParameter("endDate", endDate)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream()) {
+                rows.map(ReportRowStreamingImpl::toRow).forEach(consumer);
+            }
+        });
+    }
+
+    private static ReportRowView toRow(Tuple tuple) {
+        return new Row(
+                tuple.get("numeroCuenta", String.class),
+                tuple.get("tipoCuenta", Account.AccountType.class),
+                tuple.get("saldoInicial", BigDecimal.class),
+                tuple.get("saldoActual", BigDecimal.class),
+                tuple.get("movementId", Long.class),
+                tuple.get("fecha", LocalDateTime.class),
+                tuple.get("tipoMovimiento", Movement.MovementType.class),
+                tuple.get("valor", BigDecimal.class),
+                tuple.get("saldo", BigDecimal.class),
+                tuple.get("createdAt", LocalDateTime.class));
+    }
+
+    @lombok.Value
+    private static class Row implements ReportRowView {
+        String numeroCuenta;
+        Account.AccountType tipoCuenta;
+        BigDecimal saldoInicial;
+        BigDecimal saldoActual;
+        Long movementId;
+        LocalDateTime fecha;
+        Movement.MovementType tipoMovimiento;
+        BigDecimal valor;
+        BigDecimal saldo;
+        LocalDateTime createdAt;
+    }
+}
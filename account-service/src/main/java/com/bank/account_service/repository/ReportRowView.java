@@ -0,0 +1,33 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.Movement;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One report line: an account joined with one of its movements in the requested range.
+ * Accounts with no movement in the range yield a single line whose movement columns are null.
+ */
+public interface ReportRowView {
+    String getNumeroCuenta();
+
+    Account.AccountType getTipoCuenta();
+
+    BigDecimal getSaldoInicial();
+
+    BigDecimal getSaldoActual();
+
+    Long getMovementId();
+
+    LocalDateTime getFecha();
+
+    Movement.MovementType getTipoMovimiento();
+
+    BigDecimal getValor();
+
+    BigDecimal getSaldo();
+
+    LocalDateTime getCreatedAt();
+}
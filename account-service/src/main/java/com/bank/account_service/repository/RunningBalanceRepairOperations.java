@@ -0,0 +1,17 @@
+package com.bank.account_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Set-based recomputation of the running balance ({@code saldo}) stored on each movement.
+ */
+public interface RunningBalanceRepairOperations {
+
+    /**
+     * Recomputes {@code saldo} for the movements of the account after {@code (fecha, id)}, in
+     * {@code (fecha, id)} order, from the last movement at or before that point (the account's
+     * opening balance if there is none), with one UPDATE; only rows whose balance changes are
+     * written. Returns the number of movements corrected.
+     */
+    int repairRunningBalances(String numeroCuenta, LocalDateTime fecha, Long id);
+}
@@ -0,0 +1,53 @@
+package com.bank.account_service.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+public class RunningBalanceRepairOperationsImpl implements RunningBalanceRepairOperations {
+
+    // The tail after the point with its corrected balances: the last trusted balance plus a window
+    // sum of the signed amounts, both served by idx_movimientos_cuenta_fecha
+    private static final String REPAIRED_TAIL = "SELECT t.id, COALESCE(" +
+            "(SELECT p.saldo FROM movimientos p WHERE p.numero_cuenta = ? " +
+            "AND (p.fecha < ? OR (p.fecha = ? AND p.id <= ?)) " +
+            "ORDER BY p.fecha DESC, p.id DESC FETCH FIRST 1 ROW ONLY), " +
+            "(SELECT c.saldo_inicial FROM cuentas c WHERE c.numero_cuenta = ?)) " +
+            "+ SUM(CASE WHEN t.tipo_movimiento = 'CREDITO' THEN t.valor ELSE -t.valor END) " +
+            "OVER (ORDER BY t.fecha, t.id ROWS UNBOUNDED PRECEDING) AS saldo " +
+            "FROM movimientos t WHERE t.numero_cuenta = ? AND (t.fecha > ? OR (t.fecha = ? AND t.id > ?))";
+
+    private static final String POSTGRES_REPAIR = "UPDATE movimientos m SET saldo = r.saldo " +
+            "FROM (" + REPAIRED_TAIL + ") r WHERE m.id = r.id AND m.saldo <> r.saldo";
+
+    // H2 has no UPDATE ... FROM
+    private static final String MERGE_REPAIR = "MERGE INTO movimientos m USING (" + REPAIRED_TAIL + ") r " +
+            "ON (m.id = r.id) WHEN MATCHED AND m.saldo <> r.saldo THEN UPDATE SET saldo = r.saldo";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile String repairUpdate;
+
+    public RunningBalanceRepairOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int repairRunningBalances(String numeroCuenta, LocalDateTime fecha, Long id) {
+        Timestamp point = Timestamp.valueOf(fecha);
+        return jdbcTemplate.update(repairUpdate(), numeroCuenta, point, point, id, numeroCuenta,
+                numeroCuenta, point, point, id);
+    }
+
+    private String repairUpdate() {
+        if (repairUpdate == null) {
+            repairUpdate = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())
+                            ? POSTGRES_REPAIR
+                            : MERGE_REPAIR);
+        }
+        return repairUpdate;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.Movement;
+
+import java.math.BigDecimal;
+
+/**
+ * A movement with the running balance stored on it.
+ */
+public record RunningBalanceRow(String numeroCuenta, Long id, Movement.MovementType tipoMovimiento,
+                                BigDecimal valor, BigDecimal saldo) {
+}
@@ -0,0 +1,21 @@
+package com.bank.account_service.repository;
+
+import java.util.function.Consumer;
+
+/**
+ * Cursor-based read of the movements of a range of accounts, for checks that walk each account's
+ * running balance once.
+ * <p>
+ * Rows are handed to the consumer as they are fetched, {@code reconciliation.fetch-size} at a
+ * time, so the caller never holds more than one fetch window in memory however long the accounts'
+ * histories are.
+ */
+public interface RunningBalanceStreaming {
+
+    /**
+     * Streams the movements of the accounts with {@code desde < numero_cuenta <= hasta} ordered by
+     * {@code (numero_cuenta, fecha, id)}, in the caller's transaction; PostgreSQL only honours the
+     * fetch size (server-side cursor) inside one.
+     */
+    void streamRunningBalances(String desde, String hasta, Consumer<RunningBalanceRow> consumer);
+}
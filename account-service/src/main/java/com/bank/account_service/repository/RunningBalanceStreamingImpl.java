@@ -0,0 +1,38 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.Movement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.function.Consumer;
+
+public class RunningBalanceStreamingImpl implements RunningBalanceStreaming {
+
+    // Served by idx_movimientos_cuenta_fecha
+    private static final String RUNNING_BALANCES = "SELECT numero_cuenta, id, tipo_movimiento, valor, saldo " +
+            "FROM movimientos WHERE numero_cuenta > ? AND numero_cuenta <= ? ORDER BY numero_cuenta, fecha, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public RunningBalanceStreamingImpl(JdbcTemplate jdbcTemplate,
+                                       @Value("${reconciliation.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void streamRunningBalances(String desde, String hasta, Consumer<RunningBalanceRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(RUNNING_BALANCES);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, desde);
+            statement.setString(2, hasta);
+            return statement;
+        }, rs -> {
+            consumer.accept(new RunningBalanceRow(rs.getString(1), rs.getLong(2),
+                    Movement.MovementType.valueOf(rs.getString(3)), rs.getBigDecimal(4), rs.getBigDecimal(5)));
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package com.bank.account_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The next run of an active standing order, as loaded into the scheduler.
+ */
+public interface StandingOrderDueView {
+    Long getId();
+
+    Integer getEjecuciones();
+
+    LocalDateTime getProximaEjecucion();
+}
@@ -0,0 +1,16 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.StandingOrderExecution;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StandingOrderExecutionRepository extends JpaRepository<StandingOrderExecution,
+        StandingOrderExecution.Key> {
+
+    List<StandingOrderExecution> findByOrdenIdAndNumeroGreaterThanOrderByNumeroAsc(Long ordenId, Integer numero,
+                                                                                 Limit limit);
+}
@@ -0,0 +1,52 @@
+package com.bank.account_service.repository;
+
+import com.bank.account_service.entity.StandingOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StandingOrderRepository extends JpaRepository<StandingOrder, Long> {
+
+    String DUE = "SELECT o.id AS id, o.ejecuciones AS ejecuciones, o.proximaEjecucion AS proximaEjecucion " +
+            "FROM StandingOrder o WHERE o.estado = 'ACTIVE' AND o.proximaEjecucion < :until ";
+
+    String DUE_ORDER = "ORDER BY o.proximaEjecucion, o.id";
+
+    /**
+     * First keyset page of the active orders due before {@code until}, read from the
+     * {@code (estado, proxima_ejecucion)} index.
+     */
+    @Query(DUE + DUE_ORDER)
+    List<StandingOrderDueView> findDue(@Param("until") LocalDateTime until, Limit limit);
+
+    /**
+     * Keyset page following the order {@code (proximaEjecucion, id)}.
+     */
+    @Query(DUE + "AND (o.proximaEjecucion > :proxima OR (o.proximaEjecucion = :proxima AND o.id > :id)) " + DUE_ORDER)
+    List<StandingOrderDueView> findDueAfter(@Param("until") LocalDateTime until,
+                                            @Param("proxima") LocalDateTime proxima,
+                                            @Param("id") Long id,
+                                            Limit limit);
+
+    /**
+     * Claims run {@code ejecuciones} of an active order and moves it to its next run; 0 when that run
+     * was already claimed, here or on another node, or the order is no longer active.
+     */
+    @Modifying
+    @Query("UPDATE StandingOrder o SET o.ejecuciones = o.ejecuciones + 1, o.proximaEjecucion = :proxima, " +
+            "o.estado = :estado WHERE o.id = :id AND o.ejecuciones = :ejecuciones AND o.estado = 'ACTIVE'")
+    int advance(@Param("id") Long id, @Param("ejecuciones") int ejecuciones,
+                @Param("proxima") LocalDateTime proxima, @Param("estado") StandingOrder.StandingOrderStatus estado);
+
+    @Modifying
+    @Query("UPDATE StandingOrder o SET o.estado = 'CANCELLED', o.proximaEjecucion = NULL " +
+            "WHERE o.id = :id AND o.estado = 'ACTIVE'")
+    int cancel(@Param("id") Long id);
+}
@@ -0,0 +1,56 @@
+package com.bank.account_service.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain-SQL access to {@code cuenta_subsaldos}, the sub-balances of split accounts.
+ */
+public interface SubLedgerOperations {
+
+    /**
+     * Number of sub-balances of every split account, by account number.
+     */
+    Map<String, Integer> findSplitAccounts();
+
+    /**
+     * Adds {@code amount} to one sub-balance if the account is active; false if no row changed.
+     */
+    boolean creditSlot(String numeroCuenta, int slot, BigDecimal amount);
+
+    /**
+     * Takes {@code amount} from one sub-balance if the account is active and that sub-balance
+     * covers it; false if no row changed.
+     */
+    boolean debitSlot(String numeroCuenta, int slot, BigDecimal amount);
+
+    /**
+     * Takes {@code amount} from the first sub-balance that covers it, trying {@code slots} slots
+     * round-robin from {@code firstSlot}, then from {@code cuentas.saldo_actual} above the held
+     * funds; false if none does. Rows it skips are left unlocked.
+     */
+    boolean debitAnyRow(String numeroCuenta, int firstSlot, int slots, BigDecimal amount);
+
+    /**
+     * Sub-balances ordered by slot, locked with {@code SELECT ... FOR UPDATE}.
+     */
+    List<BigDecimal> lockSlots(String numeroCuenta);
+
+    void setSlot(String numeroCuenta, int slot, BigDecimal saldo);
+
+    void createSlots(String numeroCuenta, int slots);
+
+    int deleteSlots(String numeroCuenta);
+
+    /**
+     * {@code saldo_actual} plus every sub-balance, as seen by the current transaction.
+     */
+    BigDecimal accountTotal(String numeroCuenta);
+
+    /**
+     * Sum of the sub-balances of each split account with {@code desde < numero_cuenta <= hasta}, as
+     * seen by the current transaction and without locking them.
+     */
+    Map<String, BigDecimal> findSubBalanceTotals(String desde, String hasta);
+}
@@ -0,0 +1,155 @@
+package com.bank.account_service.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SubLedgerOperationsImpl implements SubLedgerOperations {
+
+    private static final String SPLIT_ACCOUNTS = "SELECT numero_cuenta, COUNT(*) FROM cuenta_subsaldos " +
+            "GROUP BY numero_cuenta";
+
+    private static final String ACTIVE_ACCOUNT = "EXISTS (SELECT 1 FROM cuentas c " +
+            "WHERE c.numero_cuenta = cuenta_subsaldos.numero_cuenta AND c.estado = TRUE)";
+
+    private static final String CREDIT_SLOT = "UPDATE cuenta_subsaldos SET saldo = saldo + ?, updated_at = ? " +
+            "WHERE numero_cuenta = ? AND slot = ? AND " + ACTIVE_ACCOUNT;
+
+    private static final String DEBIT_SLOT = "UPDATE cuenta_subsaldos SET saldo = saldo - ?, updated_at = ? " +
+            "WHERE numero_cuenta = ? AND slot = ? AND saldo >= ? AND " + ACTIVE_ACCOUNT;
+
+    private static final String DEBIT_ACCOUNT = "UPDATE cuentas SET saldo_actual = saldo_actual - ?, updated_at = ? " +
+            "WHERE numero_cuenta = ? AND estado = TRUE AND saldo_actual - saldo_retenido >= ?";
+
+    private static final String LOCK_SLOTS = "SELECT saldo FROM cuenta_subsaldos WHERE numero_cuenta = ? " +
+            "ORDER BY slot FOR UPDATE";
+
+    private static final String SET_SLOT = "UPDATE cuenta_subsaldos SET saldo = ?, updated_at = ? " +
+            "WHERE numero_cuenta = ? AND slot = ?";
+
+    private static final String INSERT_SLOT = "INSERT INTO cuenta_subsaldos (numero_cuenta, slot, saldo, updated_at) " +
+            "VALUES (?, ?, 0, ?)";
+
+    private static final String DELETE_SLOTS = "DELETE FROM cuenta_subsaldos WHERE numero_cuenta = ?";
+
+    private static final String ACCOUNT_TOTAL = "SELECT c.saldo_actual + COALESCE((SELECT SUM(s.saldo) " +
+            "FROM cuenta_subsaldos s WHERE s.numero_cuenta = c.numero_cuenta), 0) " +
+            "FROM cuentas c WHERE c.numero_cuenta = ?";
+
+    private static final String RANGE_TOTALS = "SELECT numero_cuenta, SUM(saldo) FROM cuenta_subsaldos " +
+            "WHERE numero_cuenta > ? AND numero_cuenta <= ? GROUP BY numero_cuenta";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SubLedgerOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<String, Integer> findSplitAccounts() {
+        Map<String, Integer> slots = new HashMap<>();
+        jdbcTemplate.query(SPLIT_ACCOUNTS, rs -> {
+            slots.put(rs.getString(1), rs.getInt(2));
+        });
+        return slots;
+    }
+
+    @Override
+    public boolean creditSlot(String numeroCuenta, int slot, BigDecimal amount) {
+        return jdbcTemplate.update(CREDIT_SLOT, amount, now(), numeroCuenta, slot) > 0;
+    }
+
+    @Override
+    public boolean debitSlot(String numeroCuenta, int slot, BigDecimal amount) {
+        return jdbcTemplate.update(DEBIT_SLOT, amount, now(), numeroCuenta, slot, amount) > 0;
+    }
+
+    @Override
+    public boolean debitAnyRow(String numeroCuenta, int firstSlot, int slots, BigDecimal amount) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            for (int i = 0; i < slots; i++) {
+                int slot = (firstSlot + i) % slots;
+                if (debitOrRelease(connection, DEBIT_SLOT, amount, now(), numeroCuenta, slot, amount)) {
+                    return true;
+                }
+            }
+            return debitOrRelease(connection, DEBIT_ACCOUNT, amount, now(), numeroCuenta, amount);
+        }));
+    }
+
+    /**
+     * A row whose funds ran out while the UPDATE waited for it can stay locked (H2 does so); rolling
+     * back to a savepoint releases it, so a debit trying rows round-robin never holds one it skipped.
+     */
+    private boolean debitOrRelease(Connection connection, String update, Object... args) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        if (jdbcTemplate.update(update, args) > 0) {
+            connection.releaseSavepoint(savepoint);
+            return true;
+        }
+        connection.rollback(savepoint);
+        return false;
+    }
+
+    @Override
+    public List<BigDecimal> lockSlots(String numeroCuenta) {
+        return jdbcTemplate.queryForList(LOCK_SLOTS, BigDecimal.class, numeroCuenta);
+    }
+
+    @Override
+    public void setSlot(String numeroCuenta, int slot, BigDecimal saldo) {
+        jdbcTemplate.update(SET_SLOT, saldo, now(), numeroCuenta, slot);
+    }
+
+    @Override
+    public void createSlots(String numeroCuenta, int slots) {
+        Timestamp now = now();
+        jdbcTemplate.batchUpdate(INSERT_SLOT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, numeroCuenta);
+                ps.setInt(2, i);
+                ps.setTimestamp(3, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return slots;
+            }
+        });
+    }
+
+    @Override
+    public int deleteSlots(String numeroCuenta) {
+        return jdbcTemplate.update(DELETE_SLOTS, numeroCuenta);
+    }
+
+    @Override
+    public BigDecimal accountTotal(String numeroCuenta) {
+        return jdbcTemplate.queryForObject(ACCOUNT_TOTAL, BigDecimal.class, numeroCuenta);
+    }
+
+    @Override
+    public Map<String, BigDecimal> findSubBalanceTotals(String desde, String hasta) {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        jdbcTemplate.query(RANGE_TOTALS, rs -> {
+            totals.put(rs.getString(1), rs.getBigDecimal(2));
+        }, desde, hasta);
+        return totals;
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,156 @@
+package com.bank.account_service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Per-account single-writer lanes.
+ * <p>
+ * With {@code accounts.lanes.enabled}, every mutation of an account runs on the lane its account
+ * number hashes to: {@code accounts.lanes.count} single-thread executors on virtual threads.
+ * Mutations of one account therefore run one at a time and do not queue on its {@code cuentas}
+ * row lock, while accounts on different lanes proceed in parallel. Lanes are per node; batches
+ * and other nodes still meet on the row lock. Disabled, tasks run on the calling thread.
+ * <p>
+ * Publishes the queue depth of each lane and, every {@code accounts.lanes.hot-account-window},
+ * the mutation counts of the busiest accounts.
+ */
+@Component
+@Slf4j
+public class AccountLaneExecutor {
+
+    private final boolean enabled;
+    private final ThreadPoolExecutor[] lanes;
+    private final ThreadLocal<Integer> currentLane = new ThreadLocal<>();
+    private final Timer waitTimer;
+    private final int hotAccounts;
+    private final MultiGauge hotAccountGauge;
+    private volatile Map<String, LongAdder> mutations = new ConcurrentHashMap<>();
+
+    public AccountLaneExecutor(MeterRegistry meterRegistry,
+                               @Value("${accounts.lanes.enabled:false}") boolean enabled,
+                               @Value("${accounts.lanes.count:64}") int laneCount,
+                               @Value("${accounts.lanes.hot-accounts:10}") int hotAccounts) {
+        this.enabled = enabled;
+        this.hotAccounts = hotAccounts;
+        this.lanes = new ThreadPoolExecutor[enabled ? laneCount : 0];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    Thread.ofVirtual().name("account-lane-" + i).factory());
+            meterRegistry.gauge("accounts.lanes.queue", Tags.of("lane", String.valueOf(i)), lanes[i],
+                    lane -> lane.getQueue().size());
+        }
+        this.waitTimer = Timer.builder("accounts.lanes.wait")
+                .description("Time a mutation waited for its account lane")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.hotAccountGauge = MultiGauge.builder("accounts.lanes.hot-account.mutations")
+                .description("Mutations of the busiest accounts during the last window")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs {@code task} on the lane of {@code numeroCuenta} and waits for its result; exceptions
+     * thrown by the task are rethrown as they are. A task already running on that lane runs inline.
+     */
+    public <T> T execute(String numeroCuenta, Supplier<T> task) {
+        if (!enabled) {
+            return task.get();
+        }
+        mutations.computeIfAbsent(numeroCuenta, k -> new LongAdder()).increment();
+        int lane = Math.floorMod(numeroCuenta.hashCode(), lanes.length);
+        if (Integer.valueOf(lane).equals(currentLane.get())) {
+            return task.get();
+        }
+
+        long queuedAt = System.nanoTime();
+        Future<T> result = lanes[lane].submit(() -> {
+            waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            currentLane.set(lane);
+            try {
+                return task.get();
+            } finally {
+                currentLane.remove();
+            }
+        });
+        try {
+            return result.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Account lane task failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for account " + numeroCuenta, ex);
+        }
+    }
+
+    public void run(String numeroCuenta, Runnable task) {
+        execute(numeroCuenta, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Publishes the busiest accounts of the window that just ended and starts a new one.
+     */
+    @Scheduled(fixedDelayString = "${accounts.lanes.hot-account-window:PT1M}")
+    public void publishHotAccounts() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, LongAdder> window = mutations;
+        mutations = new ConcurrentHashMap<>();
+
+        Map<String, Long> counts = new HashMap<>();
+        window.forEach((numeroCuenta, count) -> counts.put(numeroCuenta, count.sum()));
+        List<Map.Entry<String, Long>> busiest = counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(hotAccounts)
+                .toList();
+        hotAccountGauge.register(busiest.stream()
+                .<MultiGauge.Row<?>>map(entry -> MultiGauge.Row.of(Tags.of("account", entry.getKey()),
+                        entry.getValue()))
+                .toList(), true);
+        if (!busiest.isEmpty()) {
+            log.debug("Busiest account in the last window: {} with {} mutations",
+                    busiest.get(0).getKey(), busiest.get(0).getValue());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
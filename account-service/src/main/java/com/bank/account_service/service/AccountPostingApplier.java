@@ -0,0 +1,129 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.exception.DailyDebitLimitExceededException;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.repository.AccountBalanceView;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.MovementRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Applies several postings to one account inside the caller's transaction.
+ * <p>
+ * The balance is read once with {@code SELECT ... FOR UPDATE}, the postings are applied to it in
+ * order, and the account costs one balance UPDATE plus a batched INSERT of the accepted movements.
+ * For a split account the sub-balances are locked too and count towards the balance. Debits are
+ * checked against the available balance, net of the account's active holds.
+ * Debits count towards the account's daily debit limit once the caller's transaction commits.
+ * A rejected posting does not affect the others.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountPostingApplier {
+
+    private final AccountRepository accountRepository;
+    private final MovementRepository movementRepository;
+    private final AccountSubLedgerService subLedger;
+    private final DailyDebitLimitService dailyDebitLimits;
+
+    /**
+     * Returns one outcome per posting, in the order given. Postings are expected to be validated.
+     */
+    public List<PostingOutcome> apply(String numeroCuenta, List<MovementCreateDto> postings) {
+        // Sub-balances of a split account are locked before the account row, like the rebalancer
+        // does, and the net change goes to the account row
+        BigDecimal subBalances = subLedger.lockSubBalances(numeroCuenta);
+        Optional<AccountBalanceView> account = accountRepository.lockBalance(numeroCuenta);
+        if (account.isEmpty()) {
+            return rejectAll(postings, new AccountNotFoundException("Account not found with id: " + numeroCuenta));
+        }
+        if (!account.get().getEstado()) {
+            return rejectAll(postings, new RuntimeException("Cannot create movement for inactive account"));
+        }
+
+        BigDecimal balance = account.get().getSaldoActual().add(subBalances);
+        BigDecimal held = account.get().getSaldoRetenido();
+        LocalDateTime now = LocalDateTime.now();
+        PostingOutcome[] outcomes = new PostingOutcome[postings.size()];
+        List<Movement> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < postings.size(); i++) {
+            MovementCreateDto dto = postings.get(i);
+            BigDecimal absAmount = dto.getValor().abs();
+            if (dto.getTipoMovimiento() == Movement.MovementType.DEBITO) {
+                if (balance.subtract(held).compareTo(absAmount) < 0) {
+                    outcomes[i] = PostingOutcome.rejected(new InsufficientFundsException("Insufficient funds"));
+                    continue;
+                }
+                try {
+                    // Later postings of the batch keep to the debit's stamp, so fecha follows their order
+                    now = dailyDebitLimits.reserve(numeroCuenta, absAmount);
+                } catch (DailyDebitLimitExceededException ex) {
+                    outcomes[i] = PostingOutcome.rejected(ex);
+                    continue;
+                }
+                balance = balance.subtract(absAmount);
+            } else {
+                balance = balance.add(absAmount);
+            }
+
+            Movement movement = new Movement();
+            movement.setNumeroCuenta(numeroCuenta);
+            movement.setFecha(now);
+            movement.setTipoMovimiento(dto.getTipoMovimiento());
+            movement.setValor(absAmount);
+            movement.setSaldo(balance);
+            movement.setDescripcion(dto.getDescripcion());
+            accepted.add(movement);
+            acceptedIndexes.add(i);
+        }
+
+        if (!accepted.isEmpty()) {
+            BigDecimal main = balance.subtract(subBalances);
+            accountRepository.setBalance(numeroCuenta, main);
+            if (main.compareTo(held) < 0) {
+                // Debits drawn from the sub-balances would otherwise be able to spend held funds
+                subLedger.fundAccountRow(numeroCuenta, BigDecimal.ZERO);
+            }
+            List<Movement> saved = movementRepository.saveAll(accepted);
+            for (int i = 0; i < saved.size(); i++) {
+                outcomes[acceptedIndexes.get(i)] = PostingOutcome.posted(saved.get(i));
+            }
+        }
+        return List.of(outcomes);
+    }
+
+    private static List<PostingOutcome> rejectAll(List<MovementCreateDto> postings, RuntimeException rejection) {
+        return Collections.nCopies(postings.size(), PostingOutcome.rejected(rejection));
+    }
+
+    /**
+     * Either the stored movement or the reason the posting was rejected, with the same exception
+     * a single posting would have thrown.
+     */
+    public record PostingOutcome(Movement movement, RuntimeException rejection) {
+
+        static PostingOutcome posted(Movement movement) {
+            return new PostingOutcome(movement, null);
+        }
+
+        static PostingOutcome rejected(RuntimeException rejection) {
+            return new PostingOutcome(null, rejection);
+        }
+
+        public boolean isPosted() {
+            return movement != null;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.bank.account_service.service;
 
 import com.bank.account_service.dto.*;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AccountService {
@@ -15,13 +14,19 @@ public interface AccountService {
     List<AccountResponseDto> getAllAccounts();
     
     List<AccountResponseDto> getAccountsByStatus(Boolean estado);
+
+    /**
+     * Accounts ordered by number, one keyset page at a time; {@code estado} is optional.
+     */
+    CursorPageDto<AccountResponseDto> getAccountsPage(Boolean estado, String cursor, Integer limit);
     
     AccountResponseDto updateAccountStatus(String numeroCuenta, AccountUpdateDto updateDto);
+
+    /**
+     * The number of the account with primary key {@code id}.
+     */
+    String getAccountNumber(Long id);
     
     void deleteAccount(Long id);
 
-    List<AccountWithMovementsDto> getAccountsByClientIdAndDateRange(Long clientId,
-                                                                    LocalDateTime startDate,
-                                                                    LocalDateTime endDate);
-
 }
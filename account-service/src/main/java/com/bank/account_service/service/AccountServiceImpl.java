@@ -3,16 +3,19 @@ package com.bank.account_service.service;
 import com.bank.account_service.dto.AccountCreateDto;
 import com.bank.account_service.dto.AccountResponseDto;
 import com.bank.account_service.dto.AccountUpdateDto;
-import com.bank.account_service.dto.AccountWithMovementsDto;
+import com.bank.account_service.dto.CursorPageDto;
 import com.bank.account_service.entity.Account;
 import com.bank.account_service.exception.AccountNotFoundException;
 import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountSummaryView;
+import com.bank.account_service.utils.KeysetCursor;
+import com.bank.account_service.utils.PageLimits;
 import com.bank.account_service.utils.ToDto;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,6 +25,7 @@ import java.util.stream.Collectors;
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
+    private final PageLimits pageLimits;
 
     @Override
     @Transactional
@@ -52,33 +56,64 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public List<AccountResponseDto> getAccountsByClientId(Long clientId) {
-        return accountRepository.findByClienteId(clientId).stream()
-            .map(ToDto::accountConvertToDto)
+        return accountRepository.findSummariesByClienteId(clientId).stream()
+            .map(ToDto::accountSummaryConvertToDto)
             .collect(Collectors.toList());
     }
 
     @Override
     public List<AccountResponseDto> getAllAccounts() {
-        return accountRepository.findAll().stream()
-            .map(ToDto::accountConvertToDto)
+        return accountRepository.findSummariesBy().stream()
+            .map(ToDto::accountSummaryConvertToDto)
             .collect(Collectors.toList());
     }
 
     @Override
     public List<AccountResponseDto> getAccountsByStatus(Boolean estado) {
-        return accountRepository.findByEstado(estado).stream()
-            .map(ToDto::accountConvertToDto)
+        return accountRepository.findSummariesByEstado(estado).stream()
+            .map(ToDto::accountSummaryConvertToDto)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPageDto<AccountResponseDto> getAccountsPage(Boolean estado, String cursor, Integer limit) {
+        int pageSize = pageLimits.resolve(limit);
+        String after = cursor == null ? "" : KeysetCursor.decode(cursor, 1)[0];
+        // One extra row tells whether another page follows
+        Limit fetch = Limit.of(pageSize + 1);
+        List<AccountSummaryView> accounts = estado == null
+                ? accountRepository.findSummariesByNumeroCuentaGreaterThanOrderByNumeroCuenta(after, fetch)
+                : accountRepository.findSummariesByEstadoAndNumeroCuentaGreaterThanOrderByNumeroCuenta(estado, after,
+                        fetch);
+
+        List<AccountResponseDto> page = accounts.stream()
+            .limit(pageSize)
+            .map(ToDto::accountSummaryConvertToDto)
+            .collect(Collectors.toList());
+        String nextCursor = accounts.size() > pageSize
+                ? KeysetCursor.encode(page.get(page.size() - 1).getNumeroCuenta())
+                : null;
+        return new CursorPageDto<>(page, nextCursor);
+    }
+
     @Override
     @Transactional
     public AccountResponseDto updateAccountStatus(String numeroCuenta, AccountUpdateDto updateDto) {
-        Account account = accountRepository.findByNumeroCuenta(numeroCuenta)
+        // Targeted UPDATE: saving the entity would write back a balance that a concurrent
+        // posting may already have changed
+        if (!accountRepository.setEstado(numeroCuenta, updateDto.getEstado())) {
+            throw new AccountNotFoundException("Account not found with id: " + numeroCuenta);
+        }
+        return accountRepository.findByNumeroCuenta(numeroCuenta)
+            .map(ToDto::accountConvertToDto)
             .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + numeroCuenta));
-        
-        account.setEstado(updateDto.getEstado());
-        return ToDto.accountConvertToDto(accountRepository.save(account));
+    }
+
+    @Override
+    public String getAccountNumber(Long id) {
+        return accountRepository.findById(id)
+            .map(Account::getNumeroCuenta)
+            .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + id));
     }
 
     @Override
@@ -90,13 +125,4 @@ public class AccountServiceImpl implements AccountService {
         //delete the account with existing movements
         accountRepository.delete(account);
     }
-
-    @Override
-    public List<AccountWithMovementsDto> getAccountsByClientIdAndDateRange(Long clientId, LocalDateTime startDate, 
-                                                                           LocalDateTime endDate) {
-        return accountRepository.findByClienteIdAndFechaBetween(clientId, startDate, endDate).stream()
-                .map(ToDto::accountWithMovementsConvertToDto)
-                .collect(Collectors.toList());
-    }
-    
 }
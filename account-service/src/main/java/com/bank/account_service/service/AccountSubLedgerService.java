@@ -0,0 +1,50 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.AccountResponseDto;
+import com.bank.account_service.entity.Movement.MovementType;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Sub-ledgers for extremely hot accounts.
+ * <p>
+ * A split account keeps its balance in {@code cuentas.saldo_actual} plus K rows of
+ * {@code cuenta_subsaldos}; callers still see one balance, the sum. Held funds
+ * ({@code cuentas.saldo_retenido}) stay on the account row, so debits drawn from a sub-balance
+ * can never spend them.
+ */
+public interface AccountSubLedgerService {
+
+    /**
+     * Splits the account into {@code subCuentas} sub-balances, or merges them back into the
+     * account row when {@code subCuentas} is 1.
+     */
+    AccountResponseDto splitAccount(String numeroCuenta, int subCuentas);
+
+    boolean isSplit(String numeroCuenta);
+
+    /**
+     * Posts to a split account inside the caller's transaction and returns the account total after
+     * the posting; empty if the account is missing, inactive or, for a debit, short of funds.
+     */
+    Optional<BigDecimal> post(String numeroCuenta, MovementType tipoMovimiento, BigDecimal amount);
+
+    /**
+     * Locks the sub-balances of a split account for the caller's transaction, before its account
+     * row is locked, and returns their sum; zero for an account that is not split.
+     */
+    BigDecimal lockSubBalances(String numeroCuenta);
+
+    /**
+     * Moves funds of a split account from its sub-balances to its account row, inside the caller's
+     * transaction, until the row covers the account's held funds plus {@code amount} or the
+     * sub-balances run out. Does nothing for an account that is not split.
+     */
+    void fundAccountRow(String numeroCuenta, BigDecimal amount);
+
+    /**
+     * Spreads the balance of every split account evenly over its sub-balances.
+     */
+    void rebalance();
+}
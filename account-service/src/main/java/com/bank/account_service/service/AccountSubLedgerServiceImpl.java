@@ -0,0 +1,238 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.AccountResponseDto;
+import com.bank.account_service.entity.Movement.MovementType;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.repository.AccountBalanceView;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountSubBalanceRepository;
+import com.bank.account_service.utils.ToDto;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sub-ledger postings.
+ * <p>
+ * Credits go to the sub-balances round-robin. A debit takes the first sub-balance, in round-robin
+ * order, that covers it, then the account row; only when no single row covers it are the account
+ * row and all its sub-balances locked and drawn down together. Each single posting therefore
+ * changes one row and holds one row lock. Batches and group commits lock all sub-balances and then
+ * the account row once, like the rebalancer. Sub-balances always come first: a posting that holds
+ * one still needs the account row for the foreign key check of its movement.
+ * <p>
+ * The account row keeps at least the account's held funds: the rebalancer leaves them there, and
+ * debits take from the row only what is above them.
+ * <p>
+ * The {@code saldo} a posting reports, and its movement stores, is the account total right after
+ * it, so it includes postings that committed meanwhile on other sub-balances: for a split account
+ * it is not a running balance, and reconciliation does not check it. Merging an account back into
+ * one row has its movements' balances recomputed in the background, after which they are running
+ * balances again.
+ * <p>
+ * The set of split accounts is cached and reloaded every {@code accounts.split.refresh-interval}.
+ * A node that has not seen a split yet keeps posting to the account row, which still counts
+ * towards the total.
+ */
+@Service
+@Slf4j
+public class AccountSubLedgerServiceImpl implements AccountSubLedgerService {
+
+    // Earlier than any movement: a repair from here recomputes the whole history from the opening balance
+    private static final LocalDateTime BEFORE_ANY_MOVEMENT = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final AccountRepository accountRepository;
+    private final AccountSubBalanceRepository subBalanceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RunningBalanceRepairService runningBalanceRepair;
+    private final Map<String, AtomicInteger> nextSlot = new ConcurrentHashMap<>();
+    private volatile Map<String, Integer> splitAccounts = Map.of();
+
+    public AccountSubLedgerServiceImpl(AccountRepository accountRepository,
+                                       AccountSubBalanceRepository subBalanceRepository,
+                                       TransactionTemplate transactionTemplate,
+                                       RunningBalanceRepairService runningBalanceRepair) {
+        this.accountRepository = accountRepository;
+        this.subBalanceRepository = subBalanceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.runningBalanceRepair = runningBalanceRepair;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${accounts.split.refresh-interval:PT10S}")
+    public void refreshSplitAccounts() {
+        splitAccounts = Map.copyOf(subBalanceRepository.findSplitAccounts());
+    }
+
+    @Override
+    @Transactional
+    public AccountResponseDto splitAccount(String numeroCuenta, int subCuentas) {
+        if (subCuentas < 1) {
+            throw new IllegalArgumentException("subCuentas must be at least 1");
+        }
+        List<BigDecimal> slots = subBalanceRepository.lockSlots(numeroCuenta);
+        BigDecimal subBalances = sum(slots);
+        AccountBalanceView account = accountRepository.lockBalance(numeroCuenta)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + numeroCuenta));
+        BigDecimal total = account.getSaldoActual().add(subBalances);
+
+        subBalanceRepository.deleteSlots(numeroCuenta);
+        accountRepository.setBalance(numeroCuenta, total);
+        Map<String, Integer> updated = new HashMap<>(splitAccounts);
+        if (subCuentas > 1) {
+            // The balance stays on the account row until the rebalancer spreads it
+            subBalanceRepository.createSlots(numeroCuenta, subCuentas);
+            updated.put(numeroCuenta, subCuentas);
+        } else {
+            updated.remove(numeroCuenta);
+            if (!slots.isEmpty()) {
+                runningBalanceRepair.scheduleRepair(numeroCuenta, BEFORE_ANY_MOVEMENT, 0L);
+            }
+        }
+        splitAccounts = Map.copyOf(updated);
+        log.info("Account {} now has {} sub-balances", numeroCuenta, subCuentas == 1 ? 0 : subCuentas);
+
+        return accountRepository.findByNumeroCuenta(numeroCuenta)
+                .map(ToDto::accountConvertToDto)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + numeroCuenta));
+    }
+
+    @Override
+    public boolean isSplit(String numeroCuenta) {
+        return splitAccounts.containsKey(numeroCuenta);
+    }
+
+    @Override
+    public Optional<BigDecimal> post(String numeroCuenta, MovementType tipoMovimiento, BigDecimal amount) {
+        int slots = splitAccounts.getOrDefault(numeroCuenta, 1);
+        int first = nextSlot.computeIfAbsent(numeroCuenta, k -> new AtomicInteger()).getAndIncrement();
+        if (tipoMovimiento == MovementType.CREDITO) {
+            boolean posted = subBalanceRepository.creditSlot(numeroCuenta, Math.floorMod(first, slots), amount)
+                    // Merged back in the meantime, or inactive: the account row decides
+                    || accountRepository.credit(numeroCuenta, amount).isPresent();
+            return posted ? Optional.of(subBalanceRepository.accountTotal(numeroCuenta)) : Optional.empty();
+        }
+
+        if (subBalanceRepository.debitAnyRow(numeroCuenta, Math.floorMod(first, slots), slots, amount)) {
+            return Optional.of(subBalanceRepository.accountTotal(numeroCuenta));
+        }
+        return debitAcrossRows(numeroCuenta, amount);
+    }
+
+    @Override
+    public BigDecimal lockSubBalances(String numeroCuenta) {
+        return isSplit(numeroCuenta) ? sum(subBalanceRepository.lockSlots(numeroCuenta)) : BigDecimal.ZERO;
+    }
+
+    @Override
+    public void fundAccountRow(String numeroCuenta, BigDecimal amount) {
+        if (!isSplit(numeroCuenta)) {
+            return;
+        }
+        List<BigDecimal> slots = subBalanceRepository.lockSlots(numeroCuenta);
+        Optional<AccountBalanceView> account = accountRepository.lockBalance(numeroCuenta);
+        if (account.isEmpty()) {
+            return;
+        }
+        BigDecimal main = account.get().getSaldoActual();
+        BigDecimal shortfall = account.get().getSaldoRetenido().add(amount).subtract(main);
+        if (shortfall.signum() > 0) {
+            BigDecimal moved = shortfall.subtract(drawFromSlots(numeroCuenta, slots, shortfall));
+            if (moved.signum() > 0) {
+                accountRepository.setBalance(numeroCuenta, main.add(moved));
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${accounts.split.rebalance-interval:PT1M}")
+    public void rebalance() {
+        for (String numeroCuenta : splitAccounts.keySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalance(numeroCuenta));
+            } catch (RuntimeException ex) {
+                log.warn("Rebalancing account {} failed", numeroCuenta, ex);
+            }
+        }
+    }
+
+    private void rebalance(String numeroCuenta) {
+        List<BigDecimal> slots = subBalanceRepository.lockSlots(numeroCuenta);
+        Optional<AccountBalanceView> account = accountRepository.lockBalance(numeroCuenta);
+        if (account.isEmpty() || slots.isEmpty()) {
+            return;
+        }
+        BigDecimal held = account.get().getSaldoRetenido();
+        // Held funds stay on the account row
+        BigDecimal total = account.get().getSaldoActual().add(sum(slots)).subtract(held);
+        if (total.signum() < 0) {
+            // Nothing to spread; keep the shortfall on the account row
+            return;
+        }
+        BigDecimal share = total.divide(BigDecimal.valueOf(slots.size()), 2, RoundingMode.DOWN);
+        BigDecimal remainder = total.subtract(share.multiply(BigDecimal.valueOf(slots.size())));
+        for (int slot = 0; slot < slots.size(); slot++) {
+            subBalanceRepository.setSlot(numeroCuenta, slot, slot == 0 ? share.add(remainder) : share);
+        }
+        accountRepository.setBalance(numeroCuenta, held);
+        log.debug("Rebalanced account {}: {} over {} sub-balances", numeroCuenta, total, slots.size());
+    }
+
+    /**
+     * Slow path for a debit no single row covers: locks every row of the account and draws from
+     * the account row first, down to its held funds, then the sub-balances in slot order.
+     */
+    private Optional<BigDecimal> debitAcrossRows(String numeroCuenta, BigDecimal amount) {
+        List<BigDecimal> slots = subBalanceRepository.lockSlots(numeroCuenta);
+        Optional<AccountBalanceView> account = accountRepository.lockBalance(numeroCuenta);
+        if (account.isEmpty() || !account.get().getEstado()) {
+            return Optional.empty();
+        }
+        BigDecimal main = account.get().getSaldoActual();
+        BigDecimal held = account.get().getSaldoRetenido();
+        BigDecimal total = main.add(sum(slots));
+        if (total.subtract(held).compareTo(amount) < 0) {
+            return Optional.empty();
+        }
+
+        BigDecimal fromMain = main.subtract(held).max(BigDecimal.ZERO).min(amount);
+        if (fromMain.signum() > 0) {
+            accountRepository.setBalance(numeroCuenta, main.subtract(fromMain));
+        }
+        drawFromSlots(numeroCuenta, slots, amount.subtract(fromMain));
+        return Optional.of(total.subtract(amount));
+    }
+
+    /**
+     * Takes up to {@code amount} from the locked sub-balances in slot order and returns what is
+     * left to take.
+     */
+    private BigDecimal drawFromSlots(String numeroCuenta, List<BigDecimal> slots, BigDecimal amount) {
+        BigDecimal remaining = amount;
+        for (int slot = 0; slot < slots.size() && remaining.signum() > 0; slot++) {
+            BigDecimal taken = slots.get(slot).max(BigDecimal.ZERO).min(remaining);
+            if (taken.signum() > 0) {
+                subBalanceRepository.setSlot(numeroCuenta, slot, slots.get(slot).subtract(taken));
+                remaining = remaining.subtract(taken);
+            }
+        }
+        return remaining;
+    }
+
+    private static BigDecimal sum(List<BigDecimal> values) {
+        return values.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
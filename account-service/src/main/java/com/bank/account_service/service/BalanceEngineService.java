@@ -0,0 +1,34 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Optional posting mode that keeps the balances of active accounts in memory and acknowledges a
+ * posting once it is in a local write-ahead journal.
+ */
+public interface BalanceEngineService {
+
+    /**
+     * Whether {@code movements.engine.enabled} is set.
+     */
+    boolean isEnabled();
+
+    /**
+     * Posts one movement against the in-memory balance and returns once it is journaled; it
+     * reaches the database shortly after. Throws the same exceptions as
+     * {@link MovementService#createMovement}.
+     */
+    MovementResponseDto createMovement(MovementCreateDto movementDto);
+
+    /**
+     * Runs a write that bypasses the engine, such as a status change or a batch, on accounts the
+     * engine may hold: their journaled postings are applied first, engine postings to them wait
+     * until {@code task} returns, and their balances are read again afterwards. Runs {@code task}
+     * directly when the engine is disabled.
+     */
+    <T> T exclusive(Collection<String> numerosCuenta, Supplier<T> task);
+}
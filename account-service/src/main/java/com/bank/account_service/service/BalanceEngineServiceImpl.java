@@ -0,0 +1,423 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.repository.AccountBalanceView;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountSubBalanceRepository;
+import com.bank.account_service.repository.JournaledMovementOperations;
+import com.bank.account_service.repository.MovementRepository;
+import com.bank.account_service.utils.ToDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory balance engine.
+ * <p>
+ * The first posting to an account loads its balance; from then on postings are checked against
+ * the balance held in memory, one at a time per account, and acknowledged once their movement is
+ * forced to the {@link MovementJournal}. Movement ids come from the same sequence blocks Hibernate
+ * uses. An applier thread writes journaled movements to {@code movimientos} and their net change to
+ * {@code cuentas} in transactions of up to {@code movements.engine.apply-batch}, then moves the
+ * journal's applied position. At startup the journal tail the database has not seen is applied
+ * before the engine takes postings; movements already stored are skipped, so a crash between a
+ * commit and the journal update does not post twice.
+ * <p>
+ * Reads come from the database and trail acknowledged postings by the applier's lag.
+ * <p>
+ * The balances in memory are only right while this is the one process writing the accounts, so
+ * the engine requires a single application node: it refuses to start unless
+ * {@code movements.engine.single-writer} confirms the deployment has one. Every other change to
+ * an account, deleting it included, goes through {@link #exclusive}. A journaled movement whose
+ * account is gone anyway is logged in full and counted in {@code movements.engine.orphaned}.
+ */
+@Service
+@Slf4j
+public class BalanceEngineServiceImpl implements BalanceEngineService {
+
+    private static final long RETRY_PAUSE_MILLIS = 500;
+
+    private final MovementService movementService;
+    private final AccountRepository accountRepository;
+    private final AccountSubBalanceRepository subBalanceRepository;
+    private final MovementRepository movementRepository;
+    private final VelocityRuleService velocityRules;
+    private final DailyDebitLimitService dailyDebitLimits;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path journalPath;
+    private final int journalSize;
+    private final int applyBatch;
+    private final Map<String, EngineAccount> accounts = new ConcurrentHashMap<>();
+    private final BlockingQueue<MovementJournal.Record> unapplied = new LinkedBlockingQueue<>();
+    private final Object appliedSignal = new Object();
+    private final Timer appendTimer;
+    private final DistributionSummary applySize;
+    private final Counter orphaned;
+    private MovementJournal journal;
+    private volatile boolean running;
+    private Thread applier;
+    private long nextId = 1;
+    private long lastId;
+
+    public BalanceEngineServiceImpl(MovementService movementService,
+                                    AccountRepository accountRepository,
+                                    AccountSubBalanceRepository subBalanceRepository,
+                                    MovementRepository movementRepository,
+                                    VelocityRuleService velocityRules,
+                                    DailyDebitLimitService dailyDebitLimits,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${movements.engine.enabled:false}") boolean enabled,
+                                    @Value("${movements.engine.single-writer:false}") boolean singleWriter,
+                                    @Value("${movements.engine.journal-path:data/movements.journal}") Path journalPath,
+                                    @Value("${movements.engine.journal-size:64MB}") DataSize journalSize,
+                                    @Value("${movements.engine.apply-batch:500}") int applyBatch) {
+        if (enabled && !singleWriter) {
+            throw new IllegalStateException("The balance engine needs a single application node; "
+                    + "set movements.engine.single-writer=true once the deployment has one");
+        }
+        this.movementService = movementService;
+        this.accountRepository = accountRepository;
+        this.subBalanceRepository = subBalanceRepository;
+        this.movementRepository = movementRepository;
+        this.velocityRules = velocityRules;
+        this.dailyDebitLimits = dailyDebitLimits;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.journalPath = journalPath;
+        this.journalSize = Math.toIntExact(journalSize.toBytes());
+        this.applyBatch = applyBatch;
+        this.appendTimer = Timer.builder("movements.engine.append")
+                .description("Time to check a posting in memory and force it to the journal")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.applySize = DistributionSummary.builder("movements.engine.apply.size")
+                .description("Journaled movements written to the database per transaction")
+                .register(meterRegistry);
+        this.orphaned = Counter.builder("movements.engine.orphaned")
+                .description("Journaled movements not applied because their account no longer exists")
+                .register(meterRegistry);
+        meterRegistry.gauge("movements.engine.unapplied", unapplied, BlockingQueue::size);
+        meterRegistry.gauge("movements.engine.accounts", accounts, Map::size);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = new MovementJournal(journalPath, journalSize);
+        List<MovementJournal.Record> tail = journal.readUnapplied();
+        for (int from = 0; from < tail.size(); from += applyBatch) {
+            applyWithRetry(tail.subList(from, Math.min(from + applyBatch, tail.size())));
+        }
+        if (!tail.isEmpty()) {
+            log.info("Applied {} journaled movements the database had not seen", tail.size());
+        }
+        running = true;
+        applier = Thread.ofPlatform().name("balance-engine-applier").daemon().start(this::run);
+    }
+
+    /**
+     * Stops taking the journal once everything acknowledged so far is applied.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (applier == null) {
+            return;
+        }
+        running = false;
+        applier.join();
+        applier = null;
+        journal.close();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public MovementResponseDto createMovement(MovementCreateDto movementDto) {
+        if (!enabled) {
+            return movementService.createMovement(movementDto);
+        }
+        if (movementDto.getValor() == null || movementDto.getValor().compareTo(BigDecimal.ZERO) == 0) {
+            throw new RuntimeException("Movement amount cannot be zero");
+        }
+        BigDecimal absAmount = movementDto.getValor().abs();
+        String numeroCuenta = movementDto.getCuentaId();
+        velocityRules.check(numeroCuenta, movementDto.getTipoMovimiento());
+        try {
+            return append(movementDto, numeroCuenta, absAmount);
+        } catch (RuntimeException ex) {
+            // Not acknowledged, so it does not count towards the velocity rules
+            velocityRules.release(numeroCuenta, movementDto.getTipoMovimiento());
+            throw ex;
+        }
+    }
+
+    /**
+     * Checks the posting against the balance in memory and journals it.
+     */
+    private MovementResponseDto append(MovementCreateDto movementDto, String numeroCuenta, BigDecimal absAmount) {
+        EngineAccount account = accounts.get(numeroCuenta);
+        if (account == null) {
+            // Unknown account numbers are never held
+            accountRepository.findBalanceByNumeroCuenta(numeroCuenta)
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + numeroCuenta));
+            account = accounts.computeIfAbsent(numeroCuenta, k -> new EngineAccount());
+        }
+
+        long start = System.nanoTime();
+        account.lock.lock();
+        try {
+            if (account.saldo == null) {
+                load(numeroCuenta, account);
+            }
+            if (!account.estado) {
+                throw new RuntimeException("Cannot create movement for inactive account");
+            }
+            BigDecimal saldo = movementDto.getTipoMovimiento() == Movement.MovementType.CREDITO
+                    ? account.saldo.add(absAmount)
+                    : account.saldo.subtract(absAmount);
+            // Held funds are not available
+            if (saldo.compareTo(account.retenido) < 0) {
+                throw new InsufficientFundsException("Insufficient funds");
+            }
+            boolean debit = movementDto.getTipoMovimiento() == Movement.MovementType.DEBITO;
+            LocalDateTime fecha = debit
+                    ? dailyDebitLimits.reserve(numeroCuenta, absAmount)
+                    : LocalDateTime.now();
+
+            Movement movement = new Movement();
+            movement.setId(nextId());
+            movement.setNumeroCuenta(numeroCuenta);
+            movement.setFecha(fecha);
+            movement.setTipoMovimiento(movementDto.getTipoMovimiento());
+            movement.setValor(absAmount);
+            movement.setSaldo(saldo);
+            movement.setDescripcion(movementDto.getDescripcion());
+            movement.setCreatedAt(movement.getFecha());
+            try {
+                journal(movement);
+            } catch (RuntimeException ex) {
+                if (debit) {
+                    dailyDebitLimits.release(numeroCuenta, absAmount, fecha);
+                }
+                throw ex;
+            }
+            account.saldo = saldo;
+            account.pending.incrementAndGet();
+            appendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return ToDto.movementConvertToDto(movement);
+        } finally {
+            account.lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T exclusive(Collection<String> numerosCuenta, Supplier<T> task) {
+        if (!enabled) {
+            return task.get();
+        }
+        // Sorted, so two exclusive writes never wait for each other's accounts
+        List<EngineAccount> held = new ArrayList<>();
+        try {
+            for (String numeroCuenta : new TreeSet<>(numerosCuenta)) {
+                EngineAccount account = accounts.computeIfAbsent(numeroCuenta, k -> new EngineAccount());
+                account.lock.lock();
+                held.add(account);
+            }
+            awaitApplied(held);
+            return task.get();
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).saldo = null;
+                held.get(i).lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Waits until every movement journaled so far is in the database.
+     */
+    public void awaitApplied() {
+        awaitApplied(List.copyOf(accounts.values()));
+    }
+
+    private void load(String numeroCuenta, EngineAccount account) {
+        AccountBalanceView balance = accountRepository.findBalanceByNumeroCuenta(numeroCuenta)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + numeroCuenta));
+        account.estado = Boolean.TRUE.equals(balance.getEstado());
+        account.retenido = balance.getSaldoRetenido();
+        // Split accounts included
+        account.saldo = subBalanceRepository.accountTotal(numeroCuenta);
+    }
+
+    private synchronized long nextId() {
+        if (nextId > lastId) {
+            lastId = movementRepository.reserveIdBlock();
+            nextId = Math.max(1, lastId - JournaledMovementOperations.ID_BLOCK_SIZE + 1);
+        }
+        return nextId++;
+    }
+
+    /**
+     * Appends and queues under the journal's lock, so the applier sees movements in journal order
+     * and never marks a position applied while an earlier movement is still queued.
+     */
+    private void journal(Movement movement) {
+        synchronized (journal) {
+            unapplied.add(new MovementJournal.Record(movement, journal.append(movement)));
+        }
+    }
+
+    private void run() {
+        List<MovementJournal.Record> batch = new ArrayList<>(applyBatch);
+        while (running || !unapplied.isEmpty()) {
+            try {
+                MovementJournal.Record first = unapplied.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            unapplied.drainTo(batch, applyBatch - 1);
+            applyWithRetry(batch);
+            for (MovementJournal.Record record : batch) {
+                accounts.get(record.movement().getNumeroCuenta()).pending.decrementAndGet();
+            }
+            synchronized (appliedSignal) {
+                appliedSignal.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Acknowledged movements cannot be dropped, so a failing transaction is retried until it
+     * commits.
+     */
+    private void applyWithRetry(List<MovementJournal.Record> records) {
+        while (true) {
+            try {
+                apply(records);
+                journal.markApplied(records.get(records.size() - 1).end());
+                applySize.record(records.size());
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Applying {} journaled movements failed, retrying", records.size(), ex);
+                try {
+                    Thread.sleep(RETRY_PAUSE_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while applying the journal", interrupted);
+                }
+            }
+        }
+    }
+
+    private void apply(List<MovementJournal.Record> records) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> stored = movementRepository.findExistingIds(records.stream()
+                    .map(record -> record.movement().getId())
+                    .toList());
+            List<Movement> movements = records.stream()
+                    .map(MovementJournal.Record::movement)
+                    .filter(movement -> !stored.contains(movement.getId()))
+                    .toList();
+            // Sorted by account number, the order batches and group commits lock rows in
+            SortedMap<String, BigDecimal> deltas = new TreeMap<>();
+            for (Movement movement : movements) {
+                deltas.merge(movement.getNumeroCuenta(), movement.getTipoMovimiento() == Movement.MovementType.CREDITO
+                        ? movement.getValor()
+                        : movement.getValor().negate(), BigDecimal::add);
+            }
+            Set<String> deleted = new TreeSet<>();
+            deltas.forEach((numeroCuenta, delta) -> {
+                if (accountRepository.adjust(numeroCuenta, delta).isEmpty()) {
+                    deleted.add(numeroCuenta);
+                }
+            });
+            if (!deleted.isEmpty()) {
+                // Only an account removed behind the engine's back gets here; keep the movements in the log
+                movements.stream()
+                        .filter(movement -> deleted.contains(movement.getNumeroCuenta()))
+                        .forEach(movement -> {
+                            log.error("Acknowledged movement {} has no account: {} {} {} at {}", movement.getId(),
+                                    movement.getNumeroCuenta(), movement.getTipoMovimiento(), movement.getValor(),
+                                    movement.getFecha());
+                            orphaned.increment();
+                        });
+                movements = movements.stream()
+                        .filter(movement -> !deleted.contains(movement.getNumeroCuenta()))
+                        .toList();
+            }
+            if (!movements.isEmpty()) {
+                movementRepository.insertWithIds(movements);
+            }
+        });
+    }
+
+    private void awaitApplied(List<EngineAccount> held) {
+        synchronized (appliedSignal) {
+            while (held.stream().anyMatch(account -> account.pending.get() > 0)) {
+                try {
+                    appliedSignal.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the journal", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Balance, held funds and status of an account; {@code saldo} is null until (re)loaded. Holds
+     * change only inside {@link #exclusive}, which has the account reloaded.
+     */
+    private static final class EngineAccount {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicInteger pending = new AtomicInteger();
+        private BigDecimal saldo;
+        private BigDecimal retenido;
+        private boolean estado;
+    }
+}
@@ -0,0 +1,16 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.ClientDto;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client data owned by client-service. Lookups are non-blocking; callers join the future
+ * when they need the client.
+ */
+public interface ClientLookupService {
+
+    CompletableFuture<ClientDto> getClientByClientId(Long clientId);
+
+    CompletableFuture<ClientDto> getClientByIdentificacion(String identificacion);
+}
@@ -0,0 +1,86 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.ClientDto;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Caches client-service lookups by clienteId and by identificacion.
+ * <p>
+ * Concurrent misses for one key share a single in-flight request. Entries are refreshed in
+ * the background once they are older than {@code clients.cache.refresh-after} and dropped
+ * after {@code clients.cache.ttl}; failed lookups are not cached. A client loaded under one
+ * key is also stored under the other.
+ */
+@Service
+public class ClientLookupServiceImpl implements ClientLookupService {
+
+    private final WebClient clientServiceWebClient;
+    private final AsyncLoadingCache<Long, ClientDto> byClientId;
+    private final AsyncLoadingCache<String, ClientDto> byIdentificacion;
+
+    public ClientLookupServiceImpl(WebClient clientServiceWebClient,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${clients.cache.maximum-size:10000}") long maximumSize,
+                                   @Value("${clients.cache.ttl:10m}") Duration ttl,
+                                   @Value("${clients.cache.refresh-after:1m}") Duration refreshAfter) {
+        this.clientServiceWebClient = clientServiceWebClient;
+        this.byClientId = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .buildAsync((Long clientId, Executor executor) ->
+                        fetch("/api/clientes/" + clientId).thenApply(this::storeByIdentificacion)),
+                "clients.byClientId");
+        this.byIdentificacion = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .buildAsync((String identificacion, Executor executor) ->
+                        fetch("/api/clientes/identificacion/" + identificacion).thenApply(this::storeByClientId)),
+                "clients.byIdentificacion");
+    }
+
+    @Override
+    public CompletableFuture<ClientDto> getClientByClientId(Long clientId) {
+        return byClientId.get(clientId);
+    }
+
+    @Override
+    public CompletableFuture<ClientDto> getClientByIdentificacion(String identificacion) {
+        return byIdentificacion.get(identificacion);
+    }
+
+    private CompletableFuture<ClientDto> fetch(String uri) {
+        return clientServiceWebClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(ClientDto.class)
+                .toFuture();
+    }
+
+    private ClientDto storeByClientId(ClientDto client) {
+        if (client != null && client.getClienteId() != null) {
+            byClientId.put(client.getClienteId(), CompletableFuture.completedFuture(client));
+        }
+        return client;
+    }
+
+    private ClientDto storeByIdentificacion(ClientDto client) {
+        if (client != null && client.getPersona() != null && client.getPersona().getIdentificacion() != null) {
+            byIdentificacion.put(client.getPersona().getIdentificacion(), CompletableFuture.completedFuture(client));
+        }
+        return client;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bank.account_service.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Per-account cap on the DEBITO total of a calendar day.
+ */
+public interface DailyDebitLimitService {
+
+    /**
+     * Counts a debit against today's limit of the account, or throws
+     * {@link com.bank.account_service.exception.DailyDebitLimitExceededException} when it would go over,
+     * and returns the {@code fecha} the debit's movement must be stored with.
+     * Inside a transaction the debit only stays counted if the transaction commits; outside one it
+     * is counted right away and {@link #release} takes it back.
+     */
+    LocalDateTime reserve(String numeroCuenta, BigDecimal valor);
+
+    /**
+     * Takes back a debit reserved outside a transaction that was not posted after all, given the
+     * {@code fecha} {@link #reserve} returned for it.
+     */
+    void release(String numeroCuenta, BigDecimal valor, LocalDateTime fecha);
+
+    /**
+     * Replaces today's totals with those in {@code movimientos}, picking up debits posted by other
+     * nodes and deleted movements.
+     */
+    void reconcile();
+}
@@ -0,0 +1,292 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.exception.DailyDebitLimitExceededException;
+import com.bank.account_service.repository.AccountDebitTotalView;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.MovementRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily debit limits checked against running totals held in memory.
+ * <p>
+ * Limits come from {@code movements.daily-debit-limit.accounts} (per account) or the limit of the
+ * account's type; accounts with neither are not limited. The first debit of an account on this
+ * node loads its type and what it has already debited today; from then on each debit is checked
+ * and counted under the lock of one of {@value #STRIPES} stripes the accounts are spread over,
+ * without a query. Debits still in flight count towards the limit until their transaction ends.
+ * <p>
+ * Each node counts its own debits; {@link #reconcile} brings the totals in line with the
+ * database every {@code movements.daily-debit-limit.reconcile-interval}, so debits posted by other
+ * nodes are seen within that interval or the next. Reserving a debit hands out the {@code fecha}
+ * its movement is stored with, so a reconcile can take the debits before a cut-off from the
+ * database and those after it from memory without counting any twice.
+ */
+@Service
+public class DailyDebitLimitServiceImpl implements DailyDebitLimitService {
+
+    static final int STRIPES = 64;
+    private static final int RECONCILE_BATCH = 500;
+
+    private final AccountRepository accountRepository;
+    private final MovementRepository movementRepository;
+    private final Map<Account.AccountType, BigDecimal> typeLimits = new EnumMap<>(Account.AccountType.class);
+    private final Map<String, BigDecimal> accountLimits = new HashMap<>();
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public DailyDebitLimitServiceImpl(AccountRepository accountRepository,
+                                      MovementRepository movementRepository,
+                                      @Value("${movements.daily-debit-limit.ahorro:}") BigDecimal ahorro,
+                                      @Value("${movements.daily-debit-limit.corriente:}") BigDecimal corriente,
+                                      @Value("${movements.daily-debit-limit.accounts:}") String[] accounts) {
+        this.accountRepository = accountRepository;
+        this.movementRepository = movementRepository;
+        if (ahorro != null) {
+            typeLimits.put(Account.AccountType.AHORRO, ahorro);
+        }
+        if (corriente != null) {
+            typeLimits.put(Account.AccountType.CORRIENTE, corriente);
+        }
+        for (String account : accounts) {
+            String[] parts = account.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected <numeroCuenta>:<limit> in "
+                        + "movements.daily-debit-limit.accounts, got " + account);
+            }
+            accountLimits.put(parts[0].trim(), new BigDecimal(parts[1].trim()));
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public LocalDateTime reserve(String numeroCuenta, BigDecimal valor) {
+        if (typeLimits.isEmpty() && accountLimits.isEmpty()) {
+            return LocalDateTime.now();
+        }
+        LocalDate today = LocalDate.now();
+        Stripe stripe = stripe(numeroCuenta);
+        DailyDebits debits;
+        synchronized (stripe) {
+            debits = stripe.accounts.get(numeroCuenta);
+        }
+        if (debits == null) {
+            debits = load(numeroCuenta, today);
+            if (debits == null) {
+                // Unknown account; the posting fails on its own
+                return LocalDateTime.now();
+            }
+            synchronized (stripe) {
+                debits = stripe.accounts.merge(numeroCuenta, debits, (current, loaded) -> current);
+            }
+        }
+
+        LocalDateTime fecha;
+        synchronized (stripe) {
+            debits.rollOver(today);
+            if (debits.limit == null) {
+                return LocalDateTime.now();
+            }
+            if (debits.posted.add(debits.reserved).add(valor).compareTo(debits.limit) > 0) {
+                throw new DailyDebitLimitExceededException("Daily debit limit of " + debits.limit.toPlainString()
+                        + " exceeded for account " + numeroCuenta);
+            }
+            debits.reserved = debits.reserved.add(valor);
+            fecha = debits.stamp();
+            debits.inFlight.add(fecha);
+        }
+
+        DailyDebits reserved = debits;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    complete(stripe, reserved, today, valor, fecha, status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            complete(stripe, reserved, today, valor, fecha, true);
+        }
+        return fecha;
+    }
+
+    @Override
+    public void release(String numeroCuenta, BigDecimal valor, LocalDateTime fecha) {
+        Stripe stripe = stripe(numeroCuenta);
+        synchronized (stripe) {
+            DailyDebits debits = stripe.accounts.get(numeroCuenta);
+            if (debits != null && debits.limit != null && LocalDate.now().equals(debits.day)) {
+                debits.posted = debits.posted.subtract(valor);
+                debits.committed.add(new Debit(fecha, valor.negate()));
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${movements.daily-debit-limit.reconcile-interval:PT1M}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        // The database is asked for the debits before the cut-off and the debits at or after it
+        // are counted from memory. Every debit before the cut-off has ended by now, so the query
+        // sees it if it was committed, and every debit reserved from here on is stamped at or
+        // after it, so none is counted twice however the query and the commits interleave
+        LocalDateTime cutoff = now;
+        Map<String, DailyDebits> tracked = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Map.Entry<String, DailyDebits>> it = stripe.accounts.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<String, DailyDebits> entry = it.next();
+                    DailyDebits debits = entry.getValue();
+                    if (!today.equals(debits.day)) {
+                        // Idle since an earlier day; loaded again on its next debit
+                        it.remove();
+                    } else if (debits.limit != null) {
+                        for (LocalDateTime fecha : debits.inFlight) {
+                            if (fecha.isBefore(cutoff)) {
+                                cutoff = fecha;
+                            }
+                        }
+                        if (debits.lastFecha == null || debits.lastFecha.isBefore(now)) {
+                            debits.lastFecha = now;
+                        }
+                        tracked.put(entry.getKey(), debits);
+                    }
+                }
+            }
+        }
+
+        List<String> numeros = new ArrayList<>(tracked.keySet());
+        for (int from = 0; from < numeros.size(); from += RECONCILE_BATCH) {
+            List<String> batch = numeros.subList(from, Math.min(from + RECONCILE_BATCH, numeros.size()));
+            Map<String, BigDecimal> totals = new HashMap<>();
+            for (AccountDebitTotalView view : movementRepository.sumDebitsBetween(batch, today.atStartOfDay(),
+                    cutoff)) {
+                totals.put(view.getNumeroCuenta(), view.getTotal());
+            }
+            for (String numeroCuenta : batch) {
+                Stripe stripe = stripe(numeroCuenta);
+                synchronized (stripe) {
+                    DailyDebits debits = tracked.get(numeroCuenta);
+                    // Skipped if the account was dropped and loaded again, or its day ended
+                    if (stripe.accounts.get(numeroCuenta) == debits && today.equals(debits.day)) {
+                        debits.reconcile(totals.getOrDefault(numeroCuenta, BigDecimal.ZERO), cutoff);
+                    }
+                }
+            }
+        }
+    }
+
+    private DailyDebits load(String numeroCuenta, LocalDate today) {
+        BigDecimal limit = accountLimits.get(numeroCuenta);
+        if (limit == null) {
+            Account.AccountType tipoCuenta = accountRepository.findTipoCuentaByNumeroCuenta(numeroCuenta).orElse(null);
+            if (tipoCuenta == null) {
+                return null;
+            }
+            limit = typeLimits.get(tipoCuenta);
+        }
+        BigDecimal posted = limit == null
+                ? BigDecimal.ZERO
+                : movementRepository.sumDebitsSince(numeroCuenta, today.atStartOfDay());
+        return new DailyDebits(limit, today, posted);
+    }
+
+    private static void complete(Stripe stripe, DailyDebits debits, LocalDate day, BigDecimal valor,
+                                 LocalDateTime fecha, boolean committed) {
+        synchronized (stripe) {
+            if (!day.equals(debits.day)) {
+                // Counted on a day that has ended
+                return;
+            }
+            debits.reserved = debits.reserved.subtract(valor);
+            debits.inFlight.remove(fecha);
+            if (committed) {
+                debits.posted = debits.posted.add(valor);
+                debits.committed.add(new Debit(fecha, valor));
+            }
+        }
+    }
+
+    private Stripe stripe(String numeroCuenta) {
+        return stripes[Math.floorMod(numeroCuenta.hashCode(), STRIPES)];
+    }
+
+    private static final class Stripe {
+        private final Map<String, DailyDebits> accounts = new HashMap<>();
+    }
+
+    /**
+     * An account's limit (null: none) and its debits of {@code day}: committed, and reserved by
+     * transactions still running. The committed debits stamped at or after the last reconcile's
+     * cut-off are also kept one by one, along with the stamps of the reservations in flight.
+     * Guarded by the account's stripe.
+     */
+    private static final class DailyDebits {
+        private final BigDecimal limit;
+        private LocalDate day;
+        private BigDecimal posted;
+        private BigDecimal reserved = BigDecimal.ZERO;
+        private final List<LocalDateTime> inFlight = new ArrayList<>();
+        private final List<Debit> committed = new ArrayList<>();
+        private LocalDateTime lastFecha;
+
+        private DailyDebits(BigDecimal limit, LocalDate day, BigDecimal posted) {
+            this.limit = limit;
+            this.day = day;
+            this.posted = posted;
+        }
+
+        private void rollOver(LocalDate today) {
+            if (!today.equals(day)) {
+                day = today;
+                posted = BigDecimal.ZERO;
+                reserved = BigDecimal.ZERO;
+                inFlight.clear();
+                committed.clear();
+            }
+        }
+
+        /**
+         * The current time, at the precision the database keeps, and never before an earlier
+         * stamp of the account.
+         */
+        private LocalDateTime stamp() {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            if (lastFecha != null && now.isBefore(lastFecha)) {
+                now = lastFecha;
+            }
+            lastFecha = now;
+            return now;
+        }
+
+        private void reconcile(BigDecimal beforeCutoff, LocalDateTime cutoff) {
+            committed.removeIf(debit -> debit.fecha().isBefore(cutoff));
+            BigDecimal total = beforeCutoff;
+            for (Debit debit : committed) {
+                total = total.add(debit.valor());
+            }
+            posted = total;
+        }
+    }
+
+    private record Debit(LocalDateTime fecha, BigDecimal valor) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.FeeRunCreateDto;
+import com.bank.account_service.dto.FeeRunResponseDto;
+import com.bank.account_service.dto.FeeRunSkipResponseDto;
+
+/**
+ * Maintenance fees on CORRIENTE accounts.
+ */
+public interface FeeRunService {
+
+    /**
+     * Starts charging {@code comision} to every active CORRIENTE account, once per cut-off date.
+     * The accounts are charged in the background; accounts whose available balance does not cover
+     * the fee are skipped and recorded. The run is polled with {@link #getFeeRun}.
+     */
+    FeeRunResponseDto startFeeRun(FeeRunCreateDto feeRunDto);
+
+    FeeRunResponseDto getFeeRun(Long id);
+
+    /**
+     * The accounts a run skipped for insufficient funds, in account number order.
+     */
+    CursorPageDto<FeeRunSkipResponseDto> getSkipped(Long id, String cursor, Integer limit);
+}
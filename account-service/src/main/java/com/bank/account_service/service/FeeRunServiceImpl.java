@@ -0,0 +1,486 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.FeeRunCreateDto;
+import com.bank.account_service.dto.FeeRunResponseDto;
+import com.bank.account_service.dto.FeeRunSkipResponseDto;
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.FeeRun;
+import com.bank.account_service.entity.FeeRunChunk;
+import com.bank.account_service.entity.FeeRunSkip;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.FeeRunExistsException;
+import com.bank.account_service.exception.FeeRunNotFoundException;
+import com.bank.account_service.repository.AccountBalanceView;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountSubBalanceRepository;
+import com.bank.account_service.repository.FeeRunChunkRepository;
+import com.bank.account_service.repository.FeeRunChunkTotalsView;
+import com.bank.account_service.repository.FeeRunRepository;
+import com.bank.account_service.repository.FeeRunSkipRepository;
+import com.bank.account_service.repository.JournaledMovementOperations;
+import com.bank.account_service.repository.MovementRepository;
+import com.bank.account_service.utils.KeysetCursor;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Maintenance fee runs.
+ * <p>
+ * Starting a run splits the CORRIENTE accounts into key ranges of {@code fees.run.chunk-size}
+ * accounts, walking the {@code (tipo_cuenta, numero_cuenta)} index, and stores one pending chunk
+ * per range. A background job then settles the chunks on a pool of {@code fees.run.parallelism}
+ * minimum-priority threads. Each chunk is one transaction that marks it done, locks the
+ * sub-balances of the split accounts in the range and then its active accounts in account order,
+ * and charges the fee to every account whose balance net of held funds covers it. The DEBITO
+ * movements go in with one batched INSERT, the new balances with one batched UPDATE, and the
+ * accounts that could not pay with one batched INSERT into {@code cobro_comision_omisiones}; a
+ * short account never stops the run. A crash loses no more than the open chunks, which are still
+ * pending afterwards; a chunk that committed is never charged again.
+ * <p>
+ * The fee is a bank charge: it does not count towards the account's daily debit limit or its
+ * velocity rules. A split account pays from its account row above the held funds first and from
+ * its sub-balances, in slot order, for the rest.
+ * <p>
+ * To stay out of the way of online postings, chunks are kept small, so each holds its row locks
+ * briefly, and the job charges at most {@code fees.run.max-accounts-per-second} accounts a second
+ * across all workers, pausing between chunks to keep to it.
+ * <p>
+ * Running fee runs are picked up again every {@code fees.run.resume-interval}, starting at boot,
+ * on every node. With {@code fees.run.cron} set, a run charging {@code fees.run.amount} starts on
+ * that schedule.
+ */
+@Service
+@Slf4j
+public class FeeRunServiceImpl implements FeeRunService {
+
+    private final FeeRunRepository feeRunRepository;
+    private final FeeRunChunkRepository chunkRepository;
+    private final FeeRunSkipRepository skipRepository;
+    private final AccountRepository accountRepository;
+    private final AccountSubBalanceRepository subBalanceRepository;
+    private final MovementRepository movementRepository;
+    private final BalanceEngineService balanceEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final PageLimits pageLimits;
+    private final int chunkSize;
+    private final long nanosPerAccount;
+    private final BigDecimal amount;
+    private final ExecutorService jobs = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("fee-run-", 0).factory());
+    private final ExecutorService chunks;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final Timer chunkTimer;
+    private final Counter chargedCounter;
+    private final Counter skippedCounter;
+    private final DistributionSummary throughput;
+    private long nextChunkAt;
+
+    public FeeRunServiceImpl(FeeRunRepository feeRunRepository,
+                             FeeRunChunkRepository chunkRepository,
+                             FeeRunSkipRepository skipRepository,
+                             AccountRepository accountRepository,
+                             AccountSubBalanceRepository subBalanceRepository,
+                             MovementRepository movementRepository,
+                             BalanceEngineService balanceEngine,
+                             TransactionTemplate transactionTemplate,
+                             PageLimits pageLimits,
+                             MeterRegistry meterRegistry,
+                             @Value("${fees.run.chunk-size:200}") int chunkSize,
+                             @Value("${fees.run.parallelism:2}") int parallelism,
+                             @Value("${fees.run.max-accounts-per-second:2000}") int maxAccountsPerSecond,
+                             @Value("${fees.run.amount:}") BigDecimal amount) {
+        this.feeRunRepository = feeRunRepository;
+        this.chunkRepository = chunkRepository;
+        this.skipRepository = skipRepository;
+        this.accountRepository = accountRepository;
+        this.subBalanceRepository = subBalanceRepository;
+        this.movementRepository = movementRepository;
+        this.balanceEngine = balanceEngine;
+        this.transactionTemplate = transactionTemplate;
+        this.pageLimits = pageLimits;
+        this.chunkSize = chunkSize;
+        // 0 leaves the job unthrottled
+        this.nanosPerAccount = maxAccountsPerSecond > 0 ? 1_000_000_000L / maxAccountsPerSecond : 0;
+        this.amount = amount;
+        this.chunks = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("fee-run-chunk-", 0).priority(Thread.MIN_PRIORITY).factory());
+        this.chunkTimer = Timer.builder("fees.run.chunk")
+                .description("Time to charge the fee to one range of accounts")
+                .register(meterRegistry);
+        this.chargedCounter = Counter.builder("fees.run.accounts")
+                .description("Accounts processed by fee runs")
+                .tag("outcome", "charged")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("fees.run.accounts")
+                .description("Accounts processed by fee runs")
+                .tag("outcome", "skipped")
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("fees.run.throughput")
+                .description("Accounts processed per second by each completed fee run")
+                .baseUnit("accounts/s")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public FeeRunResponseDto startFeeRun(FeeRunCreateDto feeRunDto) {
+        if (feeRunRepository.existsByFechaCorte(feeRunDto.getFechaCorte())) {
+            throw new FeeRunExistsException("Fees already charged for " + feeRunDto.getFechaCorte());
+        }
+        FeeRun feeRun = transactionTemplate.execute(status -> {
+            List<String> bounds = accountRepository.findRangeBounds(Account.AccountType.CORRIENTE, chunkSize);
+            FeeRun created = new FeeRun();
+            created.setFechaCorte(feeRunDto.getFechaCorte());
+            created.setComision(feeRunDto.getComision());
+            created.setTramos(bounds.size());
+            created.setEstado(FeeRun.FeeRunStatus.RUNNING);
+            created.setCreatedAt(LocalDateTime.now());
+            feeRunRepository.save(created);
+
+            List<FeeRunChunk> ranges = new ArrayList<>(bounds.size());
+            for (int i = 0; i < bounds.size(); i++) {
+                FeeRunChunk chunk = new FeeRunChunk();
+                chunk.setCobroId(created.getId());
+                chunk.setTramo(i);
+                chunk.setDesde(i == 0 ? "" : bounds.get(i - 1));
+                chunk.setHasta(bounds.get(i));
+                chunk.setEstado(FeeRunChunk.ChunkStatus.PENDING);
+                ranges.add(chunk);
+            }
+            chunkRepository.insertChunks(ranges);
+            return created;
+        });
+
+        schedule(feeRun.getId());
+        return toDto(feeRun);
+    }
+
+    @Override
+    public FeeRunResponseDto getFeeRun(Long id) {
+        return toDto(feeRunRepository.findById(id)
+                .orElseThrow(() -> new FeeRunNotFoundException("Fee run not found with id: " + id)));
+    }
+
+    @Override
+    public CursorPageDto<FeeRunSkipResponseDto> getSkipped(Long id, String cursor, Integer limit) {
+        if (!feeRunRepository.existsById(id)) {
+            throw new FeeRunNotFoundException("Fee run not found with id: " + id);
+        }
+        int pageSize = pageLimits.resolve(limit);
+        String after = cursor == null ? "" : KeysetCursor.decode(cursor, 1)[0];
+        // One extra row tells whether another page follows
+        List<FeeRunSkip> skips = skipRepository.findByCobroIdAndNumeroCuentaGreaterThanOrderByNumeroCuentaAsc(id,
+                after, Limit.of(pageSize + 1));
+
+        List<FeeRunSkipResponseDto> page = skips.stream()
+                .limit(pageSize)
+                .map(skip -> FeeRunSkipResponseDto.builder()
+                        .numeroCuenta(skip.getNumeroCuenta())
+                        .disponible(skip.getDisponible())
+                        .build())
+                .toList();
+        String nextCursor = skips.size() > pageSize
+                ? KeysetCursor.encode(page.get(page.size() - 1).getNumeroCuenta())
+                : null;
+        return new CursorPageDto<>(page, nextCursor);
+    }
+
+    /**
+     * Starts today's fee run.
+     */
+    @Scheduled(cron = "${fees.run.cron:-}")
+    public void chargeScheduled() {
+        if (amount == null) {
+            log.warn("fees.run.cron is set without fees.run.amount; no fees charged");
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        FeeRunCreateDto feeRunDto = new FeeRunCreateDto();
+        feeRunDto.setFechaCorte(today);
+        feeRunDto.setComision(amount);
+        try {
+            startFeeRun(feeRunDto);
+        } catch (FeeRunExistsException | DataIntegrityViolationException ex) {
+            log.debug("Fee run for {} started on another node", today);
+        }
+    }
+
+    /**
+     * Picks up running fee runs, including those a crash or a failed chunk left unfinished.
+     */
+    @Scheduled(fixedDelayString = "${fees.run.resume-interval:PT1M}")
+    public void resumeRunning() {
+        for (FeeRun feeRun : feeRunRepository.findByEstado(FeeRun.FeeRunStatus.RUNNING)) {
+            schedule(feeRun.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdownNow();
+        chunks.shutdown();
+    }
+
+    private void schedule(Long id) {
+        if (!running.add(id)) {
+            return;
+        }
+        jobs.execute(() -> {
+            try {
+                run(id);
+            } finally {
+                running.remove(id);
+            }
+        });
+    }
+
+    private void run(Long id) {
+        FeeRun feeRun = feeRunRepository.findById(id).orElse(null);
+        if (feeRun == null || feeRun.getEstado() != FeeRun.FeeRunStatus.RUNNING) {
+            return;
+        }
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (FeeRunChunk chunk : chunkRepository.findByCobroIdAndEstadoOrderByTramoAsc(id,
+                FeeRunChunk.ChunkStatus.PENDING)) {
+            pending.add(CompletableFuture.runAsync(() -> {
+                Integer processed = chunkTimer.record(() -> chargeChunk(feeRun, chunk));
+                pace(processed == null ? 0 : processed);
+            }, chunks));
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+            complete(feeRun);
+        } catch (RuntimeException ex) {
+            log.error("Fee run {} stopped before completing; it is resumed on the next pass", id, ex);
+        }
+    }
+
+    /**
+     * Charges one chunk and returns the accounts it processed, 0 if another node settled it.
+     */
+    private Integer chargeChunk(FeeRun feeRun, FeeRunChunk chunk) {
+        List<String> accounts = balanceEngine.isEnabled()
+                ? accountRepository.findNumerosCuentaInRange(Account.AccountType.CORRIENTE, chunk.getDesde(),
+                        chunk.getHasta())
+                : List.of();
+        return balanceEngine.exclusive(accounts, () -> transactionTemplate.execute(status -> {
+            long start = System.nanoTime();
+            if (chunkRepository.claim(feeRun.getId(), chunk.getTramo()) == 0) {
+                return 0;
+            }
+            // Sub-balances come before the account rows, like batches and group commits lock them
+            Map<String, List<BigDecimal>> slots = new TreeMap<>();
+            for (String numeroCuenta : new TreeMap<>(subBalanceRepository.findSubBalanceTotals(chunk.getDesde(),
+                    chunk.getHasta())).keySet()) {
+                slots.put(numeroCuenta, new ArrayList<>(subBalanceRepository.lockSlots(numeroCuenta)));
+            }
+            List<AccountBalanceView> balances = accountRepository.lockRange(Account.AccountType.CORRIENTE,
+                    chunk.getDesde(), chunk.getHasta());
+
+            LocalDateTime now = LocalDateTime.now();
+            BigDecimal comision = feeRun.getComision();
+            String descripcion = "Comision de mantenimiento " + feeRun.getFechaCorte();
+            Map<String, BigDecimal> debits = new LinkedHashMap<>();
+            List<Movement> movements = new ArrayList<>();
+            List<FeeRunSkip> skips = new ArrayList<>();
+            for (AccountBalanceView account : balances) {
+                String numeroCuenta = account.getNumeroCuenta();
+                List<BigDecimal> accountSlots = slots.getOrDefault(numeroCuenta, List.of());
+                BigDecimal saldo = account.getSaldoActual().add(sum(accountSlots));
+                BigDecimal disponible = saldo.subtract(account.getSaldoRetenido());
+                if (disponible.compareTo(comision) < 0) {
+                    FeeRunSkip skip = new FeeRunSkip();
+                    skip.setCobroId(feeRun.getId());
+                    skip.setNumeroCuenta(numeroCuenta);
+                    skip.setDisponible(disponible);
+                    skips.add(skip);
+                    continue;
+                }
+                BigDecimal fromRow = comision.min(account.getSaldoActual().subtract(account.getSaldoRetenido()))
+                        .max(BigDecimal.ZERO);
+                drawFromSlots(numeroCuenta, accountSlots, comision.subtract(fromRow));
+                if (fromRow.signum() > 0) {
+                    debits.put(numeroCuenta, fromRow.negate());
+                }
+
+                Movement movement = new Movement();
+                movement.setNumeroCuenta(numeroCuenta);
+                movement.setFecha(now);
+                movement.setTipoMovimiento(Movement.MovementType.DEBITO);
+                movement.setValor(comision);
+                movement.setSaldo(saldo.subtract(comision));
+                movement.setDescripcion(descripcion);
+                movement.setCreatedAt(now);
+                movements.add(movement);
+            }
+
+            if (!movements.isEmpty()) {
+                assignIds(movements);
+                movementRepository.insertWithIds(movements);
+                accountRepository.addToBalances(debits);
+            }
+            if (!skips.isEmpty()) {
+                skipRepository.insertSkips(skips);
+            }
+            BigDecimal total = comision.multiply(BigDecimal.valueOf(movements.size()));
+            chunkRepository.recordOutcome(feeRun.getId(), chunk.getTramo(), movements.size(), skips.size(), total,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis(), now);
+            chargedCounter.increment(movements.size());
+            skippedCounter.increment(skips.size());
+            return balances.size();
+        }));
+    }
+
+    /**
+     * Takes {@code amount} from the locked sub-balances in slot order; the caller checked they
+     * cover it.
+     */
+    private void drawFromSlots(String numeroCuenta, List<BigDecimal> slots, BigDecimal amount) {
+        BigDecimal remaining = amount;
+        for (int slot = 0; slot < slots.size() && remaining.signum() > 0; slot++) {
+            BigDecimal taken = remaining.min(slots.get(slot));
+            if (taken.signum() > 0) {
+                slots.set(slot, slots.get(slot).subtract(taken));
+                subBalanceRepository.setSlot(numeroCuenta, slot, slots.get(slot));
+                remaining = remaining.subtract(taken);
+            }
+        }
+    }
+
+    /**
+     * Ids come from reserved blocks of the movement sequence, like the balance engine's.
+     */
+    private void assignIds(List<Movement> movements) {
+        long next = 1;
+        long last = 0;
+        for (Movement movement : movements) {
+            if (next > last) {
+                last = movementRepository.reserveIdBlock();
+                next = Math.max(1, last - JournaledMovementOperations.ID_BLOCK_SIZE + 1);
+            }
+            movement.setId(next++);
+        }
+    }
+
+    /**
+     * Holds the calling worker back until the accounts it just processed fit in the rate limit,
+     * counting the accounts every worker processed before it.
+     */
+    private void pace(int accounts) {
+        if (nanosPerAccount == 0 || accounts == 0) {
+            return;
+        }
+        long wakeUp;
+        synchronized (this) {
+            nextChunkAt = Math.max(nextChunkAt, System.nanoTime()) + accounts * nanosPerAccount;
+            wakeUp = nextChunkAt;
+        }
+        long delay = wakeUp - System.nanoTime();
+        if (delay > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(delay));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void complete(FeeRun feeRun) {
+        transactionTemplate.execute(status -> {
+            Map<FeeRunChunk.ChunkStatus, FeeRunChunkTotalsView> totals = totals(feeRun.getId());
+            if (totals.containsKey(FeeRunChunk.ChunkStatus.PENDING)) {
+                log.warn("Fee run {} still has pending chunks; it is resumed on the next pass", feeRun.getId());
+                return null;
+            }
+            long cuentas = cuentas(totals);
+            long omitidas = omitidas(totals);
+            BigDecimal total = total(totals);
+            LocalDateTime finishedAt = LocalDateTime.now();
+            if (feeRunRepository.complete(feeRun.getId(), cuentas, omitidas, total, finishedAt) > 0) {
+                long elapsedMillis = Duration.between(feeRun.getCreatedAt(), finishedAt).toMillis();
+                throughput.record(elapsedMillis > 0 ? (cuentas + omitidas) * 1000.0 / elapsedMillis : 0);
+                log.info("Fee run {} for {} charged {} to {} accounts and skipped {} in {} ms", feeRun.getId(),
+                        feeRun.getFechaCorte(), total, cuentas, omitidas, elapsedMillis);
+            }
+            return null;
+        });
+    }
+
+    private Map<FeeRunChunk.ChunkStatus, FeeRunChunkTotalsView> totals(Long id) {
+        Map<FeeRunChunk.ChunkStatus, FeeRunChunkTotalsView> totals = new EnumMap<>(FeeRunChunk.ChunkStatus.class);
+        for (FeeRunChunkTotalsView view : chunkRepository.findTotalsByCobroId(id)) {
+            totals.put(view.getEstado(), view);
+        }
+        return totals;
+    }
+
+    private FeeRunResponseDto toDto(FeeRun feeRun) {
+        Map<FeeRunChunk.ChunkStatus, FeeRunChunkTotalsView> totals = totals(feeRun.getId());
+        FeeRunChunkTotalsView pending = totals.get(FeeRunChunk.ChunkStatus.PENDING);
+        long cuentas = cuentas(totals);
+        long omitidas = omitidas(totals);
+        LocalDateTime end = feeRun.getFinishedAt() != null ? feeRun.getFinishedAt() : LocalDateTime.now();
+        long elapsedMillis = Duration.between(feeRun.getCreatedAt(), end).toMillis();
+        return FeeRunResponseDto.builder()
+                .id(feeRun.getId())
+                .fechaCorte(feeRun.getFechaCorte())
+                .comision(feeRun.getComision())
+                .estado(feeRun.getEstado())
+                .tramos(feeRun.getTramos())
+                .tramosPendientes(pending == null ? 0 : pending.getTramos())
+                .cuentas(cuentas)
+                .omitidas(omitidas)
+                .total(total(totals))
+                .createdAt(feeRun.getCreatedAt())
+                .finishedAt(feeRun.getFinishedAt())
+                .elapsedMillis(elapsedMillis)
+                .cuentasPorSegundo(elapsedMillis > 0 ? (cuentas + omitidas) * 1000.0 / elapsedMillis : 0)
+                .build();
+    }
+
+    private static long cuentas(Map<FeeRunChunk.ChunkStatus, FeeRunChunkTotalsView> totals) {
+        FeeRunChunkTotalsView done = totals.get(FeeRunChunk.ChunkStatus.DONE);
+        return done == null || done.getCuentas() == null ? 0 : done.getCuentas();
+    }
+
+    private static long omitidas(Map<FeeRunChunk.ChunkStatus, FeeRunChunkTotalsView> totals) {
+        FeeRunChunkTotalsView done = totals.get(FeeRunChunk.ChunkStatus.DONE);
+        return done == null || done.getOmitidas() == null ? 0 : done.getOmitidas();
+    }
+
+    private static BigDecimal total(Map<FeeRunChunk.ChunkStatus, FeeRunChunkTotalsView> totals) {
+        FeeRunChunkTotalsView done = totals.get(FeeRunChunk.ChunkStatus.DONE);
+        return done == null || done.getTotal() == null ? BigDecimal.ZERO : done.getTotal();
+    }
+
+    private static BigDecimal sum(List<BigDecimal> values) {
+        return values.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
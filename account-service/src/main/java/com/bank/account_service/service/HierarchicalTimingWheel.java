@@ -0,0 +1,131 @@
+package com.bank.account_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel.
+ * <p>
+ * Level 0 has one bucket per tick; every level above has one bucket per full turn of the level
+ * below. An entry goes to the lowest level whose current turn reaches its expiration and moves one
+ * level down each time the clock reaches its bucket, so adding an entry and expiring it cost the
+ * same however many entries are waiting. Expirations are epoch milliseconds; an entry expires on
+ * the first tick at or after its expiration.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long[] ticks;
+    private final int[] sizes;
+    private final List<List<Entry<T>>> buckets = new ArrayList<>();
+    private long currentTime;
+    private int size;
+
+    /**
+     * {@code sizes[0]} ticks of {@code tickMillis} at level 0, {@code sizes[1]} turns of level 0 at
+     * level 1, and so on, with the clock starting at {@code startMillis}.
+     */
+    public HierarchicalTimingWheel(long tickMillis, int[] sizes, long startMillis) {
+        if (tickMillis <= 0 || sizes.length == 0) {
+            throw new IllegalArgumentException("A timing wheel needs a positive tick and at least one level");
+        }
+        this.sizes = sizes.clone();
+        this.ticks = new long[sizes.length];
+        long tick = tickMillis;
+        for (int level = 0; level < sizes.length; level++) {
+            ticks[level] = tick;
+            for (int bucket = 0; bucket < sizes[level]; bucket++) {
+                buckets.add(new ArrayList<>());
+            }
+            tick = Math.multiplyExact(tick, sizes[level]);
+        }
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+
+    /**
+     * How far ahead of the clock an entry can expire.
+     */
+    public long span() {
+        int top = sizes.length - 1;
+        return ticks[top] * sizes[top];
+    }
+
+    /**
+     * Adds an entry; {@code false}, and nothing is added, if it is already due.
+     *
+     * @throws IllegalArgumentException if it expires beyond the wheel's span
+     */
+    public synchronized boolean add(long expiration, T item) {
+        if (!place(new Entry<>(expiration, item))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the clock to {@code time} and returns the entries that became due, in expiration order
+     * per tick.
+     */
+    public synchronized List<T> advanceTo(long time) {
+        List<T> due = new ArrayList<>();
+        while (currentTime + ticks[0] <= time) {
+            currentTime += ticks[0];
+            // Higher levels first: what they hand down may be due in this very tick
+            for (int level = sizes.length - 1; level >= 1; level--) {
+                if (currentTime % ticks[level] == 0) {
+                    for (Entry<T> entry : drain(level)) {
+                        if (!place(entry)) {
+                            size--;
+                            due.add(entry.item());
+                        }
+                    }
+                }
+            }
+            List<Entry<T>> expired = drain(0);
+            expired.sort((a, b) -> Long.compare(a.expiration(), b.expiration()));
+            for (Entry<T> entry : expired) {
+                size--;
+                due.add(entry.item());
+            }
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private boolean place(Entry<T> entry) {
+        // The tick it expires on
+        long due = Math.ceilDiv(entry.expiration(), ticks[0]) * ticks[0];
+        if (due <= currentTime) {
+            return false;
+        }
+        for (int level = 0; level < sizes.length; level++) {
+            long turnStart = currentTime - Math.floorMod(currentTime, ticks[level]);
+            if (due < turnStart + ticks[level] * sizes[level]) {
+                bucket(level, Math.floorMod(due / ticks[level], sizes[level])).add(entry);
+                return true;
+            }
+        }
+        throw new IllegalArgumentException("Expiration " + entry.expiration() + " is beyond the wheel's span");
+    }
+
+    private List<Entry<T>> drain(int level) {
+        List<Entry<T>> bucket = bucket(level, Math.floorMod(currentTime / ticks[level], sizes[level]));
+        List<Entry<T>> drained = new ArrayList<>(bucket);
+        bucket.clear();
+        return drained;
+    }
+
+    private List<Entry<T>> bucket(int level, long index) {
+        int offset = 0;
+        for (int l = 0; l < level; l++) {
+            offset += sizes[l];
+        }
+        return buckets.get(offset + (int) index);
+    }
+
+    private record Entry<T>(long expiration, T item) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.HoldCaptureDto;
+import com.bank.account_service.dto.HoldCreateDto;
+import com.bank.account_service.dto.HoldResponseDto;
+
+/**
+ * Card authorizations: funds are held first, then captured as a DEBITO movement or released.
+ */
+public interface HoldService {
+
+    /**
+     * Holds the amount on the account if its available balance covers it. Throws what a debit of
+     * the same amount would have thrown otherwise.
+     */
+    HoldResponseDto authorize(HoldCreateDto holdDto);
+
+    /**
+     * Posts the captured amount, the whole hold unless a smaller one is given, as a DEBITO movement
+     * and ends the hold. The rest of a partial capture is released.
+     */
+    HoldResponseDto capture(Long id, HoldCaptureDto captureDto);
+
+    HoldResponseDto release(Long id);
+
+    HoldResponseDto getHold(Long id);
+
+    /**
+     * Expires every active hold past its expiry and returns how many this call expired.
+     */
+    int expireHolds();
+}
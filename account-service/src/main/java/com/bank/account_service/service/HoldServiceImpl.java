@@ -0,0 +1,273 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.HoldCaptureDto;
+import com.bank.account_service.dto.HoldCreateDto;
+import com.bank.account_service.dto.HoldResponseDto;
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.entity.Hold;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.exception.HoldNotFoundException;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.exception.InvalidHoldOperationException;
+import com.bank.account_service.repository.AccountBalanceView;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.HoldRepository;
+import com.bank.account_service.service.AccountPostingApplier.PostingOutcome;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Funds holds.
+ * <p>
+ * Authorizing is one conditional UPDATE of {@code cuentas.saldo_retenido}, which checks the
+ * available balance and holds the amount, plus the INSERT of the hold, in one transaction. Capturing
+ * ends the hold, gives its amount back to the available balance and posts the captured amount
+ * through {@link AccountPostingApplier} in the same transaction, so the debit is checked and counted
+ * like any other. Every step runs inside {@link BalanceEngineService#exclusive}, so an enabled
+ * engine reloads the held funds of the account.
+ * <p>
+ * Every {@code holds.sweep-interval} the sweeper reads the active holds past their expiry from the
+ * {@code (estado, expires_at)} index, earliest first and {@code holds.sweep-batch} at a time, and
+ * expires them one transaction per account. Only expired holds are visited, and the conditional
+ * state change keeps two nodes from giving the same hold back twice.
+ */
+@Service
+@Slf4j
+public class HoldServiceImpl implements HoldService {
+
+    private final HoldRepository holdRepository;
+    private final AccountRepository accountRepository;
+    private final AccountSubLedgerService subLedger;
+    private final AccountPostingApplier postingApplier;
+    private final VelocityRuleService velocityRules;
+    private final BalanceEngineService balanceEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int sweepBatch;
+    private final Timer authorizeTimer;
+    private final Counter expiredCounter;
+
+    public HoldServiceImpl(HoldRepository holdRepository,
+                           AccountRepository accountRepository,
+                           AccountSubLedgerService subLedger,
+                           AccountPostingApplier postingApplier,
+                           VelocityRuleService velocityRules,
+                           BalanceEngineService balanceEngine,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${holds.ttl:P7D}") Duration ttl,
+                           @Value("${holds.sweep-batch:500}") int sweepBatch) {
+        this.holdRepository = holdRepository;
+        this.accountRepository = accountRepository;
+        this.subLedger = subLedger;
+        this.postingApplier = postingApplier;
+        this.velocityRules = velocityRules;
+        this.balanceEngine = balanceEngine;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = ttl;
+        this.sweepBatch = sweepBatch;
+        this.authorizeTimer = Timer.builder("holds.authorize")
+                .description("Time to check the available balance and hold the amount")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("holds.expired")
+                .description("Holds expired by the sweeper")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public HoldResponseDto authorize(HoldCreateDto holdDto) {
+        String numeroCuenta = holdDto.getCuentaId();
+        BigDecimal valor = holdDto.getValor().abs();
+        return authorizeTimer.record(() -> balanceEngine.exclusive(List.of(numeroCuenta),
+                () -> transactionTemplate.execute(status -> {
+                    // Counted only if the hold commits
+                    velocityRules.check(numeroCuenta, Movement.MovementType.DEBITO);
+                    // A split account keeps its held funds on the account row
+                    subLedger.fundAccountRow(numeroCuenta, valor);
+                    if (!accountRepository.hold(numeroCuenta, valor)) {
+                        throw rejection(numeroCuenta);
+                    }
+                    LocalDateTime now = LocalDateTime.now();
+                    Hold hold = new Hold();
+                    hold.setNumeroCuenta(numeroCuenta);
+                    hold.setValor(valor);
+                    hold.setDescripcion(holdDto.getDescripcion());
+                    hold.setEstado(Hold.HoldStatus.ACTIVE);
+                    hold.setCreatedAt(now);
+                    hold.setExpiresAt(now.plus(ttl));
+                    return toDto(holdRepository.save(hold));
+                })));
+    }
+
+    @Override
+    public HoldResponseDto capture(Long id, HoldCaptureDto captureDto) {
+        Hold hold = find(id);
+        BigDecimal valor = captureDto.getValor() != null ? captureDto.getValor().abs() : hold.getValor();
+        if (valor.compareTo(hold.getValor()) > 0) {
+            throw new InvalidHoldOperationException("Capture of " + valor + " exceeds hold " + id + " of "
+                    + hold.getValor());
+        }
+        String numeroCuenta = hold.getNumeroCuenta();
+
+        return balanceEngine.exclusive(List.of(numeroCuenta), () -> transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (holdRepository.capture(id, valor, now) == 0) {
+                throw notActive(id);
+            }
+            // Sub-balances are locked before the account row
+            subLedger.lockSubBalances(numeroCuenta);
+            accountRepository.releaseHold(numeroCuenta, hold.getValor());
+            PostingOutcome outcome = postingApplier.apply(numeroCuenta, List.of(debit(hold, valor,
+                    captureDto.getDescripcion()))).get(0);
+            if (!outcome.isPosted()) {
+                // The hold stays active
+                throw outcome.rejection();
+            }
+            holdRepository.setMovimientoId(id, outcome.movement().getId());
+
+            hold.setEstado(Hold.HoldStatus.CAPTURED);
+            hold.setValorCapturado(valor);
+            hold.setMovimientoId(outcome.movement().getId());
+            hold.setFinishedAt(now);
+            return toDto(hold);
+        }));
+    }
+
+    @Override
+    public HoldResponseDto release(Long id) {
+        Hold hold = find(id);
+        String numeroCuenta = hold.getNumeroCuenta();
+
+        return balanceEngine.exclusive(List.of(numeroCuenta), () -> transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (holdRepository.finish(id, Hold.HoldStatus.RELEASED, now) == 0) {
+                throw notActive(id);
+            }
+            accountRepository.releaseHold(numeroCuenta, hold.getValor());
+
+            hold.setEstado(Hold.HoldStatus.RELEASED);
+            hold.setFinishedAt(now);
+            return toDto(hold);
+        }));
+    }
+
+    @Override
+    public HoldResponseDto getHold(Long id) {
+        return toDto(find(id));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${holds.sweep-interval:PT10S}")
+    public int expireHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        List<Hold> due;
+        int progress;
+        do {
+            due = holdRepository.findByEstadoAndExpiresAtLessThanEqualOrderByExpiresAt(Hold.HoldStatus.ACTIVE, now,
+                    Limit.of(sweepBatch));
+            SortedMap<String, List<Hold>> byAccount = new TreeMap<>();
+            for (Hold hold : due) {
+                byAccount.computeIfAbsent(hold.getNumeroCuenta(), k -> new ArrayList<>()).add(hold);
+            }
+            progress = 0;
+            for (Map.Entry<String, List<Hold>> account : byAccount.entrySet()) {
+                try {
+                    progress += expire(account.getKey(), account.getValue(), now);
+                } catch (RuntimeException ex) {
+                    log.warn("Expiring holds of account {} failed", account.getKey(), ex);
+                }
+            }
+            expired += progress;
+            // A batch that expired nothing is left to the next run (or to another node)
+        } while (due.size() == sweepBatch && progress > 0);
+
+        if (expired > 0) {
+            expiredCounter.increment(expired);
+            log.info("Expired {} holds", expired);
+        }
+        return expired;
+    }
+
+    private int expire(String numeroCuenta, List<Hold> holds, LocalDateTime now) {
+        return balanceEngine.exclusive(List.of(numeroCuenta), () -> transactionTemplate.execute(status -> {
+            int expired = 0;
+            BigDecimal released = BigDecimal.ZERO;
+            for (Hold hold : holds) {
+                // Captured or released since it was read
+                if (holdRepository.finish(hold.getId(), Hold.HoldStatus.EXPIRED, now) > 0) {
+                    expired++;
+                    released = released.add(hold.getValor());
+                }
+            }
+            if (released.signum() > 0) {
+                accountRepository.releaseHold(numeroCuenta, released);
+            }
+            return expired;
+        }));
+    }
+
+    private Hold find(Long id) {
+        return holdRepository.findById(id)
+                .orElseThrow(() -> new HoldNotFoundException("Hold not found with id: " + id));
+    }
+
+    /**
+     * Explains why the conditional hold update matched no row, as a debit would.
+     */
+    private RuntimeException rejection(String numeroCuenta) {
+        AccountBalanceView account = accountRepository.findBalanceByNumeroCuenta(numeroCuenta)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + numeroCuenta));
+        if (!account.getEstado()) {
+            return new RuntimeException("Cannot create movement for inactive account");
+        }
+        return new InsufficientFundsException("Insufficient funds");
+    }
+
+    private static InvalidHoldOperationException notActive(Long id) {
+        return new InvalidHoldOperationException("Hold " + id + " is no longer active or has expired");
+    }
+
+    private static MovementCreateDto debit(Hold hold, BigDecimal valor, String descripcion) {
+        MovementCreateDto debit = new MovementCreateDto();
+        debit.setCuentaId(hold.getNumeroCuenta());
+        debit.setTipoMovimiento(Movement.MovementType.DEBITO);
+        debit.setValor(valor);
+        debit.setDescripcion(descripcion != null ? descripcion
+                : hold.getDescripcion() != null ? hold.getDescripcion() : "Retencion #" + hold.getId());
+        return debit;
+    }
+
+    private static HoldResponseDto toDto(Hold hold) {
+        return HoldResponseDto.builder()
+                .id(hold.getId())
+                .cuentaId(hold.getNumeroCuenta())
+                .valor(hold.getValor())
+                .valorCapturado(hold.getValorCapturado())
+                .descripcion(hold.getDescripcion())
+                .estado(hold.getEstado())
+                .movimientoId(hold.getMovimientoId())
+                .createdAt(hold.getCreatedAt())
+                .expiresAt(hold.getExpiresAt())
+                .finishedAt(hold.getFinishedAt())
+                .build();
+    }
+}
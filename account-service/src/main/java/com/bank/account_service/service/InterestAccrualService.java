@@ -0,0 +1,19 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.InterestAccrualCreateDto;
+import com.bank.account_service.dto.InterestAccrualResponseDto;
+
+/**
+ * Interest crediting on AHORRO accounts.
+ */
+public interface InterestAccrualService {
+
+    /**
+     * Starts crediting {@code dias} days of interest to every active AHORRO account with a positive
+     * balance, once per cut-off date. The accounts are credited in the background; the accrual is
+     * polled with {@link #getAccrual}.
+     */
+    InterestAccrualResponseDto startAccrual(InterestAccrualCreateDto accrualDto);
+
+    InterestAccrualResponseDto getAccrual(Long id);
+}
@@ -0,0 +1,374 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.InterestAccrualCreateDto;
+import com.bank.account_service.dto.InterestAccrualResponseDto;
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.InterestAccrual;
+import com.bank.account_service.entity.InterestAccrualChunk;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.InterestAccrualExistsException;
+import com.bank.account_service.exception.InterestAccrualNotFoundException;
+import com.bank.account_service.repository.AccountBalanceView;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountSubBalanceRepository;
+import com.bank.account_service.repository.InterestAccrualChunkRepository;
+import com.bank.account_service.repository.InterestAccrualChunkTotalsView;
+import com.bank.account_service.repository.InterestAccrualRepository;
+import com.bank.account_service.repository.JournaledMovementOperations;
+import com.bank.account_service.repository.MovementRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Interest accrual.
+ * <p>
+ * Starting an accrual splits the AHORRO accounts into key ranges of
+ * {@code interest.accrual.chunk-size} accounts, walking the {@code (tipo_cuenta, numero_cuenta)}
+ * index, and stores one pending chunk per range. A background job then settles the chunks,
+ * {@code interest.accrual.parallelism} at a time. Each chunk is one transaction that marks it done,
+ * locks its active accounts in account order, computes their interest from the locked balances,
+ * and writes the interest movements with one batched INSERT and the new balances with one batched
+ * UPDATE. Each movement's {@code saldo} is the balance it leaves. Accounts are never loaded as
+ * entities and no per-account posting is made. A crash loses no more than the open chunks, which
+ * are still pending afterwards; a chunk that committed is never credited again.
+ * <p>
+ * Interest is {@code balance * tasaAnual / 100 * dias / 365}, rounded half-even to the cent, on
+ * the balance when the chunk runs, split accounts' sub-balances included. Sub-balances are read
+ * without locking them, as the total reported by a sub-balance posting is, and the interest goes to
+ * the locked account row.
+ * <p>
+ * Running accruals are picked up again every {@code interest.accrual.resume-interval}, starting at
+ * boot, on every node. With {@code interest.accrual.cron} set, an accrual for the days since the
+ * previous cut-off at {@code interest.accrual.annual-rate} starts on that schedule.
+ */
+@Service
+@Slf4j
+public class InterestAccrualServiceImpl implements InterestAccrualService {
+
+    private static final BigDecimal PERCENT_DAYS_PER_YEAR = BigDecimal.valueOf(36500);
+
+    private final InterestAccrualRepository accrualRepository;
+    private final InterestAccrualChunkRepository chunkRepository;
+    private final AccountRepository accountRepository;
+    private final AccountSubBalanceRepository subBalanceRepository;
+    private final MovementRepository movementRepository;
+    private final BalanceEngineService balanceEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final BigDecimal annualRate;
+    private final ExecutorService jobs = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("interest-accrual-", 0).factory());
+    private final ExecutorService chunks;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final Timer chunkTimer;
+    private final Counter accountsCounter;
+    private final DistributionSummary throughput;
+
+    public InterestAccrualServiceImpl(InterestAccrualRepository accrualRepository,
+                                      InterestAccrualChunkRepository chunkRepository,
+                                      AccountRepository accountRepository,
+                                      AccountSubBalanceRepository subBalanceRepository,
+                                      MovementRepository movementRepository,
+                                      BalanceEngineService balanceEngine,
+                                      TransactionTemplate transactionTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${interest.accrual.chunk-size:1000}") int chunkSize,
+                                      @Value("${interest.accrual.parallelism:4}") int parallelism,
+                                      @Value("${interest.accrual.annual-rate:}") BigDecimal annualRate) {
+        this.accrualRepository = accrualRepository;
+        this.chunkRepository = chunkRepository;
+        this.accountRepository = accountRepository;
+        this.subBalanceRepository = subBalanceRepository;
+        this.movementRepository = movementRepository;
+        this.balanceEngine = balanceEngine;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.annualRate = annualRate;
+        this.chunks = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("interest-accrual-chunk-", 0).factory());
+        this.chunkTimer = Timer.builder("interest.accrual.chunk")
+                .description("Time to credit the interest of one range of accounts")
+                .register(meterRegistry);
+        this.accountsCounter = Counter.builder("interest.accrual.accounts")
+                .description("Accounts credited with interest")
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("interest.accrual.throughput")
+                .description("Accounts credited per second by each completed accrual")
+                .baseUnit("accounts/s")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public InterestAccrualResponseDto startAccrual(InterestAccrualCreateDto accrualDto) {
+        if (accrualRepository.existsByFechaCorte(accrualDto.getFechaCorte())) {
+            throw new InterestAccrualExistsException("Interest already accrued for " + accrualDto.getFechaCorte());
+        }
+        InterestAccrual accrual = transactionTemplate.execute(status -> {
+            List<String> bounds = accountRepository.findRangeBounds(Account.AccountType.AHORRO, chunkSize);
+            InterestAccrual created = new InterestAccrual();
+            created.setFechaCorte(accrualDto.getFechaCorte());
+            created.setTasaAnual(accrualDto.getTasaAnual());
+            created.setDias(accrualDto.getDias());
+            created.setTramos(bounds.size());
+            created.setEstado(InterestAccrual.AccrualStatus.RUNNING);
+            created.setCreatedAt(LocalDateTime.now());
+            accrualRepository.save(created);
+
+            List<InterestAccrualChunk> ranges = new ArrayList<>(bounds.size());
+            for (int i = 0; i < bounds.size(); i++) {
+                InterestAccrualChunk chunk = new InterestAccrualChunk();
+                chunk.setDevengoId(created.getId());
+                chunk.setTramo(i);
+                chunk.setDesde(i == 0 ? "" : bounds.get(i - 1));
+                chunk.setHasta(bounds.get(i));
+                chunk.setEstado(InterestAccrualChunk.ChunkStatus.PENDING);
+                ranges.add(chunk);
+            }
+            chunkRepository.insertChunks(ranges);
+            return created;
+        });
+
+        schedule(accrual.getId());
+        return toDto(accrual);
+    }
+
+    @Override
+    public InterestAccrualResponseDto getAccrual(Long id) {
+        return toDto(accrualRepository.findById(id)
+                .orElseThrow(() -> new InterestAccrualNotFoundException("Interest accrual not found with id: " + id)));
+    }
+
+    /**
+     * Starts today's accrual for the days since the previous cut-off, or for the length of the
+     * previous month if there is none.
+     */
+    @Scheduled(cron = "${interest.accrual.cron:-}")
+    public void accrueScheduled() {
+        if (annualRate == null) {
+            log.warn("interest.accrual.cron is set without interest.accrual.annual-rate; no interest accrued");
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        int dias = accrualRepository.findFirstByOrderByFechaCorteDesc()
+                .map(last -> (int) ChronoUnit.DAYS.between(last.getFechaCorte(), today))
+                .orElse(today.minusMonths(1).lengthOfMonth());
+        if (dias <= 0) {
+            return;
+        }
+        InterestAccrualCreateDto accrualDto = new InterestAccrualCreateDto();
+        accrualDto.setFechaCorte(today);
+        accrualDto.setTasaAnual(annualRate);
+        accrualDto.setDias(dias);
+        try {
+            startAccrual(accrualDto);
+        } catch (InterestAccrualExistsException | DataIntegrityViolationException ex) {
+            log.debug("Interest accrual for {} started on another node", today);
+        }
+    }
+
+    /**
+     * Picks up running accruals, including those a crash or a failed chunk left unfinished.
+     */
+    @Scheduled(fixedDelayString = "${interest.accrual.resume-interval:PT1M}")
+    public void resumeRunning() {
+        for (InterestAccrual accrual : accrualRepository.findByEstado(InterestAccrual.AccrualStatus.RUNNING)) {
+            schedule(accrual.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdownNow();
+        chunks.shutdown();
+    }
+
+    private void schedule(Long id) {
+        if (!running.add(id)) {
+            return;
+        }
+        jobs.execute(() -> {
+            try {
+                run(id);
+            } finally {
+                running.remove(id);
+            }
+        });
+    }
+
+    private void run(Long id) {
+        InterestAccrual accrual = accrualRepository.findById(id).orElse(null);
+        if (accrual == null || accrual.getEstado() != InterestAccrual.AccrualStatus.RUNNING) {
+            return;
+        }
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (InterestAccrualChunk chunk : chunkRepository.findByDevengoIdAndEstadoOrderByTramoAsc(id,
+                InterestAccrualChunk.ChunkStatus.PENDING)) {
+            pending.add(CompletableFuture.runAsync(() -> chunkTimer.record(() -> accrueChunk(accrual, chunk)),
+                    chunks));
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+            complete(accrual);
+        } catch (RuntimeException ex) {
+            log.error("Interest accrual {} stopped before completing; it is resumed on the next pass", id, ex);
+        }
+    }
+
+    private void accrueChunk(InterestAccrual accrual, InterestAccrualChunk chunk) {
+        List<String> accounts = balanceEngine.isEnabled()
+                ? accountRepository.findNumerosCuentaInRange(Account.AccountType.AHORRO, chunk.getDesde(),
+                        chunk.getHasta())
+                : List.of();
+        balanceEngine.exclusive(accounts, () -> transactionTemplate.execute(status -> {
+            long start = System.nanoTime();
+            if (chunkRepository.claim(accrual.getId(), chunk.getTramo()) == 0) {
+                return null;
+            }
+            List<AccountBalanceView> balances = accountRepository.lockRange(Account.AccountType.AHORRO,
+                    chunk.getDesde(), chunk.getHasta());
+            Map<String, BigDecimal> subBalances = subBalanceRepository.findSubBalanceTotals(chunk.getDesde(),
+                    chunk.getHasta());
+
+            LocalDateTime now = LocalDateTime.now();
+            String descripcion = "Intereses al " + accrual.getFechaCorte();
+            Map<String, BigDecimal> credits = new LinkedHashMap<>();
+            List<Movement> movements = new ArrayList<>();
+            for (AccountBalanceView account : balances) {
+                BigDecimal saldo = account.getSaldoActual()
+                        .add(subBalances.getOrDefault(account.getNumeroCuenta(), BigDecimal.ZERO));
+                BigDecimal interes = saldo.multiply(accrual.getTasaAnual())
+                        .multiply(BigDecimal.valueOf(accrual.getDias()))
+                        .divide(PERCENT_DAYS_PER_YEAR, 2, RoundingMode.HALF_EVEN);
+                if (interes.signum() <= 0) {
+                    continue;
+                }
+                credits.put(account.getNumeroCuenta(), interes);
+
+                Movement movement = new Movement();
+                movement.setNumeroCuenta(account.getNumeroCuenta());
+                movement.setFecha(now);
+                movement.setTipoMovimiento(Movement.MovementType.CREDITO);
+                movement.setValor(interes);
+                movement.setSaldo(saldo.add(interes));
+                movement.setDescripcion(descripcion);
+                movement.setCreatedAt(now);
+                movements.add(movement);
+            }
+
+            BigDecimal total = credits.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            if (!movements.isEmpty()) {
+                assignIds(movements);
+                movementRepository.insertWithIds(movements);
+                accountRepository.addToBalances(credits);
+            }
+            chunkRepository.recordOutcome(accrual.getId(), chunk.getTramo(), movements.size(), total,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis(), now);
+            accountsCounter.increment(movements.size());
+            return null;
+        }));
+    }
+
+    /**
+     * Ids come from reserved blocks of the movement sequence, like the balance engine's.
+     */
+    private void assignIds(List<Movement> movements) {
+        long next = 1;
+        long last = 0;
+        for (Movement movement : movements) {
+            if (next > last) {
+                last = movementRepository.reserveIdBlock();
+                next = Math.max(1, last - JournaledMovementOperations.ID_BLOCK_SIZE + 1);
+            }
+            movement.setId(next++);
+        }
+    }
+
+    private void complete(InterestAccrual accrual) {
+        transactionTemplate.execute(status -> {
+            Map<InterestAccrualChunk.ChunkStatus, InterestAccrualChunkTotalsView> totals = totals(accrual.getId());
+            if (totals.containsKey(InterestAccrualChunk.ChunkStatus.PENDING)) {
+                log.warn("Interest accrual {} still has pending chunks; it is resumed on the next pass",
+                        accrual.getId());
+                return null;
+            }
+            long cuentas = cuentas(totals);
+            BigDecimal total = total(totals);
+            LocalDateTime finishedAt = LocalDateTime.now();
+            if (accrualRepository.complete(accrual.getId(), cuentas, total, finishedAt) > 0) {
+                long elapsedMillis = Duration.between(accrual.getCreatedAt(), finishedAt).toMillis();
+                throughput.record(elapsedMillis > 0 ? cuentas * 1000.0 / elapsedMillis : 0);
+                log.info("Interest accrual {} for {} credited {} to {} accounts in {} ms", accrual.getId(),
+                        accrual.getFechaCorte(), total, cuentas, elapsedMillis);
+            }
+            return null;
+        });
+    }
+
+    private Map<InterestAccrualChunk.ChunkStatus, InterestAccrualChunkTotalsView> totals(Long id) {
+        Map<InterestAccrualChunk.ChunkStatus, InterestAccrualChunkTotalsView> totals =
+                new EnumMap<>(InterestAccrualChunk.ChunkStatus.class);
+        for (InterestAccrualChunkTotalsView view : chunkRepository.findTotalsByDevengoId(id)) {
+            totals.put(view.getEstado(), view);
+        }
+        return totals;
+    }
+
+    private InterestAccrualResponseDto toDto(InterestAccrual accrual) {
+        Map<InterestAccrualChunk.ChunkStatus, InterestAccrualChunkTotalsView> totals = totals(accrual.getId());
+        InterestAccrualChunkTotalsView pending = totals.get(InterestAccrualChunk.ChunkStatus.PENDING);
+        long cuentas = cuentas(totals);
+        LocalDateTime end = accrual.getFinishedAt() != null ? accrual.getFinishedAt() : LocalDateTime.now();
+        long elapsedMillis = Duration.between(accrual.getCreatedAt(), end).toMillis();
+        return InterestAccrualResponseDto.builder()
+                .id(accrual.getId())
+                .fechaCorte(accrual.getFechaCorte())
+                .tasaAnual(accrual.getTasaAnual())
+                .dias(accrual.getDias())
+                .estado(accrual.getEstado())
+                .tramos(accrual.getTramos())
+                .tramosPendientes(pending == null ? 0 : pending.getTramos())
+                .cuentas(cuentas)
+                .total(total(totals))
+                .createdAt(accrual.getCreatedAt())
+                .finishedAt(accrual.getFinishedAt())
+                .elapsedMillis(elapsedMillis)
+                .cuentasPorSegundo(elapsedMillis > 0 ? cuentas * 1000.0 / elapsedMillis : 0)
+                .build();
+    }
+
+    private static long cuentas(Map<InterestAccrualChunk.ChunkStatus, InterestAccrualChunkTotalsView> totals) {
+        InterestAccrualChunkTotalsView done = totals.get(InterestAccrualChunk.ChunkStatus.DONE);
+        return done == null || done.getCuentas() == null ? 0 : done.getCuentas();
+    }
+
+    private static BigDecimal total(Map<InterestAccrualChunk.ChunkStatus, InterestAccrualChunkTotalsView> totals) {
+        InterestAccrualChunkTotalsView done = totals.get(InterestAccrualChunk.ChunkStatus.DONE);
+        return done == null || done.getTotal() == null ? BigDecimal.ZERO : done.getTotal();
+    }
+}
@@ -0,0 +1,18 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementBatchResultDto;
+import com.bank.account_service.dto.MovementCreateDto;
+
+import java.util.Iterator;
+import java.util.List;
+
+public interface MovementBatchService {
+    MovementBatchResultDto createMovements(List<MovementCreateDto> movements);
+
+    /**
+     * Posts movements as they are read, one transaction per {@code movements.batch.transaction-size}
+     * items, so only the current transaction's items are held in memory. Items beyond
+     * {@code movements.batch.max-items} are rejected without being posted.
+     */
+    MovementBatchResultDto createMovementsFromStream(Iterator<MovementCreateDto> movements);
+}
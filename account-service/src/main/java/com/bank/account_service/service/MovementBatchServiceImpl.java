@@ -0,0 +1,174 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementBatchItemResultDto;
+import com.bank.account_service.dto.MovementBatchItemResultDto.ItemStatus;
+import com.bank.account_service.dto.MovementBatchResultDto;
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.exception.BatchTooLargeException;
+import com.bank.account_service.service.AccountPostingApplier.PostingOutcome;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Posts many movements per request.
+ * <p>
+ * Items are taken in submission order in transactions of {@code movements.batch.transaction-size}.
+ * Within a transaction they are grouped by account and handed to {@link AccountPostingApplier},
+ * so each account costs one {@code SELECT ... FOR UPDATE}, one balance UPDATE and a batched
+ * INSERT of its movements. A failing transaction rejects only its own items.
+ */
+@Service
+@Slf4j
+public class MovementBatchServiceImpl implements MovementBatchService {
+
+    private final AccountPostingApplier postingApplier;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int maxItems;
+    private final int transactionSize;
+
+    public MovementBatchServiceImpl(AccountPostingApplier postingApplier,
+                                    TransactionTemplate transactionTemplate,
+                                    Validator validator,
+                                    @Value("${movements.batch.max-items:100000}") int maxItems,
+                                    @Value("${movements.batch.transaction-size:1000}") int transactionSize) {
+        this.postingApplier = postingApplier;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.maxItems = maxItems;
+        this.transactionSize = transactionSize;
+    }
+
+    @Override
+    public MovementBatchResultDto createMovements(List<MovementCreateDto> movements) {
+        if (movements.size() > maxItems) {
+            throw new BatchTooLargeException("Batch of " + movements.size() + " movements exceeds the limit of "
+                    + maxItems);
+        }
+        return createMovementsFromStream(movements.iterator());
+    }
+
+    @Override
+    public MovementBatchResultDto createMovementsFromStream(Iterator<MovementCreateDto> movements) {
+        long start = System.nanoTime();
+        List<MovementBatchItemResultDto> results = new ArrayList<>();
+        List<MovementCreateDto> pending = new ArrayList<>(Math.min(transactionSize, maxItems));
+        int received = 0;
+        while (movements.hasNext()) {
+            MovementCreateDto dto = movements.next();
+            if (received >= maxItems) {
+                results.add(rejected(received++, dto, "Batch exceeds the limit of " + maxItems + " movements"));
+                continue;
+            }
+            pending.add(dto);
+            received++;
+            if (pending.size() == transactionSize || received == maxItems) {
+                postTransaction(received - pending.size(), pending, results);
+                pending.clear();
+            }
+        }
+        if (!pending.isEmpty()) {
+            postTransaction(received - pending.size(), pending, results);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        int accepted = (int) results.stream().filter(r -> r.getStatus() == ItemStatus.ACCEPTED).count();
+        log.info("Batch of {} movements posted in {} ms ({} accepted)", received,
+                elapsedNanos / 1_000_000, accepted);
+
+        return MovementBatchResultDto.builder()
+                .received(received)
+                .accepted(accepted)
+                .rejected(received - accepted)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .movementsPerSecond(elapsedNanos == 0 ? 0 : accepted * 1_000_000_000.0 / elapsedNanos)
+                .items(results)
+                .build();
+    }
+
+    /**
+     * Posts one transaction's worth of items; {@code offset} is the batch index of the first one.
+     */
+    private void postTransaction(int offset, List<MovementCreateDto> movements,
+                                 List<MovementBatchItemResultDto> results) {
+        MovementBatchItemResultDto[] chunkResults = new MovementBatchItemResultDto[movements.size()];
+
+        // Sorted by account number so that concurrent batches always lock rows in the same order
+        SortedMap<String, List<Integer>> byAccount = new TreeMap<>();
+        for (int i = 0; i < movements.size(); i++) {
+            String error = validate(movements.get(i));
+            if (error != null) {
+                chunkResults[i] = rejected(offset + i, movements.get(i), error);
+            } else {
+                byAccount.computeIfAbsent(movements.get(i).getCuentaId(), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        if (!byAccount.isEmpty()) {
+            Map<Integer, MovementBatchItemResultDto> posted = new HashMap<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> byAccount.forEach((numeroCuenta, indexes) ->
+                        postAccount(numeroCuenta, offset, indexes, movements, posted)));
+                posted.forEach((index, result) -> chunkResults[index] = result);
+            } catch (RuntimeException ex) {
+                log.warn("Batch transaction for {} accounts rolled back", byAccount.size(), ex);
+                byAccount.values().forEach(indexes -> indexes.forEach(index -> chunkResults[index] =
+                        rejected(offset + index, movements.get(index), "Transaction rolled back: " + ex.getMessage())));
+            }
+        }
+        results.addAll(Arrays.asList(chunkResults));
+    }
+
+    private void postAccount(String numeroCuenta, int offset, List<Integer> indexes,
+                             List<MovementCreateDto> movements, Map<Integer, MovementBatchItemResultDto> results) {
+        List<PostingOutcome> outcomes = postingApplier.apply(numeroCuenta,
+                indexes.stream().map(movements::get).toList());
+        for (int i = 0; i < outcomes.size(); i++) {
+            int index = indexes.get(i);
+            PostingOutcome outcome = outcomes.get(i);
+            results.put(index, outcome.isPosted()
+                    ? MovementBatchItemResultDto.builder()
+                            .index(offset + index)
+                            .cuentaId(numeroCuenta)
+                            .status(ItemStatus.ACCEPTED)
+                            .movementId(outcome.movement().getId())
+                            .saldo(outcome.movement().getSaldo())
+                            .build()
+                    : rejected(offset + index, movements.get(index), outcome.rejection().getMessage()));
+        }
+    }
+
+    private String validate(MovementCreateDto dto) {
+        if (dto == null) {
+            return "Movement is required";
+        }
+        String violations = validator.validate(dto).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+        return violations.isEmpty() ? null : violations;
+    }
+
+    private static MovementBatchItemResultDto rejected(int index, MovementCreateDto dto, String error) {
+        return MovementBatchItemResultDto.builder()
+                .index(index)
+                .cuentaId(dto == null ? null : dto.getCuentaId())
+                .status(ItemStatus.REJECTED)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+
+/**
+ * Optional posting mode that coalesces concurrent single postings into shared transactions.
+ */
+public interface MovementGroupCommitService {
+
+    /**
+     * Whether {@code movements.group-commit.enabled} is set.
+     */
+    boolean isEnabled();
+
+    /**
+     * Posts one movement in the next group commit and waits for that commit. Returns the same
+     * response, and throws the same exceptions, as {@link MovementService#createMovement}.
+     */
+    MovementResponseDto createMovement(MovementCreateDto movementDto);
+}
@@ -0,0 +1,218 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.service.AccountPostingApplier.PostingOutcome;
+import com.bank.account_service.utils.ToDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single postings.
+ * <p>
+ * Callers enqueue their posting and wait. One writer thread takes the first waiting posting,
+ * keeps collecting for up to {@code movements.group-commit.max-wait} or
+ * {@code movements.group-commit.max-batch} postings, and applies the group in one transaction
+ * through {@link AccountPostingApplier}, accounts in sorted order. Callers are completed only
+ * after the commit, each with its own response or its own rejection. If the shared transaction
+ * fails, the group is retried one posting per transaction so one bad posting cannot fail the rest.
+ */
+@Service
+@Slf4j
+public class MovementGroupCommitServiceImpl implements MovementGroupCommitService {
+
+    private final MovementService movementService;
+    private final AccountPostingApplier postingApplier;
+    private final VelocityRuleService velocityRules;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingPosting> queue = new LinkedBlockingQueue<>();
+    private final DistributionSummary groupSize;
+    private final Timer commitTimer;
+    private volatile Thread writer;
+
+    public MovementGroupCommitServiceImpl(MovementService movementService,
+                                          AccountPostingApplier postingApplier,
+                                          VelocityRuleService velocityRules,
+                                          TransactionTemplate transactionTemplate,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${movements.group-commit.enabled:false}") boolean enabled,
+                                          @Value("${movements.group-commit.max-batch:200}") int maxBatch,
+                                          @Value("${movements.group-commit.max-wait:1ms}") Duration maxWait) {
+        this.movementService = movementService;
+        this.postingApplier = postingApplier;
+        this.velocityRules = velocityRules;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.groupSize = DistributionSummary.builder("movements.group-commit.size")
+                .description("Postings applied per group commit")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("movements.group-commit.duration")
+                .description("Time to apply and commit one group")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("movements.group-commit.queue", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            writer = Thread.ofPlatform().name("movement-group-commit").daemon().start(this::run);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread current = writer;
+        if (current != null) {
+            writer = null;
+            current.interrupt();
+            current.join();
+        }
+        List<PendingPosting> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(posting -> posting.result().completeExceptionally(
+                new IllegalStateException("Group commit writer stopped")));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public MovementResponseDto createMovement(MovementCreateDto movementDto) {
+        if (!enabled) {
+            return movementService.createMovement(movementDto);
+        }
+        if (movementDto.getValor() == null || movementDto.getValor().compareTo(BigDecimal.ZERO) == 0) {
+            throw new RuntimeException("Movement amount cannot be zero");
+        }
+        velocityRules.check(movementDto.getCuentaId(), movementDto.getTipoMovimiento());
+
+        PendingPosting posting = new PendingPosting(movementDto, new CompletableFuture<>());
+        queue.add(posting);
+        try {
+            return posting.result().get();
+        } catch (ExecutionException ex) {
+            // Not posted, so it does not count towards the velocity rules
+            velocityRules.release(movementDto.getCuentaId(), movementDto.getTipoMovimiento());
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Group commit failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the group commit", ex);
+        }
+    }
+
+    private void run() {
+        List<PendingPosting> group = new ArrayList<>(maxBatch);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                collect(group);
+            } catch (InterruptedException ex) {
+                group.forEach(posting -> queue.add(posting));
+                return;
+            }
+            commit(group);
+            group.clear();
+        }
+    }
+
+    /**
+     * Blocks for the first posting, then gathers more until the group is full or the wait elapses.
+     */
+    private void collect(List<PendingPosting> group) throws InterruptedException {
+        group.add(queue.take());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (group.size() < maxBatch) {
+            long remaining = deadline - System.nanoTime();
+            PendingPosting next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void commit(List<PendingPosting> group) {
+        // Sorted by account number so that group commits and batches lock rows in the same order
+        SortedMap<String, List<PendingPosting>> byAccount = new TreeMap<>();
+        group.forEach(posting -> byAccount.computeIfAbsent(posting.dto().getCuentaId(), k -> new ArrayList<>())
+                .add(posting));
+
+        Map<PendingPosting, PostingOutcome> outcomes = new IdentityHashMap<>();
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> byAccount.forEach((numeroCuenta, postings) -> {
+                List<PostingOutcome> applied = postingApplier.apply(numeroCuenta,
+                        postings.stream().map(PendingPosting::dto).toList());
+                for (int i = 0; i < applied.size(); i++) {
+                    outcomes.put(postings.get(i), applied.get(i));
+                }
+            }));
+        } catch (RuntimeException ex) {
+            log.warn("Group commit of {} postings rolled back, posting them one by one", group.size(), ex);
+            group.forEach(this::postAlone);
+            return;
+        }
+        commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        groupSize.record(group.size());
+
+        outcomes.forEach((posting, outcome) -> {
+            if (outcome.isPosted()) {
+                posting.result().complete(ToDto.movementConvertToDto(outcome.movement()));
+            } else {
+                posting.result().completeExceptionally(outcome.rejection());
+            }
+        });
+    }
+
+    /**
+     * Applies the posting in its own transaction; it already passed the velocity check when it
+     * was queued.
+     */
+    private void postAlone(PendingPosting posting) {
+        try {
+            PostingOutcome outcome = transactionTemplate.execute(status -> postingApplier.apply(
+                    posting.dto().getCuentaId(), List.of(posting.dto())).get(0));
+            if (outcome.isPosted()) {
+                posting.result().complete(ToDto.movementConvertToDto(outcome.movement()));
+            } else {
+                posting.result().completeExceptionally(outcome.rejection());
+            }
+        } catch (RuntimeException ex) {
+            posting.result().completeExceptionally(ex);
+        }
+    }
+
+    private record PendingPosting(MovementCreateDto dto, CompletableFuture<MovementResponseDto> result) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+
+public interface MovementIdempotencyService {
+
+    /**
+     * Posts the movement once per {@code idempotencyKey} within the configured window; repeated
+     * calls with the same key and payload return the original response without posting again.
+     */
+    MovementResponseDto createMovement(String idempotencyKey, MovementCreateDto movementDto);
+}
@@ -0,0 +1,183 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.entity.MovementIdempotencyKey;
+import com.bank.account_service.exception.IdempotencyKeyInProgressException;
+import com.bank.account_service.exception.IdempotencyKeyReusedException;
+import com.bank.account_service.repository.MovementIdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Deduplicates movement postings by {@code Idempotency-Key}.
+ * <p>
+ * Recent responses are kept in a bounded in-memory cache, so a retry on the same node costs one
+ * hash lookup. Otherwise the key is inserted into {@code movimiento_claves_idempotencia} as the first
+ * statement of the posting transaction: a concurrent or earlier holder of the key (on any node)
+ * makes the insert fail, and the stored response is returned instead. A failed posting rolls the
+ * key back with it, so only successful responses are replayed. Keys are honoured for
+ * {@code movements.idempotency.window} from their first posting; a cached entry lives only for
+ * what is left of that window.
+ */
+@Service
+@Slf4j
+public class MovementIdempotencyServiceImpl implements MovementIdempotencyService {
+
+    private final MovementService movementService;
+    private final MovementIdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration window;
+    private final Cache<String, StoredResponse> recent;
+
+    public MovementIdempotencyServiceImpl(MovementService movementService,
+                                          MovementIdempotencyKeyRepository idempotencyKeyRepository,
+                                          TransactionTemplate transactionTemplate,
+                                          ObjectMapper objectMapper,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${movements.idempotency.window:24h}") Duration window,
+                                          @Value("${movements.idempotency.cache-size:100000}") long cacheSize) {
+        this.movementService = movementService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.window = window;
+        this.recent = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new RemainingWindowExpiry())
+                .recordStats()
+                .<String, StoredResponse>build(), "movements.idempotency");
+    }
+
+    @Override
+    public MovementResponseDto createMovement(String idempotencyKey, MovementCreateDto movementDto) {
+        String requestHash = requestHash(movementDto);
+        StoredResponse cached = recent.getIfPresent(idempotencyKey);
+        if (cached != null) {
+            return replay(idempotencyKey, requestHash, cached);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        MovementResponseDto created = transactionTemplate.execute(status -> {
+            if (!idempotencyKeyRepository.claim(idempotencyKey, requestHash, now, now.minus(window))) {
+                status.setRollbackOnly();
+                return null;
+            }
+            MovementResponseDto response = movementService.createMovement(movementDto);
+            idempotencyKeyRepository.complete(idempotencyKey, response.getId(), write(response));
+            return response;
+        });
+        if (created != null) {
+            recent.put(idempotencyKey, new StoredResponse(requestHash, created, now));
+            return created;
+        }
+
+        StoredResponse stored = idempotencyKeyRepository.findById(idempotencyKey)
+                .filter(key -> key.getResponse() != null)
+                .map(key -> new StoredResponse(key.getRequestHash(), read(key), key.getCreatedAt()))
+                .orElseThrow(() -> new IdempotencyKeyInProgressException("Idempotency key " + idempotencyKey
+                        + " is held by a posting that has not completed"));
+        recent.put(idempotencyKey, stored);
+        return replay(idempotencyKey, requestHash, stored);
+    }
+
+    /**
+     * Drops stored keys older than the window; the cache expires on its own.
+     */
+    @Scheduled(fixedDelayString = "${movements.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = idempotencyKeyRepository.deleteExpired(LocalDateTime.now().minus(window));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private MovementResponseDto replay(String idempotencyKey, String requestHash, StoredResponse stored) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency key " + idempotencyKey
+                    + " was already used for a different movement");
+        }
+        log.debug("Replaying movement {} for idempotency key {}", stored.response().getId(), idempotencyKey);
+        return stored.response();
+    }
+
+    private String write(MovementResponseDto response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize movement response", ex);
+        }
+    }
+
+    private MovementResponseDto read(MovementIdempotencyKey key) {
+        try {
+            return objectMapper.readValue(key.getResponse(), MovementResponseDto.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot read stored response for idempotency key "
+                    + key.getIdempotencyKey(), ex);
+        }
+    }
+
+    /**
+     * Fingerprint of the fields that define a posting, so a key reused for another movement is
+     * rejected instead of replaying an unrelated response.
+     */
+    static String requestHash(MovementCreateDto dto) {
+        String fingerprint = String.join("\u001f",
+                Objects.toString(dto.getCuentaId(), ""),
+                Objects.toString(dto.getTipoMovimiento(), ""),
+                dto.getValor() == null ? "" : dto.getValor().abs().stripTrailingZeros().toPlainString(),
+                Objects.toString(dto.getDescripcion(), ""));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(fingerprint.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * Expires a cached response when its key leaves the window, counted from the key's first
+     * posting rather than from when this node cached it.
+     */
+    private class RemainingWindowExpiry implements Expiry<String, StoredResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, StoredResponse stored, long currentTime) {
+            Duration remaining = Duration.between(LocalDateTime.now(), stored.createdAt().plus(window));
+            return remaining.isNegative() ? 0 : remaining.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, StoredResponse stored, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, stored, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, StoredResponse stored, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private record StoredResponse(String requestHash, MovementResponseDto response, LocalDateTime createdAt) {
+    }
+}
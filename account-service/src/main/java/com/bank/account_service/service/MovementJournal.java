@@ -0,0 +1,183 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.entity.Movement;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal of acknowledged movements in a memory-mapped file.
+ * <p>
+ * The file starts with the position up to which records have reached the database, followed by
+ * records of {@code [length][crc32][movement]}; a zero length marks the end. Every append is
+ * forced to disk before it returns. Once every record is applied and the file is full, writing
+ * starts over after the header. A record cut short by a crash fails its checksum and ends the
+ * journal there.
+ */
+public class MovementJournal implements Closeable {
+
+    static final int HEADER_SIZE = Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private long appliedPosition;
+    private int writePosition;
+
+    public MovementJournal(Path file, int capacity) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, channel.size()));
+        this.appliedPosition = Math.max(buffer.getLong(0), HEADER_SIZE);
+        this.writePosition = (int) appliedPosition;
+        for (Record record : readUnapplied()) {
+            writePosition = (int) record.end();
+        }
+    }
+
+    /**
+     * Appends the movement, forces it to disk and returns the position just after it. Waits for
+     * the applier to catch up when the journal is full.
+     */
+    public synchronized long append(Movement movement) {
+        byte[] payload = encode(movement);
+        int size = RECORD_HEADER_SIZE + payload.length;
+        if (HEADER_SIZE + size + Integer.BYTES > buffer.capacity()) {
+            throw new IllegalArgumentException("Movement does not fit in the journal");
+        }
+        while (writePosition + size + Integer.BYTES > buffer.capacity()) {
+            if (appliedPosition == writePosition) {
+                rewind();
+            } else {
+                awaitApplied();
+            }
+        }
+
+        int start = writePosition;
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        buffer.putInt(start + RECORD_HEADER_SIZE + payload.length, 0);
+        buffer.put(start + RECORD_HEADER_SIZE, payload);
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        buffer.putInt(start, payload.length);
+        buffer.force(start, size + Integer.BYTES);
+        writePosition = start + size;
+        return writePosition;
+    }
+
+    /**
+     * Records that everything before {@code position} is in the database.
+     */
+    public synchronized void markApplied(long position) {
+        buffer.putLong(0, position);
+        buffer.force(0, HEADER_SIZE);
+        appliedPosition = position;
+        notifyAll();
+    }
+
+    /**
+     * The records after the applied position, in journal order.
+     */
+    public synchronized List<Record> readUnapplied() {
+        List<Record> records = new ArrayList<>();
+        int position = (int) appliedPosition;
+        while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + RECORD_HEADER_SIZE, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            position += RECORD_HEADER_SIZE + length;
+            records.add(new Record(decode(payload), position));
+        }
+        return records;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void rewind() {
+        // End marker first, so a crash before the header is rewritten finds nothing to replay
+        buffer.putInt(HEADER_SIZE, 0);
+        buffer.force(HEADER_SIZE, Integer.BYTES);
+        writePosition = HEADER_SIZE;
+        markApplied(HEADER_SIZE);
+    }
+
+    private void awaitApplied() {
+        try {
+            wait();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for journal space", ex);
+        }
+    }
+
+    private static byte[] encode(Movement movement) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(movement.getId());
+            out.writeUTF(movement.getNumeroCuenta());
+            out.writeUTF(movement.getTipoMovimiento().name());
+            out.writeUTF(movement.getValor().toPlainString());
+            out.writeUTF(movement.getSaldo().toPlainString());
+            out.writeUTF(movement.getFecha().toString());
+            out.writeBoolean(movement.getDescripcion() != null);
+            if (movement.getDescripcion() != null) {
+                out.writeUTF(movement.getDescripcion());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Movement decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            Movement movement = new Movement();
+            movement.setId(in.readLong());
+            movement.setNumeroCuenta(in.readUTF());
+            movement.setTipoMovimiento(Movement.MovementType.valueOf(in.readUTF()));
+            movement.setValor(new BigDecimal(in.readUTF()));
+            movement.setSaldo(new BigDecimal(in.readUTF()));
+            movement.setFecha(LocalDateTime.parse(in.readUTF()));
+            movement.setDescripcion(in.readBoolean() ? in.readUTF() : null);
+            movement.setCreatedAt(movement.getFecha());
+            return movement;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * A journaled movement and the position just after it.
+     */
+    public record Record(Movement movement, long end) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+
+/**
+ * The one way single postings without an idempotency key are made, synchronous or queued.
+ */
+public interface MovementPostingService {
+
+    /**
+     * Posts one movement on its account's lane, through the balance engine or group commit when
+     * enabled and directly otherwise. Returns the same response, and throws the same exceptions, as
+     * {@link MovementService#createMovement}.
+     */
+    MovementResponseDto postMovement(MovementCreateDto movementDto);
+}
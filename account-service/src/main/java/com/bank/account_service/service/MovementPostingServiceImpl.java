@@ -0,0 +1,37 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single postings: the balance engine takes precedence over group commit, which takes precedence
+ * over a transaction per posting.
+ */
+@Service
+public class MovementPostingServiceImpl implements MovementPostingService {
+
+    private final MovementService movementService;
+    private final MovementGroupCommitService movementGroupCommitService;
+    private final BalanceEngineService balanceEngine;
+    private final AccountLaneExecutor accountLanes;
+
+    public MovementPostingServiceImpl(MovementService movementService,
+                                      MovementGroupCommitService movementGroupCommitService,
+                                      BalanceEngineService balanceEngine,
+                                      AccountLaneExecutor accountLanes) {
+        this.movementService = movementService;
+        this.movementGroupCommitService = movementGroupCommitService;
+        this.balanceEngine = balanceEngine;
+        this.accountLanes = accountLanes;
+    }
+
+    @Override
+    public MovementResponseDto postMovement(MovementCreateDto movementDto) {
+        return accountLanes.execute(movementDto.getCuentaId(), () -> balanceEngine.isEnabled()
+                ? balanceEngine.createMovement(movementDto)
+                : movementGroupCommitService.isEnabled()
+                        ? movementGroupCommitService.createMovement(movementDto)
+                        : movementService.createMovement(movementDto));
+    }
+}
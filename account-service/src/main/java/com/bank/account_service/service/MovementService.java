@@ -1,5 +1,6 @@
 package com.bank.account_service.service;
 
+import com.bank.account_service.dto.CursorPageDto;
 import com.bank.account_service.dto.MovementCreateDto;
 import com.bank.account_service.dto.MovementResponseDto;
 import com.bank.account_service.entity.Movement.MovementType;
@@ -13,6 +14,11 @@ public interface MovementService {
     MovementResponseDto getMovementById(Long id);
     
     List<MovementResponseDto> getMovementsByAccountId(String accountId);
+
+    /**
+     * Movements of an account ordered by date and id, one keyset page at a time.
+     */
+    CursorPageDto<MovementResponseDto> getMovementsPageByAccountId(String accountId, String cursor, Integer limit);
     
     List<MovementResponseDto> getMovementsByAccountIdAndDateRange(
             String accountId,
@@ -1,21 +1,29 @@
 package com.bank.account_service.service;
 
+import com.bank.account_service.dto.CursorPageDto;
 import com.bank.account_service.dto.MovementCreateDto;
 import com.bank.account_service.dto.MovementResponseDto;
-import com.bank.account_service.entity.Account;
 import com.bank.account_service.entity.Movement;
 import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.exception.InvalidCursorException;
 import com.bank.account_service.exception.MovementNotFoundException;
+import com.bank.account_service.repository.AccountBalanceView;
 import com.bank.account_service.repository.AccountRepository;
 import com.bank.account_service.repository.MovementRepository;
+import com.bank.account_service.utils.KeysetCursor;
+import com.bank.account_service.utils.PageLimits;
 import com.bank.account_service.utils.ToDto;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,18 +32,15 @@ public class MovementServiceImpl implements MovementService {
 
     private final MovementRepository movementRepository;
     private final AccountRepository accountRepository;
+    private final PageLimits pageLimits;
+    private final AccountSubLedgerService subLedger;
+    private final VelocityRuleService velocityRules;
+    private final DailyDebitLimitService dailyDebitLimits;
+    private final RunningBalanceRepairService runningBalanceRepair;
 
     @Override
     @Transactional
     public MovementResponseDto createMovement(MovementCreateDto movementDto) {
-        Account account = accountRepository.findByNumeroCuenta(movementDto.getCuentaId())
-                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + movementDto.getCuentaId()));
-
-        // Validate account is active
-        if (!account.getEstado()) {
-            throw new RuntimeException("Cannot create movement for inactive account");
-        }
-
         // Validate movement amount is not zero
         if (movementDto.getValor() == null || movementDto.getValor().compareTo(BigDecimal.ZERO) == 0) {
             throw new RuntimeException("Movement amount cannot be zero");
@@ -43,32 +48,54 @@ public class MovementServiceImpl implements MovementService {
 
         // Always store the absolute value of the amount
         BigDecimal absAmount = movementDto.getValor().abs();
+        String numeroCuenta = movementDto.getCuentaId();
+        velocityRules.check(numeroCuenta, movementDto.getTipoMovimiento());
+        LocalDateTime fecha = LocalDateTime.now();
+        if (movementDto.getTipoMovimiento() == Movement.MovementType.DEBITO) {
+            // Released again if the posting is rejected and the transaction rolls back
+            fecha = dailyDebitLimits.reserve(numeroCuenta, absAmount);
+        }
+
+        // Balance check and change happen in one conditional UPDATE, so concurrent postings
+        // on the same account can neither overdraw it nor lose an update; split accounts spread
+        // that UPDATE over their sub-balances
+        Optional<BigDecimal> newBalance;
+        if (subLedger.isSplit(numeroCuenta)) {
+            newBalance = subLedger.post(numeroCuenta, movementDto.getTipoMovimiento(), absAmount);
+        } else if (movementDto.getTipoMovimiento() == Movement.MovementType.CREDITO) {
+            newBalance = accountRepository.credit(numeroCuenta, absAmount);
+        } else {
+            newBalance = accountRepository.debit(numeroCuenta, absAmount);
+        }
+        if (newBalance.isEmpty()) {
+            throw rejection(numeroCuenta);
+        }
 
         Movement movement = new Movement();
-        movement.setNumeroCuenta(account.getNumeroCuenta());
-        movement.setFecha(LocalDateTime.now());
+        movement.setNumeroCuenta(numeroCuenta);
+        movement.setFecha(fecha);
         movement.setTipoMovimiento(movementDto.getTipoMovimiento());
         movement.setValor(absAmount);
         movement.setDescripcion(movementDto.getDescripcion());
-
-        BigDecimal newBalance;
-        if (movementDto.getTipoMovimiento() == Movement.MovementType.CREDITO) {
-            newBalance = account.getSaldoActual().add(absAmount);
-        } else {
-            if (account.getSaldoActual().compareTo(absAmount) < 0) {
-                throw new RuntimeException("Insufficient funds");
-            }
-            newBalance = account.getSaldoActual().subtract(absAmount);
-        }
-
-        account.setSaldoActual(newBalance);
-        accountRepository.save(account);
-        movement.setSaldo(newBalance);
-        Movement savedMovement = movementRepository.save(movement);
+        movement.setSaldo(newBalance.get());
+        // Flush so the response carries the generated createdAt
+        Movement savedMovement = movementRepository.saveAndFlush(movement);
 
         return ToDto.movementConvertToDto(savedMovement);
     }
 
+    /**
+     * Explains why the conditional balance update matched no row.
+     */
+    private RuntimeException rejection(String numeroCuenta) {
+        AccountBalanceView account = accountRepository.findBalanceByNumeroCuenta(numeroCuenta)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + numeroCuenta));
+        if (!account.getEstado()) {
+            return new RuntimeException("Cannot create movement for inactive account");
+        }
+        return new InsufficientFundsException("Insufficient funds");
+    }
+
     @Override
     public MovementResponseDto getMovementById(Long id) {
         return movementRepository.findById(id)
@@ -83,6 +110,33 @@ public class MovementServiceImpl implements MovementService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPageDto<MovementResponseDto> getMovementsPageByAccountId(String accountId, String cursor,
+                                                                          Integer limit) {
+        int pageSize = pageLimits.resolve(limit);
+        // One extra row tells whether another page follows
+        Limit fetch = Limit.of(pageSize + 1);
+        List<Movement> movements;
+        if (cursor == null) {
+            movements = movementRepository.findByNumeroCuentaOrderByFechaAscIdAsc(accountId, fetch);
+        } else {
+            String[] key = KeysetCursor.decode(cursor, 2);
+            movements = movementRepository.findByNumeroCuentaAfter(accountId, parseFecha(key[0]), parseId(key[1]),
+                    fetch);
+        }
+
+        List<MovementResponseDto> page = movements.stream()
+                .limit(pageSize)
+                .map(ToDto::movementConvertToDto)
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (movements.size() > pageSize) {
+            MovementResponseDto last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getFecha(), last.getId());
+        }
+        return new CursorPageDto<>(page, nextCursor);
+    }
+
     @Override
     public List<MovementResponseDto> getMovementsByAccountIdAndDateRange(
             String accountId, LocalDateTime startDate, LocalDateTime endDate) {
@@ -105,18 +159,39 @@ public class MovementServiceImpl implements MovementService {
         Movement movement = movementRepository.findById(id)
                 .orElseThrow(() -> new MovementNotFoundException("Movement not found"));
 
-        Account account = accountRepository.findByNumeroCuenta(movement.getNumeroCuenta())
-                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + movement.getNumeroCuenta()));
-
-        // Reverse the movement effect on account balance
-        if (movement.getTipoMovimiento() == Movement.MovementType.CREDITO) {
-            account.setSaldoActual(account.getSaldoActual().subtract(movement.getValor()));
-        } else {
-            account.setSaldoActual(account.getSaldoActual().add(movement.getValor()));
+        // Only the transaction that actually removes the row reverses it
+        if (movementRepository.deleteMovementById(id) == 0) {
+            throw new MovementNotFoundException("Movement not found");
         }
 
-        accountRepository.save(account);
-        movementRepository.delete(movement);
+        // Reverse the movement effect on account balance in place, so postings running
+        // concurrently on the same account are kept
+        BigDecimal reversal = movement.getTipoMovimiento() == Movement.MovementType.CREDITO
+                ? movement.getValor().negate()
+                : movement.getValor();
+        accountRepository.adjust(movement.getNumeroCuenta(), reversal)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: "
+                        + movement.getNumeroCuenta()));
+
+        // The later movements still carry balances that include it; they are recomputed once
+        // this transaction commits
+        runningBalanceRepair.scheduleRepair(movement.getNumeroCuenta(), movement.getFecha(), movement.getId());
+    }
+
+
+    private static LocalDateTime parseFecha(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
     }
 
-}
\ No newline at end of file
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
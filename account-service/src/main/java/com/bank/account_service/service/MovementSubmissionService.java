@@ -0,0 +1,21 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementSubmissionDto;
+
+/**
+ * Asynchronous single postings: accepted onto a bounded queue and polled for their outcome.
+ */
+public interface MovementSubmissionService {
+
+    /**
+     * Queues the posting and returns its tracking id with status {@code PENDING}. Throws
+     * {@link com.bank.account_service.exception.SubmissionQueueFullException} when the queue is full.
+     */
+    MovementSubmissionDto submit(MovementCreateDto movementDto);
+
+    /**
+     * The current status of a submission: pending, the posted movement, or the rejection reason.
+     */
+    MovementSubmissionDto getSubmission(String trackingId);
+}
@@ -0,0 +1,107 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.dto.MovementSubmissionDto;
+import com.bank.account_service.dto.MovementSubmissionDto.SubmissionStatus;
+import com.bank.account_service.exception.SubmissionNotFoundException;
+import com.bank.account_service.exception.SubmissionQueueFullException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous single postings.
+ * <p>
+ * Submissions wait in a queue of {@code movements.async.queue-capacity} entries for one of
+ * {@code movements.async.workers} workers, which post them through {@link MovementPostingService}
+ * like a synchronous unkeyed {@code POST /api/movimientos}. A full queue rejects the submission at once instead of holding the request
+ * thread. Outcomes are kept in memory for {@code movements.async.retention} after their last
+ * change, so tracking ids are only known to the node that accepted them.
+ */
+@Service
+@Slf4j
+public class MovementSubmissionServiceImpl implements MovementSubmissionService {
+
+    private final MovementPostingService movementPostingService;
+    private final ThreadPoolExecutor workers;
+    private final Cache<String, MovementSubmissionDto> submissions;
+    private final Counter queueFull;
+
+    public MovementSubmissionServiceImpl(MovementPostingService movementPostingService,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${movements.async.queue-capacity:10000}") int queueCapacity,
+                                         @Value("${movements.async.workers:8}") int workerCount,
+                                         @Value("${movements.async.retention:1h}") Duration retention) {
+        this.movementPostingService = movementPostingService;
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("movement-submission-", 0).factory());
+        this.submissions = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .build();
+        this.queueFull = Counter.builder("movements.async.queue-full")
+                .description("Submissions turned away because the queue was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("movements.async.queue", workers, executor -> executor.getQueue().size());
+    }
+
+    @Override
+    public MovementSubmissionDto submit(MovementCreateDto movementDto) {
+        String trackingId = UUID.randomUUID().toString();
+        MovementSubmissionDto pending = MovementSubmissionDto.builder()
+                .trackingId(trackingId)
+                .status(SubmissionStatus.PENDING)
+                .build();
+        submissions.put(trackingId, pending);
+        try {
+            workers.execute(() -> process(trackingId, movementDto));
+        } catch (RejectedExecutionException ex) {
+            submissions.invalidate(trackingId);
+            queueFull.increment();
+            throw new SubmissionQueueFullException("Movement submission queue is full, retry later");
+        }
+        return pending;
+    }
+
+    @Override
+    public MovementSubmissionDto getSubmission(String trackingId) {
+        MovementSubmissionDto submission = submissions.getIfPresent(trackingId);
+        if (submission == null) {
+            throw new SubmissionNotFoundException("Submission not found with id: " + trackingId);
+        }
+        return submission;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} movement submissions still queued at shutdown", workers.getQueue().size());
+        }
+    }
+
+    private void process(String trackingId, MovementCreateDto movementDto) {
+        MovementSubmissionDto.MovementSubmissionDtoBuilder outcome = MovementSubmissionDto.builder()
+                .trackingId(trackingId);
+        try {
+            MovementResponseDto movement = movementPostingService.postMovement(movementDto);
+            outcome.status(SubmissionStatus.COMPLETED).movimiento(movement);
+        } catch (RuntimeException ex) {
+            log.debug("Submission {} rejected: {}", trackingId, ex.getMessage());
+            outcome.status(SubmissionStatus.REJECTED).error(ex.getMessage());
+        }
+        submissions.put(trackingId, outcome.build());
+    }
+}
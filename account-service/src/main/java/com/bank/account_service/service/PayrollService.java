@@ -0,0 +1,25 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.PayrollCreateDto;
+import com.bank.account_service.dto.PayrollPaymentResponseDto;
+import com.bank.account_service.dto.PayrollResponseDto;
+import com.bank.account_service.entity.PayrollPayment;
+
+public interface PayrollService {
+
+    /**
+     * Debits the total from the source account and stores the job; the payments are credited in
+     * the background. Throws the rejection of the debit, as a single posting would, if the total
+     * cannot be reserved.
+     */
+    PayrollResponseDto createPayroll(PayrollCreateDto payrollDto);
+
+    PayrollResponseDto getPayroll(Long id);
+
+    /**
+     * The payments of a job in submission order, optionally only those in {@code estado}.
+     */
+    CursorPageDto<PayrollPaymentResponseDto> getPayments(Long id, PayrollPayment.PaymentStatus estado,
+                                                         String cursor, Integer limit);
+}
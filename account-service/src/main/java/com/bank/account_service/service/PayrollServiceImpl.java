@@ -0,0 +1,382 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.dto.PayrollCreateDto;
+import com.bank.account_service.dto.PayrollPaymentCreateDto;
+import com.bank.account_service.dto.PayrollPaymentResponseDto;
+import com.bank.account_service.dto.PayrollResponseDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.entity.Payroll;
+import com.bank.account_service.entity.PayrollPayment;
+import com.bank.account_service.exception.BatchTooLargeException;
+import com.bank.account_service.exception.InvalidCursorException;
+import com.bank.account_service.exception.PayrollNotFoundException;
+import com.bank.account_service.repository.MovementRepository;
+import com.bank.account_service.repository.PayrollPaymentRepository;
+import com.bank.account_service.repository.PayrollPaymentTotalsView;
+import com.bank.account_service.repository.PayrollRepository;
+import com.bank.account_service.service.AccountPostingApplier.PostingOutcome;
+import com.bank.account_service.utils.KeysetCursor;
+import com.bank.account_service.utils.PageLimits;
+import com.bank.account_service.utils.ToDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Payroll jobs.
+ * <p>
+ * Creating a job debits the total from the source account as one movement and stores the
+ * payments, all in one transaction. A background job then credits the payments in chunks of
+ * {@code payroll.chunk-size}, {@code payroll.parallelism} chunks at a time. Each chunk is one
+ * transaction that locks its pending payments, posts their credits account by account in
+ * account order through {@link AccountPostingApplier} and records each payment's outcome, so a
+ * crash loses no more than the open chunks, which are still pending afterwards. When no payment is
+ * pending, the rejected ones are credited back to the source account and the job completes.
+ * <p>
+ * Running jobs are picked up again every {@code payroll.resume-interval}, starting at boot, on
+ * every node; row locks keep two nodes from settling the same payment twice.
+ */
+@Service
+@Slf4j
+public class PayrollServiceImpl implements PayrollService {
+
+    private final PayrollRepository payrollRepository;
+    private final PayrollPaymentRepository paymentRepository;
+    private final MovementRepository movementRepository;
+    private final AccountPostingApplier postingApplier;
+    private final BalanceEngineService balanceEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final PageLimits pageLimits;
+    private final int maxPayments;
+    private final int chunkSize;
+    private final ExecutorService jobs = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("payroll-", 0).factory());
+    private final ExecutorService chunks;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final Timer chunkTimer;
+    private final Counter postedCounter;
+    private final Counter rejectedCounter;
+
+    public PayrollServiceImpl(PayrollRepository payrollRepository,
+                              PayrollPaymentRepository paymentRepository,
+                              MovementRepository movementRepository,
+                              AccountPostingApplier postingApplier,
+                              BalanceEngineService balanceEngine,
+                              TransactionTemplate transactionTemplate,
+                              PageLimits pageLimits,
+                              MeterRegistry meterRegistry,
+                              @Value("${payroll.max-payments:50000}") int maxPayments,
+                              @Value("${payroll.chunk-size:500}") int chunkSize,
+                              @Value("${payroll.parallelism:4}") int parallelism) {
+        this.payrollRepository = payrollRepository;
+        this.paymentRepository = paymentRepository;
+        this.movementRepository = movementRepository;
+        this.postingApplier = postingApplier;
+        this.balanceEngine = balanceEngine;
+        this.transactionTemplate = transactionTemplate;
+        this.pageLimits = pageLimits;
+        this.maxPayments = maxPayments;
+        this.chunkSize = chunkSize;
+        this.chunks = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("payroll-chunk-", 0).factory());
+        this.chunkTimer = Timer.builder("payroll.chunk")
+                .description("Time to credit one chunk of payroll payments")
+                .register(meterRegistry);
+        this.postedCounter = Counter.builder("payroll.payments")
+                .tag("outcome", "posted")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("payroll.payments")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public PayrollResponseDto createPayroll(PayrollCreateDto payrollDto) {
+        List<PayrollPaymentCreateDto> pagos = payrollDto.getPagos();
+        if (pagos.size() > maxPayments) {
+            throw new BatchTooLargeException("Payroll has " + pagos.size() + " payments, the limit is " + maxPayments);
+        }
+        BigDecimal total = pagos.stream()
+                .map(pago -> pago.getValor().abs())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        String cuentaOrigen = payrollDto.getCuentaOrigen();
+
+        Payroll payroll = balanceEngine.exclusive(List.of(cuentaOrigen), () -> transactionTemplate.execute(status -> {
+            Payroll created = new Payroll();
+            created.setCuentaOrigen(cuentaOrigen);
+            created.setDescripcion(payrollDto.getDescripcion());
+            created.setTotal(total);
+            created.setPagos(pagos.size());
+            created.setEstado(Payroll.PayrollStatus.RUNNING);
+            created.setCreatedAt(LocalDateTime.now());
+            payrollRepository.save(created);
+            created.setDebitoId(post(cuentaOrigen, Movement.MovementType.DEBITO, total,
+                    "Nomina #" + created.getId()).getId());
+
+            List<PayrollPayment> payments = new ArrayList<>(pagos.size());
+            for (int i = 0; i < pagos.size(); i++) {
+                PayrollPayment payment = new PayrollPayment();
+                payment.setNominaId(created.getId());
+                payment.setIndice(i);
+                payment.setCuentaDestino(pagos.get(i).getCuentaDestino());
+                payment.setValor(pagos.get(i).getValor().abs());
+                payment.setEstado(PayrollPayment.PaymentStatus.PENDING);
+                payments.add(payment);
+            }
+            paymentRepository.insertPayments(payments);
+            return created;
+        }));
+
+        schedule(payroll.getId());
+        return toDto(payroll);
+    }
+
+    @Override
+    public PayrollResponseDto getPayroll(Long id) {
+        return toDto(payrollRepository.findById(id)
+                .orElseThrow(() -> new PayrollNotFoundException("Payroll not found with id: " + id)));
+    }
+
+    @Override
+    public CursorPageDto<PayrollPaymentResponseDto> getPayments(Long id, PayrollPayment.PaymentStatus estado,
+                                                                String cursor, Integer limit) {
+        if (!payrollRepository.existsById(id)) {
+            throw new PayrollNotFoundException("Payroll not found with id: " + id);
+        }
+        int pageSize = pageLimits.resolve(limit);
+        int after = cursor == null ? -1 : parseIndice(KeysetCursor.decode(cursor, 1)[0]);
+        // One extra row tells whether another page follows
+        Limit fetch = Limit.of(pageSize + 1);
+        List<PayrollPayment> payments = estado == null
+                ? paymentRepository.findByNominaIdAndIndiceGreaterThanOrderByIndiceAsc(id, after, fetch)
+                : paymentRepository.findByNominaIdAndEstadoAndIndiceGreaterThanOrderByIndiceAsc(id, estado, after,
+                        fetch);
+
+        List<PayrollPaymentResponseDto> page = payments.stream()
+                .limit(pageSize)
+                .map(PayrollServiceImpl::paymentToDto)
+                .toList();
+        String nextCursor = payments.size() > pageSize
+                ? KeysetCursor.encode(page.get(page.size() - 1).getIndice())
+                : null;
+        return new CursorPageDto<>(page, nextCursor);
+    }
+
+    /**
+     * Picks up running jobs, including those a crash or a failed chunk left unfinished.
+     */
+    @Scheduled(fixedDelayString = "${payroll.resume-interval:PT1M}")
+    public void resumeRunning() {
+        for (Payroll payroll : payrollRepository.findByEstado(Payroll.PayrollStatus.RUNNING)) {
+            schedule(payroll.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdownNow();
+        chunks.shutdown();
+    }
+
+    private void schedule(Long id) {
+        if (!running.add(id)) {
+            return;
+        }
+        jobs.execute(() -> {
+            try {
+                run(id);
+            } finally {
+                running.remove(id);
+            }
+        });
+    }
+
+    private void run(Long id) {
+        Payroll payroll = payrollRepository.findById(id).orElse(null);
+        if (payroll == null || payroll.getEstado() != Payroll.PayrollStatus.RUNNING) {
+            return;
+        }
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int from = 0; from < payroll.getPagos(); from += chunkSize) {
+            int fromIndice = from;
+            int toIndice = Math.min(from + chunkSize, payroll.getPagos());
+            pending.add(CompletableFuture.runAsync(() -> chunkTimer.record(
+                    () -> postChunk(payroll, fromIndice, toIndice)), chunks));
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+            complete(payroll);
+        } catch (RuntimeException ex) {
+            log.error("Payroll {} stopped before completing; it is resumed on the next pass", id, ex);
+        }
+    }
+
+    private void postChunk(Payroll payroll, int fromIndice, int toIndice) {
+        String descripcion = payroll.getDescripcion() != null
+                ? payroll.getDescripcion()
+                : "Nomina #" + payroll.getId();
+        List<String> accounts = balanceEngine.isEnabled()
+                ? paymentRepository.findPendingAccounts(payroll.getId(), fromIndice, toIndice)
+                : List.of();
+        balanceEngine.exclusive(accounts, () -> transactionTemplate.execute(status -> {
+            List<PayrollPayment> payments = paymentRepository.lockPending(payroll.getId(), fromIndice, toIndice);
+            if (payments.isEmpty()) {
+                return null;
+            }
+            // Sorted by account number, the order batches and transfers lock rows in
+            SortedMap<String, List<PayrollPayment>> byAccount = new TreeMap<>();
+            for (PayrollPayment payment : payments) {
+                byAccount.computeIfAbsent(payment.getCuentaDestino(), k -> new ArrayList<>()).add(payment);
+            }
+            byAccount.forEach((numeroCuenta, group) -> {
+                List<PostingOutcome> outcomes = postingApplier.apply(numeroCuenta, group.stream()
+                        .map(payment -> posting(numeroCuenta, Movement.MovementType.CREDITO, payment.getValor(),
+                                descripcion))
+                        .toList());
+                for (int i = 0; i < group.size(); i++) {
+                    PayrollPayment payment = group.get(i);
+                    PostingOutcome outcome = outcomes.get(i);
+                    if (outcome.isPosted()) {
+                        payment.setEstado(PayrollPayment.PaymentStatus.POSTED);
+                        payment.setMovimientoId(outcome.movement().getId());
+                    } else {
+                        payment.setEstado(PayrollPayment.PaymentStatus.REJECTED);
+                        payment.setError(outcome.rejection().getMessage());
+                    }
+                }
+            });
+            paymentRepository.updateOutcomes(payments);
+            long posted = payments.stream()
+                    .filter(payment -> payment.getEstado() == PayrollPayment.PaymentStatus.POSTED)
+                    .count();
+            postedCounter.increment(posted);
+            rejectedCounter.increment(payments.size() - posted);
+            return null;
+        }));
+    }
+
+    private void complete(Payroll payroll) {
+        balanceEngine.exclusive(List.of(payroll.getCuentaOrigen()), () -> transactionTemplate.execute(status -> {
+            Map<PayrollPayment.PaymentStatus, PayrollPaymentTotalsView> totals = totals(payroll.getId());
+            if (totals.containsKey(PayrollPayment.PaymentStatus.PENDING)) {
+                log.warn("Payroll {} still has pending payments; it is resumed on the next pass", payroll.getId());
+                return null;
+            }
+            PayrollPaymentTotalsView rejected = totals.get(PayrollPayment.PaymentStatus.REJECTED);
+            Long reintegroId = rejected == null || rejected.getTotal().signum() == 0 ? null : post(payroll.getCuentaOrigen(),
+                    Movement.MovementType.CREDITO, rejected.getTotal(), "Reintegro de nomina #" + payroll.getId())
+                    .getId();
+            if (payrollRepository.complete(payroll.getId(), LocalDateTime.now(), reintegroId) == 0) {
+                // Completed elsewhere, refund included
+                status.setRollbackOnly();
+            }
+            return null;
+        }));
+    }
+
+    private Movement post(String numeroCuenta, Movement.MovementType tipo, BigDecimal valor, String descripcion) {
+        PostingOutcome outcome = postingApplier.apply(numeroCuenta,
+                List.of(posting(numeroCuenta, tipo, valor, descripcion))).get(0);
+        if (!outcome.isPosted()) {
+            throw outcome.rejection();
+        }
+        return outcome.movement();
+    }
+
+    private Map<PayrollPayment.PaymentStatus, PayrollPaymentTotalsView> totals(Long id) {
+        Map<PayrollPayment.PaymentStatus, PayrollPaymentTotalsView> totals =
+                new EnumMap<>(PayrollPayment.PaymentStatus.class);
+        for (PayrollPaymentTotalsView view : paymentRepository.findTotalsByNominaId(id)) {
+            totals.put(view.getEstado(), view);
+        }
+        return totals;
+    }
+
+    private PayrollResponseDto toDto(Payroll payroll) {
+        Map<PayrollPayment.PaymentStatus, PayrollPaymentTotalsView> totals = totals(payroll.getId());
+        long acreditados = count(totals, PayrollPayment.PaymentStatus.POSTED);
+        long rechazados = count(totals, PayrollPayment.PaymentStatus.REJECTED);
+        LocalDateTime end = payroll.getFinishedAt() != null ? payroll.getFinishedAt() : LocalDateTime.now();
+        long elapsedMillis = Duration.between(payroll.getCreatedAt(), end).toMillis();
+        return PayrollResponseDto.builder()
+                .id(payroll.getId())
+                .cuentaOrigen(payroll.getCuentaOrigen())
+                .descripcion(payroll.getDescripcion())
+                .total(payroll.getTotal())
+                .estado(payroll.getEstado())
+                .pagos(payroll.getPagos())
+                .acreditados(acreditados)
+                .rechazados(rechazados)
+                .pendientes(count(totals, PayrollPayment.PaymentStatus.PENDING))
+                .debito(movement(payroll.getDebitoId()))
+                .reintegro(movement(payroll.getReintegroId()))
+                .createdAt(payroll.getCreatedAt())
+                .finishedAt(payroll.getFinishedAt())
+                .elapsedMillis(elapsedMillis)
+                .pagosPorSegundo(elapsedMillis > 0 ? (acreditados + rechazados) * 1000.0 / elapsedMillis : 0)
+                .build();
+    }
+
+    private MovementResponseDto movement(Long id) {
+        return id == null ? null : movementRepository.findById(id).map(ToDto::movementConvertToDto).orElse(null);
+    }
+
+    private static long count(Map<PayrollPayment.PaymentStatus, PayrollPaymentTotalsView> totals,
+                              PayrollPayment.PaymentStatus estado) {
+        PayrollPaymentTotalsView view = totals.get(estado);
+        return view == null ? 0 : view.getPagos();
+    }
+
+    private static MovementCreateDto posting(String numeroCuenta, Movement.MovementType tipo, BigDecimal valor,
+                                             String descripcion) {
+        MovementCreateDto dto = new MovementCreateDto();
+        dto.setCuentaId(numeroCuenta);
+        dto.setTipoMovimiento(tipo);
+        dto.setValor(valor);
+        dto.setDescripcion(descripcion);
+        return dto;
+    }
+
+    private static PayrollPaymentResponseDto paymentToDto(PayrollPayment payment) {
+        return PayrollPaymentResponseDto.builder()
+                .indice(payment.getIndice())
+                .cuentaDestino(payment.getCuentaDestino())
+                .valor(payment.getValor())
+                .estado(payment.getEstado())
+                .movimientoId(payment.getMovimientoId())
+                .error(payment.getError())
+                .build();
+    }
+
+    private static int parseIndice(String indice) {
+        try {
+            return Integer.parseInt(indice);
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.ReconciliationDiscrepancyResponseDto;
+import com.bank.account_service.dto.ReconciliationResponseDto;
+
+/**
+ * Ledger reconciliation.
+ */
+public interface ReconciliationService {
+
+    /**
+     * Starts checking every account's movements against their running balances and the account's
+     * balance; one reconciliation runs at a time. The accounts are checked in the background; the
+     * reconciliation is polled with {@link #getReconciliation}.
+     */
+    ReconciliationResponseDto startReconciliation();
+
+    ReconciliationResponseDto getReconciliation(Long id);
+
+    /**
+     * The discrepancies a reconciliation found, in the order they were stored.
+     */
+    CursorPageDto<ReconciliationDiscrepancyResponseDto> getDiscrepancies(Long id, String cursor, Integer limit);
+}
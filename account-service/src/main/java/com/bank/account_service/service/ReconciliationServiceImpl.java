@@ -0,0 +1,441 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.ReconciliationDiscrepancyResponseDto;
+import com.bank.account_service.dto.ReconciliationResponseDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.entity.Reconciliation;
+import com.bank.account_service.entity.ReconciliationChunk;
+import com.bank.account_service.entity.ReconciliationDiscrepancy;
+import com.bank.account_service.exception.InvalidCursorException;
+import com.bank.account_service.exception.ReconciliationNotFoundException;
+import com.bank.account_service.exception.ReconciliationRunningException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.LedgerBalance;
+import com.bank.account_service.repository.MovementRepository;
+import com.bank.account_service.repository.ReconciliationChunkRepository;
+import com.bank.account_service.repository.ReconciliationChunkTotalsView;
+import com.bank.account_service.repository.ReconciliationDiscrepancyRepository;
+import com.bank.account_service.repository.ReconciliationRepository;
+import com.bank.account_service.repository.RunningBalanceRow;
+import com.bank.account_service.utils.KeysetCursor;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ledger reconciliation.
+ * <p>
+ * Starting a reconciliation splits all accounts into key ranges of
+ * {@code reconciliation.chunk-size} accounts, walking the primary key, and stores one pending chunk
+ * per range. A background job then verifies the chunks, {@code reconciliation.parallelism} at a
+ * time (one per core by default). Each chunk reads its accounts' balances and then streams their
+ * movements ordered by {@code (numero_cuenta, fecha, id)}, both in one read-only repeatable-read
+ * transaction so that postings made meanwhile are not reported. A single pass keeps a running
+ * balance per account from its opening balance; memory grows with the accounts of a chunk, never
+ * with the movements. The discrepancies found go in with one batched INSERT in the transaction
+ * that marks the chunk done, so a crash loses no more than the open chunks, which are still
+ * pending afterwards.
+ * <p>
+ * An account gets at most one MOVIMIENTO discrepancy, on its first movement whose {@code saldo}
+ * disagrees with the running balance, counting every movement that disagrees, and one CUENTA
+ * discrepancy when its balance, sub-balances included, is not the opening balance plus its
+ * movements. Split accounts are only checked for the latter: their movements record the account
+ * total after the posting, which includes concurrent postings to other sub-balances, so it is not
+ * a running balance (see {@link AccountSubLedgerServiceImpl}).
+ * <p>
+ * Running reconciliations are picked up again every {@code reconciliation.resume-interval},
+ * starting at boot, on every node. With {@code reconciliation.cron} set, a reconciliation starts
+ * on that schedule unless one is running.
+ */
+@Service
+@Slf4j
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private final ReconciliationRepository reconciliationRepository;
+    private final ReconciliationChunkRepository chunkRepository;
+    private final ReconciliationDiscrepancyRepository discrepancyRepository;
+    private final AccountRepository accountRepository;
+    private final MovementRepository movementRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final PageLimits pageLimits;
+    private final int chunkSize;
+    private final ExecutorService jobs = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("reconciliation-", 0).factory());
+    private final ExecutorService chunks;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final Timer chunkTimer;
+    private final Counter movementsCounter;
+    private final Counter movementDiscrepancies;
+    private final Counter accountDiscrepancies;
+    private final DistributionSummary throughput;
+
+    public ReconciliationServiceImpl(ReconciliationRepository reconciliationRepository,
+                                     ReconciliationChunkRepository chunkRepository,
+                                     ReconciliationDiscrepancyRepository discrepancyRepository,
+                                     AccountRepository accountRepository,
+                                     MovementRepository movementRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     PageLimits pageLimits,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${reconciliation.chunk-size:5000}") int chunkSize,
+                                     @Value("${reconciliation.parallelism:0}") int parallelism) {
+        this.reconciliationRepository = reconciliationRepository;
+        this.chunkRepository = chunkRepository;
+        this.discrepancyRepository = discrepancyRepository;
+        this.accountRepository = accountRepository;
+        this.movementRepository = movementRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.pageLimits = pageLimits;
+        this.chunkSize = chunkSize;
+        this.chunks = Executors.newFixedThreadPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                Thread.ofPlatform().name("reconciliation-chunk-", 0).factory());
+        this.chunkTimer = Timer.builder("reconciliation.chunk")
+                .description("Time to verify one range of accounts")
+                .register(meterRegistry);
+        this.movementsCounter = Counter.builder("reconciliation.movements")
+                .description("Movements verified by reconciliations")
+                .register(meterRegistry);
+        this.movementDiscrepancies = Counter.builder("reconciliation.discrepancies")
+                .description("Discrepancies found by reconciliations")
+                .tag("tipo", ReconciliationDiscrepancy.DiscrepancyType.MOVIMIENTO.name())
+                .register(meterRegistry);
+        this.accountDiscrepancies = Counter.builder("reconciliation.discrepancies")
+                .description("Discrepancies found by reconciliations")
+                .tag("tipo", ReconciliationDiscrepancy.DiscrepancyType.CUENTA.name())
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("reconciliation.throughput")
+                .description("Movements verified per second by each completed reconciliation")
+                .baseUnit("movements/s")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ReconciliationResponseDto startReconciliation() {
+        if (reconciliationRepository.existsByEstado(Reconciliation.ReconciliationStatus.RUNNING)) {
+            throw new ReconciliationRunningException("A reconciliation is already running");
+        }
+        Reconciliation reconciliation = transactionTemplate.execute(status -> {
+            List<String> bounds = accountRepository.findRangeBounds(chunkSize);
+            Reconciliation created = new Reconciliation();
+            created.setTramos(bounds.size());
+            created.setEstado(Reconciliation.ReconciliationStatus.RUNNING);
+            created.setCreatedAt(LocalDateTime.now());
+            reconciliationRepository.save(created);
+
+            List<ReconciliationChunk> ranges = new ArrayList<>(bounds.size());
+            for (int i = 0; i < bounds.size(); i++) {
+                ReconciliationChunk chunk = new ReconciliationChunk();
+                chunk.setConciliacionId(created.getId());
+                chunk.setTramo(i);
+                chunk.setDesde(i == 0 ? "" : bounds.get(i - 1));
+                chunk.setHasta(bounds.get(i));
+                chunk.setEstado(ReconciliationChunk.ChunkStatus.PENDING);
+                ranges.add(chunk);
+            }
+            chunkRepository.insertChunks(ranges);
+            return created;
+        });
+
+        schedule(reconciliation.getId());
+        return toDto(reconciliation);
+    }
+
+    @Override
+    public ReconciliationResponseDto getReconciliation(Long id) {
+        return toDto(reconciliationRepository.findById(id)
+                .orElseThrow(() -> new ReconciliationNotFoundException("Reconciliation not found with id: " + id)));
+    }
+
+    @Override
+    public CursorPageDto<ReconciliationDiscrepancyResponseDto> getDiscrepancies(Long id, String cursor,
+                                                                                Integer limit) {
+        if (!reconciliationRepository.existsById(id)) {
+            throw new ReconciliationNotFoundException("Reconciliation not found with id: " + id);
+        }
+        int pageSize = pageLimits.resolve(limit);
+        long after = cursor == null ? 0 : parseId(KeysetCursor.decode(cursor, 1)[0]);
+        // One extra row tells whether another page follows
+        List<ReconciliationDiscrepancy> discrepancies = discrepancyRepository
+                .findByConciliacionIdAndIdGreaterThanOrderByIdAsc(id, after, Limit.of(pageSize + 1));
+
+        List<ReconciliationDiscrepancyResponseDto> page = discrepancies.stream()
+                .limit(pageSize)
+                .map(ReconciliationServiceImpl::discrepancyToDto)
+                .toList();
+        String nextCursor = discrepancies.size() > pageSize
+                ? KeysetCursor.encode(page.get(page.size() - 1).getId())
+                : null;
+        return new CursorPageDto<>(page, nextCursor);
+    }
+
+    @Scheduled(cron = "${reconciliation.cron:-}")
+    public void reconcileScheduled() {
+        try {
+            startReconciliation();
+        } catch (ReconciliationRunningException ex) {
+            log.info("Scheduled reconciliation skipped: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Picks up running reconciliations, including those a crash or a failed chunk left unfinished.
+     */
+    @Scheduled(fixedDelayString = "${reconciliation.resume-interval:PT1M}")
+    public void resumeRunning() {
+        for (Reconciliation reconciliation : reconciliationRepository.findByEstado(
+                Reconciliation.ReconciliationStatus.RUNNING)) {
+            schedule(reconciliation.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdownNow();
+        chunks.shutdown();
+    }
+
+    private void schedule(Long id) {
+        if (!running.add(id)) {
+            return;
+        }
+        jobs.execute(() -> {
+            try {
+                run(id);
+            } finally {
+                running.remove(id);
+            }
+        });
+    }
+
+    private void run(Long id) {
+        Reconciliation reconciliation = reconciliationRepository.findById(id).orElse(null);
+        if (reconciliation == null || reconciliation.getEstado() != Reconciliation.ReconciliationStatus.RUNNING) {
+            return;
+        }
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (ReconciliationChunk chunk : chunkRepository.findByConciliacionIdAndEstadoOrderByTramoAsc(id,
+                ReconciliationChunk.ChunkStatus.PENDING)) {
+            pending.add(CompletableFuture.runAsync(() -> chunkTimer.record(() -> verifyChunk(id, chunk)), chunks));
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+            complete(reconciliation);
+        } catch (RuntimeException ex) {
+            log.error("Reconciliation {} stopped before completing; it is resumed on the next pass", id, ex);
+        }
+    }
+
+    private void verifyChunk(Long id, ReconciliationChunk chunk) {
+        long start = System.nanoTime();
+        ChunkResult result = snapshotTransaction.execute(status -> verify(id, chunk));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (chunkRepository.claim(id, chunk.getTramo()) == 0) {
+                return;
+            }
+            if (!result.discrepancies().isEmpty()) {
+                discrepancyRepository.insertDiscrepancies(result.discrepancies());
+            }
+            chunkRepository.recordOutcome(id, chunk.getTramo(), result.cuentas(), result.movimientos(),
+                    result.discrepancies().size(), Duration.ofNanos(System.nanoTime() - start).toMillis(),
+                    LocalDateTime.now());
+            movementsCounter.increment(result.movimientos());
+            for (ReconciliationDiscrepancy discrepancy : result.discrepancies()) {
+                (discrepancy.getTipo() == ReconciliationDiscrepancy.DiscrepancyType.MOVIMIENTO
+                        ? movementDiscrepancies
+                        : accountDiscrepancies).increment();
+            }
+        });
+    }
+
+    private ChunkResult verify(Long id, ReconciliationChunk chunk) {
+        Map<String, RunningBalance> balances = new LinkedHashMap<>();
+        for (LedgerBalance account : accountRepository.findLedgerBalances(chunk.getDesde(), chunk.getHasta())) {
+            balances.put(account.numeroCuenta(), new RunningBalance(account));
+        }
+        long[] movimientos = {0};
+        movementRepository.streamRunningBalances(chunk.getDesde(), chunk.getHasta(), row -> {
+            movimientos[0]++;
+            balances.get(row.numeroCuenta()).add(row);
+        });
+
+        List<ReconciliationDiscrepancy> discrepancies = new ArrayList<>();
+        for (RunningBalance balance : balances.values()) {
+            balance.addDiscrepancies(id, discrepancies);
+        }
+        return new ChunkResult(balances.size(), movimientos[0], discrepancies);
+    }
+
+    private void complete(Reconciliation reconciliation) {
+        transactionTemplate.execute(status -> {
+            Map<ReconciliationChunk.ChunkStatus, ReconciliationChunkTotalsView> totals =
+                    totals(reconciliation.getId());
+            if (totals.containsKey(ReconciliationChunk.ChunkStatus.PENDING)) {
+                log.warn("Reconciliation {} still has pending chunks; it is resumed on the next pass",
+                        reconciliation.getId());
+                return null;
+            }
+            ReconciliationChunkTotalsView done = totals.get(ReconciliationChunk.ChunkStatus.DONE);
+            long cuentas = done == null ? 0 : valueOf(done.getCuentas());
+            long movimientos = done == null ? 0 : valueOf(done.getMovimientos());
+            long discrepancias = done == null ? 0 : valueOf(done.getDiscrepancias());
+            LocalDateTime finishedAt = LocalDateTime.now();
+            if (reconciliationRepository.complete(reconciliation.getId(), cuentas, movimientos, discrepancias,
+                    finishedAt) > 0) {
+                long elapsedMillis = Duration.between(reconciliation.getCreatedAt(), finishedAt).toMillis();
+                throughput.record(elapsedMillis > 0 ? movimientos * 1000.0 / elapsedMillis : 0);
+                if (discrepancias > 0) {
+                    log.warn("Reconciliation {} found {} discrepancies in {} accounts and {} movements",
+                            reconciliation.getId(), discrepancias, cuentas, movimientos);
+                } else {
+                    log.info("Reconciliation {} verified {} accounts and {} movements in {} ms",
+                            reconciliation.getId(), cuentas, movimientos, elapsedMillis);
+                }
+            }
+            return null;
+        });
+    }
+
+    private Map<ReconciliationChunk.ChunkStatus, ReconciliationChunkTotalsView> totals(Long id) {
+        Map<ReconciliationChunk.ChunkStatus, ReconciliationChunkTotalsView> totals =
+                new EnumMap<>(ReconciliationChunk.ChunkStatus.class);
+        for (ReconciliationChunkTotalsView view : chunkRepository.findTotalsByConciliacionId(id)) {
+            totals.put(view.getEstado(), view);
+        }
+        return totals;
+    }
+
+    private ReconciliationResponseDto toDto(Reconciliation reconciliation) {
+        Map<ReconciliationChunk.ChunkStatus, ReconciliationChunkTotalsView> totals = totals(reconciliation.getId());
+        ReconciliationChunkTotalsView pending = totals.get(ReconciliationChunk.ChunkStatus.PENDING);
+        ReconciliationChunkTotalsView done = totals.get(ReconciliationChunk.ChunkStatus.DONE);
+        long movimientos = done == null ? 0 : valueOf(done.getMovimientos());
+        LocalDateTime end = reconciliation.getFinishedAt() != null
+                ? reconciliation.getFinishedAt()
+                : LocalDateTime.now();
+        long elapsedMillis = Duration.between(reconciliation.getCreatedAt(), end).toMillis();
+        return ReconciliationResponseDto.builder()
+                .id(reconciliation.getId())
+                .estado(reconciliation.getEstado())
+                .tramos(reconciliation.getTramos())
+                .tramosPendientes(pending == null ? 0 : pending.getTramos())
+                .cuentas(done == null ? 0 : valueOf(done.getCuentas()))
+                .movimientos(movimientos)
+                .discrepancias(done == null ? 0 : valueOf(done.getDiscrepancias()))
+                .createdAt(reconciliation.getCreatedAt())
+                .finishedAt(reconciliation.getFinishedAt())
+                .elapsedMillis(elapsedMillis)
+                .movimientosPorSegundo(elapsedMillis > 0 ? movimientos * 1000.0 / elapsedMillis : 0)
+                .build();
+    }
+
+    private static ReconciliationDiscrepancyResponseDto discrepancyToDto(ReconciliationDiscrepancy discrepancy) {
+        return ReconciliationDiscrepancyResponseDto.builder()
+                .id(discrepancy.getId())
+                .numeroCuenta(discrepancy.getNumeroCuenta())
+                .tipo(discrepancy.getTipo())
+                .movimientoId(discrepancy.getMovimientoId())
+                .esperado(discrepancy.getEsperado())
+                .registrado(discrepancy.getRegistrado())
+                .movimientosAfectados(discrepancy.getMovimientosAfectados())
+                .build();
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+
+    private record ChunkResult(int cuentas, long movimientos, List<ReconciliationDiscrepancy> discrepancies) {
+    }
+
+    /**
+     * One account's running balance, advanced one movement at a time.
+     */
+    private static final class RunningBalance {
+        private final String numeroCuenta;
+        private final BigDecimal saldo;
+        private final boolean split;
+        private BigDecimal running;
+        private ReconciliationDiscrepancy firstMismatch;
+        private long mismatches;
+
+        RunningBalance(LedgerBalance account) {
+            this.numeroCuenta = account.numeroCuenta();
+            this.saldo = account.saldo();
+            this.running = account.saldoInicial();
+            this.split = account.split();
+        }
+
+        void add(RunningBalanceRow row) {
+            running = row.tipoMovimiento() == Movement.MovementType.CREDITO
+                    ? running.add(row.valor())
+                    : running.subtract(row.valor());
+            if (!split && running.compareTo(row.saldo()) != 0 && mismatches++ == 0) {
+                firstMismatch = discrepancy(ReconciliationDiscrepancy.DiscrepancyType.MOVIMIENTO, running,
+                        row.saldo());
+                firstMismatch.setMovimientoId(row.id());
+            }
+        }
+
+        void addDiscrepancies(Long conciliacionId, List<ReconciliationDiscrepancy> discrepancies) {
+            if (firstMismatch != null) {
+                firstMismatch.setConciliacionId(conciliacionId);
+                firstMismatch.setMovimientosAfectados(mismatches);
+                discrepancies.add(firstMismatch);
+            }
+            if (running.compareTo(saldo) != 0) {
+                ReconciliationDiscrepancy discrepancy = discrepancy(ReconciliationDiscrepancy.DiscrepancyType.CUENTA,
+                        running, saldo);
+                discrepancy.setConciliacionId(conciliacionId);
+                discrepancies.add(discrepancy);
+            }
+        }
+
+        private ReconciliationDiscrepancy discrepancy(ReconciliationDiscrepancy.DiscrepancyType tipo,
+                                                      BigDecimal esperado, BigDecimal registrado) {
+            ReconciliationDiscrepancy discrepancy = new ReconciliationDiscrepancy();
+            discrepancy.setNumeroCuenta(numeroCuenta);
+            discrepancy.setTipo(tipo);
+            discrepancy.setEsperado(esperado);
+            discrepancy.setRegistrado(registrado);
+            return discrepancy;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.bank.account_service.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A report whose client has been resolved but whose rows have not been read yet. Rows are
+ * read from the database and written to the stream one at a time in {@link #writeTo}.
+ */
+@FunctionalInterface
+public interface ReportExport {
+
+    void writeTo(OutputStream outputStream) throws IOException;
+}
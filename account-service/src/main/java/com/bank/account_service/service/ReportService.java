@@ -1,5 +1,6 @@
 package com.bank.account_service.service;
 
+import com.bank.account_service.dto.CursorPageDto;
 import com.bank.account_service.dto.ReportDto;
 
 import java.time.LocalDateTime;
@@ -10,4 +11,19 @@ public interface ReportService {
     List<ReportDto> getReportByClientId(Long clientId, LocalDateTime startDate, LocalDateTime endDate);
 
     List<ReportDto> getReportByPersonaId(String personaId, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Report lines ordered by account, date and movement id, one keyset page at a time.
+     */
+    CursorPageDto<ReportDto> getReportPageByClientId(Long clientId, LocalDateTime startDate, LocalDateTime endDate,
+                                                     String cursor, Integer limit);
+
+    CursorPageDto<ReportDto> getReportPageByPersonaId(String personaId, LocalDateTime startDate,
+                                                      LocalDateTime endDate, String cursor, Integer limit);
+
+    ReportExport exportReportByClientId(Long clientId, LocalDateTime startDate, LocalDateTime endDate,
+                                        ReportFormat format);
+
+    ReportExport exportReportByPersonaId(String personaId, LocalDateTime startDate, LocalDateTime endDate,
+                                         ReportFormat format);
 }
@@ -1,57 +1,210 @@
 package com.bank.account_service.service;
 
-import com.bank.account_service.dto.AccountWithMovementsDto;
+import com.bank.account_service.dto.CursorPageDto;
 import com.bank.account_service.dto.ReportDto;
+import com.bank.account_service.exception.InvalidCursorException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.ReportRowView;
+import com.bank.account_service.utils.KeysetCursor;
+import com.bank.account_service.utils.PageLimits;
 import com.bank.account_service.utils.ToDto;
 import com.bank.account_service.dto.ClientDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 @Service
 public class ReportServiceImpl implements ReportService{
 
-    private final WebClient clientServiceWebClient;
-    private final AccountService accountService;
+    private static final String CSV_HEADER = "clientId,nombre,identificacion,numeroCuenta,tipoCuenta,saldoInicial," +
+            "saldoActual,fecha,tipoMovimiento,valorMovimiento,saldoMovimiento,createdAt";
+
+    private final ClientLookupService clientLookupService;
+    private final AccountRepository accountRepository;
+    private final PageLimits pageLimits;
+    private final ObjectWriter reportWriter;
 
     @Autowired
-    public ReportServiceImpl(WebClient clientServiceWebClient, AccountService accountService) {
-        this.clientServiceWebClient = clientServiceWebClient;
-        this.accountService = accountService;
+    public ReportServiceImpl(ClientLookupService clientLookupService, AccountRepository accountRepository,
+                             PageLimits pageLimits, ObjectMapper objectMapper) {
+        this.clientLookupService = clientLookupService;
+        this.accountRepository = accountRepository;
+        this.pageLimits = pageLimits;
+        this.reportWriter = objectMapper.writerFor(ReportDto.class);
     }
 
     @Override
     public List<ReportDto> getReportByPersonaId(String personaId, LocalDateTime startDate, LocalDateTime endDate) {
         ClientDto client = getClientByIdentificacion(personaId);
-        List<AccountWithMovementsDto> accounts =
-                accountService.getAccountsByClientIdAndDateRange(client.getClienteId(), startDate, endDate);
-        return ToDto.reportCreation(client, accounts);
+        return ToDto.reportRowsCreation(client,
+                accountRepository.findReportRows(client.getClienteId(), startDate, endDate));
     }
 
     @Override
     public List<ReportDto> getReportByClientId(Long clientId, LocalDateTime startDate, LocalDateTime endDate) {
-        ClientDto client = getClientByClientId(clientId);
-        List<AccountWithMovementsDto> accounts =
-                accountService.getAccountsByClientIdAndDateRange(client.getClienteId(), startDate, endDate);
-        return ToDto.reportCreation(client, accounts);
+        // The query only needs the id we already have, so it runs while the client lookup is in flight
+        CompletableFuture<ClientDto> client = clientLookupService.getClientByClientId(clientId);
+        List<ReportRowView> rows = accountRepository.findReportRows(clientId, startDate, endDate);
+        return ToDto.reportRowsCreation(join(client), rows);
+    }
+
+    @Override
+    public CursorPageDto<ReportDto> getReportPageByClientId(Long clientId, LocalDateTime startDate,
+                                                            LocalDateTime endDate, String cursor, Integer limit) {
+        CompletableFuture<ClientDto> client = clientLookupService.getClientByClientId(clientId);
+        int pageSize = pageLimits.resolve(limit);
+        List<ReportRowView> rows = findReportPage(clientId, startDate, endDate, cursor, pageSize);
+        return reportPage(join(client), rows, pageSize);
+    }
+
+    @Override
+    public CursorPageDto<ReportDto> getReportPageByPersonaId(String personaId, LocalDateTime startDate,
+                                                             LocalDateTime endDate, String cursor, Integer limit) {
+        ClientDto client = getClientByIdentificacion(personaId);
+        int pageSize = pageLimits.resolve(limit);
+        List<ReportRowView> rows = findReportPage(client.getClienteId(), startDate, endDate, cursor, pageSize);
+        return reportPage(client, rows, pageSize);
+    }
+
+    /**
+     * Reads one row more than the page size to tell whether another page follows. The cursor
+     * of an account without movements in the range carries no movement key, so the next page
+     * starts at the following account.
+     */
+    private List<ReportRowView> findReportPage(Long clientId, LocalDateTime startDate, LocalDateTime endDate,
+                                               String cursor, int pageSize) {
+        Limit fetch = Limit.of(pageSize + 1);
+        if (cursor == null) {
+            return accountRepository.findReportRowsAfterAccount(clientId, startDate, endDate, "", fetch);
+        }
+        String[] key = KeysetCursor.decode(cursor, 3);
+        if (key[1].isEmpty()) {
+            return accountRepository.findReportRowsAfterAccount(clientId, startDate, endDate, key[0], fetch);
+        }
+        try {
+            return accountRepository.findReportRowsAfterMovement(clientId, startDate, endDate, key[0],
+                    LocalDateTime.parse(key[1]), Long.valueOf(key[2]), fetch);
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+
+    private static CursorPageDto<ReportDto> reportPage(ClientDto client, List<ReportRowView> rows, int pageSize) {
+        List<ReportRowView> page = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            ReportRowView last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getNumeroCuenta(), last.getFecha(), last.getMovementId());
+        }
+        return new CursorPageDto<>(ToDto.reportRowsCreation(client, page), nextCursor);
+    }
+
+    @Override
+    public ReportExport exportReportByClientId(Long clientId, LocalDateTime startDate, LocalDateTime endDate,
+                                               ReportFormat format) {
+        return export(getClientByClientId(clientId), startDate, endDate, format);
+    }
+
+    @Override
+    public ReportExport exportReportByPersonaId(String personaId, LocalDateTime startDate, LocalDateTime endDate,
+                                                ReportFormat format) {
+        return export(getClientByIdentificacion(personaId), startDate, endDate, format);
+    }
+
+    /**
+     * The client is resolved eagerly so lookup failures still map to an error status; rows are
+     * only read once the response body is being written.
+     */
+    private ReportExport export(ClientDto client, LocalDateTime startDate, LocalDateTime endDate,
+                                ReportFormat format) {
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            Consumer<ReportDto> line = format == ReportFormat.CSV ? csvLine(writer) : ndjsonLine(writer);
+            try {
+                if (format == ReportFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                accountRepository.streamReportRows(client.getClienteId(), startDate, endDate,
+                        (ReportRowView row) -> line.accept(ToDto.reportRowConvertToDto(client, row)));
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            writer.flush();
+        };
+    }
+
+    private Consumer<ReportDto> ndjsonLine(Writer writer) {
+        return dto -> {
+            try {
+                writer.write(reportWriter.writeValueAsString(dto));
+                writer.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+
+    private static Consumer<ReportDto> csvLine(Writer writer) {
+        return dto -> {
+            try {
+                writer.write(String.join(",",
+                        csv(dto.getClientId()), csv(dto.getNombre()), csv(dto.getIdentificacion()),
+                        csv(dto.getNumeroCuenta()), csv(dto.getTipoCuenta()), csv(dto.getSaldoInicial()),
+                        csv(dto.getSaldoActual()), csv(dto.getFecha()), csv(dto.getTipoMovimiento()),
+                        csv(dto.getValorMovimiento()), csv(dto.getSaldoMovimiento()), csv(dto.getCreatedAt())));
+                writer.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+
+    private static String csv(Object value) {
+        String text = Objects.toString(value, "");
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
     }
 
     private ClientDto getClientByIdentificacion(String personaId) {
-        return clientServiceWebClient.get()
-                .uri("/api/clientes/identificacion/" + personaId)
-                .retrieve()
-                .bodyToMono(ClientDto.class)
-                .block();
+        return join(clientLookupService.getClientByIdentificacion(personaId));
     }
 
     private ClientDto getClientByClientId(Long clientId) {
-        return  clientServiceWebClient.get()
-                .uri("/api/clientes/" + clientId)
-                .retrieve()
-                .bodyToMono(ClientDto.class)
-                .block();
+        return join(clientLookupService.getClientByClientId(clientId));
+    }
+
+    /**
+     * Waits for a client lookup and rethrows its failure unwrapped, so client-service errors
+     * surface the same way as a blocking WebClient call.
+     */
+    private static ClientDto join(CompletableFuture<ClientDto> client) {
+        try {
+            return client.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
     }
 }
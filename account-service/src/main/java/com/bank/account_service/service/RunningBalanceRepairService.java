@@ -0,0 +1,23 @@
+package com.bank.account_service.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repair of the running balances ({@code saldo}) stored on movements.
+ */
+public interface RunningBalanceRepairService {
+
+    /**
+     * Asks for the movements of the account after {@code (fecha, id)} to have their balances
+     * recomputed shortly, in the background. Requests for an account that arrive before its repair
+     * runs are coalesced into one repair from the earliest point. Inside a transaction the request
+     * is only made if the transaction commits.
+     */
+    void scheduleRepair(String numeroCuenta, LocalDateTime fecha, Long id);
+
+    /**
+     * Recomputes the balances of the movements of the account after {@code (fecha, id)} right away
+     * and returns how many were corrected.
+     */
+    int repair(String numeroCuenta, LocalDateTime fecha, Long id);
+}
@@ -0,0 +1,165 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.repository.MovementRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Running balance repairs.
+ * <p>
+ * Deleting a movement corrects the account's balance but not the {@code saldo} of the movements
+ * that follow it. A repair recomputes that tail only, from the last movement before it, with one
+ * set-based UPDATE that sums the signed amounts with a window function. It does not lock the
+ * account row: a delete holds the movement row while it waits for the account row, so doing so
+ * could deadlock. Postings need no lock either, as they take their balance from the account row,
+ * which the delete corrected before the repair was asked for.
+ * <p>
+ * Scheduled repairs wait {@code movements.repair.delay} before they run, and every request for
+ * the same account that arrives meanwhile is folded into the pending one, which then starts from
+ * the earliest point asked for; a burst of deletes on one account costs one UPDATE. Accounts are
+ * spread over {@code movements.repair.parallelism} single-threaded lanes, so repairs of one
+ * account never overlap. The time from the first request of a repair to its commit is published
+ * as {@code movements.repair.latency}.
+ * <p>
+ * Pending repairs are held in memory: those not yet run when the node stops are lost, and the
+ * affected movements show up as discrepancies in the next reconciliation.
+ */
+@Service
+@Slf4j
+public class RunningBalanceRepairServiceImpl implements RunningBalanceRepairService {
+
+    private final MovementRepository movementRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long delayMillis;
+    private final ScheduledExecutorService[] lanes;
+    private final Map<String, PendingRepair> pending = new ConcurrentHashMap<>();
+    private final Timer latency;
+    private final Counter scheduled;
+    private final Counter coalesced;
+    private final Counter repairedMovements;
+    private final Counter failures;
+
+    public RunningBalanceRepairServiceImpl(MovementRepository movementRepository,
+                                           TransactionTemplate transactionTemplate,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${movements.repair.delay:PT1S}") Duration delay,
+                                           @Value("${movements.repair.parallelism:2}") int parallelism) {
+        this.movementRepository = movementRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.delayMillis = delay.toMillis();
+        this.lanes = new ScheduledExecutorService[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            lanes[i] = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("running-balance-repair-" + i).daemon().factory());
+        }
+        this.latency = Timer.builder("movements.repair.latency")
+                .description("Time from the first request of a running balance repair to its commit")
+                .register(meterRegistry);
+        this.scheduled = Counter.builder("movements.repair.requests")
+                .description("Running balance repair requests")
+                .tag("outcome", "scheduled")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("movements.repair.requests")
+                .description("Running balance repair requests")
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+        this.repairedMovements = Counter.builder("movements.repair.movements")
+                .description("Movements whose running balance was corrected")
+                .register(meterRegistry);
+        this.failures = Counter.builder("movements.repair.failures")
+                .description("Running balance repairs that failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void scheduleRepair(String numeroCuenta, LocalDateTime fecha, Long id) {
+        long requestedAt = System.nanoTime();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    request(numeroCuenta, new PendingRepair(fecha, id, requestedAt));
+                }
+            });
+        } else {
+            request(numeroCuenta, new PendingRepair(fecha, id, requestedAt));
+        }
+    }
+
+    @Override
+    public int repair(String numeroCuenta, LocalDateTime fecha, Long id) {
+        Integer repaired = transactionTemplate.execute(status ->
+                movementRepository.repairRunningBalances(numeroCuenta, fecha, id));
+        repairedMovements.increment(repaired);
+        return repaired;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ScheduledExecutorService lane : lanes) {
+            lane.shutdownNow();
+        }
+    }
+
+    private void request(String numeroCuenta, PendingRepair request) {
+        boolean[] first = new boolean[1];
+        pending.compute(numeroCuenta, (key, current) -> {
+            if (current == null) {
+                first[0] = true;
+                return request;
+            }
+            return current.from(request);
+        });
+        if (first[0]) {
+            scheduled.increment();
+            lanes[Math.floorMod(numeroCuenta.hashCode(), lanes.length)]
+                    .schedule(() -> run(numeroCuenta), delayMillis, TimeUnit.MILLISECONDS);
+        } else {
+            coalesced.increment();
+        }
+    }
+
+    private void run(String numeroCuenta) {
+        // Requests from here on start a new repair
+        PendingRepair repair = pending.remove(numeroCuenta);
+        if (repair == null) {
+            return;
+        }
+        try {
+            int repaired = repair(numeroCuenta, repair.fecha(), repair.id());
+            latency.record(System.nanoTime() - repair.requestedAt(), TimeUnit.NANOSECONDS);
+            log.debug("Repaired {} running balances of account {}", repaired, numeroCuenta);
+        } catch (RuntimeException ex) {
+            failures.increment();
+            log.error("Running balance repair of account {} after movement {} failed", numeroCuenta, repair.id(),
+                    ex);
+        }
+    }
+
+    /**
+     * Where a pending repair starts and when it was first asked for.
+     */
+    private record PendingRepair(LocalDateTime fecha, Long id, long requestedAt) {
+
+        PendingRepair from(PendingRepair other) {
+            boolean earlier = other.fecha.isBefore(fecha) || (other.fecha.equals(fecha) && other.id < id);
+            return earlier ? new PendingRepair(other.fecha, other.id, requestedAt) : this;
+        }
+    }
+}
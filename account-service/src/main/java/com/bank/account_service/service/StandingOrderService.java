@@ -0,0 +1,28 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.StandingOrderCreateDto;
+import com.bank.account_service.dto.StandingOrderExecutionResponseDto;
+import com.bank.account_service.dto.StandingOrderResponseDto;
+
+/**
+ * Standing orders: transfers repeated every {@code frecuencia} from a first run until an optional
+ * end date.
+ */
+public interface StandingOrderService {
+
+    StandingOrderResponseDto createStandingOrder(StandingOrderCreateDto orderDto);
+
+    StandingOrderResponseDto getStandingOrder(Long id);
+
+    /**
+     * Stops further runs; a run already under way still completes. Cancelling an order that is no
+     * longer active changes nothing.
+     */
+    StandingOrderResponseDto cancelStandingOrder(Long id);
+
+    /**
+     * The runs of an order so far, oldest first.
+     */
+    CursorPageDto<StandingOrderExecutionResponseDto> getExecutions(Long id, String cursor, Integer limit);
+}
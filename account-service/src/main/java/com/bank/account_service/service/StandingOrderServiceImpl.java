@@ -0,0 +1,399 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.StandingOrderCreateDto;
+import com.bank.account_service.dto.StandingOrderExecutionResponseDto;
+import com.bank.account_service.dto.StandingOrderResponseDto;
+import com.bank.account_service.dto.TransferCreateDto;
+import com.bank.account_service.dto.TransferResponseDto;
+import com.bank.account_service.entity.StandingOrder;
+import com.bank.account_service.entity.StandingOrderExecution;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.exception.InvalidCursorException;
+import com.bank.account_service.exception.InvalidFrequencyException;
+import com.bank.account_service.exception.StandingOrderNotFoundException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.StandingOrderDueView;
+import com.bank.account_service.repository.StandingOrderExecutionRepository;
+import com.bank.account_service.repository.StandingOrderRepository;
+import com.bank.account_service.utils.KeysetCursor;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Standing orders.
+ * <p>
+ * Every {@code standing-orders.load-interval} each node reads the active orders due within
+ * {@code standing-orders.horizon} from the {@code (estado, proxima_ejecucion)} index, a keyset page
+ * at a time, and adds their next run to an in-memory {@link HierarchicalTimingWheel} ticking every
+ * second; orders due later are never read. Runs that come due are executed
+ * {@code standing-orders.batch-size} at a time, {@code standing-orders.parallelism} batches at once.
+ * <p>
+ * A run is one transaction that claims it, by moving the order to its next run only if the run
+ * count is still the one loaded, posts the transfer and records the outcome. A crash before the
+ * commit leaves the run due, so it is loaded and executed again after a restart; a commit means no
+ * node can claim it again. Every node loads the same orders and the claim decides which one runs
+ * them. A rejected transfer (missing or inactive account, insufficient funds, daily limit) is
+ * recorded as a rejected run and the order moves on; a transient database error leaves the run for
+ * the next load.
+ */
+@Service
+@Slf4j
+public class StandingOrderServiceImpl implements StandingOrderService {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int LOAD_PAGE = 1000;
+
+    private final StandingOrderRepository orderRepository;
+    private final StandingOrderExecutionRepository executionRepository;
+    private final AccountRepository accountRepository;
+    private final TransferService transferService;
+    private final BalanceEngineService balanceEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final PageLimits pageLimits;
+    private final Duration horizon;
+    private final int batchSize;
+    private final ExecutorService runs;
+    // Seconds, minutes and hours: runs up to a day ahead
+    private final HierarchicalTimingWheel<Run> wheel = new HierarchicalTimingWheel<>(TICK_MILLIS,
+            new int[]{60, 60, 24}, System.currentTimeMillis());
+    // Run number of every order waiting in the wheel or executing, so a load does not add it twice
+    private final Map<Long, Integer> scheduled = new ConcurrentHashMap<>();
+    private final Timer runTimer;
+    private final Counter postedCounter;
+    private final Counter rejectedCounter;
+
+    public StandingOrderServiceImpl(StandingOrderRepository orderRepository,
+                                    StandingOrderExecutionRepository executionRepository,
+                                    AccountRepository accountRepository,
+                                    TransferService transferService,
+                                    BalanceEngineService balanceEngine,
+                                    TransactionTemplate transactionTemplate,
+                                    PageLimits pageLimits,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${standing-orders.horizon:PT5M}") Duration horizon,
+                                    @Value("${standing-orders.batch-size:100}") int batchSize,
+                                    @Value("${standing-orders.parallelism:4}") int parallelism) {
+        if (horizon.toMillis() >= wheel.span()) {
+            throw new IllegalArgumentException("standing-orders.horizon must be shorter than a day");
+        }
+        this.orderRepository = orderRepository;
+        this.executionRepository = executionRepository;
+        this.accountRepository = accountRepository;
+        this.transferService = transferService;
+        this.balanceEngine = balanceEngine;
+        this.transactionTemplate = transactionTemplate;
+        this.pageLimits = pageLimits;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.runs = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("standing-order-", 0).factory());
+        this.runTimer = Timer.builder("standing-orders.run")
+                .description("Time to claim a standing order run, post its transfer and record it")
+                .register(meterRegistry);
+        this.postedCounter = Counter.builder("standing-orders.runs")
+                .tag("outcome", "posted")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("standing-orders.runs")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        meterRegistry.gauge("standing-orders.scheduled", wheel, HierarchicalTimingWheel::size);
+    }
+
+    @Override
+    public StandingOrderResponseDto createStandingOrder(StandingOrderCreateDto orderDto) {
+        // Checked here rather than on each run: a period that does not parse would fail every run,
+        // and one that is not positive would make the order due again at once
+        if (!isPositivePeriod(orderDto.getFrecuencia())) {
+            throw new InvalidFrequencyException("Frequency must be a positive ISO-8601 period such as P1M");
+        }
+        if (!accountRepository.existsByNumeroCuenta(orderDto.getCuentaOrigen())) {
+            throw new AccountNotFoundException("Account not found with id: " + orderDto.getCuentaOrigen());
+        }
+        StandingOrder order = new StandingOrder();
+        order.setCuentaOrigen(orderDto.getCuentaOrigen());
+        order.setCuentaDestino(orderDto.getCuentaDestino());
+        order.setValor(orderDto.getValor().abs());
+        order.setDescripcion(orderDto.getDescripcion());
+        order.setFrecuencia(orderDto.getFrecuencia());
+        order.setPrimeraEjecucion(orderDto.getPrimeraEjecucion());
+        order.setFin(orderDto.getFin());
+        order.setProximaEjecucion(orderDto.getPrimeraEjecucion());
+        order.setEjecuciones(0);
+        order.setEstado(StandingOrder.StandingOrderStatus.ACTIVE);
+        order.setCreatedAt(LocalDateTime.now());
+        orderRepository.save(order);
+
+        // Due before the next load would see it
+        if (order.getProximaEjecucion().isBefore(LocalDateTime.now().plus(horizon))) {
+            schedule(order.getId(), 0, order.getProximaEjecucion());
+        }
+        return toDto(order);
+    }
+
+    @Override
+    public StandingOrderResponseDto getStandingOrder(Long id) {
+        return toDto(find(id));
+    }
+
+    @Override
+    public StandingOrderResponseDto cancelStandingOrder(Long id) {
+        transactionTemplate.executeWithoutResult(status -> orderRepository.cancel(id));
+        return toDto(find(id));
+    }
+
+    @Override
+    public CursorPageDto<StandingOrderExecutionResponseDto> getExecutions(Long id, String cursor, Integer limit) {
+        if (!orderRepository.existsById(id)) {
+            throw new StandingOrderNotFoundException("Standing order not found with id: " + id);
+        }
+        int pageSize = pageLimits.resolve(limit);
+        int after = cursor == null ? -1 : parseNumero(KeysetCursor.decode(cursor, 1)[0]);
+        // One extra row tells whether another page follows
+        List<StandingOrderExecution> executions = executionRepository
+                .findByOrdenIdAndNumeroGreaterThanOrderByNumeroAsc(id, after, Limit.of(pageSize + 1));
+
+        List<StandingOrderExecutionResponseDto> page = executions.stream()
+                .limit(pageSize)
+                .map(StandingOrderServiceImpl::executionToDto)
+                .toList();
+        String nextCursor = executions.size() > pageSize
+                ? KeysetCursor.encode(page.get(page.size() - 1).getNumero())
+                : null;
+        return new CursorPageDto<>(page, nextCursor);
+    }
+
+    /**
+     * Adds the next run of every active order due within the horizon to the wheel and returns how
+     * many were not there yet.
+     */
+    @Scheduled(fixedDelayString = "${standing-orders.load-interval:PT1M}")
+    public int loadDue() {
+        LocalDateTime until = LocalDateTime.now().plus(horizon);
+        int loaded = 0;
+        List<StandingOrderDueView> page = orderRepository.findDue(until, Limit.of(LOAD_PAGE));
+        while (!page.isEmpty()) {
+            for (StandingOrderDueView due : page) {
+                if (schedule(due.getId(), due.getEjecuciones(), due.getProximaEjecucion())) {
+                    loaded++;
+                }
+            }
+            if (page.size() < LOAD_PAGE) {
+                break;
+            }
+            StandingOrderDueView last = page.get(page.size() - 1);
+            page = orderRepository.findDueAfter(until, last.getProximaEjecucion(), last.getId(),
+                    Limit.of(LOAD_PAGE));
+        }
+        return loaded;
+    }
+
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void tick() {
+        dispatch(wheel.advanceTo(System.currentTimeMillis()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runs.shutdown();
+    }
+
+    private boolean schedule(Long id, int numero, LocalDateTime proxima) {
+        if (scheduled.putIfAbsent(id, numero) != null) {
+            return false;
+        }
+        Run run = new Run(id, numero);
+        if (!wheel.add(proxima.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), run)) {
+            dispatch(List.of(run));
+        }
+        return true;
+    }
+
+    private void dispatch(List<Run> due) {
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Run> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            runs.execute(() -> batch.forEach(this::run));
+        }
+    }
+
+    private void run(Run run) {
+        LocalDateTime next = null;
+        try {
+            next = runTimer.record(() -> execute(run));
+        } catch (RuntimeException ex) {
+            log.warn("Standing order {} run {} failed; it is retried after the next load", run.id(), run.numero(),
+                    ex);
+        } finally {
+            scheduled.remove(run.id(), run.numero());
+        }
+        // Runs missed while no node was up come due one after another
+        if (next != null && next.isBefore(LocalDateTime.now().plus(horizon))) {
+            schedule(run.id(), run.numero() + 1, next);
+        }
+    }
+
+    /**
+     * Executes the run and returns when the next one is due; null if this node did not execute it or
+     * the order has no further runs.
+     */
+    private LocalDateTime execute(Run run) {
+        StandingOrder order = orderRepository.findById(run.id()).orElse(null);
+        if (order == null || order.getEstado() != StandingOrder.StandingOrderStatus.ACTIVE
+                || order.getEjecuciones() != run.numero()) {
+            return null;
+        }
+        LocalDateTime fechaProgramada = order.getProximaEjecucion();
+        LocalDateTime proxima = runAt(order, run.numero() + 1);
+        StandingOrder.StandingOrderStatus estado = proxima == null
+                ? StandingOrder.StandingOrderStatus.COMPLETED
+                : StandingOrder.StandingOrderStatus.ACTIVE;
+
+        boolean executed;
+        try {
+            executed = Boolean.TRUE.equals(balanceEngine.exclusive(
+                    List.of(order.getCuentaOrigen(), order.getCuentaDestino()),
+                    () -> transactionTemplate.execute(status -> {
+                        if (orderRepository.advance(order.getId(), run.numero(), proxima, estado) == 0) {
+                            return false;
+                        }
+                        TransferResponseDto transfer = transferService.createTransfer(transfer(order));
+                        executionRepository.save(execution(order, run.numero(), fechaProgramada,
+                                StandingOrderExecution.ExecutionStatus.POSTED, transfer.getDebito().getId(),
+                                transfer.getCredito().getId(), null));
+                        return true;
+                    })));
+            if (executed) {
+                postedCounter.increment();
+            }
+        } catch (TransientDataAccessException ex) {
+            throw ex;
+        } catch (RuntimeException rejection) {
+            executed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (orderRepository.advance(order.getId(), run.numero(), proxima, estado) == 0) {
+                    return false;
+                }
+                executionRepository.save(execution(order, run.numero(), fechaProgramada,
+                        StandingOrderExecution.ExecutionStatus.REJECTED, null, null, rejection.getMessage()));
+                return true;
+            }));
+            if (executed) {
+                rejectedCounter.increment();
+                log.info("Standing order {} run {} rejected: {}", order.getId(), run.numero(), rejection.getMessage());
+            }
+        }
+        return executed ? proxima : null;
+    }
+
+    /**
+     * When run {@code numero} is due, counted from the first run so month ends do not drift; null
+     * past the end date.
+     */
+    private static LocalDateTime runAt(StandingOrder order, int numero) {
+        LocalDateTime at = order.getPrimeraEjecucion().plus(Period.parse(order.getFrecuencia()).multipliedBy(numero));
+        return order.getFin() != null && at.isAfter(order.getFin()) ? null : at;
+    }
+
+    private static boolean isPositivePeriod(String frecuencia) {
+        try {
+            Period period = Period.parse(frecuencia);
+            return !period.isZero() && !period.isNegative();
+        } catch (DateTimeParseException ex) {
+            return false;
+        }
+    }
+
+    private StandingOrder find(Long id) {
+        return orderRepository.findById(id)
+                .orElseThrow(() -> new StandingOrderNotFoundException("Standing order not found with id: " + id));
+    }
+
+    private static TransferCreateDto transfer(StandingOrder order) {
+        TransferCreateDto transfer = new TransferCreateDto();
+        transfer.setCuentaOrigen(order.getCuentaOrigen());
+        transfer.setCuentaDestino(order.getCuentaDestino());
+        transfer.setValor(order.getValor());
+        transfer.setDescripcion(order.getDescripcion() != null
+                ? order.getDescripcion()
+                : "Orden permanente #" + order.getId());
+        return transfer;
+    }
+
+    private static StandingOrderExecution execution(StandingOrder order, int numero, LocalDateTime fechaProgramada,
+                                                    StandingOrderExecution.ExecutionStatus estado, Long debitoId,
+                                                    Long creditoId, String error) {
+        StandingOrderExecution execution = new StandingOrderExecution();
+        execution.setOrdenId(order.getId());
+        execution.setNumero(numero);
+        execution.setFechaProgramada(fechaProgramada);
+        execution.setEstado(estado);
+        execution.setDebitoId(debitoId);
+        execution.setCreditoId(creditoId);
+        execution.setError(error);
+        execution.setExecutedAt(LocalDateTime.now());
+        return execution;
+    }
+
+    private static StandingOrderResponseDto toDto(StandingOrder order) {
+        return StandingOrderResponseDto.builder()
+                .id(order.getId())
+                .cuentaOrigen(order.getCuentaOrigen())
+                .cuentaDestino(order.getCuentaDestino())
+                .valor(order.getValor())
+                .descripcion(order.getDescripcion())
+                .frecuencia(order.getFrecuencia())
+                .primeraEjecucion(order.getPrimeraEjecucion())
+                .fin(order.getFin())
+                .proximaEjecucion(order.getProximaEjecucion())
+                .ejecuciones(order.getEjecuciones())
+                .estado(order.getEstado())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+
+    private static StandingOrderExecutionResponseDto executionToDto(StandingOrderExecution execution) {
+        return StandingOrderExecutionResponseDto.builder()
+                .numero(execution.getNumero())
+                .fechaProgramada(execution.getFechaProgramada())
+                .estado(execution.getEstado())
+                .debitoId(execution.getDebitoId())
+                .creditoId(execution.getCreditoId())
+                .error(execution.getError())
+                .executedAt(execution.getExecutedAt())
+                .build();
+    }
+
+    private static int parseNumero(String numero) {
+        try {
+            return Integer.parseInt(numero);
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Run {@code numero} of order {@code id}.
+     */
+    private record Run(Long id, int numero) {
+    }
+}
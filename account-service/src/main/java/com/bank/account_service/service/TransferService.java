@@ -0,0 +1,14 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.TransferCreateDto;
+import com.bank.account_service.dto.TransferResponseDto;
+
+public interface TransferService {
+
+    /**
+     * Posts the DEBITO on the source account and the CREDITO on the destination in one
+     * transaction; if either leg is rejected, neither is posted and the rejection is thrown as a
+     * single posting would throw it.
+     */
+    TransferResponseDto createTransfer(TransferCreateDto transferDto);
+}
@@ -0,0 +1,65 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.TransferCreateDto;
+import com.bank.account_service.dto.TransferResponseDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.service.AccountPostingApplier.PostingOutcome;
+import com.bank.account_service.utils.ToDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class TransferServiceImpl implements TransferService {
+
+    private final AccountPostingApplier postingApplier;
+
+    @Override
+    @Transactional
+    public TransferResponseDto createTransfer(TransferCreateDto transferDto) {
+        if (transferDto.getValor() == null || transferDto.getValor().compareTo(BigDecimal.ZERO) == 0) {
+            throw new RuntimeException("Movement amount cannot be zero");
+        }
+        if (transferDto.getCuentaOrigen().equals(transferDto.getCuentaDestino())) {
+            throw new IllegalArgumentException("Source and destination accounts must differ");
+        }
+        MovementCreateDto debit = leg(transferDto.getCuentaOrigen(), Movement.MovementType.DEBITO, transferDto,
+                "Transferencia a " + transferDto.getCuentaDestino());
+        MovementCreateDto credit = leg(transferDto.getCuentaDestino(), Movement.MovementType.CREDITO, transferDto,
+                "Transferencia de " + transferDto.getCuentaOrigen());
+
+        // Rows are locked in account number order, the order batches and group commits use, so
+        // opposing transfers cannot deadlock
+        boolean debitFirst = debit.getCuentaId().compareTo(credit.getCuentaId()) < 0;
+        Movement first = post(debitFirst ? debit : credit);
+        Movement second = post(debitFirst ? credit : debit);
+        return TransferResponseDto.builder()
+                .debito(ToDto.movementConvertToDto(debitFirst ? first : second))
+                .credito(ToDto.movementConvertToDto(debitFirst ? second : first))
+                .build();
+    }
+
+    private Movement post(MovementCreateDto leg) {
+        PostingOutcome outcome = postingApplier.apply(leg.getCuentaId(), List.of(leg)).get(0);
+        if (!outcome.isPosted()) {
+            // Rolls back a leg already posted
+            throw outcome.rejection();
+        }
+        return outcome.movement();
+    }
+
+    private static MovementCreateDto leg(String numeroCuenta, Movement.MovementType tipo,
+                                         TransferCreateDto transferDto, String defaultDescripcion) {
+        MovementCreateDto leg = new MovementCreateDto();
+        leg.setCuentaId(numeroCuenta);
+        leg.setTipoMovimiento(tipo);
+        leg.setValor(transferDto.getValor().abs());
+        leg.setDescripcion(transferDto.getDescripcion() != null ? transferDto.getDescripcion() : defaultDescripcion);
+        return leg;
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.entity.Movement;
+
+/**
+ * Sliding-window limits on how many postings of a type an account takes, such as at most 5
+ * debits in any 10 seconds.
+ */
+public interface VelocityRuleService {
+
+    /**
+     * Counts a posting on the account, or throws
+     * {@link com.bank.account_service.exception.VelocityLimitExceededException} without counting it
+     * when it would break one of the rules of the account's type. Inside a transaction the count is
+     * taken back if the transaction does not commit; outside one, a caller whose posting then fails
+     * calls {@link #release}.
+     */
+    void check(String numeroCuenta, Movement.MovementType tipoMovimiento);
+
+    /**
+     * Takes back the latest posting of the type counted on the account, for a posting that failed
+     * after {@link #check} outside a transaction.
+     */
+    void release(String numeroCuenta, Movement.MovementType tipoMovimiento);
+}
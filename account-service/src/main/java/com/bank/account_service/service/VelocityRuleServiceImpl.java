@@ -0,0 +1,245 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.VelocityLimitExceededException;
+import com.bank.account_service.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Velocity rules evaluated in memory.
+ * <p>
+ * Rules are set per account type in {@code movements.velocity.ahorro} and
+ * {@code movements.velocity.corriente} as {@code <tipoMovimiento>:<max>/<window>}, comma separated.
+ * Each account gets one ring buffer per rule holding the times of its last {@code max} postings
+ * of that type: a posting breaks the rule when the buffer is full and its oldest entry is still
+ * within the window. Checking and recording cost one comparison and one write per rule, under the
+ * account's own lock, whatever the traffic. A posting is recorded when it is checked, so concurrent
+ * postings cannot all slip under a rule, and taken out again when its transaction rolls back or
+ * its caller releases it; only postings that go through count.
+ * <p>
+ * The account's type is read once, when it is first seen. Accounts idle for the longest window
+ * hold nothing a rule would still look at and are evicted; at most
+ * {@code movements.velocity.max-accounts} are held.
+ */
+@Service
+public class VelocityRuleServiceImpl implements VelocityRuleService {
+
+    private static final AccountVelocity UNRESTRICTED = new AccountVelocity(null, List.of());
+
+    private final AccountRepository accountRepository;
+    private final Map<Account.AccountType, List<VelocityRule>> rules = new EnumMap<>(Account.AccountType.class);
+    private final Cache<String, AccountVelocity> accounts;
+    private final Timer evaluationTimer;
+    private final Map<Account.AccountType, Counter> rejectedCounters = new EnumMap<>(Account.AccountType.class);
+
+    public VelocityRuleServiceImpl(AccountRepository accountRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${movements.velocity.ahorro:}") String[] ahorro,
+                                   @Value("${movements.velocity.corriente:}") String[] corriente,
+                                   @Value("${movements.velocity.max-accounts:100000}") long maxAccounts) {
+        this.accountRepository = accountRepository;
+        putRules(Account.AccountType.AHORRO, ahorro);
+        putRules(Account.AccountType.CORRIENTE, corriente);
+        Duration idle = rules.values().stream()
+                .flatMap(List::stream)
+                .map(VelocityRule::window)
+                .max(Duration::compareTo)
+                .orElse(Duration.ZERO);
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maxAccounts)
+                .expireAfterAccess(idle)
+                .build();
+        this.evaluationTimer = Timer.builder("movements.velocity.evaluation")
+                .description("Time to check a posting against its account's velocity rules")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        for (Account.AccountType tipoCuenta : Account.AccountType.values()) {
+            rejectedCounters.put(tipoCuenta, Counter.builder("movements.velocity.rejected")
+                    .description("Postings rejected by a velocity rule")
+                    .tag("tipoCuenta", tipoCuenta.name())
+                    .register(meterRegistry));
+        }
+        meterRegistry.gauge("movements.velocity.accounts", accounts, Cache::estimatedSize);
+    }
+
+    @Override
+    public void check(String numeroCuenta, Movement.MovementType tipoMovimiento) {
+        if (rules.isEmpty()) {
+            return;
+        }
+        AccountVelocity velocity = accounts.get(numeroCuenta, this::load);
+        if (velocity == null) {
+            // Unknown account; the posting fails on its own
+            return;
+        }
+
+        long now = System.nanoTime();
+        VelocityRule broken = velocity.admit(tipoMovimiento, now);
+        evaluationTimer.record(System.nanoTime() - now, TimeUnit.NANOSECONDS);
+        if (broken != null) {
+            rejectedCounters.get(velocity.tipoCuenta).increment();
+            throw new VelocityLimitExceededException("More than " + broken.maxPostings() + " "
+                    + tipoMovimiento + " postings in " + broken.window() + " on account " + numeroCuenta);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        velocity.forget(tipoMovimiento, now);
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public void release(String numeroCuenta, Movement.MovementType tipoMovimiento) {
+        AccountVelocity velocity = accounts.getIfPresent(numeroCuenta);
+        if (velocity != null) {
+            velocity.forget(tipoMovimiento, null);
+        }
+    }
+
+    private AccountVelocity load(String numeroCuenta) {
+        return accountRepository.findTipoCuentaByNumeroCuenta(numeroCuenta)
+                .map(tipoCuenta -> rules.containsKey(tipoCuenta)
+                        ? new AccountVelocity(tipoCuenta, rules.get(tipoCuenta))
+                        : UNRESTRICTED)
+                .orElse(null);
+    }
+
+    private void putRules(Account.AccountType tipoCuenta, String[] definitions) {
+        List<VelocityRule> parsed = new ArrayList<>();
+        for (String definition : definitions) {
+            parsed.add(VelocityRule.parse(definition.trim()));
+        }
+        if (!parsed.isEmpty()) {
+            rules.put(tipoCuenta, List.copyOf(parsed));
+        }
+    }
+
+    /**
+     * At most {@code maxPostings} postings of {@code tipoMovimiento} in any {@code window}.
+     */
+    record VelocityRule(Movement.MovementType tipoMovimiento, int maxPostings, Duration window) {
+
+        static VelocityRule parse(String definition) {
+            int colon = definition.indexOf(':');
+            int slash = definition.indexOf('/');
+            if (colon < 0 || slash < colon) {
+                throw new IllegalArgumentException("Expected <tipoMovimiento>:<max>/<window> in "
+                        + "movements.velocity, got " + definition);
+            }
+            VelocityRule rule = new VelocityRule(
+                    Movement.MovementType.valueOf(definition.substring(0, colon).trim()),
+                    Integer.parseInt(definition.substring(colon + 1, slash).trim()),
+                    DurationStyle.detectAndParse(definition.substring(slash + 1).trim()));
+            if (rule.maxPostings() < 1 || rule.window().isNegative() || rule.window().isZero()) {
+                throw new IllegalArgumentException("Velocity rule needs a positive max and window: " + definition);
+            }
+            return rule;
+        }
+    }
+
+    /**
+     * The ring buffers of one account, one per rule of its type.
+     */
+    private static final class AccountVelocity {
+        private final Account.AccountType tipoCuenta;
+        private final RingWindow[] windows;
+
+        private AccountVelocity(Account.AccountType tipoCuenta, List<VelocityRule> rules) {
+            this.tipoCuenta = tipoCuenta;
+            this.windows = rules.stream().map(RingWindow::new).toArray(RingWindow[]::new);
+        }
+
+        /**
+         * Records the posting and returns null, or returns the first rule it breaks.
+         */
+        private synchronized VelocityRule admit(Movement.MovementType tipoMovimiento, long now) {
+            for (RingWindow window : windows) {
+                if (window.rule.tipoMovimiento() == tipoMovimiento && window.isFull(now)) {
+                    return window.rule;
+                }
+            }
+            for (RingWindow window : windows) {
+                if (window.rule.tipoMovimiento() == tipoMovimiento) {
+                    window.add(now);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Takes the posting recorded at {@code time}, or the latest one when null, out of the
+         * windows of its type.
+         */
+        private synchronized void forget(Movement.MovementType tipoMovimiento, Long time) {
+            for (RingWindow window : windows) {
+                if (window.rule.tipoMovimiento() == tipoMovimiento) {
+                    window.remove(time);
+                }
+            }
+        }
+    }
+
+    /**
+     * Times of the last {@code maxPostings} postings; {@code next} is the oldest once full.
+     */
+    private static final class RingWindow {
+        private final VelocityRule rule;
+        private final long windowNanos;
+        private final long[] times;
+        private int next;
+        private int count;
+
+        private RingWindow(VelocityRule rule) {
+            this.rule = rule;
+            this.windowNanos = rule.window().toNanos();
+            this.times = new long[rule.maxPostings()];
+        }
+
+        private boolean isFull(long now) {
+            return count == times.length && now - times[next] < windowNanos;
+        }
+
+        private void add(long now) {
+            times[next] = now;
+            next = (next + 1) % times.length;
+            count = Math.min(count + 1, times.length);
+        }
+
+        private void remove(Long time) {
+            int oldest = Math.floorMod(next - count, times.length);
+            // Newest first: a posting being taken back is usually the latest
+            for (int i = count - 1; i >= 0; i--) {
+                if (time == null || times[(oldest + i) % times.length] == time) {
+                    for (int j = i; j < count - 1; j++) {
+                        times[(oldest + j) % times.length] = times[(oldest + j + 1) % times.length];
+                    }
+                    next = Math.floorMod(next - 1, times.length);
+                    count--;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.bank.account_service.utils;
+
+import com.bank.account_service.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Opaque cursors for keyset pagination: the sort key of the last row of a page, Base64url encoded.
+ * Null key parts encode as empty strings.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "\u001f";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Object... keyParts) {
+        String key = Stream.of(keyParts)
+                .map(part -> Objects.toString(part, ""))
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int keyParts) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = key.split(SEPARATOR, -1);
+            if (parts.length != keyParts) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return parts;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
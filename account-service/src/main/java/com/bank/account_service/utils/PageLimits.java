@@ -0,0 +1,28 @@
+package com.bank.account_service.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Page size policy for keyset-paginated endpoints.
+ */
+@Component
+public class PageLimits {
+
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public PageLimits(@Value("${pagination.default-page-size:100}") int defaultPageSize,
+                      @Value("${pagination.max-page-size:500}") int maxPageSize) {
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * The requested page size, or the default when none was given, capped at the maximum.
+     */
+    public int resolve(Integer requested) {
+        int size = requested == null ? defaultPageSize : requested;
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+}
@@ -0,0 +1,26 @@
+package com.bank.account_service.utils;
+
+import com.bank.account_service.dto.CursorPageDto;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+public final class PageResponses {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private PageResponses() {
+    }
+
+    /**
+     * Paged responses keep the plain list body of the unpaged endpoints; the cursor of the next
+     * page travels in {@value #NEXT_CURSOR_HEADER} and is absent on the last page.
+     */
+    public static <T> ResponseEntity<List<T>> ok(CursorPageDto<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
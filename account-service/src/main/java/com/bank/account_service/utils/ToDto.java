@@ -1,13 +1,15 @@
 package com.bank.account_service.utils;
 
 import com.bank.account_service.dto.AccountResponseDto;
-import com.bank.account_service.dto.AccountWithMovementsDto;
 import com.bank.account_service.dto.ClientDto;
 import com.bank.account_service.dto.MovementResponseDto;
 import com.bank.account_service.dto.ReportDto;
 import com.bank.account_service.entity.Account;
 import com.bank.account_service.entity.Movement;
+import com.bank.account_service.repository.AccountSummaryView;
+import com.bank.account_service.repository.ReportRowView;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 public class ToDto {
@@ -30,7 +32,9 @@ public class ToDto {
         dto.setNumeroCuenta(account.getNumeroCuenta());
         dto.setTipoCuenta(account.getTipoCuenta());
         dto.setSaldoInicial(account.getSaldoInicial());
-        dto.setSaldoActual(account.getSaldoActual());
+        dto.setSaldoActual(totalBalance(account.getSaldoActual(), account.getSaldoSubCuentas()));
+        dto.setSaldoRetenido(account.getSaldoRetenido());
+        dto.setSaldoDisponible(availableBalance(dto.getSaldoActual(), account.getSaldoRetenido()));
         dto.setEstado(account.getEstado());
         dto.setClienteId(account.getClienteId());
         dto.setCreatedAt(account.getCreatedAt());
@@ -38,45 +42,55 @@ public class ToDto {
         return dto;
     }
 
-    public static AccountWithMovementsDto accountWithMovementsConvertToDto(Account account) {
-        AccountWithMovementsDto dto = new AccountWithMovementsDto();
+    public static AccountResponseDto accountSummaryConvertToDto(AccountSummaryView account) {
+        AccountResponseDto dto = new AccountResponseDto();
         dto.setNumeroCuenta(account.getNumeroCuenta());
         dto.setTipoCuenta(account.getTipoCuenta());
         dto.setSaldoInicial(account.getSaldoInicial());
-        dto.setSaldoActual(account.getSaldoActual());
+        dto.setSaldoActual(totalBalance(account.getSaldoActual(), account.getSaldoSubCuentas()));
+        dto.setSaldoRetenido(account.getSaldoRetenido());
+        dto.setSaldoDisponible(availableBalance(dto.getSaldoActual(), account.getSaldoRetenido()));
         dto.setEstado(account.getEstado());
         dto.setClienteId(account.getClienteId());
         dto.setCreatedAt(account.getCreatedAt());
         dto.setUpdatedAt(account.getUpdatedAt());
-        if (!account.getMovimientos().isEmpty()) {
-            dto.setMovements(account.getMovimientos().stream().map(ToDto::movementConvertToDto).toList());
-        }
         return dto;
     }
 
-    public static List<ReportDto> reportCreation(ClientDto clientDto, List<AccountWithMovementsDto> accounts){
-        return accounts.stream()
-                .map(acc -> reportDto(clientDto, acc))
-                .flatMap(List::stream)
+    /**
+     * Balance of a possibly split account: the account row plus its sub-balances.
+     */
+    private static BigDecimal totalBalance(BigDecimal saldoActual, BigDecimal saldoSubCuentas) {
+        return saldoActual == null || saldoSubCuentas == null ? saldoActual : saldoActual.add(saldoSubCuentas);
+    }
+
+    /**
+     * What a debit can still take: the balance minus the active holds.
+     */
+    private static BigDecimal availableBalance(BigDecimal saldoActual, BigDecimal saldoRetenido) {
+        return saldoActual == null || saldoRetenido == null ? saldoActual : saldoActual.subtract(saldoRetenido);
+    }
+
+    public static List<ReportDto> reportRowsCreation(ClientDto clientDto, List<ReportRowView> rows) {
+        return rows.stream()
+                .map(row -> reportRowConvertToDto(clientDto, row))
                 .toList();
     }
 
-    public static List<ReportDto> reportDto(ClientDto clientDto, AccountWithMovementsDto account) {
-        return account.getMovements().stream().map(movements -> {
-            ReportDto dto = new ReportDto();
-            dto.setClientId(clientDto.getClienteId());
-            dto.setNombre(clientDto.getPersona().getNombre());
-            dto.setIdentificacion(clientDto.getPersona().getIdentificacion());
-            dto.setNumeroCuenta(account.getNumeroCuenta());
-            dto.setTipoCuenta(account.getTipoCuenta());
-            dto.setSaldoInicial(account.getSaldoInicial());
-            dto.setSaldoActual(account.getSaldoActual());
-            dto.setFecha(movements.getFecha());
-            dto.setTipoMovimiento(movements.getTipoMovimiento());
-            dto.setValorMovimiento(movements.getValor());
-            dto.setSaldoMovimiento(movements.getSaldo());
-            dto.setCreatedAt(movements.getCreatedAt());
-            return dto;
-        }).toList();
+    public static ReportDto reportRowConvertToDto(ClientDto clientDto, ReportRowView row) {
+        ReportDto dto = new ReportDto();
+        dto.setClientId(clientDto.getClienteId());
+        dto.setNombre(clientDto.getPersona().getNombre());
+        dto.setIdentificacion(clientDto.getPersona().getIdentificacion());
+        dto.setNumeroCuenta(row.getNumeroCuenta());
+        dto.setTipoCuenta(row.getTipoCuenta());
+        dto.setSaldoInicial(row.getSaldoInicial());
+        dto.setSaldoActual(row.getSaldoActual());
+        dto.setFecha(row.getFecha());
+        dto.setTipoMovimiento(row.getTipoMovimiento());
+        dto.setValorMovimiento(row.getValor());
+        dto.setSaldoMovimiento(row.getSaldo());
+        dto.setCreatedAt(row.getCreatedAt());
+        return dto;
     }
 }
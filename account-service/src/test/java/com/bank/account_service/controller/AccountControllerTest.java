@@ -3,22 +3,35 @@ package com.bank.account_service.controller;
 import com.bank.account_service.dto.AccountCreateDto;
 import com.bank.account_service.dto.AccountResponseDto;
 import com.bank.account_service.dto.AccountUpdateDto;
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.service.AccountLaneExecutor;
 import com.bank.account_service.service.AccountService;
+import com.bank.account_service.service.AccountSubLedgerService;
+import com.bank.account_service.service.BalanceEngineServiceImpl;
+import com.bank.account_service.utils.PageResponses;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,6 +41,17 @@ class AccountControllerTest {
     @Mock
     private AccountService accountService;
 
+    @Mock
+    private AccountSubLedgerService accountSubLedgerService;
+
+    @Spy
+    private AccountLaneExecutor accountLanes = new AccountLaneExecutor(new SimpleMeterRegistry(), false, 1, 1);
+
+    @Spy
+    private BalanceEngineServiceImpl balanceEngine = new BalanceEngineServiceImpl(null, null, null,
+            null, null, null, null, new SimpleMeterRegistry(), false, false, Path.of("unused"), DataSize.ofMegabytes(1),
+            1);
+
     @InjectMocks
     private AccountController accountController;
 
@@ -111,7 +135,7 @@ class AccountControllerTest {
         when(accountService.getAllAccounts()).thenReturn(accounts);
 
         // Act
-        ResponseEntity<List<AccountResponseDto>> response = accountController.getAllAccounts(null);
+        ResponseEntity<List<AccountResponseDto>> response = accountController.getAllAccounts(null, null, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -127,7 +151,7 @@ class AccountControllerTest {
         when(accountService.getAccountsByStatus(status)).thenReturn(accounts);
 
         // Act
-        ResponseEntity<List<AccountResponseDto>> response = accountController.getAllAccounts(status);
+        ResponseEntity<List<AccountResponseDto>> response = accountController.getAllAccounts(status, null, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -135,6 +159,22 @@ class AccountControllerTest {
         verify(accountService).getAccountsByStatus(status);
     }
 
+    @Test
+    void getAllAccounts_WithLimit_ShouldReturnPageAndNextCursorHeader() {
+        // Arrange
+        List<AccountResponseDto> accounts = Collections.singletonList(mockAccountResponse);
+        when(accountService.getAccountsPage(null, null, 1)).thenReturn(new CursorPageDto<>(accounts, "next"));
+
+        // Act
+        ResponseEntity<List<AccountResponseDto>> response = accountController.getAllAccounts(null, null, 1);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(accounts, response.getBody());
+        assertEquals("next", response.getHeaders().getFirst(PageResponses.NEXT_CURSOR_HEADER));
+        verify(accountService, never()).getAllAccounts();
+    }
+
     @Test
     void updateAccountStatus_ShouldReturnUpdatedAccount() {
         // Arrange
@@ -162,4 +202,43 @@ class AccountControllerTest {
         // Assert
         verify(accountService).deleteAccount(id);
     }
+
+    @Test
+    void deleteAccount_WithAccountLanes_ShouldDeleteOnTheAccountLane() {
+        // Arrange
+        AccountLaneExecutor lanes = new AccountLaneExecutor(new SimpleMeterRegistry(), true, 2, 1);
+        AccountController controller = new AccountController(accountService, accountSubLedgerService, lanes,
+                balanceEngine);
+        when(accountService.getAccountNumber(1L)).thenReturn("123456");
+
+        // Act
+        controller.deleteAccount(1L);
+        lanes.shutdown();
+
+        // Assert
+        verify(accountService).deleteAccount(1L);
+        verify(balanceEngine).exclusive(eq(List.of("123456")), any());
+    }
+
+    @Test
+    void splitAccount_ShouldReturnAccountWithItsTotalBalance() {
+        // Arrange
+        when(accountSubLedgerService.splitAccount("1L", 8)).thenReturn(mockAccountResponse);
+
+        // Act
+        ResponseEntity<AccountResponseDto> response = accountController.splitAccount("1L", 8);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(mockAccountResponse, response.getBody());
+    }
+
+    @Test
+    void splitAccount_WithTooManySubAccounts_ShouldReturnBadRequest() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> accountController.splitAccount("1L", AccountController.MAX_SUB_CUENTAS + 1));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verify(accountSubLedgerService, never()).splitAccount(any(), anyInt());
+    }
 }
@@ -0,0 +1,71 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.FeeRunCreateDto;
+import com.bank.account_service.dto.FeeRunResponseDto;
+import com.bank.account_service.dto.FeeRunSkipResponseDto;
+import com.bank.account_service.entity.FeeRun;
+import com.bank.account_service.service.FeeRunService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FeeRunControllerTest {
+
+    @Mock
+    private FeeRunService feeRunService;
+
+    @InjectMocks
+    private FeeRunController feeRunController;
+
+    @Test
+    void startFeeRun_ShouldReturnAcceptedWithLocation() {
+        // Arrange
+        FeeRunCreateDto feeRunDto = new FeeRunCreateDto();
+        feeRunDto.setFechaCorte(LocalDate.of(2025, 6, 30));
+        feeRunDto.setComision(new BigDecimal("5.00"));
+        FeeRunResponseDto feeRun = FeeRunResponseDto.builder()
+                .id(3L)
+                .estado(FeeRun.FeeRunStatus.RUNNING)
+                .build();
+        when(feeRunService.startFeeRun(feeRunDto)).thenReturn(feeRun);
+
+        // Act
+        ResponseEntity<FeeRunResponseDto> response = feeRunController.startFeeRun(feeRunDto);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/comisiones/cobros/3", response.getHeaders().getLocation().toString());
+        assertEquals(feeRun, response.getBody());
+    }
+
+    @Test
+    void getSkipped_ShouldReturnPageWithNextCursor() {
+        // Arrange
+        FeeRunSkipResponseDto skip = FeeRunSkipResponseDto.builder()
+                .numeroCuenta("478758")
+                .disponible(new BigDecimal("1.50"))
+                .build();
+        when(feeRunService.getSkipped(3L, null, 1)).thenReturn(new CursorPageDto<>(List.of(skip), "next"));
+
+        // Act
+        ResponseEntity<List<FeeRunSkipResponseDto>> response = feeRunController.getSkipped(3L, null, 1);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(skip), response.getBody());
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+    }
+}
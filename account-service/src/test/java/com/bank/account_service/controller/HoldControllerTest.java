@@ -0,0 +1,77 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.HoldCaptureDto;
+import com.bank.account_service.dto.HoldCreateDto;
+import com.bank.account_service.dto.HoldResponseDto;
+import com.bank.account_service.entity.Hold;
+import com.bank.account_service.service.HoldService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HoldControllerTest {
+
+    @Mock
+    private HoldService holdService;
+
+    @InjectMocks
+    private HoldController holdController;
+
+    @Test
+    void authorize_ShouldReturnCreatedWithLocation() {
+        // Arrange
+        HoldCreateDto holdDto = new HoldCreateDto();
+        holdDto.setCuentaId("123456");
+        holdDto.setValor(new BigDecimal("25.00"));
+        HoldResponseDto hold = HoldResponseDto.builder().id(9L).estado(Hold.HoldStatus.ACTIVE).build();
+        when(holdService.authorize(holdDto)).thenReturn(hold);
+
+        // Act
+        ResponseEntity<HoldResponseDto> response = holdController.authorize(holdDto);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("/api/retenciones/9", response.getHeaders().getLocation().toString());
+        assertEquals(hold, response.getBody());
+    }
+
+    @Test
+    void capture_WithoutBody_ShouldCaptureTheWholeHold() {
+        // Arrange
+        HoldResponseDto hold = HoldResponseDto.builder().id(9L).estado(Hold.HoldStatus.CAPTURED).build();
+        when(holdService.capture(eq(9L), any(HoldCaptureDto.class))).thenReturn(hold);
+
+        // Act
+        ResponseEntity<HoldResponseDto> response = holdController.capture(9L, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(hold, response.getBody());
+    }
+
+    @Test
+    void release_ShouldReturnReleasedHold() {
+        // Arrange
+        HoldResponseDto hold = HoldResponseDto.builder().id(9L).estado(Hold.HoldStatus.RELEASED).build();
+        when(holdService.release(9L)).thenReturn(hold);
+
+        // Act
+        ResponseEntity<HoldResponseDto> response = holdController.release(9L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(hold, response.getBody());
+    }
+}
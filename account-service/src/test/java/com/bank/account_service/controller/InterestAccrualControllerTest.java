@@ -0,0 +1,68 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.InterestAccrualCreateDto;
+import com.bank.account_service.dto.InterestAccrualResponseDto;
+import com.bank.account_service.entity.InterestAccrual;
+import com.bank.account_service.service.InterestAccrualService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InterestAccrualControllerTest {
+
+    @Mock
+    private InterestAccrualService interestAccrualService;
+
+    @InjectMocks
+    private InterestAccrualController interestAccrualController;
+
+    @Test
+    void startAccrual_ShouldReturnAcceptedWithLocation() {
+        // Arrange
+        InterestAccrualCreateDto accrualDto = new InterestAccrualCreateDto();
+        accrualDto.setFechaCorte(LocalDate.of(2025, 6, 30));
+        accrualDto.setTasaAnual(new BigDecimal("3.50"));
+        accrualDto.setDias(30);
+        InterestAccrualResponseDto accrual = InterestAccrualResponseDto.builder()
+                .id(7L)
+                .estado(InterestAccrual.AccrualStatus.RUNNING)
+                .build();
+        when(interestAccrualService.startAccrual(accrualDto)).thenReturn(accrual);
+
+        // Act
+        ResponseEntity<InterestAccrualResponseDto> response = interestAccrualController.startAccrual(accrualDto);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/intereses/devengos/7", response.getHeaders().getLocation().toString());
+        assertEquals(accrual, response.getBody());
+    }
+
+    @Test
+    void getAccrual_ShouldReturnAccrual() {
+        // Arrange
+        InterestAccrualResponseDto accrual = InterestAccrualResponseDto.builder()
+                .id(7L)
+                .estado(InterestAccrual.AccrualStatus.COMPLETED)
+                .build();
+        when(interestAccrualService.getAccrual(7L)).thenReturn(accrual);
+
+        // Act
+        ResponseEntity<InterestAccrualResponseDto> response = interestAccrualController.getAccrual(7L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(accrual, response.getBody());
+    }
+}
@@ -1,25 +1,50 @@
 package com.bank.account_service.controller;
 
+import com.bank.account_service.dto.MovementBatchItemResultDto;
+import com.bank.account_service.dto.MovementBatchResultDto;
 import com.bank.account_service.dto.MovementCreateDto;
 import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.dto.MovementSubmissionDto;
 import com.bank.account_service.entity.Movement;
+import com.bank.account_service.service.AccountLaneExecutor;
+import com.bank.account_service.service.BalanceEngineServiceImpl;
+import com.bank.account_service.service.MovementBatchService;
+import com.bank.account_service.service.MovementIdempotencyService;
+import com.bank.account_service.service.MovementPostingService;
 import com.bank.account_service.service.MovementService;
+import com.bank.account_service.service.MovementSubmissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +53,29 @@ class MovementControllerTest {
     @Mock
     private MovementService movementService;
 
+    @Mock
+    private MovementBatchService movementBatchService;
+
+    @Mock
+    private MovementIdempotencyService movementIdempotencyService;
+
+    @Mock
+    private MovementPostingService movementPostingService;
+
+    @Mock
+    private MovementSubmissionService movementSubmissionService;
+
+    @Spy
+    private AccountLaneExecutor accountLanes = new AccountLaneExecutor(new SimpleMeterRegistry(), false, 1, 1);
+
+    @Spy
+    private BalanceEngineServiceImpl balanceEngine = new BalanceEngineServiceImpl(null, null, null,
+            null, null, null, null, new SimpleMeterRegistry(), false, false, Path.of("unused"), DataSize.ofMegabytes(1),
+            1);
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private MovementController movementController;
 
@@ -48,16 +96,79 @@ class MovementControllerTest {
     @Test
     void createMovement_ShouldReturnCreatedStatus() {
         // Arrange
-        when(movementService.createMovement(any(MovementCreateDto.class)))
+        when(movementPostingService.postMovement(any(MovementCreateDto.class)))
                 .thenReturn(mockMovementResponse);
 
         // Act
-        ResponseEntity<MovementResponseDto> response = movementController.createMovement(mockMovementCreateDto);
+        ResponseEntity<MovementResponseDto> response = movementController.createMovement(mockMovementCreateDto, null);
 
         // Assert
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals(mockMovementResponse, response.getBody());
-        verify(movementService).createMovement(mockMovementCreateDto);
+        verify(movementPostingService).postMovement(mockMovementCreateDto);
+        verifyNoInteractions(movementIdempotencyService);
+    }
+
+    @Test
+    void submitMovement_ShouldReturnAcceptedWithTrackingLocation() {
+        // Arrange
+        MovementSubmissionDto pending = MovementSubmissionDto.builder()
+                .trackingId("abc")
+                .status(MovementSubmissionDto.SubmissionStatus.PENDING)
+                .build();
+        when(movementSubmissionService.submit(mockMovementCreateDto)).thenReturn(pending);
+
+        // Act
+        ResponseEntity<MovementSubmissionDto> response = movementController.submitMovement(mockMovementCreateDto);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/movimientos/async/abc", response.getHeaders().getLocation().toString());
+        assertEquals(pending, response.getBody());
+        verifyNoInteractions(movementService);
+    }
+
+    @Test
+    void getSubmission_ShouldReturnSubmissionStatus() {
+        // Arrange
+        MovementSubmissionDto completed = MovementSubmissionDto.builder()
+                .trackingId("abc")
+                .status(MovementSubmissionDto.SubmissionStatus.COMPLETED)
+                .movimiento(mockMovementResponse)
+                .build();
+        when(movementSubmissionService.getSubmission("abc")).thenReturn(completed);
+
+        // Act
+        ResponseEntity<MovementSubmissionDto> response = movementController.getSubmission("abc");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(completed, response.getBody());
+    }
+
+    @Test
+    void createMovement_WithIdempotencyKey_ShouldDelegateToIdempotencyService() {
+        // Arrange
+        when(movementIdempotencyService.createMovement("retry-1", mockMovementCreateDto))
+                .thenReturn(mockMovementResponse);
+
+        // Act
+        ResponseEntity<MovementResponseDto> response =
+                movementController.createMovement(mockMovementCreateDto, "retry-1");
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(mockMovementResponse, response.getBody());
+        verifyNoInteractions(movementService);
+    }
+
+    @Test
+    void createMovement_WithBlankIdempotencyKey_ShouldReturnBadRequest() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> movementController.createMovement(mockMovementCreateDto, " "));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(movementService, movementIdempotencyService);
     }
 
     @Test
@@ -83,7 +194,7 @@ class MovementControllerTest {
         when(movementService.getMovementsByAccountId(accountId)).thenReturn(movements);
 
         // Act
-        ResponseEntity<List<MovementResponseDto>> response = movementController.getMovementsByAccountId(accountId);
+        ResponseEntity<List<MovementResponseDto>> response = movementController.getMovementsByAccountId(accountId, null, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -139,4 +250,105 @@ class MovementControllerTest {
         // Assert
         verify(movementService).deleteMovement(id);
     }
+
+    @Test
+    void deleteMovement_WithAccountLanes_ShouldDeleteOnTheMovementAccountLane() {
+        // Arrange
+        AccountLaneExecutor lanes = new AccountLaneExecutor(new SimpleMeterRegistry(), true, 2, 1);
+        MovementController controller = new MovementController(movementService, movementBatchService,
+                movementIdempotencyService, movementPostingService, lanes, balanceEngine, movementSubmissionService,
+                objectMapper);
+        mockMovementResponse.setCuentaId("123456");
+        when(movementService.getMovementById(1L)).thenReturn(mockMovementResponse);
+
+        // Act
+        controller.deleteMovement(1L);
+        lanes.shutdown();
+
+        // Assert
+        verify(movementService).deleteMovement(1L);
+    }
+
+    @Test
+    void createMovements_ShouldDelegateToBatchService() {
+        // Arrange
+        List<MovementCreateDto> movements = List.of(mockMovementCreateDto);
+        MovementBatchResultDto result = new MovementBatchResultDto();
+        when(movementBatchService.createMovements(movements)).thenReturn(result);
+
+        // Act
+        ResponseEntity<MovementBatchResultDto> response = movementController.createMovements(movements);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void createMovementsFromNdjson_ShouldParseOneMovementPerLine() throws IOException {
+        // Arrange
+        String ndjson = """
+                {"cuentaId":"123456","tipoMovimiento":"CREDITO","valor":100.00}
+                {"cuentaId":"654321","tipoMovimiento":"DEBITO","valor":25.50,"descripcion":"fee"}
+                """;
+        List<MovementCreateDto> read = new ArrayList<>();
+        when(movementBatchService.createMovementsFromStream(any())).thenAnswer(invocation -> {
+            Iterator<MovementCreateDto> movements = invocation.getArgument(0);
+            movements.forEachRemaining(read::add);
+            return batchResult(read.size());
+        });
+
+        // Act
+        ResponseEntity<MovementBatchResultDto> response = movementController.createMovementsFromNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, read.size());
+        assertEquals("654321", read.get(1).getCuentaId());
+        assertEquals(Movement.MovementType.DEBITO, read.get(1).getTipoMovimiento());
+        assertEquals(0, new BigDecimal("25.50").compareTo(read.get(1).getValor()));
+        assertEquals(0, response.getBody().getRejected());
+    }
+
+    @Test
+    void createMovementsFromNdjson_WithMalformedLine_ShouldStopAndRejectIt() throws IOException {
+        // Arrange
+        String ndjson = "{\"cuentaId\":\"123456\"}\n{not json}\n{\"cuentaId\":\"654321\"}\n";
+        List<MovementCreateDto> read = new ArrayList<>();
+        when(movementBatchService.createMovementsFromStream(any())).thenAnswer(invocation -> {
+            Iterator<MovementCreateDto> movements = invocation.getArgument(0);
+            movements.forEachRemaining(read::add);
+            return batchResult(read.size());
+        });
+
+        // Act
+        ResponseEntity<MovementBatchResultDto> response = movementController.createMovementsFromNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, read.size());
+        assertEquals(2, response.getBody().getReceived());
+        assertEquals(1, response.getBody().getRejected());
+        MovementBatchItemResultDto malformed = response.getBody().getItems().get(1);
+        assertEquals(1, malformed.getIndex());
+        assertEquals(MovementBatchItemResultDto.ItemStatus.REJECTED, malformed.getStatus());
+        assertTrue(malformed.getError().startsWith("Malformed NDJSON"));
+    }
+
+    private static MovementBatchResultDto batchResult(int accepted) {
+        List<MovementBatchItemResultDto> items = new ArrayList<>();
+        for (int i = 0; i < accepted; i++) {
+            items.add(MovementBatchItemResultDto.builder()
+                    .index(i)
+                    .status(MovementBatchItemResultDto.ItemStatus.ACCEPTED)
+                    .build());
+        }
+        return MovementBatchResultDto.builder()
+                .received(accepted)
+                .accepted(accepted)
+                .items(items)
+                .build();
+    }
 }
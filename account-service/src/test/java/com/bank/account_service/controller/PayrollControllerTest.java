@@ -0,0 +1,93 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.PayrollCreateDto;
+import com.bank.account_service.dto.PayrollPaymentCreateDto;
+import com.bank.account_service.dto.PayrollPaymentResponseDto;
+import com.bank.account_service.dto.PayrollResponseDto;
+import com.bank.account_service.entity.PayrollPayment;
+import com.bank.account_service.service.PayrollService;
+import com.bank.account_service.utils.PageResponses;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PayrollControllerTest {
+
+    @Mock
+    private PayrollService payrollService;
+
+    @InjectMocks
+    private PayrollController payrollController;
+
+    private PayrollCreateDto mockPayrollCreateDto;
+
+    @BeforeEach
+    void setUp() {
+        PayrollPaymentCreateDto pago = new PayrollPaymentCreateDto();
+        pago.setCuentaDestino("654321");
+        pago.setValor(new BigDecimal("1500.00"));
+        mockPayrollCreateDto = new PayrollCreateDto();
+        mockPayrollCreateDto.setCuentaOrigen("123456");
+        mockPayrollCreateDto.setPagos(List.of(pago));
+    }
+
+    @Test
+    void createPayroll_ShouldReturnAcceptedWithLocation() {
+        // Arrange
+        PayrollResponseDto payroll = PayrollResponseDto.builder().id(7L).build();
+        when(payrollService.createPayroll(mockPayrollCreateDto)).thenReturn(payroll);
+
+        // Act
+        ResponseEntity<PayrollResponseDto> response = payrollController.createPayroll(mockPayrollCreateDto);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/nominas/7", response.getHeaders().getLocation().toString());
+        assertEquals(payroll, response.getBody());
+    }
+
+    @Test
+    void createPayroll_PayingTheSourceAccount_ShouldReturnBadRequest() {
+        // Arrange
+        mockPayrollCreateDto.getPagos().get(0).setCuentaDestino("123456");
+
+        // Act & Assert
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> payrollController.createPayroll(mockPayrollCreateDto));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(payrollService);
+    }
+
+    @Test
+    void getPayments_ShouldReturnPageWithNextCursorHeader() {
+        // Arrange
+        List<PayrollPaymentResponseDto> items = List.of(PayrollPaymentResponseDto.builder().indice(0).build());
+        when(payrollService.getPayments(7L, PayrollPayment.PaymentStatus.REJECTED, null, 1))
+                .thenReturn(new CursorPageDto<>(items, "next"));
+
+        // Act
+        ResponseEntity<List<PayrollPaymentResponseDto>> response =
+                payrollController.getPayments(7L, PayrollPayment.PaymentStatus.REJECTED, null, 1);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(items, response.getBody());
+        assertEquals("next", response.getHeaders().getFirst(PageResponses.NEXT_CURSOR_HEADER));
+    }
+}
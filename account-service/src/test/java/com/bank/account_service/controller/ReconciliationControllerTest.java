@@ -0,0 +1,61 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.ReconciliationResponseDto;
+import com.bank.account_service.entity.Reconciliation;
+import com.bank.account_service.service.ReconciliationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationControllerTest {
+
+    @Mock
+    private ReconciliationService reconciliationService;
+
+    @InjectMocks
+    private ReconciliationController reconciliationController;
+
+    @Test
+    void startReconciliation_ShouldReturnAcceptedWithLocation() {
+        // Arrange
+        ReconciliationResponseDto reconciliation = ReconciliationResponseDto.builder()
+                .id(5L)
+                .estado(Reconciliation.ReconciliationStatus.RUNNING)
+                .build();
+        when(reconciliationService.startReconciliation()).thenReturn(reconciliation);
+
+        // Act
+        ResponseEntity<ReconciliationResponseDto> response = reconciliationController.startReconciliation();
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/conciliaciones/5", response.getHeaders().getLocation().toString());
+        assertEquals(reconciliation, response.getBody());
+    }
+
+    @Test
+    void getReconciliation_ShouldReturnReconciliation() {
+        // Arrange
+        ReconciliationResponseDto reconciliation = ReconciliationResponseDto.builder()
+                .id(5L)
+                .estado(Reconciliation.ReconciliationStatus.COMPLETED)
+                .discrepancias(2)
+                .build();
+        when(reconciliationService.getReconciliation(5L)).thenReturn(reconciliation);
+
+        // Act
+        ResponseEntity<ReconciliationResponseDto> response = reconciliationController.getReconciliation(5L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(reconciliation, response.getBody());
+    }
+}
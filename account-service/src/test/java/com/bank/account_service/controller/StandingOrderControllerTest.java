@@ -0,0 +1,113 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.StandingOrderCreateDto;
+import com.bank.account_service.dto.StandingOrderResponseDto;
+import com.bank.account_service.entity.StandingOrder;
+import com.bank.account_service.exception.InvalidFrequencyException;
+import com.bank.account_service.service.StandingOrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StandingOrderControllerTest {
+
+    @Mock
+    private StandingOrderService standingOrderService;
+
+    @InjectMocks
+    private StandingOrderController standingOrderController;
+
+    @Test
+    void createStandingOrder_ShouldReturnCreatedWithLocation() {
+        // Arrange
+        StandingOrderCreateDto orderDto = order("P1M");
+        StandingOrderResponseDto order = StandingOrderResponseDto.builder()
+                .id(4L)
+                .estado(StandingOrder.StandingOrderStatus.ACTIVE)
+                .build();
+        when(standingOrderService.createStandingOrder(orderDto)).thenReturn(order);
+
+        // Act
+        ResponseEntity<StandingOrderResponseDto> response = standingOrderController.createStandingOrder(orderDto);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("/api/transferencias/programadas/4", response.getHeaders().getLocation().toString());
+        assertEquals(order, response.getBody());
+    }
+
+    @Test
+    void createStandingOrder_WithInvalidFrequency_ShouldPropagateServiceException() {
+        // Arrange
+        StandingOrderCreateDto orderDto = order("P0D");
+        when(standingOrderService.createStandingOrder(orderDto))
+                .thenThrow(new InvalidFrequencyException("Frequency must be a positive ISO-8601 period such as P1M"));
+
+        // Act & Assert
+        assertThrows(InvalidFrequencyException.class, () -> standingOrderController.createStandingOrder(orderDto));
+    }
+
+    @Test
+    void createStandingOrder_EndingBeforeTheFirstRun_ShouldReturnBadRequest() {
+        // Arrange
+        StandingOrderCreateDto orderDto = order("P1W");
+        orderDto.setFin(orderDto.getPrimeraEjecucion().minusDays(1));
+
+        // Act & Assert
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> standingOrderController.createStandingOrder(orderDto));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    @Test
+    void createStandingOrder_ToTheSourceAccount_ShouldReturnBadRequest() {
+        // Arrange
+        StandingOrderCreateDto orderDto = order("P1M");
+        orderDto.setCuentaDestino(orderDto.getCuentaOrigen());
+
+        // Act & Assert
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> standingOrderController.createStandingOrder(orderDto));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    @Test
+    void cancelStandingOrder_ShouldReturnCancelledOrder() {
+        // Arrange
+        StandingOrderResponseDto order = StandingOrderResponseDto.builder()
+                .id(4L)
+                .estado(StandingOrder.StandingOrderStatus.CANCELLED)
+                .build();
+        when(standingOrderService.cancelStandingOrder(4L)).thenReturn(order);
+
+        // Act
+        ResponseEntity<StandingOrderResponseDto> response = standingOrderController.cancelStandingOrder(4L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(order, response.getBody());
+    }
+
+    private static StandingOrderCreateDto order(String frecuencia) {
+        StandingOrderCreateDto orderDto = new StandingOrderCreateDto();
+        orderDto.setCuentaOrigen("123456");
+        orderDto.setCuentaDestino("654321");
+        orderDto.setValor(new BigDecimal("500.00"));
+        orderDto.setFrecuencia(frecuencia);
+        orderDto.setPrimeraEjecucion(LocalDateTime.of(2025, 1, 1, 8, 0));
+        return orderDto;
+    }
+}
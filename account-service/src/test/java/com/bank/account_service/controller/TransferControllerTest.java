@@ -0,0 +1,83 @@
+package com.bank.account_service.controller;
+
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.dto.TransferCreateDto;
+import com.bank.account_service.dto.TransferResponseDto;
+import com.bank.account_service.service.BalanceEngineServiceImpl;
+import com.bank.account_service.service.TransferService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransferControllerTest {
+
+    @Mock
+    private TransferService transferService;
+
+    @Spy
+    private BalanceEngineServiceImpl balanceEngine = new BalanceEngineServiceImpl(null, null, null,
+            null, null, null, null, new SimpleMeterRegistry(), false, false, Path.of("unused"), DataSize.ofMegabytes(1),
+            1);
+
+    @InjectMocks
+    private TransferController transferController;
+
+    private TransferCreateDto mockTransferCreateDto;
+
+    @BeforeEach
+    void setUp() {
+        mockTransferCreateDto = new TransferCreateDto();
+        mockTransferCreateDto.setCuentaOrigen("123456");
+        mockTransferCreateDto.setCuentaDestino("654321");
+        mockTransferCreateDto.setValor(new BigDecimal("25.00"));
+    }
+
+    @Test
+    void createTransfer_ShouldReturnCreatedStatus() {
+        // Arrange
+        TransferResponseDto transfer = TransferResponseDto.builder()
+                .debito(new MovementResponseDto())
+                .credito(new MovementResponseDto())
+                .build();
+        when(transferService.createTransfer(mockTransferCreateDto)).thenReturn(transfer);
+
+        // Act
+        ResponseEntity<TransferResponseDto> response = transferController.createTransfer(mockTransferCreateDto);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(transfer, response.getBody());
+        verify(transferService).createTransfer(mockTransferCreateDto);
+    }
+
+    @Test
+    void createTransfer_ToTheSameAccount_ShouldReturnBadRequest() {
+        // Arrange
+        mockTransferCreateDto.setCuentaDestino("123456");
+
+        // Act & Assert
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> transferController.createTransfer(mockTransferCreateDto));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(transferService);
+    }
+}
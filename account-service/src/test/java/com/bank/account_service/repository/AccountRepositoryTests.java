@@ -1,6 +1,7 @@
 package com.bank.account_service.repository;
 
 import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.Movement;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -89,25 +91,25 @@ class AccountRepositoryTest {
 
     @Test
     void whenFindByClienteIdWithExistingClient_thenReturnAccountsList() {
-        List<Account> accounts = accountRepository.findByClienteId(1L);
+        List<AccountSummaryView> accounts = accountRepository.findSummariesByClienteId(1L);
 
         assertThat(accounts).hasSize(2);
-        assertThat(accounts).extracting(Account::getNumeroCuenta)
+        assertThat(accounts).extracting(AccountSummaryView::getNumeroCuenta)
                 .containsExactlyInAnyOrder("123456", "789012");
-        assertThat(accounts).extracting(Account::getClienteId)
+        assertThat(accounts).extracting(AccountSummaryView::getClienteId)
                 .containsOnly(1L);
     }
 
     @Test
     void whenFindByClienteIdWithNonExistingClient_thenReturnEmptyList() {
-        List<Account> accounts = accountRepository.findByClienteId(999L);
+        List<AccountSummaryView> accounts = accountRepository.findSummariesByClienteId(999L);
 
         assertThat(accounts).isEmpty();
     }
 
     @Test
     void whenFindByClienteIdWithSingleAccount_thenReturnSingleAccountList() {
-        List<Account> accounts = accountRepository.findByClienteId(2L);
+        List<AccountSummaryView> accounts = accountRepository.findSummariesByClienteId(2L);
 
         assertThat(accounts).hasSize(1);
         assertThat(accounts.getFirst().getNumeroCuenta()).isEqualTo("654321");
@@ -117,18 +119,18 @@ class AccountRepositoryTest {
 
     @Test
     void whenFindByEstadoTrue_thenReturnActiveAccounts() {
-        List<Account> activeAccounts = accountRepository.findByEstado(true);
+        List<AccountSummaryView> activeAccounts = accountRepository.findSummariesByEstado(true);
 
         assertThat(activeAccounts).hasSize(2);
-        assertThat(activeAccounts).extracting(Account::getNumeroCuenta)
+        assertThat(activeAccounts).extracting(AccountSummaryView::getNumeroCuenta)
                 .containsExactlyInAnyOrder("123456", "789012");
-        assertThat(activeAccounts).extracting(Account::getEstado)
+        assertThat(activeAccounts).extracting(AccountSummaryView::getEstado)
                 .containsOnly(true);
     }
 
     @Test
     void whenFindByEstadoFalse_thenReturnInactiveAccounts() {
-        List<Account> inactiveAccounts = accountRepository.findByEstado(false);
+        List<AccountSummaryView> inactiveAccounts = accountRepository.findSummariesByEstado(false);
 
         assertThat(inactiveAccounts).hasSize(1);
         assertThat(inactiveAccounts.getFirst().getNumeroCuenta()).isEqualTo("654321");
@@ -137,7 +139,7 @@ class AccountRepositoryTest {
 
     @Test
     void whenFindByEstadoWithNullParameter_thenReturnEmptyList() {
-        List<Account> accounts = accountRepository.findByEstado(null);
+        List<AccountSummaryView> accounts = accountRepository.findSummariesByEstado(null);
 
         assertThat(accounts).isEmpty();
     }
@@ -223,4 +225,88 @@ class AccountRepositoryTest {
         assertThat(exists).isTrue();
         assertThat(notExists).isFalse();
     }
+
+    @Test
+    void whenFindBalanceByNumeroCuenta_thenReturnBalanceOnly() {
+        Optional<AccountBalanceView> balance = accountRepository.findBalanceByNumeroCuenta("123456");
+
+        assertThat(balance).isPresent();
+        assertThat(balance.get().getNumeroCuenta()).isEqualTo("123456");
+        assertThat(balance.get().getSaldoActual()).isEqualByComparingTo(BigDecimal.valueOf(1500.00));
+        assertThat(balance.get().getEstado()).isTrue();
+        assertThat(accountRepository.findBalanceByNumeroCuenta("999999")).isNotPresent();
+    }
+
+    @Test
+    void whenDebitWithEnoughFunds_thenReturnNewBalance() {
+        Optional<BigDecimal> balance = accountRepository.debit("123456", BigDecimal.valueOf(500.00));
+        entityManager.clear();
+
+        assertThat(balance).hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo(BigDecimal.valueOf(1000.00)));
+        assertThat(accountRepository.findByNumeroCuenta("123456").orElseThrow().getSaldoActual())
+                .isEqualByComparingTo(BigDecimal.valueOf(1000.00));
+    }
+
+    @Test
+    void whenDebitWithInsufficientFunds_thenBalanceIsUnchanged() {
+        Optional<BigDecimal> balance = accountRepository.debit("123456", BigDecimal.valueOf(1500.01));
+        entityManager.clear();
+
+        assertThat(balance).isEmpty();
+        assertThat(accountRepository.findByNumeroCuenta("123456").orElseThrow().getSaldoActual())
+                .isEqualByComparingTo(BigDecimal.valueOf(1500.00));
+    }
+
+    @Test
+    void whenCreditActiveAccount_thenReturnNewBalance() {
+        Optional<BigDecimal> balance = accountRepository.credit("123456", BigDecimal.valueOf(250.00));
+
+        assertThat(balance).hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo(BigDecimal.valueOf(1750.00)));
+    }
+
+    @Test
+    void whenCreditInactiveOrMissingAccount_thenReturnEmpty() {
+        assertThat(accountRepository.credit("654321", BigDecimal.TEN)).isEmpty();
+        assertThat(accountRepository.credit("999999", BigDecimal.TEN)).isEmpty();
+    }
+
+    @Test
+    void whenFindReportRows_thenOnlyMovementsInRangeAreReturned() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 31, 23, 59);
+        persistMovement("123456", LocalDateTime.of(2023, 12, 31, 10, 0), "10.00");
+        persistMovement("123456", LocalDateTime.of(2024, 1, 20, 10, 0), "30.00");
+        persistMovement("123456", LocalDateTime.of(2024, 1, 10, 10, 0), "20.00");
+        persistMovement("123456", LocalDateTime.of(2024, 2, 1, 10, 0), "40.00");
+        persistMovement("654321", LocalDateTime.of(2024, 1, 15, 10, 0), "50.00");
+
+        List<ReportRowView> rows = accountRepository.findReportRows(1L, start, end);
+
+        // 789012 has no movements in range but is still reported once
+        assertThat(rows).extracting(ReportRowView::getNumeroCuenta)
+                .containsExactly("123456", "123456", "789012");
+        assertThat(rows.get(0).getValor()).isEqualByComparingTo("20.00");
+        assertThat(rows.get(1).getValor()).isEqualByComparingTo("30.00");
+        assertThat(rows.get(0).getTipoCuenta()).isEqualTo(Account.AccountType.AHORRO);
+        assertThat(rows.get(0).getSaldoActual()).isEqualByComparingTo("1500.00");
+        assertThat(rows.get(2).getFecha()).isNull();
+        assertThat(rows.get(2).getTipoMovimiento()).isNull();
+        assertThat(rows.get(2).getSaldoInicial()).isEqualByComparingTo("2000.00");
+    }
+
+    @Test
+    void whenFindReportRowsForUnknownClient_thenReturnEmpty() {
+        assertThat(accountRepository.findReportRows(99L, LocalDateTime.of(2000, 1, 1, 0, 0), LocalDateTime.now())).isEmpty();
+    }
+
+    private void persistMovement(String numeroCuenta, LocalDateTime fecha, String valor) {
+        Movement movement = new Movement();
+        movement.setNumeroCuenta(numeroCuenta);
+        movement.setFecha(fecha);
+        movement.setTipoMovimiento(Movement.MovementType.CREDITO);
+        movement.setValor(new BigDecimal(valor));
+        movement.setSaldo(new BigDecimal(valor));
+        entityManager.persist(movement);
+        entityManager.flush();
+    }
 }
@@ -178,7 +178,8 @@ class MovementRepositoryTest {
         newMovement.setSaldo(BigDecimal.valueOf(550.00));
         newMovement.setDescripcion("New withdrawal");
 
-        Movement saved = movementRepository.save(newMovement);
+        // Sequence ids defer the INSERT (and createdAt) to flush time
+        Movement saved = movementRepository.saveAndFlush(newMovement);
 
         assertThat(saved.getId()).isNotNull();
         assertThat(saved.getDescripcion()).isEqualTo("New withdrawal");
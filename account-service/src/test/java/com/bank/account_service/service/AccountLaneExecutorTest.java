@@ -0,0 +1,139 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.exception.InsufficientFundsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccountLaneExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountLaneExecutor lanes;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lanes = new AccountLaneExecutor(meterRegistry, true, 8, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    void whenMutationsTargetOneAccount_thenTheyNeverOverlap() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(callers.submit(() -> {
+                start.await();
+                for (int j = 0; j < 20; j++) {
+                    lanes.run("HOT-1", () -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        Thread.onSpinWait();
+                        running.decrementAndGet();
+                    });
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        callers.shutdown();
+
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    void whenAccountsAreOnDifferentLanes_thenTheyRunInParallel() throws Exception {
+        String first = "A-1";
+        String second = accountOnAnotherLane(first);
+        // Both tasks must be inside the barrier at once, which a single writer could not do
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        Future<Integer> a = callers.submit(() -> lanes.execute(first, () -> await(barrier)));
+        Future<Integer> b = callers.submit(() -> lanes.execute(second, () -> await(barrier)));
+
+        assertThat(a.get(10, TimeUnit.SECONDS) + b.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        callers.shutdown();
+    }
+
+    @Test
+    void whenTaskRunsOnItsOwnLane_thenNestedMutationRunsInline() {
+        String result = lanes.execute("A-1", () -> lanes.execute("A-1", () -> "nested"));
+
+        assertThat(result).isEqualTo("nested");
+    }
+
+    @Test
+    void whenTaskThrows_thenCallerGetsTheSameException() {
+        assertThatThrownBy(() -> lanes.run("A-1", () -> {
+            throw new InsufficientFundsException("Insufficient funds");
+        })).isInstanceOf(InsufficientFundsException.class).hasMessage("Insufficient funds");
+    }
+
+    @Test
+    void whenWindowEnds_thenBusiestAccountsArePublished() {
+        for (int i = 0; i < 5; i++) {
+            lanes.run("HOT-1", () -> { });
+        }
+        lanes.run("HOT-2", () -> { });
+        lanes.run("HOT-2", () -> { });
+        lanes.run("COLD", () -> { });
+
+        lanes.publishHotAccounts();
+
+        assertThat(meterRegistry.find("accounts.lanes.hot-account.mutations").gauges())
+                .extracting(gauge -> gauge.getId().getTag("account"))
+                .containsExactlyInAnyOrder("HOT-1", "HOT-2");
+        Gauge hottest = meterRegistry.get("accounts.lanes.hot-account.mutations").tag("account", "HOT-1").gauge();
+        assertThat(hottest.value()).isEqualTo(5.0);
+        assertThat(meterRegistry.find("accounts.lanes.queue").gauges()).hasSize(8);
+    }
+
+    @Test
+    void whenDisabled_thenTaskRunsOnTheCallingThread() {
+        AccountLaneExecutor disabled = new AccountLaneExecutor(new SimpleMeterRegistry(), false, 8, 2);
+
+        assertThat(disabled.execute("A-1", () -> Thread.currentThread())).isSameAs(Thread.currentThread());
+    }
+
+    private static int await(CyclicBarrier barrier) {
+        try {
+            return barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String accountOnAnotherLane(String numeroCuenta) {
+        int lane = Math.floorMod(numeroCuenta.hashCode(), 8);
+        for (int i = 0; ; i++) {
+            String candidate = "B-" + i;
+            if (Math.floorMod(candidate.hashCode(), 8) != lane) {
+                return candidate;
+            }
+        }
+    }
+}
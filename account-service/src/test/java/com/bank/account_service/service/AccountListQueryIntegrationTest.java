@@ -0,0 +1,95 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.AccountResponseDto;
+import com.bank.account_service.entity.Movement.MovementType;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements and rows read by the account list endpoints, with movement history in place.
+ */
+@Import({AccountServiceImpl.class, PageLimits.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AccountListQueryIntegrationTest extends LedgerIntegrationTestSupport {
+
+    private static final int MOVEMENTS_PER_ACCOUNT = 25;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        insertAccountWithHistory("300001", 1L, true);
+        insertAccountWithHistory("300002", 1L, false);
+        insertAccountWithHistory("300003", 2L, true);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void whenGetAllAccounts_thenOneStatementAndOneRowPerAccount() {
+        assertReadsOnlyAccounts(accountService::getAllAccounts, 3);
+    }
+
+    @Test
+    void whenGetAccountsByClientId_thenOneStatementAndOneRowPerAccount() {
+        assertReadsOnlyAccounts(() -> accountService.getAccountsByClientId(1L), 2);
+    }
+
+    @Test
+    void whenGetAccountsByStatus_thenOneStatementAndOneRowPerAccount() {
+        assertReadsOnlyAccounts(() -> accountService.getAccountsByStatus(true), 2);
+    }
+
+    @Test
+    void whenGetAccountByNumber_thenMovementsAreNotLoaded() {
+        statistics.clear();
+
+        AccountResponseDto account = accountService.getAccountByNumber("300001");
+
+        assertThat(account.getClienteId()).isEqualTo(1L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    private void assertReadsOnlyAccounts(Supplier<List<AccountResponseDto>> endpoint, int expectedAccounts) {
+        statistics.clear();
+
+        List<AccountResponseDto> accounts = endpoint.get();
+
+        assertThat(accounts).hasSize(expectedAccounts);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        long rowsFetched = Arrays.stream(statistics.getQueries())
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionRowCount())
+                .sum();
+        assertThat(rowsFetched).isEqualTo(expectedAccounts);
+    }
+
+    private void insertAccountWithHistory(String numeroCuenta, long clienteId, boolean estado) {
+        insertAccount(numeroCuenta, "AHORRO", "100.00", estado, clienteId);
+        for (int i = 0; i < MOVEMENTS_PER_ACCOUNT; i++) {
+            insertMovement(numeroCuenta, LocalDateTime.now().minusDays(i), MovementType.CREDITO, "1.00", "100.00");
+        }
+    }
+}
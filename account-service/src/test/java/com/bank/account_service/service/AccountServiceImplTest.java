@@ -6,12 +6,14 @@ import com.bank.account_service.dto.AccountUpdateDto;
 import com.bank.account_service.entity.Account;
 import com.bank.account_service.exception.AccountNotFoundException;
 import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountSummaryView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -100,8 +102,8 @@ class AccountServiceImplTest {
     @Test
     void whenGetAllAccounts_thenReturnAccountsList() {
         // Given
-        List<Account> accounts = Collections.singletonList(account);
-        when(accountRepository.findAll()).thenReturn(accounts);
+        List<AccountSummaryView> accounts = Collections.singletonList(summaryOf(account));
+        when(accountRepository.findSummariesBy()).thenReturn(accounts);
 
         // When
         List<AccountResponseDto> result = accountService.getAllAccounts();
@@ -110,7 +112,7 @@ class AccountServiceImplTest {
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getNumeroCuenta()).isEqualTo("123456");
 
-        verify(accountRepository).findAll();
+        verify(accountRepository).findSummariesBy();
     }
 
     @Test
@@ -172,8 +174,8 @@ class AccountServiceImplTest {
     @Test
     void whenGetAccountsByClienteId_thenReturnAccountsList() {
         // Given
-        List<Account> accounts = Collections.singletonList(account);
-        when(accountRepository.findByClienteId(1L)).thenReturn(accounts);
+        List<AccountSummaryView> accounts = Collections.singletonList(summaryOf(account));
+        when(accountRepository.findSummariesByClienteId(1L)).thenReturn(accounts);
 
         // When
         List<AccountResponseDto> result = accountService.getAccountsByClientId(1L);
@@ -182,14 +184,14 @@ class AccountServiceImplTest {
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getClienteId()).isEqualTo(1L);
 
-        verify(accountRepository).findByClienteId(1L);
+        verify(accountRepository).findSummariesByClienteId(1L);
     }
 
     @Test
     void whenGetAccountsByEstado_thenReturnAccountsList() {
         // Given
-        List<Account> accounts = Collections.singletonList(account);
-        when(accountRepository.findByEstado(true)).thenReturn(accounts);
+        List<AccountSummaryView> accounts = Collections.singletonList(summaryOf(account));
+        when(accountRepository.findSummariesByEstado(true)).thenReturn(accounts);
 
         // When
         List<AccountResponseDto> result = accountService.getAccountsByStatus(true);
@@ -198,7 +200,7 @@ class AccountServiceImplTest {
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getEstado()).isTrue();
 
-        verify(accountRepository).findByEstado(true);
+        verify(accountRepository).findSummariesByEstado(true);
     }
 
     @Test
@@ -208,8 +210,8 @@ class AccountServiceImplTest {
         updatedAccount.setNumeroCuenta("123456");
         updatedAccount.setEstado(false);
 
-        when(accountRepository.findByNumeroCuenta("123456")).thenReturn(Optional.of(account));
-        when(accountRepository.save(any(Account.class))).thenReturn(updatedAccount);
+        when(accountRepository.setEstado("123456", false)).thenReturn(true);
+        when(accountRepository.findByNumeroCuenta("123456")).thenReturn(Optional.of(updatedAccount));
 
         // When
         AccountResponseDto result = accountService.updateAccountStatus("123456", accountUpdateDto);
@@ -218,21 +220,22 @@ class AccountServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.getEstado()).isFalse();
 
-        verify(accountRepository).findByNumeroCuenta("123456");
-        verify(accountRepository).save(any(Account.class));
+        verify(accountRepository).setEstado("123456", false);
+        // Only the status column is written; the entity is never saved back over the balance
+        verify(accountRepository, never()).save(any(Account.class));
     }
 
     @Test
     void whenUpdateAccountNotFound_thenThrowException() {
         // Given
-        when(accountRepository.findByNumeroCuenta("999L")).thenReturn(Optional.empty());
+        when(accountRepository.setEstado("999L", false)).thenReturn(false);
 
         // When & Then
         assertThatThrownBy(() -> accountService.updateAccountStatus("999L", accountUpdateDto))
                 .isInstanceOf(AccountNotFoundException.class)
                 .hasMessageContaining("Account not found with id: 999");
 
-        verify(accountRepository).findByNumeroCuenta("999L");
+        verify(accountRepository, never()).findByNumeroCuenta("999L");
         verify(accountRepository, never()).save(any(Account.class));
     }
 
@@ -318,26 +321,30 @@ class AccountServiceImplTest {
     @Test
     void whenGetAccountsByClienteIdEmpty_thenReturnEmptyList() {
         // Given
-        when(accountRepository.findByClienteId(999L)).thenReturn(List.of());
+        when(accountRepository.findSummariesByClienteId(999L)).thenReturn(List.of());
 
         // When
         List<AccountResponseDto> result = accountService.getAccountsByClientId(999L);
 
         // Then
         assertThat(result).isEmpty();
-        verify(accountRepository).findByClienteId(999L);
+        verify(accountRepository).findSummariesByClienteId(999L);
     }
 
     @Test
     void whenGetAccountsByEstadoEmpty_thenReturnEmptyList() {
         // Given
-        when(accountRepository.findByEstado(false)).thenReturn(List.of());
+        when(accountRepository.findSummariesByEstado(false)).thenReturn(List.of());
 
         // When
         List<AccountResponseDto> result = accountService.getAccountsByStatus(false);
 
         // Then
         assertThat(result).isEmpty();
-        verify(accountRepository).findByEstado(false);
+        verify(accountRepository).findSummariesByEstado(false);
+    }
+
+    private static AccountSummaryView summaryOf(Account account) {
+        return new SpelAwareProxyProjectionFactory().createProjection(AccountSummaryView.class, account);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,293 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.AccountResponseDto;
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.dto.ReconciliationResponseDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.entity.Reconciliation;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.MovementRepository;
+import com.bank.account_service.repository.ReconciliationChunkRepository;
+import com.bank.account_service.repository.ReconciliationDiscrepancyRepository;
+import com.bank.account_service.repository.ReconciliationRepository;
+import com.bank.account_service.service.AccountPostingApplier.PostingOutcome;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Import({MovementServiceImpl.class, AccountServiceImpl.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, VelocityRuleServiceImpl.class, AccountPostingApplier.class, PageLimits.class,
+        RunningBalanceRepairServiceImpl.class})
+@TestPropertySource(properties = "movements.repair.delay=PT0.1S")
+class AccountSubLedgerIntegrationTest extends LedgerIntegrationTestSupport {
+
+    @Autowired
+    private AccountSubLedgerService subLedger;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountPostingApplier postingApplier;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReconciliationRepository reconciliationRepository;
+
+    @Autowired
+    private ReconciliationChunkRepository chunkRepository;
+
+    @Autowired
+    private ReconciliationDiscrepancyRepository discrepancyRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MovementRepository movementRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void whenCreditsArePosted_thenTheySpreadOverSubBalancesAndTheTotalIsReported() {
+        insertAccount("SPLIT-1", "100.00");
+        subLedger.splitAccount("SPLIT-1", 4);
+
+        List<BigDecimal> saldos = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            saldos.add(movementService.createMovement(movement("SPLIT-1", Movement.MovementType.CREDITO, "10.00"))
+                    .getSaldo());
+        }
+
+        assertThat(saldos).extracting(BigDecimal::intValue).containsExactly(110, 120, 130, 140, 150, 160, 170, 180);
+        assertThat(subBalances("SPLIT-1")).extracting(BigDecimal::intValue).containsExactly(20, 20, 20, 20);
+        // The account row is untouched by single credits
+        assertThat(saldoActual("SPLIT-1")).isEqualByComparingTo("100.00");
+        assertThat(accountService.getAccountByNumber("SPLIT-1").getSaldoActual()).isEqualByComparingTo("180.00");
+        assertThat(accountService.getAccountsByClientId(1L)).extracting(AccountResponseDto::getSaldoActual)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("180.00"));
+    }
+
+    @Test
+    void whenNoSingleRowCoversADebit_thenItDrawsAcrossRowsUpToTheTotal() {
+        insertAccount("SPLIT-1", "100.00");
+        subLedger.splitAccount("SPLIT-1", 4);
+        subLedger.rebalance();
+        assertThat(saldoActual("SPLIT-1")).isEqualByComparingTo("0.00");
+
+        MovementResponseDto debit = movementService.createMovement(
+                movement("SPLIT-1", Movement.MovementType.DEBITO, "60.00"));
+
+        assertThat(debit.getSaldo()).isEqualByComparingTo("40.00");
+        assertThat(subBalances("SPLIT-1")).extracting(BigDecimal::intValue).containsExactly(0, 0, 15, 25);
+        assertThatThrownBy(() -> movementService.createMovement(
+                movement("SPLIT-1", Movement.MovementType.DEBITO, "40.01")))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThat(movementCount("SPLIT-1")).isEqualTo(1);
+    }
+
+    @Test
+    void whenRebalancing_thenTheTotalIsSpreadEvenlyAndKept() {
+        insertAccount("SPLIT-1", "100.01");
+        subLedger.splitAccount("SPLIT-1", 3);
+        movementService.createMovement(movement("SPLIT-1", Movement.MovementType.CREDITO, "50.00"));
+
+        subLedger.rebalance();
+
+        assertThat(saldoActual("SPLIT-1")).isEqualByComparingTo("0.00");
+        assertThat(subBalances("SPLIT-1")).extracting(BigDecimal::toPlainString)
+                .containsExactly("50.01", "50.00", "50.00");
+        assertThat(accountService.getAccountByNumber("SPLIT-1").getSaldoActual()).isEqualByComparingTo("150.01");
+    }
+
+    @Test
+    void whenPostingConcurrently_thenNoMoneyIsCreatedOrLost() throws Exception {
+        insertAccount("SPLIT-1", "500.00");
+        subLedger.splitAccount("SPLIT-1", 8);
+        subLedger.rebalance();
+        Queue<MovementResponseDto> accepted = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 60; i++) {
+                    boolean debit = ThreadLocalRandom.current().nextInt(3) > 0;
+                    try {
+                        accepted.add(movementService.createMovement(movement("SPLIT-1",
+                                debit ? Movement.MovementType.DEBITO : Movement.MovementType.CREDITO,
+                                debit ? "15.00" : "10.00")));
+                    } catch (InsufficientFundsException ex) {
+                        // Expected once the account runs dry
+                    }
+                    if (i % 20 == 0) {
+                        subLedger.rebalance();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        BigDecimal expected = accepted.stream()
+                .map(m -> m.getTipoMovimiento() == Movement.MovementType.CREDITO ? m.getValor() : m.getValor().negate())
+                .reduce(new BigDecimal("500.00"), BigDecimal::add);
+        assertThat(accountService.getAccountByNumber("SPLIT-1").getSaldoActual()).isEqualByComparingTo(expected);
+        assertThat(expected.signum()).isNotNegative();
+        assertThat(subBalances("SPLIT-1")).allSatisfy(saldo -> assertThat(saldo.signum()).isNotNegative());
+        assertThat(movementCount("SPLIT-1")).isEqualTo(accepted.size());
+    }
+
+    @Test
+    void whenPostingConcurrentlyToASplitAccount_thenReconciliationFindsNoDiscrepancies() throws Exception {
+        insertAccount("SPLIT-1", "500.00");
+        subLedger.splitAccount("SPLIT-1", 4);
+        subLedger.rebalance();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 25; i++) {
+                    movementService.createMovement(movement("SPLIT-1", Movement.MovementType.CREDITO, "10.00"));
+                    movementService.createMovement(movement("SPLIT-1", Movement.MovementType.DEBITO, "5.00"));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(reconcile().getDiscrepancias()).isZero();
+
+        // Merged back, the movements get running balances and are checked again
+        long repairs = meterRegistry.get("movements.repair.latency").timer().count();
+        subLedger.splitAccount("SPLIT-1", 1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("movements.repair.latency").timer().count() == repairs
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT saldo FROM movimientos WHERE numero_cuenta = 'SPLIT-1' "
+                + "ORDER BY fecha DESC, id DESC FETCH FIRST 1 ROW ONLY", BigDecimal.class))
+                .isEqualByComparingTo("1500.00");
+        assertThat(reconcile().getDiscrepancias()).isZero();
+    }
+
+    @Test
+    void whenSplitIntoOne_thenSubBalancesAreMergedBack() {
+        insertAccount("SPLIT-1", "100.00");
+        subLedger.splitAccount("SPLIT-1", 4);
+        subLedger.rebalance();
+        movementService.createMovement(movement("SPLIT-1", Movement.MovementType.CREDITO, "20.00"));
+
+        AccountResponseDto merged = subLedger.splitAccount("SPLIT-1", 1);
+
+        assertThat(merged.getSaldoActual()).isEqualByComparingTo("120.00");
+        assertThat(saldoActual("SPLIT-1")).isEqualByComparingTo("120.00");
+        assertThat(subBalances("SPLIT-1")).isEmpty();
+        assertThat(subLedger.isSplit("SPLIT-1")).isFalse();
+    }
+
+    @Test
+    void whenApplyingABatchToASplitAccount_thenSubBalancesCountTowardsItsFunds() {
+        insertAccount("SPLIT-1", "100.00");
+        subLedger.splitAccount("SPLIT-1", 2);
+        subLedger.rebalance();
+
+        List<PostingOutcome> outcomes = transactionTemplate.execute(status -> postingApplier.apply("SPLIT-1", List.of(
+                movement("SPLIT-1", Movement.MovementType.DEBITO, "70.00"),
+                movement("SPLIT-1", Movement.MovementType.DEBITO, "40.00"))));
+
+        assertThat(outcomes.get(0).movement().getSaldo()).isEqualByComparingTo("30.00");
+        assertThat(outcomes.get(1).rejection()).isInstanceOf(InsufficientFundsException.class);
+        assertThat(accountService.getAccountByNumber("SPLIT-1").getSaldoActual()).isEqualByComparingTo("30.00");
+        subLedger.rebalance();
+        assertThat(saldoActual("SPLIT-1")).isEqualByComparingTo("0.00");
+        assertThat(subBalances("SPLIT-1")).extracting(BigDecimal::toPlainString).containsExactly("15.00", "15.00");
+    }
+
+    @Test
+    void whenSplitAccountIsInactive_thenPostingsAreRejected() {
+        insertAccount("SPLIT-1", "CORRIENTE", "100.00", false, 1L);
+        subLedger.splitAccount("SPLIT-1", 2);
+
+        assertThatThrownBy(() -> movementService.createMovement(
+                movement("SPLIT-1", Movement.MovementType.CREDITO, "10.00")))
+                .hasMessage("Cannot create movement for inactive account");
+        assertThat(accountService.getAccountByNumber("SPLIT-1").getSaldoActual()).isEqualByComparingTo("100.00");
+    }
+
+    private ReconciliationResponseDto reconcile() throws InterruptedException {
+        ReconciliationServiceImpl reconciliations = new ReconciliationServiceImpl(reconciliationRepository,
+                chunkRepository, discrepancyRepository, accountRepository, movementRepository, transactionTemplate,
+                new PageLimits(100, 500), meterRegistry, 100, 2);
+        try {
+            Long id = reconciliations.startReconciliation().getId();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            ReconciliationResponseDto reconciliation = reconciliations.getReconciliation(id);
+            while (reconciliation.getEstado() != Reconciliation.ReconciliationStatus.COMPLETED
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+                reconciliation = reconciliations.getReconciliation(id);
+            }
+            assertThat(reconciliation.getEstado()).isEqualTo(Reconciliation.ReconciliationStatus.COMPLETED);
+            assertThat(reconciliation.getMovimientos()).isEqualTo(movementCount("SPLIT-1"));
+            return reconciliation;
+        } finally {
+            reconciliations.shutdown();
+        }
+    }
+
+    private List<BigDecimal> subBalances(String numeroCuenta) {
+        return jdbcTemplate.queryForList("SELECT saldo FROM cuenta_subsaldos WHERE numero_cuenta = ? ORDER BY slot",
+                BigDecimal.class, numeroCuenta);
+    }
+
+    private static MovementCreateDto movement(String numeroCuenta, Movement.MovementType tipo, String valor) {
+        MovementCreateDto dto = new MovementCreateDto();
+        dto.setCuentaId(numeroCuenta);
+        dto.setTipoMovimiento(tipo);
+        dto.setValor(new BigDecimal(valor));
+        dto.setDescripcion("sub-ledger");
+        return dto;
+    }
+}
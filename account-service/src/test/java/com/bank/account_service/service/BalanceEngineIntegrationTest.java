@@ -0,0 +1,264 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.AccountUpdateDto;
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountSubBalanceRepository;
+import com.bank.account_service.repository.MovementRepository;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Import({MovementServiceImpl.class, AccountServiceImpl.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, VelocityRuleServiceImpl.class, PageLimits.class,
+        RunningBalanceRepairServiceImpl.class})
+class BalanceEngineIntegrationTest extends LedgerIntegrationTestSupport {
+
+    @TempDir
+    private Path directory;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountSubBalanceRepository subBalanceRepository;
+
+    @Autowired
+    private MovementRepository movementRepository;
+
+    @Autowired
+    private VelocityRuleService velocityRules;
+
+    @Autowired
+    private DailyDebitLimitService dailyDebitLimits;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<BalanceEngineServiceImpl> started = new ArrayList<>();
+
+    @AfterEach
+    void stopEngines() throws Exception {
+        for (BalanceEngineServiceImpl engine : started) {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void whenPostingsAreAcknowledged_thenTheyReachTheDatabaseWithTheirIdsAndBalances() throws Exception {
+        insertAccount("ENG-1", "100.00");
+        BalanceEngineServiceImpl engine = start();
+
+        MovementResponseDto credit = engine.createMovement(movement("ENG-1", Movement.MovementType.CREDITO, "50.00"));
+        MovementResponseDto debit = engine.createMovement(movement("ENG-1", Movement.MovementType.DEBITO, "30.00"));
+        engine.awaitApplied();
+
+        assertThat(credit.getSaldo()).isEqualByComparingTo("150.00");
+        assertThat(debit.getSaldo()).isEqualByComparingTo("120.00");
+        assertThat(saldoActual("ENG-1")).isEqualByComparingTo("120.00");
+        assertThat(movementService.getMovementById(debit.getId()).getSaldo()).isEqualByComparingTo("120.00");
+        assertThat(movementService.getMovementsByAccountId("ENG-1")).extracting(MovementResponseDto::getId)
+                .containsExactlyInAnyOrder(credit.getId(), debit.getId());
+    }
+
+    @Test
+    void whenPostingsAreRejected_thenNothingIsJournaled() throws Exception {
+        insertAccount("ENG-1", "100.00");
+        insertAccount("ENG-2", "CORRIENTE", "100.00", false, 1L);
+        BalanceEngineServiceImpl engine = start();
+
+        assertThatThrownBy(() -> engine.createMovement(movement("ENG-1", Movement.MovementType.DEBITO, "100.01")))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThatThrownBy(() -> engine.createMovement(movement("ENG-1", Movement.MovementType.CREDITO, "0")))
+                .hasMessage("Movement amount cannot be zero");
+        assertThatThrownBy(() -> engine.createMovement(movement("ENG-2", Movement.MovementType.CREDITO, "1.00")))
+                .hasMessage("Cannot create movement for inactive account");
+        assertThatThrownBy(() -> engine.createMovement(movement("NOPE", Movement.MovementType.CREDITO, "1.00")))
+                .isInstanceOf(AccountNotFoundException.class);
+        engine.awaitApplied();
+
+        assertThat(saldoActual("ENG-1")).isEqualByComparingTo("100.00");
+        assertThat(movementCount("ENG-1")).isZero();
+        try (MovementJournal journal = new MovementJournal(directory.resolve("movements.journal"), 1 << 16)) {
+            assertThat(journal.readUnapplied()).isEmpty();
+        }
+    }
+
+    @Test
+    void whenStarting_thenTheJournalTailIsAppliedOnceAndBalancesFollowIt() throws Exception {
+        insertAccount("ENG-1", "100.00");
+        long applied = movementRepository.reserveIdBlock();
+        long pending = applied - 1;
+        // The first movement reached the database before the crash, the second did not
+        insertMovement("ENG-1", LocalDateTime.now(), Movement.MovementType.CREDITO, "10.00", "110.00");
+        jdbcTemplate.update("UPDATE movimientos SET id = ? WHERE numero_cuenta = 'ENG-1'", applied);
+        jdbcTemplate.update("UPDATE cuentas SET saldo_actual = 110.00 WHERE numero_cuenta = 'ENG-1'");
+        try (MovementJournal journal = new MovementJournal(directory.resolve("movements.journal"), 1 << 16)) {
+            journal.append(journaled(applied, "10.00", "110.00"));
+            journal.append(journaled(pending, "5.00", "115.00"));
+        }
+
+        BalanceEngineServiceImpl engine = start();
+
+        assertThat(saldoActual("ENG-1")).isEqualByComparingTo("115.00");
+        assertThat(movementCount("ENG-1")).isEqualTo(2);
+        assertThat(engine.createMovement(movement("ENG-1", Movement.MovementType.DEBITO, "15.00")).getSaldo())
+                .isEqualByComparingTo("100.00");
+        engine.stop();
+        started.clear();
+
+        // Nothing left to replay on the next start
+        start();
+        assertThat(saldoActual("ENG-1")).isEqualByComparingTo("100.00");
+        assertThat(movementCount("ENG-1")).isEqualTo(3);
+    }
+
+    @Test
+    void whenAnAccountIsChangedExclusively_thenTheEngineSeesTheChange() throws Exception {
+        insertAccount("ENG-1", "100.00");
+        BalanceEngineServiceImpl engine = start();
+        engine.createMovement(movement("ENG-1", Movement.MovementType.CREDITO, "10.00"));
+
+        AccountUpdateDto update = new AccountUpdateDto();
+        update.setEstado(false);
+        engine.exclusive(List.of("ENG-1"), () -> accountService.updateAccountStatus("ENG-1", update));
+
+        assertThat(saldoActual("ENG-1")).isEqualByComparingTo("110.00");
+        assertThatThrownBy(() -> engine.createMovement(movement("ENG-1", Movement.MovementType.CREDITO, "1.00")))
+                .hasMessage("Cannot create movement for inactive account");
+    }
+
+    @Test
+    void whenAnAccountIsDeletedExclusively_thenItsAcknowledgedPostingsAreAppliedFirst() throws Exception {
+        insertAccount("ENG-1", "100.00");
+        BalanceEngineServiceImpl engine = start();
+        engine.createMovement(movement("ENG-1", Movement.MovementType.CREDITO, "10.00"));
+
+        engine.exclusive(List.of("ENG-1"), () -> {
+            assertThat(movementCount("ENG-1")).isEqualTo(1);
+            jdbcTemplate.update("DELETE FROM movimientos WHERE numero_cuenta = 'ENG-1'");
+            return jdbcTemplate.update("DELETE FROM cuentas WHERE numero_cuenta = 'ENG-1'");
+        });
+
+        assertThatThrownBy(() -> engine.createMovement(movement("ENG-1", Movement.MovementType.CREDITO, "1.00")))
+                .isInstanceOf(AccountNotFoundException.class);
+        engine.awaitApplied();
+        assertThat(meterRegistry.get("movements.engine.orphaned").counter().count()).isZero();
+    }
+
+    @Test
+    void whenAJournaledMovementHasNoAccount_thenItIsCountedAsOrphaned() throws Exception {
+        try (MovementJournal journal = new MovementJournal(directory.resolve("movements.journal"), 1 << 16)) {
+            journal.append(journaled(movementRepository.reserveIdBlock(), "10.00", "110.00"));
+        }
+
+        start();
+
+        assertThat(meterRegistry.get("movements.engine.orphaned").counter().count()).isEqualTo(1);
+        assertThat(movementCount("ENG-1")).isZero();
+    }
+
+    @Test
+    void whenTheDeploymentIsNotASingleWriter_thenTheEngineRefusesToStart() {
+        assertThatThrownBy(() -> new BalanceEngineServiceImpl(movementService, accountRepository, subBalanceRepository,
+                movementRepository, velocityRules, dailyDebitLimits, transactionTemplate, meterRegistry, true, false,
+                directory.resolve("movements.journal"), DataSize.ofKilobytes(64), 50))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void whenPostingConcurrently_thenEveryAcknowledgedPostingIsApplied() throws Exception {
+        insertAccount("ENG-1", "1000.00");
+        insertAccount("ENG-2", "1000.00");
+        BalanceEngineServiceImpl engine = start();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            String numeroCuenta = "ENG-" + (t % 2 + 1);
+            workers.add(executor.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    engine.createMovement(movement(numeroCuenta, i % 2 == 0
+                            ? Movement.MovementType.CREDITO
+                            : Movement.MovementType.DEBITO, i % 2 == 0 ? "3.00" : "1.00"));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        engine.awaitApplied();
+
+        assertThat(saldoActual("ENG-1")).isEqualByComparingTo("1400.00");
+        assertThat(saldoActual("ENG-2")).isEqualByComparingTo("1400.00");
+        assertThat(movementCount("ENG-1")).isEqualTo(400);
+        // Ids follow posting order within an account
+        assertThat(jdbcTemplate.queryForObject("SELECT saldo FROM movimientos WHERE id = "
+                + "(SELECT MAX(id) FROM movimientos WHERE numero_cuenta = 'ENG-1')", BigDecimal.class))
+                .isEqualByComparingTo("1400.00");
+    }
+
+    private BalanceEngineServiceImpl start() throws IOException {
+        BalanceEngineServiceImpl engine = new BalanceEngineServiceImpl(movementService, accountRepository,
+                subBalanceRepository, movementRepository, velocityRules, dailyDebitLimits, transactionTemplate,
+                meterRegistry, true, true, directory.resolve("movements.journal"), DataSize.ofKilobytes(64),
+                50);
+        engine.start();
+        started.add(engine);
+        return engine;
+    }
+
+    private static Movement journaled(long id, String valor, String saldo) {
+        Movement movement = new Movement();
+        movement.setId(id);
+        movement.setNumeroCuenta("ENG-1");
+        movement.setTipoMovimiento(Movement.MovementType.CREDITO);
+        movement.setValor(new BigDecimal(valor));
+        movement.setSaldo(new BigDecimal(saldo));
+        movement.setFecha(LocalDateTime.now());
+        return movement;
+    }
+
+    private static MovementCreateDto movement(String numeroCuenta, Movement.MovementType tipo, String valor) {
+        MovementCreateDto dto = new MovementCreateDto();
+        dto.setCuentaId(numeroCuenta);
+        dto.setTipoMovimiento(tipo);
+        dto.setValor(new BigDecimal(valor));
+        dto.setDescripcion("engine");
+        return dto;
+    }
+}
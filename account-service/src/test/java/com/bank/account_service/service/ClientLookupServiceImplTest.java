@@ -0,0 +1,99 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.ClientDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClientLookupServiceImplTest {
+
+    private static final String CLIENT_JSON = "{\"clienteId\":7,\"estado\":true,"
+            + "\"persona\":{\"nombre\":\"Jose Lema\",\"identificacion\":\"1234567890\"}}";
+
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private HttpStatus status;
+
+    private ClientLookupService clientLookupService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        status = HttpStatus.OK;
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    remoteCalls.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(100))
+                            .map(tick -> ClientResponse.create(status)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body(CLIENT_JSON)
+                                    .build());
+                })
+                .build();
+        clientLookupService = new ClientLookupServiceImpl(webClient, meterRegistry, 100,
+                Duration.ofMinutes(10), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void whenConcurrentLookupsForOneClient_thenOneRemoteCall() {
+        List<CompletableFuture<ClientDto>> lookups = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            lookups.add(clientLookupService.getClientByClientId(7L));
+        }
+
+        lookups.forEach(lookup -> assertThat(lookup.join().getPersona().getNombre()).isEqualTo("Jose Lema"));
+        assertThat(remoteCalls).hasValue(1);
+    }
+
+    @Test
+    void whenLoadedByClientId_thenIdentificacionLookupIsAHit() {
+        clientLookupService.getClientByClientId(7L).join();
+
+        ClientDto client = clientLookupService.getClientByIdentificacion("1234567890").join();
+
+        assertThat(client.getClienteId()).isEqualTo(7L);
+        assertThat(remoteCalls).hasValue(1);
+    }
+
+    @Test
+    void whenLookupFails_thenFailureIsNotCached() {
+        status = HttpStatus.NOT_FOUND;
+        assertThatThrownBy(() -> clientLookupService.getClientByClientId(7L).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(WebClientResponseException.NotFound.class);
+
+        status = HttpStatus.OK;
+        assertThat(clientLookupService.getClientByClientId(7L).join().getClienteId()).isEqualTo(7L);
+        assertThat(remoteCalls).hasValue(2);
+    }
+
+    @Test
+    void whenLookupsHappen_thenHitsAndMissesArePublished() {
+        clientLookupService.getClientByClientId(7L).join();
+        clientLookupService.getClientByClientId(7L).join();
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "clients.byClientId").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "clients.byClientId").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.load.duration").tag("cache", "clients.byClientId")
+                .timeGauge().value()).isPositive();
+    }
+}
@@ -0,0 +1,237 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.DailyDebitLimitExceededException;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.MovementRepository;
+import com.bank.account_service.service.AccountPostingApplier.PostingOutcome;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+// Counters outlive a test in the cached context, so every test uses its own account numbers
+@Import({MovementServiceImpl.class, AccountPostingApplier.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, VelocityRuleServiceImpl.class, PageLimits.class,
+        RunningBalanceRepairServiceImpl.class})
+@TestPropertySource(properties = {
+        "movements.daily-debit-limit.ahorro=500.00",
+        "movements.daily-debit-limit.accounts=VIP-1:2000.00"
+})
+class DailyDebitLimitIntegrationTest extends LedgerIntegrationTestSupport {
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private DailyDebitLimitService dailyDebitLimits;
+
+    @Autowired
+    private AccountPostingApplier postingApplier;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MovementRepository movementRepository;
+
+    @Test
+    void whenDebitsReachTheTypeLimit_thenTheNextDebitIsRejected() {
+        insertAccount("LIM-1", "1000.00");
+
+        debit("LIM-1", "300.00");
+        credit("LIM-1", "300.00");
+        debit("LIM-1", "200.00");
+
+        assertThatThrownBy(() -> debit("LIM-1", "0.01"))
+                .isInstanceOf(DailyDebitLimitExceededException.class)
+                .hasMessage("Daily debit limit of 500.00 exceeded for account LIM-1");
+        assertThat(saldoActual("LIM-1")).isEqualByComparingTo("800.00");
+        assertThat(movementCount("LIM-1")).isEqualTo(3);
+    }
+
+    @Test
+    void whenADebitIsRejectedForFunds_thenItDoesNotCountTowardsTheLimit() {
+        insertAccount("LIM-2", "100.00");
+
+        assertThatThrownBy(() -> debit("LIM-2", "400.00"))
+                .isInstanceOf(InsufficientFundsException.class);
+        credit("LIM-2", "900.00");
+
+        assertThat(debit("LIM-2", "500.00").getSaldo())
+                .isEqualByComparingTo("500.00");
+    }
+
+    @Test
+    void whenTheAccountHasItsOwnLimitOrAnUnlimitedType_thenTheTypeLimitDoesNotApply() {
+        insertAccount("VIP-1", "5000.00");
+        insertAccount("CTE-1", "CORRIENTE", "5000.00", true, 1L);
+
+        debit("VIP-1", "2000.00");
+        debit("CTE-1", "5000.00");
+
+        assertThatThrownBy(() -> debit("VIP-1", "1.00"))
+                .isInstanceOf(DailyDebitLimitExceededException.class);
+        assertThat(saldoActual("CTE-1")).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void whenFirstDebitedOnThisNode_thenTodaysEarlierDebitsAreLoaded() {
+        insertAccount("LIM-3", "1000.00");
+        insertMovement("LIM-3", LocalDateTime.now().minusDays(1), Movement.MovementType.DEBITO, "500.00", "1000.00");
+        insertMovement("LIM-3", LocalDateTime.now(), Movement.MovementType.DEBITO, "450.00", "1000.00");
+
+        debit("LIM-3", "50.00");
+
+        assertThatThrownBy(() -> debit("LIM-3", "0.01"))
+                .isInstanceOf(DailyDebitLimitExceededException.class);
+    }
+
+    @Test
+    void whenReconciling_thenDebitsPostedElsewhereAndDeletedDebitsAreTakenIntoAccount() {
+        insertAccount("LIM-4", "1000.00");
+        Long debit = debit("LIM-4", "400.00").getId();
+        // Posted by another node
+        insertMovement("LIM-4", LocalDateTime.now(), Movement.MovementType.DEBITO, "50.00", "550.00");
+
+        dailyDebitLimits.reconcile();
+        assertThatThrownBy(() -> debit("LIM-4", "50.01"))
+                .isInstanceOf(DailyDebitLimitExceededException.class);
+
+        movementService.deleteMovement(debit);
+        dailyDebitLimits.reconcile();
+        debit("LIM-4", "450.00");
+    }
+
+    @Test
+    void whenADebitCommitsWhileReconciling_thenItIsCountedOnce() {
+        insertAccount("LIM-8", "1000.00");
+        // Commits a debit after the reconcile has taken its cut-off but before its query runs
+        MovementRepository repository = mock(MovementRepository.class, delegatesTo(movementRepository));
+        DailyDebitLimitServiceImpl limits = new DailyDebitLimitServiceImpl(accountRepository, repository,
+                new BigDecimal("500.00"), null, new String[0]);
+        doAnswer(invocation -> {
+            postDebit(limits, "LIM-8", "100.00");
+            return movementRepository.sumDebitsBetween(invocation.getArgument(0), invocation.getArgument(1),
+                    invocation.getArgument(2));
+        }).when(repository).sumDebitsBetween(any(), any(), any());
+        postDebit(limits, "LIM-8", "200.00");
+
+        limits.reconcile();
+
+        postDebit(limits, "LIM-8", "200.00");
+        assertThatThrownBy(() -> limits.reserve("LIM-8", new BigDecimal("0.01")))
+                .isInstanceOf(DailyDebitLimitExceededException.class);
+        assertThat(movementCount("LIM-8")).isEqualTo(3);
+    }
+
+    @Test
+    void whenABatchGoesOverTheLimit_thenOnlyThePostingsOverItAreRejected() {
+        insertAccount("LIM-5", "1000.00");
+
+        List<PostingOutcome> outcomes = transactionTemplate.execute(status -> postingApplier.apply("LIM-5", List.of(
+                movement("LIM-5", Movement.MovementType.DEBITO, "400.00"),
+                movement("LIM-5", Movement.MovementType.DEBITO, "200.00"),
+                movement("LIM-5", Movement.MovementType.DEBITO, "100.00"))));
+
+        assertThat(outcomes.get(0).isPosted()).isTrue();
+        assertThat(outcomes.get(1).rejection()).isInstanceOf(DailyDebitLimitExceededException.class);
+        assertThat(outcomes.get(2).movement().getSaldo()).isEqualByComparingTo("500.00");
+        assertThat(saldoActual("LIM-5")).isEqualByComparingTo("500.00");
+    }
+
+    @Test
+    void whenABatchTransactionRollsBack_thenItsDebitsAreReleased() {
+        insertAccount("LIM-6", "1000.00");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            postingApplier.apply("LIM-6", List.of(movement("LIM-6", Movement.MovementType.DEBITO, "500.00")));
+            status.setRollbackOnly();
+        });
+
+        assertThat(debit("LIM-6", "500.00").getSaldo())
+                .isEqualByComparingTo("500.00");
+    }
+
+    @Test
+    void whenDebitingConcurrently_thenExactlyTheLimitIsPosted() throws Exception {
+        insertAccount("LIM-7", "10000.00");
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 10; i++) {
+                    try {
+                        debit("LIM-7", "10.00");
+                    } catch (DailyDebitLimitExceededException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(movementCount("LIM-7")).isEqualTo(50);
+        assertThat(rejected).hasValue(30);
+        assertThat(saldoActual("LIM-7")).isEqualByComparingTo("9500.00");
+    }
+
+    private void postDebit(DailyDebitLimitService limits, String numeroCuenta, String valor) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime fecha = limits.reserve(numeroCuenta, new BigDecimal(valor));
+            insertMovement(numeroCuenta, fecha, Movement.MovementType.DEBITO, valor, "0.00");
+        });
+    }
+
+    private MovementResponseDto debit(String numeroCuenta, String valor) {
+        return movementService.createMovement(movement(numeroCuenta, Movement.MovementType.DEBITO, valor));
+    }
+
+    private MovementResponseDto credit(String numeroCuenta, String valor) {
+        return movementService.createMovement(movement(numeroCuenta, Movement.MovementType.CREDITO, valor));
+    }
+
+    private static MovementCreateDto movement(String numeroCuenta, Movement.MovementType tipo, String valor) {
+        MovementCreateDto dto = new MovementCreateDto();
+        dto.setCuentaId(numeroCuenta);
+        dto.setTipoMovimiento(tipo);
+        dto.setValor(new BigDecimal(valor));
+        dto.setDescripcion("limit");
+        return dto;
+    }
+}
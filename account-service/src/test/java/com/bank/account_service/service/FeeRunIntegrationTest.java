@@ -0,0 +1,177 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.FeeRunCreateDto;
+import com.bank.account_service.dto.FeeRunResponseDto;
+import com.bank.account_service.dto.FeeRunSkipResponseDto;
+import com.bank.account_service.entity.FeeRun;
+import com.bank.account_service.exception.FeeRunExistsException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountSubBalanceRepository;
+import com.bank.account_service.repository.FeeRunChunkRepository;
+import com.bank.account_service.repository.FeeRunRepository;
+import com.bank.account_service.repository.FeeRunSkipRepository;
+import com.bank.account_service.repository.MovementRepository;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeeRunIntegrationTest extends LedgerIntegrationTestSupport {
+
+    private static final LocalDate CORTE = LocalDate.of(2025, 6, 30);
+
+    @Autowired
+    private FeeRunRepository feeRunRepository;
+
+    @Autowired
+    private FeeRunChunkRepository chunkRepository;
+
+    @Autowired
+    private FeeRunSkipRepository skipRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountSubBalanceRepository subBalanceRepository;
+
+    @Autowired
+    private MovementRepository movementRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private FeeRunServiceImpl feeRunService;
+
+    @AfterEach
+    void tearDown() {
+        feeRunService.shutdown();
+    }
+
+    @Test
+    void whenAFeeRunRuns_thenAccountsThatCoverTheFeeAreChargedAndTheOthersRecorded() throws Exception {
+        feeRunService = feeRunService(0);
+        for (int i = 0; i < 10; i++) {
+            insertAccount("FEE-" + i, "CORRIENTE", "100.00", true, 1L);
+        }
+        insertAccount("FEE-JUSTA", "CORRIENTE", "10.00", true, 1L);
+        insertAccount("FEE-CORTA", "CORRIENTE", "9.99", true, 1L);
+        insertAccount("FEE-RETENIDA", "CORRIENTE", "20.00", true, 1L);
+        jdbcTemplate.update("UPDATE cuentas SET saldo_retenido = 15.00 WHERE numero_cuenta = 'FEE-RETENIDA'");
+        insertAccount("FEE-INACTIVA", "CORRIENTE", "100.00", false, 2L);
+        insertAccount("FEE-AHORRO", "100.00");
+
+        FeeRunResponseDto started = feeRunService.startFeeRun(feeRun(CORTE, "10.00"));
+        FeeRunResponseDto completed = awaitCompleted(started.getId());
+
+        assertThat(completed.getTramos()).isEqualTo(5);
+        assertThat(completed.getTramosPendientes()).isZero();
+        assertThat(completed.getCuentas()).isEqualTo(11);
+        assertThat(completed.getOmitidas()).isEqualTo(2);
+        assertThat(completed.getTotal()).isEqualByComparingTo("110.00");
+        for (int i = 0; i < 10; i++) {
+            assertThat(saldoActual("FEE-" + i)).isEqualByComparingTo("90.00");
+        }
+        assertThat(saldoActual("FEE-JUSTA")).isEqualByComparingTo("0.00");
+        assertThat(saldoActual("FEE-CORTA")).isEqualByComparingTo("9.99");
+        assertThat(saldoActual("FEE-RETENIDA")).isEqualByComparingTo("20.00");
+        assertThat(saldoActual("FEE-INACTIVA")).isEqualByComparingTo("100.00");
+        assertThat(saldoActual("FEE-AHORRO")).isEqualByComparingTo("100.00");
+        assertThat(movementCount("FEE-CORTA") + movementCount("FEE-INACTIVA") + movementCount("FEE-AHORRO"))
+                .isZero();
+
+        Map<String, Object> fee = jdbcTemplate.queryForMap("SELECT tipo_movimiento, valor, saldo, descripcion "
+                + "FROM movimientos WHERE numero_cuenta = 'FEE-0'");
+        assertThat(fee.get("TIPO_MOVIMIENTO")).isEqualTo("DEBITO");
+        assertThat((BigDecimal) fee.get("VALOR")).isEqualByComparingTo("10.00");
+        assertThat((BigDecimal) fee.get("SALDO")).isEqualByComparingTo("90.00");
+        assertThat(fee.get("DESCRIPCION")).isEqualTo("Comision de mantenimiento 2025-06-30");
+
+        CursorPageDto<FeeRunSkipResponseDto> first = feeRunService.getSkipped(started.getId(), null, 1);
+        CursorPageDto<FeeRunSkipResponseDto> second = feeRunService.getSkipped(started.getId(),
+                first.getNextCursor(), 1);
+        assertThat(first.getItems()).extracting(FeeRunSkipResponseDto::getNumeroCuenta).containsExactly("FEE-CORTA");
+        assertThat(second.getItems()).extracting(FeeRunSkipResponseDto::getNumeroCuenta)
+                .containsExactly("FEE-RETENIDA");
+        assertThat(second.getItems().get(0).getDisponible()).isEqualByComparingTo("5.00");
+        assertThat(second.getNextCursor()).isNull();
+
+        assertThatThrownBy(() -> feeRunService.startFeeRun(feeRun(CORTE, "10.00")))
+                .isInstanceOf(FeeRunExistsException.class);
+    }
+
+    @Test
+    void whenAnAccountIsSplit_thenTheFeeIsDrawnFromItsSubBalancesAfterTheAccountRow() throws Exception {
+        feeRunService = feeRunService(0);
+        insertAccount("FEE-SPLIT", "CORRIENTE", "5.00", true, 1L);
+        jdbcTemplate.update("INSERT INTO cuenta_subsaldos (numero_cuenta, slot, saldo, updated_at) "
+                + "VALUES ('FEE-SPLIT', 0, 3.00, CURRENT_TIMESTAMP), ('FEE-SPLIT', 1, 4.00, CURRENT_TIMESTAMP)");
+
+        awaitCompleted(feeRunService.startFeeRun(feeRun(CORTE, "10.00")).getId());
+
+        assertThat(saldoActual("FEE-SPLIT")).isEqualByComparingTo("0.00");
+        assertThat(jdbcTemplate.queryForList("SELECT saldo FROM cuenta_subsaldos WHERE numero_cuenta = 'FEE-SPLIT' "
+                + "ORDER BY slot", BigDecimal.class)).extracting(BigDecimal::toPlainString)
+                .containsExactly("0.00", "2.00");
+        assertThat(jdbcTemplate.queryForObject("SELECT saldo FROM movimientos WHERE numero_cuenta = 'FEE-SPLIT'",
+                BigDecimal.class)).isEqualByComparingTo("2.00");
+    }
+
+    @Test
+    void whenThrottled_thenTheRunKeepsToTheAccountRate() throws Exception {
+        // 20 accounts a second: the second chunk of 5 cannot finish before half a second
+        feeRunService = feeRunService(20);
+        for (int i = 0; i < 10; i++) {
+            insertAccount("FEE-" + i, "CORRIENTE", "100.00", true, 1L);
+        }
+
+        long start = System.nanoTime();
+        FeeRunResponseDto completed = awaitCompleted(feeRunService.startFeeRun(feeRun(CORTE, "1.00")).getId());
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(450);
+        assertThat(completed.getCuentas()).isEqualTo(10);
+        assertThat(completed.getCuentasPorSegundo()).isLessThanOrEqualTo(22);
+        assertThat(feeRunRepository.findByEstado(FeeRun.FeeRunStatus.RUNNING)).isEmpty();
+    }
+
+    private FeeRunServiceImpl feeRunService(int maxAccountsPerSecond) {
+        BalanceEngineService disabledEngine = new BalanceEngineServiceImpl(null, null, null, null, null, null, null,
+                new SimpleMeterRegistry(), false, false, Path.of("unused"), DataSize.ofMegabytes(1), 1);
+        int chunkSize = maxAccountsPerSecond > 0 ? 5 : 3;
+        return new FeeRunServiceImpl(feeRunRepository, chunkRepository, skipRepository, accountRepository,
+                subBalanceRepository, movementRepository, disabledEngine, transactionTemplate,
+                new PageLimits(100, 500), new SimpleMeterRegistry(), chunkSize, 4, maxAccountsPerSecond, null);
+    }
+
+    private FeeRunResponseDto awaitCompleted(Long id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        FeeRunResponseDto feeRun = feeRunService.getFeeRun(id);
+        while (feeRun.getEstado() != FeeRun.FeeRunStatus.COMPLETED && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            feeRun = feeRunService.getFeeRun(id);
+        }
+        assertThat(feeRun.getEstado()).isEqualTo(FeeRun.FeeRunStatus.COMPLETED);
+        return feeRun;
+    }
+
+    private static FeeRunCreateDto feeRun(LocalDate fechaCorte, String comision) {
+        FeeRunCreateDto dto = new FeeRunCreateDto();
+        dto.setFechaCorte(fechaCorte);
+        dto.setComision(new BigDecimal(comision));
+        return dto;
+    }
+}
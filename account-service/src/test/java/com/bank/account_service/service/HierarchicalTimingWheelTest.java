@@ -0,0 +1,70 @@
+package com.bank.account_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void whenTheClockAdvances_thenEntriesExpireOnTheirTickInOrder() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, new int[]{10, 10, 10}, 0);
+        wheel.add(35, "c");
+        wheel.add(20, "a");
+        wheel.add(25, "b");
+
+        assertThat(wheel.advanceTo(19)).isEmpty();
+        assertThat(wheel.advanceTo(20)).containsExactly("a");
+        assertThat(wheel.advanceTo(40)).containsExactly("b", "c");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void whenEntriesExpireOnHigherLevels_thenTheyCascadeDownAndExpireOnTime() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, new int[]{10, 10, 10}, 0);
+        assertThat(wheel.span()).isEqualTo(10_000);
+        long[] expirations = {150, 990, 1000, 4321, 9990, 100, 101};
+        for (long expiration : expirations) {
+            wheel.add(expiration, expiration);
+        }
+        assertThat(wheel.size()).isEqualTo(expirations.length);
+
+        List<long[]> expired = new ArrayList<>();
+        for (long now = 10; now <= 10_000; now += 10) {
+            for (long expiration : wheel.advanceTo(now)) {
+                expired.add(new long[]{expiration, now});
+            }
+        }
+
+        assertThat(expired).extracting(e -> e[0]).containsExactly(100L, 101L, 150L, 990L, 1000L, 4321L, 9990L);
+        // Each on the first tick at or after its expiration
+        assertThat(expired).allSatisfy(e -> assertThat(e[1]).isEqualTo((e[0] + 9) / 10 * 10));
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void whenTheClockJumps_thenEverythingDueMeanwhileExpires() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1000, new int[]{60, 60, 24}, 5_500);
+        for (int i = 1; i <= 100; i++) {
+            wheel.add(5_000 + i * 30_000L, i);
+        }
+
+        assertThat(wheel.advanceTo(5_000 + 50 * 30_000L)).hasSize(50).startsWith(1, 2).endsWith(50);
+        assertThat(wheel.advanceTo(5_000 + 100 * 30_000L)).hasSize(50).startsWith(51).endsWith(100);
+    }
+
+    @Test
+    void whenAnEntryIsDueOrOutOfReach_thenItIsNotAdded() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, new int[]{10, 10}, 100);
+
+        assertThat(wheel.add(100, "due")).isFalse();
+        assertThat(wheel.add(110, "next tick")).isTrue();
+        assertThatThrownBy(() -> wheel.add(1_100, "beyond"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+}
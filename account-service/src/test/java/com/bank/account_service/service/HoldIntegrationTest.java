@@ -0,0 +1,239 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.HoldCaptureDto;
+import com.bank.account_service.dto.HoldCreateDto;
+import com.bank.account_service.dto.HoldResponseDto;
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.entity.Hold;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.exception.InvalidHoldOperationException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.HoldRepository;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Import({MovementServiceImpl.class, AccountPostingApplier.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, VelocityRuleServiceImpl.class, PageLimits.class,
+        RunningBalanceRepairServiceImpl.class})
+class HoldIntegrationTest extends LedgerIntegrationTestSupport {
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountSubLedgerService subLedger;
+
+    @Autowired
+    private AccountPostingApplier postingApplier;
+
+    @Autowired
+    private VelocityRuleService velocityRules;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private HoldServiceImpl holdService;
+
+    @BeforeEach
+    void setUp() {
+        BalanceEngineService disabledEngine = new BalanceEngineServiceImpl(null, null, null, null, null, null, null,
+                new SimpleMeterRegistry(), false, false, Path.of("unused"), DataSize.ofMegabytes(1), 1);
+        holdService = new HoldServiceImpl(holdRepository, accountRepository, subLedger, postingApplier, velocityRules,
+                disabledEngine, transactionTemplate, new SimpleMeterRegistry(), Duration.ofHours(1), 2);
+    }
+
+    @Test
+    void whenFundsAreHeld_thenDebitsCanOnlySpendTheAvailableBalance() {
+        insertAccount("HOLD-1", "100.00");
+
+        HoldResponseDto hold = holdService.authorize(hold("HOLD-1", "70.00"));
+
+        assertThat(hold.getEstado()).isEqualTo(Hold.HoldStatus.ACTIVE);
+        assertThat(saldoRetenido("HOLD-1")).isEqualByComparingTo("70.00");
+        assertThat(saldoActual("HOLD-1")).isEqualByComparingTo("100.00");
+        assertThatThrownBy(() -> movementService.createMovement(debit("HOLD-1", "30.01")))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThatThrownBy(() -> holdService.authorize(hold("HOLD-1", "30.01")))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThat(movementService.createMovement(debit("HOLD-1", "30.00")).getSaldo())
+                .isEqualByComparingTo("70.00");
+        assertThat(holdRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenCapturedInPart_thenTheDebitIsPostedAndTheRestReleased() {
+        insertAccount("HOLD-1", "100.00");
+        HoldResponseDto hold = holdService.authorize(hold("HOLD-1", "70.00"));
+        HoldCaptureDto capture = new HoldCaptureDto();
+        capture.setValor(new BigDecimal("50.00"));
+
+        HoldResponseDto captured = holdService.capture(hold.getId(), capture);
+
+        assertThat(captured.getEstado()).isEqualTo(Hold.HoldStatus.CAPTURED);
+        assertThat(captured.getValorCapturado()).isEqualByComparingTo("50.00");
+        assertThat(movementService.getMovementById(captured.getMovimientoId()).getSaldo())
+                .isEqualByComparingTo("50.00");
+        assertThat(saldoActual("HOLD-1")).isEqualByComparingTo("50.00");
+        assertThat(saldoRetenido("HOLD-1")).isEqualByComparingTo("0.00");
+        assertThat(holdService.getHold(hold.getId()).getMovimientoId()).isEqualTo(captured.getMovimientoId());
+        assertThatThrownBy(() -> holdService.capture(hold.getId(), new HoldCaptureDto()))
+                .isInstanceOf(InvalidHoldOperationException.class);
+        assertThat(movementCount("HOLD-1")).isEqualTo(1);
+    }
+
+    @Test
+    void whenReleased_thenTheFundsAreAvailableAgainAndCannotBeCaptured() {
+        insertAccount("HOLD-1", "100.00");
+        HoldResponseDto hold = holdService.authorize(hold("HOLD-1", "100.00"));
+        HoldCaptureDto tooMuch = new HoldCaptureDto();
+        tooMuch.setValor(new BigDecimal("100.01"));
+
+        assertThatThrownBy(() -> holdService.capture(hold.getId(), tooMuch))
+                .isInstanceOf(InvalidHoldOperationException.class);
+        assertThat(holdService.release(hold.getId()).getEstado()).isEqualTo(Hold.HoldStatus.RELEASED);
+
+        assertThat(saldoRetenido("HOLD-1")).isEqualByComparingTo("0.00");
+        assertThatThrownBy(() -> holdService.capture(hold.getId(), new HoldCaptureDto()))
+                .isInstanceOf(InvalidHoldOperationException.class);
+        assertThat(movementService.createMovement(debit("HOLD-1", "100.00")).getSaldo()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void whenHoldsExpire_thenTheSweeperReleasesOnlyThoseAndTheyCannotBeCaptured() {
+        insertAccount("HOLD-1", "100.00");
+        insertAccount("HOLD-2", "100.00");
+        List<Long> expiring = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            expiring.add(holdService.authorize(hold("HOLD-1", "10.00")).getId());
+        }
+        expiring.add(holdService.authorize(hold("HOLD-2", "20.00")).getId());
+        HoldResponseDto current = holdService.authorize(hold("HOLD-2", "30.00"));
+        for (Long id : expiring) {
+            jdbcTemplate.update("UPDATE retenciones SET expires_at = DATEADD('MINUTE', -1, CURRENT_TIMESTAMP) " +
+                    "WHERE id = ?", id);
+        }
+        assertThatThrownBy(() -> holdService.capture(expiring.get(0), new HoldCaptureDto()))
+                .isInstanceOf(InvalidHoldOperationException.class);
+
+        // Two sweep batches of two
+        assertThat(holdService.expireHolds()).isEqualTo(4);
+
+        assertThat(holdService.getHold(expiring.get(3)).getEstado()).isEqualTo(Hold.HoldStatus.EXPIRED);
+        assertThat(holdService.getHold(current.getId()).getEstado()).isEqualTo(Hold.HoldStatus.ACTIVE);
+        assertThat(saldoRetenido("HOLD-1")).isEqualByComparingTo("0.00");
+        assertThat(saldoRetenido("HOLD-2")).isEqualByComparingTo("30.00");
+        assertThat(holdService.expireHolds()).isZero();
+        assertThat(movementCount("HOLD-1")).isZero();
+    }
+
+    @Test
+    void whenAuthorizingConcurrently_thenHoldsNeverExceedTheBalance() throws Exception {
+        insertAccount("HOLD-1", "1000.00");
+        AtomicInteger authorized = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    try {
+                        holdService.authorize(hold("HOLD-1", "10.00"));
+                        authorized.incrementAndGet();
+                    } catch (InsufficientFundsException ex) {
+                        // Expected once everything is held
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(authorized.get()).isEqualTo(100);
+        assertThat(saldoRetenido("HOLD-1")).isEqualByComparingTo("1000.00");
+        assertThat(holdRepository.count()).isEqualTo(100);
+    }
+
+    @Test
+    void whenASplitAccountHasHolds_thenTheyStayOnTheAccountRow() {
+        insertAccount("HOLD-SPLIT", "100.00");
+        subLedger.splitAccount("HOLD-SPLIT", 4);
+        subLedger.rebalance();
+
+        HoldResponseDto hold = holdService.authorize(hold("HOLD-SPLIT", "60.00"));
+        assertThat(saldoActual("HOLD-SPLIT")).isEqualByComparingTo("60.00");
+        subLedger.rebalance();
+
+        assertThat(saldoActual("HOLD-SPLIT")).isEqualByComparingTo("60.00");
+        assertThat(subBalances("HOLD-SPLIT")).extracting(BigDecimal::toPlainString)
+                .containsExactly("10.00", "10.00", "10.00", "10.00");
+        assertThatThrownBy(() -> movementService.createMovement(debit("HOLD-SPLIT", "40.01")))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThat(movementService.createMovement(debit("HOLD-SPLIT", "40.00")).getSaldo())
+                .isEqualByComparingTo("60.00");
+        HoldResponseDto captured = holdService.capture(hold.getId(), new HoldCaptureDto());
+        assertThat(movementService.getMovementById(captured.getMovimientoId()).getSaldo())
+                .isEqualByComparingTo("0.00");
+        assertThat(saldoRetenido("HOLD-SPLIT")).isEqualByComparingTo("0.00");
+    }
+
+    private BigDecimal saldoRetenido(String numeroCuenta) {
+        return jdbcTemplate.queryForObject("SELECT saldo_retenido FROM cuentas WHERE numero_cuenta = ?",
+                BigDecimal.class, numeroCuenta);
+    }
+
+    private List<BigDecimal> subBalances(String numeroCuenta) {
+        return jdbcTemplate.queryForList("SELECT saldo FROM cuenta_subsaldos WHERE numero_cuenta = ? ORDER BY slot",
+                BigDecimal.class, numeroCuenta);
+    }
+
+    private static HoldCreateDto hold(String numeroCuenta, String valor) {
+        HoldCreateDto dto = new HoldCreateDto();
+        dto.setCuentaId(numeroCuenta);
+        dto.setValor(new BigDecimal(valor));
+        dto.setDescripcion("card");
+        return dto;
+    }
+
+    private static MovementCreateDto debit(String numeroCuenta, String valor) {
+        MovementCreateDto dto = new MovementCreateDto();
+        dto.setCuentaId(numeroCuenta);
+        dto.setTipoMovimiento(Movement.MovementType.DEBITO);
+        dto.setValor(new BigDecimal(valor));
+        dto.setDescripcion("hold");
+        return dto;
+    }
+}
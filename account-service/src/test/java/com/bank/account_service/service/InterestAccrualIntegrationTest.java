@@ -0,0 +1,211 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.InterestAccrualCreateDto;
+import com.bank.account_service.dto.InterestAccrualResponseDto;
+import com.bank.account_service.entity.InterestAccrual;
+import com.bank.account_service.entity.InterestAccrualChunk;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.InterestAccrualExistsException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountSubBalanceRepository;
+import com.bank.account_service.repository.InterestAccrualChunkRepository;
+import com.bank.account_service.repository.InterestAccrualRepository;
+import com.bank.account_service.repository.MovementRepository;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InterestAccrualIntegrationTest extends LedgerIntegrationTestSupport {
+
+    private static final LocalDate CORTE = LocalDate.of(2025, 6, 30);
+
+    @Autowired
+    private InterestAccrualRepository accrualRepository;
+
+    @Autowired
+    private InterestAccrualChunkRepository chunkRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountSubBalanceRepository subBalanceRepository;
+
+    @Autowired
+    private MovementRepository movementRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private InterestAccrualServiceImpl accrualService;
+
+    @BeforeEach
+    void setUp() {
+        BalanceEngineService disabledEngine = new BalanceEngineServiceImpl(null, null, null, null, null, null, null,
+                new SimpleMeterRegistry(), false, false, Path.of("unused"), DataSize.ofMegabytes(1), 1);
+        accrualService = new InterestAccrualServiceImpl(accrualRepository, chunkRepository, accountRepository,
+                subBalanceRepository, movementRepository, disabledEngine, transactionTemplate,
+                new SimpleMeterRegistry(), 3, 4, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accrualService.shutdown();
+    }
+
+    @Test
+    void whenAnAccrualRuns_thenEveryEligibleAccountIsCreditedOnceWithItsRunningBalance() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            insertAccount("INT-" + i, "1000.00");
+        }
+        insertAccount("INT-REDONDEO", "1234.56");
+        insertAccount("INT-CERO", "0.00");
+        insertAccount("INT-INACTIVA", "AHORRO", "1000.00", false, 2L);
+        insertAccount("INT-CORRIENTE", "CORRIENTE", "1000.00", true, 3L);
+        insertMovement("INT-0", LocalDateTime.now().minusDays(1), Movement.MovementType.CREDITO, "1000.00",
+                "1000.00");
+
+        // 3.65% a year for 10 days is 0.1% of the balance
+        InterestAccrualResponseDto started = accrualService.startAccrual(accrual(CORTE, "3.65", 10));
+        InterestAccrualResponseDto completed = awaitCompleted(started.getId());
+
+        assertThat(completed.getTramos()).isEqualTo(5);
+        assertThat(completed.getTramosPendientes()).isZero();
+        assertThat(completed.getCuentas()).isEqualTo(11);
+        assertThat(completed.getTotal()).isEqualByComparingTo("11.23");
+        assertThat(completed.getFinishedAt()).isNotNull();
+        for (int i = 0; i < 10; i++) {
+            assertThat(saldoActual("INT-" + i)).isEqualByComparingTo("1001.00");
+        }
+        assertThat(saldoActual("INT-REDONDEO")).isEqualByComparingTo("1235.79");
+        assertThat(saldoActual("INT-CERO")).isEqualByComparingTo("0.00");
+        assertThat(saldoActual("INT-INACTIVA")).isEqualByComparingTo("1000.00");
+        assertThat(saldoActual("INT-CORRIENTE")).isEqualByComparingTo("1000.00");
+        assertThat(movementCount("INT-CERO") + movementCount("INT-INACTIVA") + movementCount("INT-CORRIENTE"))
+                .isZero();
+
+        Map<String, Object> interest = jdbcTemplate.queryForMap("SELECT tipo_movimiento, valor, saldo, descripcion "
+                + "FROM movimientos WHERE numero_cuenta = 'INT-0' ORDER BY id DESC LIMIT 1");
+        assertThat(interest.get("TIPO_MOVIMIENTO")).isEqualTo("CREDITO");
+        assertThat((BigDecimal) interest.get("VALOR")).isEqualByComparingTo("1.00");
+        assertThat((BigDecimal) interest.get("SALDO")).isEqualByComparingTo("1001.00");
+        assertThat(interest.get("DESCRIPCION")).isEqualTo("Intereses al 2025-06-30");
+        assertThat(movementCount("INT-0")).isEqualTo(2);
+    }
+
+    @Test
+    void whenAnAccountIsSplit_thenItsSubBalancesEarnInterestToo() throws Exception {
+        insertAccount("INT-SPLIT", "100.00");
+        jdbcTemplate.update("INSERT INTO cuenta_subsaldos (numero_cuenta, slot, saldo, updated_at) "
+                + "VALUES ('INT-SPLIT', 0, 450.00, CURRENT_TIMESTAMP), ('INT-SPLIT', 1, 450.00, CURRENT_TIMESTAMP)");
+
+        awaitCompleted(accrualService.startAccrual(accrual(CORTE, "3.65", 10)).getId());
+
+        assertThat(saldoActual("INT-SPLIT")).isEqualByComparingTo("101.00");
+        assertThat(jdbcTemplate.queryForObject("SELECT saldo FROM movimientos WHERE numero_cuenta = 'INT-SPLIT'",
+                BigDecimal.class)).isEqualByComparingTo("1001.00");
+    }
+
+    @Test
+    void whenResumingAfterACrash_thenOnlyPendingChunksAreCredited() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            insertAccount("INT-" + i, "1000.00");
+        }
+        // State left by a crash: the first chunk committed, the second did not
+        InterestAccrual accrual = new InterestAccrual();
+        accrual.setFechaCorte(CORTE);
+        accrual.setTasaAnual(new BigDecimal("3.65"));
+        accrual.setDias(10);
+        accrual.setTramos(2);
+        accrual.setEstado(InterestAccrual.AccrualStatus.RUNNING);
+        accrual.setCreatedAt(LocalDateTime.now());
+        accrualRepository.save(accrual);
+        chunkRepository.insertChunks(List.of(chunk(accrual.getId(), 0, "", "INT-2"),
+                chunk(accrual.getId(), 1, "INT-2", "INT-5")));
+        jdbcTemplate.update("UPDATE devengo_interes_tramos SET estado = 'DONE', cuentas = 3, total = 3.00 "
+                + "WHERE tramo = 0");
+        jdbcTemplate.update("UPDATE cuentas SET saldo_actual = 1001.00 WHERE numero_cuenta IN "
+                + "('INT-0', 'INT-1', 'INT-2')");
+
+        accrualService.resumeRunning();
+
+        InterestAccrualResponseDto completed = awaitCompleted(accrual.getId());
+        assertThat(completed.getCuentas()).isEqualTo(6);
+        assertThat(completed.getTotal()).isEqualByComparingTo("6.00");
+        for (int i = 0; i < 6; i++) {
+            assertThat(saldoActual("INT-" + i)).isEqualByComparingTo("1001.00");
+        }
+        assertThat(movementCount("INT-0")).isZero();
+        assertThat(movementCount("INT-5")).isEqualTo(1);
+        InterestAccrual stored = accrualRepository.findById(accrual.getId()).orElseThrow();
+        assertThat(stored.getCuentas()).isEqualTo(6);
+        assertThat(stored.getTotal()).isEqualByComparingTo("6.00");
+    }
+
+    @Test
+    void whenACutOffDateWasAccrued_thenItIsNotAccruedAgain() throws Exception {
+        insertAccount("INT-0", "1000.00");
+        awaitCompleted(accrualService.startAccrual(accrual(CORTE, "3.65", 10)).getId());
+
+        assertThatThrownBy(() -> accrualService.startAccrual(accrual(CORTE, "3.65", 10)))
+                .isInstanceOf(InterestAccrualExistsException.class);
+        assertThat(saldoActual("INT-0")).isEqualByComparingTo("1001.00");
+    }
+
+    @Test
+    void whenThereAreNoSavingsAccounts_thenTheAccrualCompletesEmpty() throws Exception {
+        insertAccount("INT-CORRIENTE", "CORRIENTE", "1000.00", true, 3L);
+
+        InterestAccrualResponseDto completed = awaitCompleted(
+                accrualService.startAccrual(accrual(CORTE, "3.65", 10)).getId());
+
+        assertThat(completed.getTramos()).isZero();
+        assertThat(completed.getCuentas()).isZero();
+        assertThat(completed.getTotal()).isEqualByComparingTo("0");
+    }
+
+    private InterestAccrualResponseDto awaitCompleted(Long id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        InterestAccrualResponseDto accrual = accrualService.getAccrual(id);
+        while (accrual.getEstado() != InterestAccrual.AccrualStatus.COMPLETED && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            accrual = accrualService.getAccrual(id);
+        }
+        assertThat(accrual.getEstado()).isEqualTo(InterestAccrual.AccrualStatus.COMPLETED);
+        return accrual;
+    }
+
+    private static InterestAccrualChunk chunk(Long devengoId, int tramo, String desde, String hasta) {
+        InterestAccrualChunk chunk = new InterestAccrualChunk();
+        chunk.setDevengoId(devengoId);
+        chunk.setTramo(tramo);
+        chunk.setDesde(desde);
+        chunk.setHasta(hasta);
+        chunk.setEstado(InterestAccrualChunk.ChunkStatus.PENDING);
+        return chunk;
+    }
+
+    private static InterestAccrualCreateDto accrual(LocalDate fechaCorte, String tasaAnual, int dias) {
+        InterestAccrualCreateDto dto = new InterestAccrualCreateDto();
+        dto.setFechaCorte(fechaCorte);
+        dto.setTasaAnual(new BigDecimal(tasaAnual));
+        dto.setDias(dias);
+        return dto;
+    }
+}
@@ -0,0 +1,127 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.AccountResponseDto;
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.entity.Movement.MovementType;
+import com.bank.account_service.exception.InvalidCursorException;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.KeysetCursor;
+import com.bank.account_service.utils.PageLimits;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Import({AccountServiceImpl.class, MovementServiceImpl.class, PageLimits.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, VelocityRuleServiceImpl.class, RunningBalanceRepairServiceImpl.class})
+@TestPropertySource(properties = {
+        "pagination.default-page-size=4",
+        "pagination.max-page-size=10",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class KeysetPaginationIntegrationTest extends LedgerIntegrationTestSupport {
+
+    private static final String NUMERO_CUENTA = "400000";
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 25; i++) {
+            insertAccount(String.valueOf(400000 + i), "AHORRO", "0.00", i % 2 == 0, 1L);
+        }
+        for (int i = 0; i < 30; i++) {
+            // Pairs of movements share a timestamp so the id has to break ties
+            insertMovement(NUMERO_CUENTA, BASE.plusMinutes(i / 2), MovementType.CREDITO, "1.00", "1.00");
+        }
+    }
+
+    @Test
+    void whenWalkingAccountPages_thenEveryAccountIsReturnedOnceInOrder() {
+        List<String> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDto<AccountResponseDto> page = accountService.getAccountsPage(null, cursor, 10);
+            page.getItems().forEach(account -> walked.add(account.getNumeroCuenta()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).hasSize(25).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void whenPagingAccountsByStatus_thenOnlyMatchingAccounts() {
+        CursorPageDto<AccountResponseDto> first = accountService.getAccountsPage(false, null, null);
+        CursorPageDto<AccountResponseDto> second = accountService.getAccountsPage(false, first.getNextCursor(), null);
+
+        // Default page size applies when no limit is given
+        assertThat(first.getItems()).hasSize(4).allMatch(account -> !account.getEstado());
+        assertThat(second.getItems()).extracting(AccountResponseDto::getNumeroCuenta)
+                .containsExactly("400009", "400011", "400013", "400015");
+    }
+
+    @Test
+    void whenLimitExceedsMaximum_thenPageIsCapped() {
+        assertThat(accountService.getAccountsPage(null, null, 1000).getItems()).hasSize(10);
+    }
+
+    @Test
+    void whenWalkingMovementPages_thenTiesOnFechaAreOrderedById() {
+        List<MovementResponseDto> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDto<MovementResponseDto> page = movementService.getMovementsPageByAccountId(NUMERO_CUENTA,
+                    cursor, 7);
+            walked.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).hasSize(30);
+        assertThat(walked).extracting(MovementResponseDto::getId).isSorted().doesNotHaveDuplicates();
+        assertThat(walked).extracting(MovementResponseDto::getFecha).isSorted();
+    }
+
+    @Test
+    void whenFetchingDeepPage_thenOneBoundedStatementLikeTheFirstPage() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String deepCursor = KeysetCursor.encode(BASE.plusMinutes(13), Long.MAX_VALUE - 1);
+        statistics.clear();
+
+        CursorPageDto<MovementResponseDto> page = movementService.getMovementsPageByAccountId(NUMERO_CUENTA,
+                deepCursor, 5);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(2);
+    }
+
+    @Test
+    void whenCursorIsMalformed_thenInvalidCursor() {
+        assertThatThrownBy(() -> accountService.getAccountsPage(null, "%%%", 5))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> movementService.getMovementsPageByAccountId(NUMERO_CUENTA,
+                KeysetCursor.encode("yesterday", 1), 5))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+}
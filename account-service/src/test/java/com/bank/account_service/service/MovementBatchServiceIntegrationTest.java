@@ -0,0 +1,169 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementBatchItemResultDto.ItemStatus;
+import com.bank.account_service.dto.MovementBatchItemResultDto;
+import com.bank.account_service.dto.MovementBatchResultDto;
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.BatchTooLargeException;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({MovementBatchServiceImpl.class, AccountPostingApplier.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, RunningBalanceRepairServiceImpl.class})
+@TestPropertySource(properties = {
+        "movements.batch.max-items=200",
+        "movements.batch.transaction-size=50",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class MovementBatchServiceIntegrationTest extends LedgerIntegrationTestSupport {
+
+    @Autowired
+    private MovementBatchService movementBatchService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        insertAccount("100001", "100.00");
+        insertAccount("100002", "0.00");
+        insertAccount("100003", "AHORRO", "500.00", false, 1L);
+    }
+
+    @Test
+    void whenBatchMixesAccounts_thenBalanceRulesApplyInOrderPerAccount() {
+        List<MovementCreateDto> batch = List.of(
+                movement("100001", Movement.MovementType.DEBITO, "60.00"),
+                movement("100002", Movement.MovementType.CREDITO, "10.00"),
+                movement("100001", Movement.MovementType.DEBITO, "60.00"),
+                movement("100001", Movement.MovementType.CREDITO, "25.00"),
+                movement("100001", Movement.MovementType.DEBITO, "60.00"),
+                movement("100003", Movement.MovementType.CREDITO, "1.00"),
+                movement("999999", Movement.MovementType.CREDITO, "1.00"),
+                movement("100002", Movement.MovementType.CREDITO, "-5.00"));
+
+        MovementBatchResultDto result = movementBatchService.createMovements(batch);
+
+        assertThat(result.getReceived()).isEqualTo(8);
+        assertThat(result.getAccepted()).isEqualTo(4);
+        assertThat(result.getRejected()).isEqualTo(4);
+        assertThat(result.getItems()).extracting(MovementBatchItemResultDto::getStatus).containsExactly(
+                ItemStatus.ACCEPTED, ItemStatus.ACCEPTED, ItemStatus.REJECTED, ItemStatus.ACCEPTED,
+                ItemStatus.ACCEPTED, ItemStatus.REJECTED, ItemStatus.REJECTED, ItemStatus.REJECTED);
+        assertThat(result.getItems().get(2).getError()).isEqualTo("Insufficient funds");
+        assertThat(result.getItems().get(4).getSaldo()).isEqualByComparingTo("5.00");
+        assertThat(result.getItems().get(5).getError()).contains("inactive");
+        assertThat(result.getItems().get(6).getError()).contains("999999");
+        assertThat(result.getItems().get(7).getError()).contains("positive");
+
+        assertThat(saldoActual("100001")).isEqualByComparingTo("5.00");
+        assertThat(saldoActual("100002")).isEqualByComparingTo("10.00");
+        assertThat(saldoActual("100003")).isEqualByComparingTo("500.00");
+        assertThat(jdbcTemplate.queryForList("SELECT saldo FROM movimientos WHERE numero_cuenta = '100001' " +
+                "ORDER BY id", BigDecimal.class))
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("40.00"), new BigDecimal("65.00"), new BigDecimal("5.00"));
+    }
+
+    @Test
+    void whenBatchIsLarge_thenMovementsAreInsertedWithJdbcBatching() {
+        List<MovementCreateDto> batch = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            batch.add(movement(i % 2 == 0 ? "100001" : "100002", Movement.MovementType.CREDITO, "1.00"));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MovementBatchResultDto result = movementBatchService.createMovements(batch);
+
+        assertThat(result.getAccepted()).isEqualTo(150);
+        assertThat(result.getMovementsPerSecond()).isPositive();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(150);
+        // One prepared INSERT per JDBC batch instead of one per movement
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(15);
+        assertThat(saldoActual("100001")).isEqualByComparingTo("175.00");
+        assertThat(saldoActual("100002")).isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    void whenBatchExceedsLimit_thenThrowBatchTooLarge() {
+        List<MovementCreateDto> batch = Collections.nCopies(201,
+                movement("100001", Movement.MovementType.CREDITO, "1.00"));
+
+        assertThatThrownBy(() -> movementBatchService.createMovements(batch))
+                .isInstanceOf(BatchTooLargeException.class)
+                .hasMessageContaining("200");
+    }
+
+    @Test
+    void whenBatchIsStreamed_thenEachTransactionCommitsBeforeTheNextItemsAreRead() {
+        List<Integer> committedWhenRead = new ArrayList<>();
+        Iterator<MovementCreateDto> stream = new Iterator<>() {
+            private int read;
+
+            @Override
+            public boolean hasNext() {
+                return read < 120;
+            }
+
+            @Override
+            public MovementCreateDto next() {
+                if (read++ % 50 == 0) {
+                    committedWhenRead.add(movementCount("100002"));
+                }
+                return movement("100002", Movement.MovementType.CREDITO, "1.00");
+            }
+        };
+
+        MovementBatchResultDto result = movementBatchService.createMovementsFromStream(stream);
+
+        assertThat(result.getAccepted()).isEqualTo(120);
+        assertThat(result.getItems()).extracting(MovementBatchItemResultDto::getIndex)
+                .containsExactlyElementsOf(IntStream.range(0, 120).boxed().toList());
+        // Items 0, 50 and 100 are read after 0, 50 and 100 movements were committed
+        assertThat(committedWhenRead).containsExactly(0, 50, 100);
+        assertThat(saldoActual("100002")).isEqualByComparingTo("120.00");
+    }
+
+    @Test
+    void whenStreamExceedsLimit_thenExtraItemsAreRejectedWithoutPosting() {
+        List<MovementCreateDto> batch = Collections.nCopies(205,
+                movement("100002", Movement.MovementType.CREDITO, "1.00"));
+
+        MovementBatchResultDto result = movementBatchService.createMovementsFromStream(batch.iterator());
+
+        assertThat(result.getReceived()).isEqualTo(205);
+        assertThat(result.getAccepted()).isEqualTo(200);
+        assertThat(result.getItems().get(204).getError()).contains("limit of 200");
+        assertThat(saldoActual("100002")).isEqualByComparingTo("200.00");
+    }
+
+    private static MovementCreateDto movement(String cuentaId, Movement.MovementType tipo, String valor) {
+        MovementCreateDto dto = new MovementCreateDto();
+        dto.setCuentaId(cuentaId);
+        dto.setTipoMovimiento(tipo);
+        dto.setValor(new BigDecimal(valor));
+        return dto;
+    }
+}
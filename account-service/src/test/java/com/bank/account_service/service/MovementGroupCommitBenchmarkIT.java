@@ -0,0 +1,138 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and p99 latency of concurrent single postings, one transaction per request versus
+ * group commit.
+ * <p>
+ * Run with {@code mvn verify}. H2 in memory has no commit fsync, which is what group commit
+ * amortises on PostgreSQL, so point the test at a real database before reading much into the
+ * gap. Thread count can be overridden with {@code -Dbenchmark.group-commit.threads=64}.
+ */
+@Import({MovementServiceImpl.class, AccountPostingApplier.class, PageLimits.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, VelocityRuleServiceImpl.class, RunningBalanceRepairServiceImpl.class})
+class MovementGroupCommitBenchmarkIT extends LedgerIntegrationTestSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(MovementGroupCommitBenchmarkIT.class);
+
+    private static final int ACCOUNTS = 8;
+    private static final int POSTINGS_PER_THREAD = 250;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private AccountPostingApplier postingApplier;
+
+    @Autowired
+    private VelocityRuleService velocityRules;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void groupCommitAgainstOneTransactionPerPosting() throws Exception {
+        int threads = Integer.getInteger("benchmark.group-commit.threads", 32);
+        for (int a = 0; a < ACCOUNTS; a++) {
+            insertAccount("GCB-" + a, "1000000.00");
+        }
+
+        Result perRequest = run("per-request", threads, movementService::createMovement);
+
+        MovementGroupCommitServiceImpl groupCommit = new MovementGroupCommitServiceImpl(movementService,
+                postingApplier, velocityRules, transactionTemplate, new SimpleMeterRegistry(), true, 200,
+                Duration.ofMillis(1));
+        groupCommit.start();
+        Result grouped;
+        try {
+            grouped = run("group-commit", threads, groupCommit::createMovement);
+        } finally {
+            groupCommit.stop();
+        }
+
+        log.info("group commit vs per-request: throughput x{}, p99 {}us vs {}us",
+                String.format("%.2f", grouped.postingsPerSecond() / perRequest.postingsPerSecond()),
+                grouped.p99Nanos() / 1_000, perRequest.p99Nanos() / 1_000);
+        int total = 2 * threads * POSTINGS_PER_THREAD;
+        int stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movimientos", Integer.class);
+        assertThat(stored).isEqualTo(total);
+        BigDecimal balances = jdbcTemplate.queryForObject("SELECT SUM(saldo_actual) FROM cuentas", BigDecimal.class);
+        assertThat(balances).isEqualByComparingTo(new BigDecimal(ACCOUNTS * 1_000_000 + total));
+    }
+
+    private Result run(String mode, int threads, Function<MovementCreateDto, ?> post) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                long[] samples = new long[POSTINGS_PER_THREAD];
+                for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                    MovementCreateDto dto = new MovementCreateDto();
+                    dto.setCuentaId("GCB-" + ((thread + i) % ACCOUNTS));
+                    dto.setTipoMovimiento(Movement.MovementType.CREDITO);
+                    dto.setValor(BigDecimal.ONE);
+                    dto.setDescripcion("benchmark");
+                    long begin = System.nanoTime();
+                    post.apply(dto);
+                    samples[i] = System.nanoTime() - begin;
+                }
+                return samples;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        long[] samples = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] thread = future.get(10, TimeUnit.MINUTES);
+            long[] merged = Arrays.copyOf(samples, samples.length + thread.length);
+            System.arraycopy(thread, 0, merged, samples.length, thread.length);
+            samples = merged;
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+
+        Arrays.sort(samples);
+        Result result = new Result(samples.length * 1_000_000_000.0 / elapsed, percentile(samples, 99));
+        log.info("{}: {} threads, {} postings/s, p50={}us p99={}us", mode, threads,
+                String.format("%.0f", result.postingsPerSecond()), percentile(samples, 50) / 1_000,
+                result.p99Nanos() / 1_000);
+        return result;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private record Result(double postingsPerSecond, long p99Nanos) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Import({MovementServiceImpl.class, AccountPostingApplier.class, PageLimits.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, VelocityRuleServiceImpl.class, RunningBalanceRepairServiceImpl.class})
+class MovementGroupCommitIntegrationTest extends LedgerIntegrationTestSupport {
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private AccountPostingApplier postingApplier;
+
+    @Autowired
+    private VelocityRuleService velocityRules;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MovementGroupCommitServiceImpl groupCommit;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        groupCommit = new MovementGroupCommitServiceImpl(movementService, postingApplier, velocityRules,
+                transactionTemplate, meterRegistry, true, 50, Duration.ofMillis(5));
+        groupCommit.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        groupCommit.stop();
+    }
+
+    @Test
+    void whenPostingsArriveTogether_thenTheyShareCommitsAndEachCallerGetsItsOwnBalance() throws Exception {
+        insertAccount("GC-1", "100.00");
+        insertAccount("GC-2", "100.00");
+        int threads = 20;
+        int perThread = 10;
+
+        List<MovementResponseDto> responses = postConcurrently(threads, perThread,
+                (thread, i) -> movement(thread % 2 == 0 ? "GC-1" : "GC-2", Movement.MovementType.CREDITO, "1.00"));
+
+        assertThat(responses).hasSize(threads * perThread);
+        assertThat(responses).extracting(MovementResponseDto::getId).doesNotHaveDuplicates();
+        // Every caller saw its own running balance
+        assertThat(responses).filteredOn(r -> r.getCuentaId().equals("GC-1"))
+                .extracting(r -> r.getSaldo().intValue())
+                .containsExactlyInAnyOrderElementsOf(range(101, 200));
+        assertThat(saldoActual("GC-1")).isEqualByComparingTo("200.00");
+        assertThat(saldoActual("GC-2")).isEqualByComparingTo("200.00");
+        assertThat(movementCount("GC-1")).isEqualTo(100);
+        long commits = meterRegistry.get("movements.group-commit.size").summary().count();
+        assertThat(commits).isLessThan(threads * perThread);
+    }
+
+    @Test
+    void whenOnePostingIsRejected_thenOnlyItsCallerFails() throws Exception {
+        insertAccount("GC-1", "10.00");
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        CountDownLatch start = new CountDownLatch(1);
+        Future<MovementResponseDto> overdraft = executor.submit(() -> {
+            start.await();
+            return groupCommit.createMovement(movement("GC-1", Movement.MovementType.DEBITO, "500.00"));
+        });
+        Future<MovementResponseDto> missing = executor.submit(() -> {
+            start.await();
+            return groupCommit.createMovement(movement("NO-SUCH", Movement.MovementType.CREDITO, "1.00"));
+        });
+        Future<MovementResponseDto> credit = executor.submit(() -> {
+            start.await();
+            return groupCommit.createMovement(movement("GC-1", Movement.MovementType.CREDITO, "5.00"));
+        });
+        start.countDown();
+
+        assertThat(credit.get(1, TimeUnit.MINUTES).getValor()).isEqualByComparingTo("5.00");
+        assertThatThrownBy(() -> overdraft.get(1, TimeUnit.MINUTES))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(InsufficientFundsException.class);
+        assertThatThrownBy(() -> missing.get(1, TimeUnit.MINUTES))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(AccountNotFoundException.class);
+        executor.shutdown();
+        assertThat(saldoActual("GC-1")).isEqualByComparingTo("15.00");
+        assertThat(movementCount("GC-1")).isEqualTo(1);
+    }
+
+    @Test
+    void whenAmountIsZero_thenRejectedWithoutQueueing() {
+        insertAccount("GC-1", "10.00");
+
+        assertThatThrownBy(() -> groupCommit.createMovement(movement("GC-1", Movement.MovementType.CREDITO, "0")))
+                .hasMessage("Movement amount cannot be zero");
+        assertThat(meterRegistry.get("movements.group-commit.size").summary().count()).isZero();
+    }
+
+    private List<MovementResponseDto> postConcurrently(int threads, int perThread, PostingFactory factory)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<MovementResponseDto>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<MovementResponseDto> posted = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    posted.add(groupCommit.createMovement(factory.create(thread, i)));
+                }
+                return posted;
+            }));
+        }
+        start.countDown();
+        List<MovementResponseDto> responses = new ArrayList<>();
+        for (Future<List<MovementResponseDto>> future : futures) {
+            responses.addAll(future.get(1, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+        return responses;
+    }
+
+    private static List<Integer> range(int from, int to) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    private static MovementCreateDto movement(String numeroCuenta, Movement.MovementType tipo, String valor) {
+        MovementCreateDto dto = new MovementCreateDto();
+        dto.setCuentaId(numeroCuenta);
+        dto.setTipoMovimiento(tipo);
+        dto.setValor(new BigDecimal(valor));
+        dto.setDescripcion("group commit");
+        return dto;
+    }
+
+    @FunctionalInterface
+    private interface PostingFactory {
+        MovementCreateDto create(int thread, int index);
+    }
+}
@@ -0,0 +1,193 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.IdempotencyKeyInProgressException;
+import com.bank.account_service.exception.IdempotencyKeyReusedException;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.repository.MovementIdempotencyKeyRepository;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({MovementServiceImpl.class, PageLimits.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, VelocityRuleServiceImpl.class, RunningBalanceRepairServiceImpl.class})
+class MovementIdempotencyIntegrationTest extends LedgerIntegrationTestSupport {
+
+    private static final String NUMERO_CUENTA = "IDEM-1";
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private MovementIdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MovementIdempotencyService movementIdempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        // Fresh in-memory index per test; the table is cleared after each test
+        movementIdempotencyService = newService(Duration.ofHours(24));
+        insertAccount(NUMERO_CUENTA, "100.00");
+    }
+
+    @Test
+    void whenKeyIsReplayed_thenOriginalResponseIsReturnedAndBalanceChangesOnce() {
+        MovementResponseDto first = movementIdempotencyService.createMovement("key-1", debit("30.00"));
+        MovementResponseDto replay = movementIdempotencyService.createMovement("key-1", debit("30.00"));
+
+        assertThat(replay).isEqualTo(first);
+        assertThat(saldoActual(NUMERO_CUENTA)).isEqualByComparingTo("70.00");
+        assertThat(movementCount(NUMERO_CUENTA)).isEqualTo(1);
+    }
+
+    @Test
+    void whenKeyIsReplayedOnAnotherNode_thenStoredResponseIsReturned() {
+        MovementResponseDto first = movementIdempotencyService.createMovement("key-1", debit("30.00"));
+
+        // A fresh instance has an empty in-memory index, like another node or a restart
+        MovementResponseDto replay = newService(Duration.ofHours(24)).createMovement("key-1", debit("30.00"));
+
+        assertThat(replay.getId()).isEqualTo(first.getId());
+        assertThat(replay.getSaldo()).isEqualByComparingTo(first.getSaldo());
+        assertThat(replay.getCreatedAt()).isEqualTo(first.getCreatedAt());
+        assertThat(saldoActual(NUMERO_CUENTA)).isEqualByComparingTo("70.00");
+        assertThat(movementCount(NUMERO_CUENTA)).isEqualTo(1);
+    }
+
+    @Test
+    void whenKeyIsReusedForAnotherMovement_thenThrowIdempotencyKeyReused() {
+        movementIdempotencyService.createMovement("key-1", debit("30.00"));
+
+        assertThatThrownBy(() -> movementIdempotencyService.createMovement("key-1", debit("40.00")))
+                .isInstanceOf(IdempotencyKeyReusedException.class)
+                .hasMessageContaining("key-1");
+        assertThatThrownBy(() -> newService(Duration.ofHours(24)).createMovement("key-1", debit("40.00")))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(saldoActual(NUMERO_CUENTA)).isEqualByComparingTo("70.00");
+    }
+
+    @Test
+    void whenPostingFails_thenKeyIsReleasedForTheRetry() {
+        assertThatThrownBy(() -> movementIdempotencyService.createMovement("key-1", debit("150.00")))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThat(idempotencyKeyRepository.count()).isZero();
+
+        jdbcTemplate.update("UPDATE cuentas SET saldo_actual = 200.00 WHERE numero_cuenta = ?", NUMERO_CUENTA);
+        MovementResponseDto retry = movementIdempotencyService.createMovement("key-1", debit("150.00"));
+
+        assertThat(retry.getSaldo()).isEqualByComparingTo("50.00");
+        assertThat(movementCount(NUMERO_CUENTA)).isEqualTo(1);
+    }
+
+    @Test
+    void whenKeyIsOutsideTheWindow_thenMovementIsPostedAgain() {
+        MovementIdempotencyService expiring = newService(Duration.ZERO);
+
+        MovementResponseDto first = expiring.createMovement("key-1", debit("30.00"));
+        MovementResponseDto second = newService(Duration.ZERO).createMovement("key-1", debit("30.00"));
+
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(saldoActual(NUMERO_CUENTA)).isEqualByComparingTo("40.00");
+        assertThat(idempotencyKeyRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenStoredKeyIsReplayed_thenItIsCachedOnlyForTheRestOfItsWindow() throws InterruptedException {
+        movementIdempotencyService.createMovement("key-1", debit("30.00"));
+        // The key was first used almost a full window ago
+        jdbcTemplate.update("UPDATE movimiento_claves_idempotencia SET created_at = ? WHERE idempotency_key = ?",
+                LocalDateTime.now().minusHours(24).plusSeconds(1), "key-1");
+
+        MovementIdempotencyService node = newService(Duration.ofHours(24));
+        node.createMovement("key-1", debit("30.00"));
+        assertThat(movementCount(NUMERO_CUENTA)).isEqualTo(1);
+
+        Thread.sleep(1500);
+        node.createMovement("key-1", debit("30.00"));
+
+        assertThat(movementCount(NUMERO_CUENTA)).isEqualTo(2);
+        assertThat(saldoActual(NUMERO_CUENTA)).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void whenKeyIsHeldByAnUnfinishedPosting_thenThrowIdempotencyKeyInProgress() {
+        jdbcTemplate.update("INSERT INTO movimiento_claves_idempotencia (idempotency_key, request_hash, created_at) "
+                + "VALUES (?, ?, ?)", "key-1", "pending", LocalDateTime.now());
+
+        assertThatThrownBy(() -> movementIdempotencyService.createMovement("key-1", debit("30.00")))
+                .isInstanceOf(IdempotencyKeyInProgressException.class)
+                .hasMessageContaining("key-1");
+        assertThat(movementCount(NUMERO_CUENTA)).isZero();
+    }
+
+    @Test
+    void whenSameKeyIsPostedConcurrently_thenOnlyOneMovementIsStored() throws Exception {
+        int threads = 6;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<MovementResponseDto>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            // Separate instances so every thread misses the in-memory index and races on the table
+            MovementIdempotencyService node = newService(Duration.ofHours(24));
+            results.add(executor.submit(() -> {
+                start.await();
+                return node.createMovement("key-1", debit("30.00"));
+            }));
+        }
+        start.countDown();
+        List<Long> ids = new ArrayList<>();
+        for (Future<MovementResponseDto> result : results) {
+            ids.add(result.get(1, TimeUnit.MINUTES).getId());
+        }
+        executor.shutdown();
+
+        assertThat(ids).containsOnly(ids.get(0));
+        assertThat(saldoActual(NUMERO_CUENTA)).isEqualByComparingTo("70.00");
+        assertThat(movementCount(NUMERO_CUENTA)).isEqualTo(1);
+    }
+
+    private MovementIdempotencyService newService(Duration window) {
+        return new MovementIdempotencyServiceImpl(movementService, idempotencyKeyRepository, transactionTemplate,
+                objectMapper, new SimpleMeterRegistry(), window, 100);
+    }
+
+    private static MovementCreateDto debit(String valor) {
+        MovementCreateDto dto = new MovementCreateDto();
+        dto.setCuentaId(NUMERO_CUENTA);
+        dto.setTipoMovimiento(Movement.MovementType.DEBITO);
+        dto.setValor(new BigDecimal(valor));
+        dto.setDescripcion("Retiro");
+        return dto;
+    }
+}
@@ -0,0 +1,109 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.entity.Movement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MovementJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void whenReopened_thenUnappliedMovementsAreReadBackInOrder() throws IOException {
+        Path file = directory.resolve("movements.journal");
+        try (MovementJournal journal = new MovementJournal(file, 4096)) {
+            journal.append(movement(1L, "CREDITO-1", "Deposito"));
+            journal.append(movement(2L, "CREDITO-2", null));
+        }
+
+        try (MovementJournal journal = new MovementJournal(file, 4096)) {
+            List<MovementJournal.Record> records = journal.readUnapplied();
+
+            assertThat(records).extracting(record -> record.movement().getId()).containsExactly(1L, 2L);
+            Movement first = records.get(0).movement();
+            assertThat(first.getNumeroCuenta()).isEqualTo("CREDITO-1");
+            assertThat(first.getTipoMovimiento()).isEqualTo(Movement.MovementType.CREDITO);
+            assertThat(first.getValor()).isEqualByComparingTo("12.50");
+            assertThat(first.getSaldo()).isEqualByComparingTo("112.50");
+            assertThat(first.getFecha()).isEqualTo(LocalDateTime.of(2024, 1, 15, 10, 30));
+            assertThat(first.getDescripcion()).isEqualTo("Deposito");
+            assertThat(records.get(1).movement().getDescripcion()).isNull();
+        }
+    }
+
+    @Test
+    void whenMarkedApplied_thenOnlyLaterMovementsAreReplayed() throws IOException {
+        Path file = directory.resolve("movements.journal");
+        try (MovementJournal journal = new MovementJournal(file, 4096)) {
+            long end = journal.append(movement(1L, "CREDITO-1", null));
+            journal.append(movement(2L, "CREDITO-1", null));
+            journal.markApplied(end);
+        }
+
+        try (MovementJournal journal = new MovementJournal(file, 4096)) {
+            assertThat(journal.readUnapplied()).extracting(record -> record.movement().getId()).containsExactly(2L);
+            journal.append(movement(3L, "CREDITO-1", null));
+            assertThat(journal.readUnapplied()).extracting(record -> record.movement().getId())
+                    .containsExactly(2L, 3L);
+        }
+    }
+
+    @Test
+    void whenFullAndEverythingIsApplied_thenWritingStartsOver() throws IOException {
+        try (MovementJournal journal = new MovementJournal(directory.resolve("movements.journal"), 256)) {
+            for (long id = 1; id <= 20; id++) {
+                journal.markApplied(journal.append(movement(id, "CREDITO-1", null)));
+            }
+            journal.append(movement(21L, "CREDITO-1", null));
+
+            assertThat(journal.readUnapplied()).extracting(record -> record.movement().getId()).containsExactly(21L);
+        }
+    }
+
+    @Test
+    void whenTheLastRecordIsTorn_thenReplayStopsBeforeIt() throws IOException {
+        Path file = directory.resolve("movements.journal");
+        long end;
+        try (MovementJournal journal = new MovementJournal(file, 4096)) {
+            end = journal.append(movement(1L, "CREDITO-1", null));
+            journal.append(movement(2L, "CREDITO-1", null));
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            // Corrupt a payload byte of the second record
+            raw.seek(end + 12);
+            int value = raw.read();
+            raw.seek(end + 12);
+            raw.write(value ^ 0xFF);
+        }
+
+        try (MovementJournal journal = new MovementJournal(file, 4096)) {
+            assertThat(journal.readUnapplied()).extracting(record -> record.movement().getId()).containsExactly(1L);
+            // New appends overwrite the torn record
+            journal.append(movement(3L, "CREDITO-1", null));
+            assertThat(journal.readUnapplied()).extracting(record -> record.movement().getId())
+                    .containsExactly(1L, 3L);
+        }
+    }
+
+    private static Movement movement(Long id, String numeroCuenta, String descripcion) {
+        Movement movement = new Movement();
+        movement.setId(id);
+        movement.setNumeroCuenta(numeroCuenta);
+        movement.setTipoMovimiento(Movement.MovementType.CREDITO);
+        movement.setValor(new BigDecimal("12.50"));
+        movement.setSaldo(new BigDecimal("112.50"));
+        movement.setFecha(LocalDateTime.of(2024, 1, 15, 10, 30));
+        movement.setDescripcion(descripcion);
+        return movement;
+    }
+}
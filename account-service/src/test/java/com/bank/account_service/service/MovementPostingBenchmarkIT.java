@@ -0,0 +1,115 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Posting latency against accounts with a growing movement history.
+ * <p>
+ * Run with {@code mvn verify}; history sizes can be overridden with
+ * {@code -Dbenchmark.history.sizes=10,1000,1000000}.
+ */
+@Import({MovementServiceImpl.class, PageLimits.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, VelocityRuleServiceImpl.class, RunningBalanceRepairServiceImpl.class})
+class MovementPostingBenchmarkIT extends LedgerIntegrationTestSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(MovementPostingBenchmarkIT.class);
+
+    private static final String DEFAULT_SIZES = "10,1000,100000,1000000";
+    private static final int WARMUP_POSTINGS = 100;
+    private static final int MEASURED_POSTINGS = 500;
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Test
+    void postingLatencyIsIndependentOfHistorySize() {
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.history.sizes", DEFAULT_SIZES).split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        Map<Integer, long[]> results = new LinkedHashMap<>();
+        for (int size : sizes) {
+            String numeroCuenta = "BENCH-" + size;
+            seedAccount(numeroCuenta, size);
+            post(numeroCuenta, WARMUP_POSTINGS);
+            long[] samples = post(numeroCuenta, MEASURED_POSTINGS);
+            Arrays.sort(samples);
+            results.put(size, samples);
+            log.info("history={} movements: p50={}us p99={}us", size,
+                    percentile(samples, 50) / 1_000, percentile(samples, 99) / 1_000);
+        }
+
+        long smallestP50 = percentile(results.get(sizes[0]), 50);
+        long largestP50 = percentile(results.get(sizes[sizes.length - 1]), 50);
+        // Generous bound: a history-hydrating path is orders of magnitude slower at 1M rows
+        assertThat(largestP50).isLessThan(Math.max(smallestP50 * 5, smallestP50 + 2_000_000));
+    }
+
+    private long[] post(String numeroCuenta, int count) {
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            MovementCreateDto dto = new MovementCreateDto();
+            dto.setCuentaId(numeroCuenta);
+            dto.setTipoMovimiento(i % 2 == 0 ? Movement.MovementType.CREDITO : Movement.MovementType.DEBITO);
+            dto.setValor(BigDecimal.ONE);
+            dto.setDescripcion("benchmark");
+
+            long start = System.nanoTime();
+            movementService.createMovement(dto);
+            samples[i] = System.nanoTime() - start;
+        }
+        return samples;
+    }
+
+    private void seedAccount(String numeroCuenta, int historySize) {
+        insertAccount(numeroCuenta, "1000.00");
+
+        Timestamp base = Timestamp.valueOf(LocalDateTime.now().minusYears(5));
+        for (int offset = 0; offset < historySize; offset += SEED_BATCH_SIZE) {
+            int from = offset;
+            int batch = Math.min(SEED_BATCH_SIZE, historySize - offset);
+            jdbcTemplate.batchUpdate("INSERT INTO movimientos (id, numero_cuenta, fecha, tipo_movimiento, valor, saldo, " +
+                            "descripcion) VALUES (NEXT VALUE FOR movimientos_id_seq, ?, ?, 'CREDITO', 0.00, " +
+                            "1000.00, 'seed')",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ps.setString(1, numeroCuenta);
+                            ps.setTimestamp(2, new Timestamp(base.getTime() + (from + i) * 1_000L));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch;
+                        }
+                    });
+        }
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,76 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.entity.Movement;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MovementPostingServiceImplTest {
+
+    @Mock
+    private MovementService movementService;
+
+    @Mock
+    private MovementGroupCommitService movementGroupCommitService;
+
+    @Mock
+    private BalanceEngineService balanceEngine;
+
+    private MovementPostingServiceImpl postings;
+
+    private final MovementResponseDto posted = new MovementResponseDto();
+
+    @BeforeEach
+    void setUp() {
+        postings = new MovementPostingServiceImpl(movementService, movementGroupCommitService, balanceEngine,
+                new AccountLaneExecutor(new SimpleMeterRegistry(), false, 1, 1));
+    }
+
+    @Test
+    void whenNothingIsEnabled_thenTheMovementIsPostedDirectly() {
+        MovementCreateDto movement = movement();
+        when(movementService.createMovement(movement)).thenReturn(posted);
+
+        assertThat(postings.postMovement(movement)).isSameAs(posted);
+    }
+
+    @Test
+    void whenGroupCommitIsEnabled_thenTheMovementJoinsAGroup() {
+        MovementCreateDto movement = movement();
+        when(movementGroupCommitService.isEnabled()).thenReturn(true);
+        when(movementGroupCommitService.createMovement(movement)).thenReturn(posted);
+
+        assertThat(postings.postMovement(movement)).isSameAs(posted);
+        verifyNoInteractions(movementService);
+    }
+
+    @Test
+    void whenTheBalanceEngineIsEnabled_thenItTakesTheMovement() {
+        MovementCreateDto movement = movement();
+        when(balanceEngine.isEnabled()).thenReturn(true);
+        when(balanceEngine.createMovement(movement)).thenReturn(posted);
+
+        assertThat(postings.postMovement(movement)).isSameAs(posted);
+        verifyNoInteractions(movementService, movementGroupCommitService);
+    }
+
+    private static MovementCreateDto movement() {
+        MovementCreateDto dto = new MovementCreateDto();
+        dto.setCuentaId("123456");
+        dto.setTipoMovimiento(Movement.MovementType.CREDITO);
+        dto.setValor(new BigDecimal("10.00"));
+        return dto;
+    }
+}
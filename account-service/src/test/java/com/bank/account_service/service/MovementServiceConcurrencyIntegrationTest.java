@@ -0,0 +1,198 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.AccountUpdateDto;
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a single account from many threads and checks that no update is lost, including
+ * when status changes and movement deletions run alongside the postings.
+ */
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({MovementServiceImpl.class, AccountServiceImpl.class, PageLimits.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, VelocityRuleServiceImpl.class, RunningBalanceRepairServiceImpl.class})
+class MovementServiceConcurrencyIntegrationTest extends LedgerIntegrationTestSupport {
+
+    private static final String NUMERO_CUENTA = "STRESS-1";
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("500.00");
+    private static final int THREADS = 8;
+    private static final int POSTINGS_PER_THREAD = 150;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() {
+        insertAccount(NUMERO_CUENTA, "CORRIENTE", SALDO_INICIAL.toPlainString(), true, 1L);
+    }
+
+    @Test
+    void whenConcurrentDebitsAndCredits_thenFinalBalanceMatchesAcceptedMovements() throws Exception {
+        Queue<MovementResponseDto> accepted = new ConcurrentLinkedQueue<>();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                    // Debits outweigh credits so the account keeps running dry
+                    boolean debit = ThreadLocalRandom.current().nextInt(3) > 0;
+                    MovementCreateDto dto = new MovementCreateDto();
+                    dto.setCuentaId(NUMERO_CUENTA);
+                    dto.setTipoMovimiento(debit ? Movement.MovementType.DEBITO : Movement.MovementType.CREDITO);
+                    dto.setValor(BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1, 50)));
+                    try {
+                        accepted.add(movementService.createMovement(dto));
+                    } catch (InsufficientFundsException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        BigDecimal acceptedNet = accepted.stream()
+                .map(m -> m.getTipoMovimiento() == Movement.MovementType.CREDITO ? m.getValor() : m.getValor().negate())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal saldoActual = saldoActual(NUMERO_CUENTA);
+        int storedMovements = movementCount(NUMERO_CUENTA);
+        BigDecimal lowestRunningBalance = jdbcTemplate.queryForObject(
+                "SELECT MIN(saldo) FROM movimientos WHERE numero_cuenta = ?", BigDecimal.class, NUMERO_CUENTA);
+
+        assertThat(accepted.size() + rejected.get()).isEqualTo(THREADS * POSTINGS_PER_THREAD);
+        assertThat(rejected.get()).isPositive();
+        assertThat(storedMovements).isEqualTo(accepted.size());
+        assertThat(saldoActual).isEqualByComparingTo(SALDO_INICIAL.add(acceptedNet));
+        assertThat(lowestRunningBalance).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+        // Each accepted posting is stored exactly once
+        assertThat(accepted).extracting(MovementResponseDto::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void whenStatusUpdatesAndDeletesRunDuringPostings_thenNoPostingIsUndone() throws Exception {
+        postWithStatusUpdatesAndDeletes(new AccountLaneExecutor(new SimpleMeterRegistry(), false, 1, 1));
+    }
+
+    @Test
+    void whenMutationsRunOnAccountLanes_thenNoPostingIsUndone() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AccountLaneExecutor lanes = new AccountLaneExecutor(meterRegistry, true, 4, 1);
+        try {
+            postWithStatusUpdatesAndDeletes(lanes);
+        } finally {
+            lanes.shutdown();
+        }
+
+        lanes.publishHotAccounts();
+        double mutations = meterRegistry.get("accounts.lanes.hot-account.mutations")
+                .tag("account", NUMERO_CUENTA).gauge().value();
+        assertThat(mutations).isGreaterThanOrEqualTo(THREADS * POSTINGS_PER_THREAD);
+    }
+
+    private void postWithStatusUpdatesAndDeletes(AccountLaneExecutor lanes) throws Exception {
+        BlockingQueue<Long> deletable = new LinkedBlockingQueue<>();
+        AtomicBoolean posting = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 2);
+        List<Future<?>> posters = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            posters.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                    MovementCreateDto dto = new MovementCreateDto();
+                    dto.setCuentaId(NUMERO_CUENTA);
+                    dto.setTipoMovimiento(Movement.MovementType.CREDITO);
+                    dto.setValor(BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1, 50)));
+                    MovementResponseDto created = lanes.execute(NUMERO_CUENTA,
+                            () -> movementService.createMovement(dto));
+                    if (i % 3 == 0) {
+                        deletable.add(created.getId());
+                    }
+                }
+                return null;
+            }));
+        }
+        // Status writes that would save a stale saldo_actual if they wrote the whole row
+        Future<?> statusUpdates = executor.submit(() -> {
+            start.await();
+            AccountUpdateDto active = new AccountUpdateDto();
+            active.setEstado(true);
+            while (posting.get()) {
+                lanes.execute(NUMERO_CUENTA, () -> accountService.updateAccountStatus(NUMERO_CUENTA, active));
+            }
+            return null;
+        });
+        Future<?> deletes = executor.submit(() -> {
+            start.await();
+            while (posting.get() || !deletable.isEmpty()) {
+                Long id = deletable.poll(10, TimeUnit.MILLISECONDS);
+                if (id != null) {
+                    lanes.run(NUMERO_CUENTA, () -> movementService.deleteMovement(id));
+                }
+            }
+            return null;
+        });
+        start.countDown();
+        for (Future<?> poster : posters) {
+            poster.get(2, TimeUnit.MINUTES);
+        }
+        posting.set(false);
+        statusUpdates.get(1, TimeUnit.MINUTES);
+        deletes.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        BigDecimal storedNet = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(CASE WHEN tipo_movimiento = " +
+                "'CREDITO' THEN valor ELSE -valor END), 0) FROM movimientos WHERE numero_cuenta = ?",
+                BigDecimal.class, NUMERO_CUENTA);
+
+        assertThat(movementCount(NUMERO_CUENTA)).isEqualTo(THREADS * POSTINGS_PER_THREAD
+                - THREADS * ((POSTINGS_PER_THREAD + 2) / 3));
+        assertThat(saldoActual(NUMERO_CUENTA)).isEqualByComparingTo(SALDO_INICIAL.add(storedNet));
+    }
+}
@@ -4,6 +4,10 @@ import com.bank.account_service.dto.MovementCreateDto;
 import com.bank.account_service.dto.MovementResponseDto;
 import com.bank.account_service.entity.Account;
 import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.DailyDebitLimitExceededException;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.exception.MovementNotFoundException;
+import com.bank.account_service.repository.AccountBalanceView;
 import com.bank.account_service.repository.AccountRepository;
 import com.bank.account_service.repository.MovementRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,6 +37,18 @@ class MovementServiceImplTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private AccountSubLedgerService subLedger;
+
+    @Mock
+    private VelocityRuleService velocityRules;
+
+    @Mock
+    private DailyDebitLimitService dailyDebitLimits;
+
+    @Mock
+    private RunningBalanceRepairService runningBalanceRepair;
+
     @InjectMocks
     private MovementServiceImpl movementService;
 
@@ -66,8 +82,9 @@ class MovementServiceImplTest {
     @Test
     void whenCreateCreditMovement_thenReturnMovementResponseDto() {
         // Given
-        when(accountRepository.findByNumeroCuenta("123456")).thenReturn(Optional.of(account));
-        when(movementRepository.save(any(Movement.class))).thenReturn(movement);
+        when(accountRepository.credit("123456", BigDecimal.valueOf(100.00)))
+                .thenReturn(Optional.of(BigDecimal.valueOf(1100.00)));
+        when(movementRepository.saveAndFlush(any(Movement.class))).thenReturn(movement);
 
         // When
         MovementResponseDto result = movementService.createMovement(movementCreateDto);
@@ -78,9 +95,8 @@ class MovementServiceImplTest {
         assertThat(result.getValor()).isEqualByComparingTo(BigDecimal.valueOf(100.00));
         assertThat(result.getCuentaId()).isEqualTo("123456");
 
-        verify(accountRepository).findByNumeroCuenta("123456");
-        verify(movementRepository).save(any(Movement.class));
-        verify(accountRepository).save(any(Account.class));
+        verify(accountRepository).credit("123456", BigDecimal.valueOf(100.00));
+        verify(movementRepository).saveAndFlush(any(Movement.class));
     }
 
     @Test
@@ -96,8 +112,9 @@ class MovementServiceImplTest {
         debitMovement.setValor(BigDecimal.valueOf(50.00));
         debitMovement.setSaldo(BigDecimal.valueOf(950.00));
 
-        when(accountRepository.findByNumeroCuenta("123456")).thenReturn(Optional.of(account));
-        when(movementRepository.save(any(Movement.class))).thenReturn(debitMovement);
+        when(accountRepository.debit("123456", BigDecimal.valueOf(50.00)))
+                .thenReturn(Optional.of(BigDecimal.valueOf(950.00)));
+        when(movementRepository.saveAndFlush(any(Movement.class))).thenReturn(debitMovement);
 
         // When
         MovementResponseDto result = movementService.createMovement(movementCreateDto);
@@ -107,9 +124,8 @@ class MovementServiceImplTest {
         assertThat(result.getTipoMovimiento()).isEqualTo(Movement.MovementType.DEBITO);
         assertThat(result.getValor()).isEqualByComparingTo(BigDecimal.valueOf(50.00));
 
-        verify(accountRepository).findByNumeroCuenta("123456");
-        verify(movementRepository).save(any(Movement.class));
-        verify(accountRepository).save(any(Account.class));
+        verify(accountRepository).debit("123456", BigDecimal.valueOf(50.00));
+        verify(movementRepository).saveAndFlush(any(Movement.class));
     }
 
     @Test
@@ -118,22 +134,37 @@ class MovementServiceImplTest {
         movementCreateDto.setTipoMovimiento(Movement.MovementType.DEBITO);
         movementCreateDto.setValor(BigDecimal.valueOf(2000.00));
 
-        when(accountRepository.findByNumeroCuenta("123456")).thenReturn(Optional.of(account));
+        when(accountRepository.debit("123456", BigDecimal.valueOf(2000.00))).thenReturn(Optional.empty());
+        when(accountRepository.findBalanceByNumeroCuenta("123456")).thenReturn(Optional.of(balanceOf(account)));
 
         // When & Then
         assertThatThrownBy(() -> movementService.createMovement(movementCreateDto))
-                .isInstanceOf(RuntimeException.class)
+                .isInstanceOf(InsufficientFundsException.class)
                 .hasMessageContaining("funds");
 
-        verify(accountRepository).findByNumeroCuenta("123456");
-        verify(movementRepository, never()).save(any(Movement.class));
-        verify(accountRepository, never()).save(any(Account.class));
+        verify(accountRepository).findBalanceByNumeroCuenta("123456");
+        verify(movementRepository, never()).saveAndFlush(any(Movement.class));
+    }
+
+    @Test
+    void whenCreateDebitOverTheDailyLimit_thenBalanceIsNotTouched() {
+        // Given
+        movementCreateDto.setTipoMovimiento(Movement.MovementType.DEBITO);
+        doThrow(new DailyDebitLimitExceededException("Daily debit limit of 500.00 exceeded for account 123456"))
+                .when(dailyDebitLimits).reserve("123456", BigDecimal.valueOf(100.00));
+
+        // When & Then
+        assertThatThrownBy(() -> movementService.createMovement(movementCreateDto))
+                .isInstanceOf(DailyDebitLimitExceededException.class);
+        verify(accountRepository, never()).debit(any(), any());
+        verify(movementRepository, never()).saveAndFlush(any(Movement.class));
     }
 
     @Test
     void whenCreateMovementWithNonExistentAccount_thenThrowException() {
         // Given
-        when(accountRepository.findByNumeroCuenta("999L")).thenReturn(Optional.empty());
+        when(accountRepository.credit("999L", BigDecimal.valueOf(100.00))).thenReturn(Optional.empty());
+        when(accountRepository.findBalanceByNumeroCuenta("999L")).thenReturn(Optional.empty());
         movementCreateDto.setCuentaId("999L");
 
         // When & Then
@@ -141,8 +172,8 @@ class MovementServiceImplTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("999");
 
-        verify(accountRepository).findByNumeroCuenta("999L");
-        verify(movementRepository, never()).save(any(Movement.class));
+        verify(accountRepository).findBalanceByNumeroCuenta("999L");
+        verify(movementRepository, never()).saveAndFlush(any(Movement.class));
     }
 
     @Test
@@ -178,14 +209,14 @@ class MovementServiceImplTest {
     void whenCreateMovementWithZeroAmount_thenThrowException() {
         // Given
         movementCreateDto.setValor(BigDecimal.ZERO);
-        when(accountRepository.findByNumeroCuenta("123456")).thenReturn(Optional.of(account));
 
         // When & Then
         assertThatThrownBy(() -> movementService.createMovement(movementCreateDto))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("amount");
 
-        verify(movementRepository, never()).save(any(Movement.class));
+        verify(movementRepository, never()).saveAndFlush(any(Movement.class));
+        verify(accountRepository, never()).credit(any(), any());
     }
 
     @Test
@@ -205,14 +236,15 @@ class MovementServiceImplTest {
         savedMovement.setTipoMovimiento(Movement.MovementType.CREDITO);
         savedMovement.setSaldo(initialBalance.add(creditAmount));
 
-        when(accountRepository.findByNumeroCuenta("123456")).thenReturn(Optional.of(account));
-        when(movementRepository.save(any(Movement.class))).thenReturn(savedMovement);
+        when(accountRepository.credit("123456", creditAmount))
+                .thenReturn(Optional.of(initialBalance.add(creditAmount)));
+        when(movementRepository.saveAndFlush(any(Movement.class))).thenReturn(savedMovement);
 
         // When
         MovementResponseDto result = movementService.createMovement(movementCreateDto);
 
         // Then
-        verify(movementRepository).save(any(Movement.class));
+        verify(movementRepository).saveAndFlush(any(Movement.class));
         assertThat(result).isNotNull();
         assertThat(result.getValor()).isEqualByComparingTo(creditAmount);
         assertThat(result.getSaldo()).isEqualByComparingTo(initialBalance.add(creditAmount));
@@ -236,14 +268,15 @@ class MovementServiceImplTest {
         savedMovement.setTipoMovimiento(Movement.MovementType.DEBITO);
         savedMovement.setSaldo(initialBalance.subtract(debitAmount.abs()));
 
-        when(accountRepository.findByNumeroCuenta("123456")).thenReturn(Optional.of(account));
-        when(movementRepository.save(any(Movement.class))).thenReturn(savedMovement);
+        when(accountRepository.debit("123456", debitAmount.abs()))
+                .thenReturn(Optional.of(initialBalance.subtract(debitAmount.abs())));
+        when(movementRepository.saveAndFlush(any(Movement.class))).thenReturn(savedMovement);
 
         // When
         MovementResponseDto result = movementService.createMovement(movementCreateDto);
 
         // Then
-        verify(movementRepository).save(any(Movement.class));
+        verify(movementRepository).saveAndFlush(any(Movement.class));
         assertThat(result).isNotNull();
         assertThat(result.getValor()).isEqualByComparingTo(debitAmount);
         assertThat(result.getSaldo()).isEqualByComparingTo(initialBalance.subtract(debitAmount.abs()));
@@ -255,13 +288,86 @@ class MovementServiceImplTest {
     void whenCreateMovementWithInactiveAccount_thenThrowException() {
         // Given
         account.setEstado(false);
-        when(accountRepository.findByNumeroCuenta("123456")).thenReturn(Optional.of(account));
+        when(accountRepository.credit("123456", BigDecimal.valueOf(100.00))).thenReturn(Optional.empty());
+        when(accountRepository.findBalanceByNumeroCuenta("123456")).thenReturn(Optional.of(balanceOf(account)));
 
         // When & Then
         assertThatThrownBy(() -> movementService.createMovement(movementCreateDto))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("active");
 
-        verify(movementRepository, never()).save(any(Movement.class));
+        verify(movementRepository, never()).saveAndFlush(any(Movement.class));
+    }
+
+    @Test
+    void whenCreateMovement_thenBalanceIsChangedInOneStatementWithoutLoadingHistory() {
+        // Given
+        when(accountRepository.credit("123456", BigDecimal.valueOf(100.00)))
+                .thenReturn(Optional.of(BigDecimal.valueOf(1100.00)));
+        when(movementRepository.saveAndFlush(any(Movement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        MovementResponseDto result = movementService.createMovement(movementCreateDto);
+
+        // Then
+        assertThat(result.getSaldo()).isEqualByComparingTo(BigDecimal.valueOf(1100.00));
+        verify(accountRepository, never()).findBalanceByNumeroCuenta(any());
+        verify(accountRepository, never()).findByNumeroCuenta(any());
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    void whenDeleteCreditMovement_thenBalanceIsReducedInPlace() {
+        // Given
+        when(movementRepository.findById(1L)).thenReturn(Optional.of(movement));
+        when(movementRepository.deleteMovementById(1L)).thenReturn(1);
+        when(accountRepository.adjust("123456", BigDecimal.valueOf(100.00).negate()))
+                .thenReturn(Optional.of(BigDecimal.valueOf(900.00)));
+
+        // When
+        movementService.deleteMovement(1L);
+
+        // Then
+        verify(accountRepository).adjust("123456", BigDecimal.valueOf(100.00).negate());
+        verify(accountRepository, never()).findByNumeroCuenta(any());
+        verify(accountRepository, never()).save(any(Account.class));
+        verify(runningBalanceRepair).scheduleRepair("123456", movement.getFecha(), movement.getId());
+    }
+
+    @Test
+    void whenMovementIsDeletedConcurrently_thenBalanceIsNotReversedTwice() {
+        // Given
+        when(movementRepository.findById(1L)).thenReturn(Optional.of(movement));
+        when(movementRepository.deleteMovementById(1L)).thenReturn(0);
+
+        // When & Then
+        assertThatThrownBy(() -> movementService.deleteMovement(1L))
+                .isInstanceOf(MovementNotFoundException.class);
+        verify(accountRepository, never()).adjust(any(), any());
+        verify(runningBalanceRepair, never()).scheduleRepair(any(), any(), any());
+    }
+
+    private static AccountBalanceView balanceOf(Account account) {
+        return new AccountBalanceView() {
+            @Override
+            public String getNumeroCuenta() {
+                return account.getNumeroCuenta();
+            }
+
+            @Override
+            public BigDecimal getSaldoActual() {
+                return account.getSaldoActual();
+            }
+
+            @Override
+            public BigDecimal getSaldoRetenido() {
+                return account.getSaldoRetenido();
+            }
+
+            @Override
+            public Boolean getEstado() {
+                return account.getEstado();
+            }
+        };
     }
 }
\ No newline at end of file
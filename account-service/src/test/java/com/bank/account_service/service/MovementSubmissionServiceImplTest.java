@@ -0,0 +1,124 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.MovementCreateDto;
+import com.bank.account_service.dto.MovementResponseDto;
+import com.bank.account_service.dto.MovementSubmissionDto;
+import com.bank.account_service.dto.MovementSubmissionDto.SubmissionStatus;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.exception.SubmissionNotFoundException;
+import com.bank.account_service.exception.SubmissionQueueFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MovementSubmissionServiceImplTest {
+
+    @Mock
+    private MovementPostingService movementPostingService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MovementSubmissionServiceImpl submissions;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        submissions.shutdown();
+    }
+
+    @Test
+    void whenTheMovementIsPosted_thenTheSubmissionCompletesWithIt() throws InterruptedException {
+        submissions = service(1, 10);
+        MovementResponseDto posted = new MovementResponseDto();
+        posted.setId(7L);
+        when(movementPostingService.postMovement(any(MovementCreateDto.class))).thenReturn(posted);
+
+        MovementSubmissionDto pending = submissions.submit(movement());
+
+        assertThat(pending.getStatus()).isEqualTo(SubmissionStatus.PENDING);
+        MovementSubmissionDto completed = awaitOutcome(pending.getTrackingId());
+        assertThat(completed.getStatus()).isEqualTo(SubmissionStatus.COMPLETED);
+        assertThat(completed.getMovimiento()).isEqualTo(posted);
+    }
+
+    @Test
+    void whenTheMovementIsRejected_thenTheSubmissionKeepsTheReason() throws InterruptedException {
+        submissions = service(1, 10);
+        when(movementPostingService.postMovement(any(MovementCreateDto.class)))
+                .thenThrow(new InsufficientFundsException("Insufficient funds"));
+
+        String trackingId = submissions.submit(movement()).getTrackingId();
+
+        MovementSubmissionDto rejected = awaitOutcome(trackingId);
+        assertThat(rejected.getStatus()).isEqualTo(SubmissionStatus.REJECTED);
+        assertThat(rejected.getError()).isEqualTo("Insufficient funds");
+        assertThat(rejected.getMovimiento()).isNull();
+    }
+
+    @Test
+    void whenTheQueueIsFull_thenSubmissionsAreTurnedAwayAtOnce() throws InterruptedException {
+        submissions = service(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(movementPostingService.postMovement(any(MovementCreateDto.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return new MovementResponseDto();
+        });
+
+        String running = submissions.submit(movement()).getTrackingId();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        String queued = submissions.submit(movement()).getTrackingId();
+
+        assertThatThrownBy(() -> submissions.submit(movement())).isInstanceOf(SubmissionQueueFullException.class);
+        assertThat(meterRegistry.get("movements.async.queue-full").counter().count()).isEqualTo(1);
+        release.countDown();
+        assertThat(awaitOutcome(running).getStatus()).isEqualTo(SubmissionStatus.COMPLETED);
+        assertThat(awaitOutcome(queued).getStatus()).isEqualTo(SubmissionStatus.COMPLETED);
+    }
+
+    @Test
+    void whenTheTrackingIdIsUnknown_thenItIsNotFound() {
+        submissions = service(1, 1);
+
+        assertThatThrownBy(() -> submissions.getSubmission("missing"))
+                .isInstanceOf(SubmissionNotFoundException.class)
+                .hasMessage("Submission not found with id: missing");
+    }
+
+    private MovementSubmissionDto awaitOutcome(String trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        MovementSubmissionDto submission = submissions.getSubmission(trackingId);
+        while (submission.getStatus() == SubmissionStatus.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            submission = submissions.getSubmission(trackingId);
+        }
+        return submission;
+    }
+
+    private MovementSubmissionServiceImpl service(int workers, int queueCapacity) {
+        return new MovementSubmissionServiceImpl(movementPostingService, meterRegistry, queueCapacity, workers,
+                Duration.ofMinutes(1));
+    }
+
+    private static MovementCreateDto movement() {
+        MovementCreateDto dto = new MovementCreateDto();
+        dto.setCuentaId("123456");
+        dto.setTipoMovimiento(Movement.MovementType.CREDITO);
+        dto.setValor(new BigDecimal("10.00"));
+        return dto;
+    }
+}
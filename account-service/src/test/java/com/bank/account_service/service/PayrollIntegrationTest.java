@@ -0,0 +1,206 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.PayrollCreateDto;
+import com.bank.account_service.dto.PayrollPaymentCreateDto;
+import com.bank.account_service.dto.PayrollPaymentResponseDto;
+import com.bank.account_service.dto.PayrollResponseDto;
+import com.bank.account_service.entity.Payroll;
+import com.bank.account_service.entity.PayrollPayment;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.repository.MovementRepository;
+import com.bank.account_service.repository.PayrollPaymentRepository;
+import com.bank.account_service.repository.PayrollRepository;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Import({AccountPostingApplier.class, AccountSubLedgerServiceImpl.class, DailyDebitLimitServiceImpl.class,
+        PageLimits.class, RunningBalanceRepairServiceImpl.class})
+class PayrollIntegrationTest extends LedgerIntegrationTestSupport {
+
+    private static final int EMPLOYEES = 40;
+
+    @Autowired
+    private PayrollRepository payrollRepository;
+
+    @Autowired
+    private PayrollPaymentRepository paymentRepository;
+
+    @Autowired
+    private MovementRepository movementRepository;
+
+    @Autowired
+    private AccountPostingApplier postingApplier;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PageLimits pageLimits;
+
+    private PayrollServiceImpl payrollService;
+
+    @BeforeEach
+    void setUp() {
+        BalanceEngineService disabledEngine = new BalanceEngineServiceImpl(null, null, null, null, null, null, null,
+                new SimpleMeterRegistry(), false, false, Path.of("unused"), DataSize.ofMegabytes(1), 1);
+        payrollService = new PayrollServiceImpl(payrollRepository, paymentRepository, movementRepository,
+                postingApplier, disabledEngine, transactionTemplate, pageLimits, new SimpleMeterRegistry(), 5000,
+                100, 4);
+        insertAccount("EMPRESA-1", "CORRIENTE", "1000000.00", true, 1L);
+        for (int e = 0; e < EMPLOYEES; e++) {
+            insertAccount("EMP-" + e, "0.00");
+        }
+        insertAccount("EMP-INACTIVA", "AHORRO", "0.00", false, 2L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        payrollService.shutdown();
+    }
+
+    @Test
+    void whenAPayrollRuns_thenEveryPaymentIsSettledAndRejectionsAreRefunded() throws Exception {
+        List<PayrollPaymentCreateDto> pagos = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            pagos.add(pago("EMP-" + (i % EMPLOYEES), "10.00"));
+        }
+        pagos.add(pago("EMP-INACTIVA", "300.00"));
+        pagos.add(pago("NO-EXISTE", "200.00"));
+
+        PayrollResponseDto created = payrollService.createPayroll(payroll(pagos));
+
+        assertThat(created.getEstado()).isEqualTo(Payroll.PayrollStatus.RUNNING);
+        assertThat(created.getTotal()).isEqualByComparingTo("12500.00");
+        assertThat(created.getDebito().getValor()).isEqualByComparingTo("12500.00");
+        assertThat(created.getDebito().getSaldo()).isEqualByComparingTo("987500.00");
+
+        PayrollResponseDto completed = awaitCompleted(created.getId());
+        assertThat(completed.getAcreditados()).isEqualTo(1200);
+        assertThat(completed.getRechazados()).isEqualTo(2);
+        assertThat(completed.getPendientes()).isZero();
+        assertThat(completed.getReintegro().getValor()).isEqualByComparingTo("500.00");
+        assertThat(completed.getFinishedAt()).isNotNull();
+        assertThat(saldoActual("EMPRESA-1")).isEqualByComparingTo("988000.00");
+        for (int e = 0; e < EMPLOYEES; e++) {
+            assertThat(saldoActual("EMP-" + e)).isEqualByComparingTo("300.00");
+            assertThat(movementCount("EMP-" + e)).isEqualTo(30);
+        }
+        assertThat(saldoActual("EMP-INACTIVA")).isEqualByComparingTo("0.00");
+
+        List<PayrollPaymentResponseDto> rejected = payrollService.getPayments(created.getId(),
+                PayrollPayment.PaymentStatus.REJECTED, null, null).getItems();
+        assertThat(rejected).extracting(PayrollPaymentResponseDto::getIndice).containsExactly(1200, 1201);
+        assertThat(rejected).extracting(PayrollPaymentResponseDto::getError)
+                .containsExactly("Cannot create movement for inactive account", "Account not found with id: NO-EXISTE");
+    }
+
+    @Test
+    void whenPagingPayments_thenTheyComeInSubmissionOrder() throws Exception {
+        PayrollResponseDto created = payrollService.createPayroll(payroll(List.of(
+                pago("EMP-0", "1.00"), pago("EMP-1", "2.00"), pago("EMP-2", "3.00"))));
+        awaitCompleted(created.getId());
+
+        var first = payrollService.getPayments(created.getId(), null, null, 2);
+        var second = payrollService.getPayments(created.getId(), null, first.getNextCursor(), 2);
+
+        assertThat(first.getItems()).extracting(PayrollPaymentResponseDto::getCuentaDestino)
+                .containsExactly("EMP-0", "EMP-1");
+        assertThat(second.getItems()).extracting(PayrollPaymentResponseDto::getCuentaDestino).containsExactly("EMP-2");
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(first.getItems()).allSatisfy(payment -> {
+            assertThat(payment.getEstado()).isEqualTo(PayrollPayment.PaymentStatus.POSTED);
+            assertThat(payment.getMovimientoId()).isNotNull();
+        });
+    }
+
+    @Test
+    void whenTheTotalCannotBeReserved_thenNoJobIsCreated() {
+        assertThatThrownBy(() -> payrollService.createPayroll(payroll(List.of(pago("EMP-0", "1000000.01")))))
+                .isInstanceOf(InsufficientFundsException.class);
+
+        assertThat(payrollRepository.count()).isZero();
+        assertThat(saldoActual("EMPRESA-1")).isEqualByComparingTo("1000000.00");
+    }
+
+    @Test
+    void whenResumingAfterACrash_thenOnlyPendingPaymentsAreCredited() throws Exception {
+        // State left by a crash: the total was reserved and the first chunk committed
+        Payroll payroll = new Payroll();
+        payroll.setCuentaOrigen("EMPRESA-1");
+        payroll.setTotal(new BigDecimal("100.00"));
+        payroll.setPagos(10);
+        payroll.setEstado(Payroll.PayrollStatus.RUNNING);
+        payroll.setCreatedAt(LocalDateTime.now());
+        payrollRepository.save(payroll);
+        jdbcTemplate.update("UPDATE cuentas SET saldo_actual = saldo_actual - 100 WHERE numero_cuenta = 'EMPRESA-1'");
+        jdbcTemplate.update("UPDATE cuentas SET saldo_actual = 10 WHERE numero_cuenta IN "
+                + "('EMP-0', 'EMP-1', 'EMP-2', 'EMP-3', 'EMP-4')");
+        List<PayrollPayment> payments = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            PayrollPayment payment = new PayrollPayment();
+            payment.setNominaId(payroll.getId());
+            payment.setIndice(i);
+            payment.setCuentaDestino("EMP-" + i);
+            payment.setValor(new BigDecimal("10.00"));
+            payment.setEstado(i < 5 ? PayrollPayment.PaymentStatus.POSTED : PayrollPayment.PaymentStatus.PENDING);
+            payments.add(payment);
+        }
+        paymentRepository.insertPayments(payments);
+
+        payrollService.resumeRunning();
+
+        PayrollResponseDto completed = awaitCompleted(payroll.getId());
+        assertThat(completed.getAcreditados()).isEqualTo(10);
+        assertThat(completed.getReintegro()).isNull();
+        for (int e = 0; e < 10; e++) {
+            assertThat(saldoActual("EMP-" + e)).isEqualByComparingTo("10.00");
+        }
+        assertThat(movementCount("EMP-0")).isZero();
+        assertThat(movementCount("EMP-9")).isEqualTo(1);
+        assertThat(saldoActual("EMPRESA-1")).isEqualByComparingTo("999900.00");
+    }
+
+    private PayrollResponseDto awaitCompleted(Long id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        PayrollResponseDto payroll = payrollService.getPayroll(id);
+        while (payroll.getEstado() != Payroll.PayrollStatus.COMPLETED && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            payroll = payrollService.getPayroll(id);
+        }
+        assertThat(payroll.getEstado()).isEqualTo(Payroll.PayrollStatus.COMPLETED);
+        return payroll;
+    }
+
+    private static PayrollCreateDto payroll(List<PayrollPaymentCreateDto> pagos) {
+        PayrollCreateDto dto = new PayrollCreateDto();
+        dto.setCuentaOrigen("EMPRESA-1");
+        dto.setDescripcion("Nomina de prueba");
+        dto.setPagos(pagos);
+        return dto;
+    }
+
+    private static PayrollPaymentCreateDto pago(String cuentaDestino, String valor) {
+        PayrollPaymentCreateDto dto = new PayrollPaymentCreateDto();
+        dto.setCuentaDestino(cuentaDestino);
+        dto.setValor(new BigDecimal(valor));
+        return dto;
+    }
+}
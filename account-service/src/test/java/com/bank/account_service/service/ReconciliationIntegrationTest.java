@@ -0,0 +1,184 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.ReconciliationDiscrepancyResponseDto;
+import com.bank.account_service.dto.ReconciliationResponseDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.entity.Reconciliation;
+import com.bank.account_service.entity.ReconciliationChunk;
+import com.bank.account_service.entity.ReconciliationDiscrepancy;
+import com.bank.account_service.exception.ReconciliationRunningException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.MovementRepository;
+import com.bank.account_service.repository.ReconciliationChunkRepository;
+import com.bank.account_service.repository.ReconciliationDiscrepancyRepository;
+import com.bank.account_service.repository.ReconciliationRepository;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReconciliationIntegrationTest extends LedgerIntegrationTestSupport {
+
+    private static final LocalDateTime INICIO = LocalDateTime.now().minusDays(10).truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private ReconciliationRepository reconciliationRepository;
+
+    @Autowired
+    private ReconciliationChunkRepository chunkRepository;
+
+    @Autowired
+    private ReconciliationDiscrepancyRepository discrepancyRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MovementRepository movementRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ReconciliationServiceImpl reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new ReconciliationServiceImpl(reconciliationRepository, chunkRepository,
+                discrepancyRepository, accountRepository, movementRepository, transactionTemplate,
+                new PageLimits(100, 500), new SimpleMeterRegistry(), 2, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciliationService.shutdown();
+    }
+
+    @Test
+    void whenTheLedgerIsConsistent_thenEveryAccountAndMovementIsVerifiedWithoutDiscrepancies() throws Exception {
+        insertAccount("REC-1", "100.00");
+        insertMovement("REC-1", INICIO, Movement.MovementType.CREDITO, "50.00", "150.00");
+        insertMovement("REC-1", INICIO.plusDays(1), Movement.MovementType.DEBITO, "30.00", "120.00");
+        jdbcTemplate.update("UPDATE cuentas SET saldo_actual = 120.00 WHERE numero_cuenta = 'REC-1'");
+        insertAccount("REC-2", "CORRIENTE", "200.00", true, 2L);
+        // A split account whose balance sits in its sub-balances
+        insertAccount("REC-3", "100.00");
+        insertMovement("REC-3", INICIO, Movement.MovementType.CREDITO, "20.00", "120.00");
+        jdbcTemplate.update("UPDATE cuentas SET saldo_actual = 0.00 WHERE numero_cuenta = 'REC-3'");
+        jdbcTemplate.update("INSERT INTO cuenta_subsaldos (numero_cuenta, slot, saldo, updated_at) "
+                + "VALUES ('REC-3', 0, 60.00, CURRENT_TIMESTAMP), ('REC-3', 1, 60.00, CURRENT_TIMESTAMP)");
+
+        ReconciliationResponseDto completed = awaitCompleted(reconciliationService.startReconciliation().getId());
+
+        assertThat(completed.getTramos()).isEqualTo(2);
+        assertThat(completed.getTramosPendientes()).isZero();
+        assertThat(completed.getCuentas()).isEqualTo(3);
+        assertThat(completed.getMovimientos()).isEqualTo(3);
+        assertThat(completed.getDiscrepancias()).isZero();
+        assertThat(completed.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    void whenBalancesHaveDrifted_thenTheDiscrepanciesAreReported() throws Exception {
+        insertAccount("REC-1", "100.00");
+        for (int i = 1; i <= 4; i++) {
+            insertMovement("REC-1", INICIO.plusDays(i), Movement.MovementType.CREDITO, "10.00",
+                    (100 + 10 * i) + ".00");
+        }
+        // A delete that reversed the balance but left the later running balances alone
+        Long deleted = jdbcTemplate.queryForObject("SELECT id FROM movimientos WHERE numero_cuenta = 'REC-1' "
+                + "AND saldo = 120.00", Long.class);
+        Long firstWrong = jdbcTemplate.queryForObject("SELECT id FROM movimientos WHERE numero_cuenta = 'REC-1' "
+                + "AND saldo = 130.00", Long.class);
+        jdbcTemplate.update("DELETE FROM movimientos WHERE id = ?", deleted);
+        jdbcTemplate.update("UPDATE cuentas SET saldo_actual = 130.00 WHERE numero_cuenta = 'REC-1'");
+        // A balance changed without a movement
+        insertAccount("REC-2", "200.00");
+        jdbcTemplate.update("UPDATE cuentas SET saldo_actual = 205.00 WHERE numero_cuenta = 'REC-2'");
+        insertAccount("REC-3", "50.00");
+
+        Long id = reconciliationService.startReconciliation().getId();
+        ReconciliationResponseDto completed = awaitCompleted(id);
+
+        assertThat(completed.getCuentas()).isEqualTo(3);
+        assertThat(completed.getMovimientos()).isEqualTo(3);
+        assertThat(completed.getDiscrepancias()).isEqualTo(2);
+
+        CursorPageDto<ReconciliationDiscrepancyResponseDto> first = reconciliationService.getDiscrepancies(id, null,
+                1);
+        CursorPageDto<ReconciliationDiscrepancyResponseDto> second = reconciliationService.getDiscrepancies(id,
+                first.getNextCursor(), 1);
+        assertThat(second.getNextCursor()).isNull();
+        List<ReconciliationDiscrepancyResponseDto> discrepancies = List.of(first.getItems().get(0),
+                second.getItems().get(0));
+
+        assertThat(discrepancies).anySatisfy(discrepancy -> {
+            assertThat(discrepancy.getNumeroCuenta()).isEqualTo("REC-1");
+            assertThat(discrepancy.getTipo()).isEqualTo(ReconciliationDiscrepancy.DiscrepancyType.MOVIMIENTO);
+            assertThat(discrepancy.getMovimientoId()).isEqualTo(firstWrong);
+            assertThat(discrepancy.getEsperado()).isEqualByComparingTo("120.00");
+            assertThat(discrepancy.getRegistrado()).isEqualByComparingTo("130.00");
+            assertThat(discrepancy.getMovimientosAfectados()).isEqualTo(2);
+        });
+        assertThat(discrepancies).anySatisfy(discrepancy -> {
+            assertThat(discrepancy.getNumeroCuenta()).isEqualTo("REC-2");
+            assertThat(discrepancy.getTipo()).isEqualTo(ReconciliationDiscrepancy.DiscrepancyType.CUENTA);
+            assertThat(discrepancy.getMovimientoId()).isNull();
+            assertThat(discrepancy.getEsperado()).isEqualByComparingTo("200.00");
+            assertThat(discrepancy.getRegistrado()).isEqualByComparingTo("205.00");
+        });
+    }
+
+    @Test
+    void whenAReconciliationIsRunning_thenAnotherCannotStartAndItIsResumed() throws Exception {
+        insertAccount("REC-1", "100.00");
+        // State left by a crash before the only chunk committed
+        Reconciliation reconciliation = new Reconciliation();
+        reconciliation.setTramos(1);
+        reconciliation.setEstado(Reconciliation.ReconciliationStatus.RUNNING);
+        reconciliation.setCreatedAt(LocalDateTime.now());
+        reconciliationRepository.save(reconciliation);
+        ReconciliationChunk chunk = new ReconciliationChunk();
+        chunk.setConciliacionId(reconciliation.getId());
+        chunk.setTramo(0);
+        chunk.setDesde("");
+        chunk.setHasta("REC-1");
+        chunk.setEstado(ReconciliationChunk.ChunkStatus.PENDING);
+        chunkRepository.insertChunks(List.of(chunk));
+
+        assertThatThrownBy(() -> reconciliationService.startReconciliation())
+                .isInstanceOf(ReconciliationRunningException.class);
+
+        reconciliationService.resumeRunning();
+
+        ReconciliationResponseDto completed = awaitCompleted(reconciliation.getId());
+        assertThat(completed.getCuentas()).isEqualTo(1);
+        assertThat(completed.getDiscrepancias()).isZero();
+        assertThat(reconciliationRepository.findById(reconciliation.getId()).orElseThrow().getCuentas())
+                .isEqualTo(1);
+    }
+
+    private ReconciliationResponseDto awaitCompleted(Long id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        ReconciliationResponseDto reconciliation = reconciliationService.getReconciliation(id);
+        while (reconciliation.getEstado() != Reconciliation.ReconciliationStatus.COMPLETED
+                && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            reconciliation = reconciliationService.getReconciliation(id);
+        }
+        assertThat(reconciliation.getEstado()).isEqualTo(Reconciliation.ReconciliationStatus.COMPLETED);
+        return reconciliation;
+    }
+}
@@ -0,0 +1,212 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.ReportDto;
+import com.bank.account_service.entity.Movement.MovementType;
+import com.bank.account_service.exception.InvalidCursorException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.ReportRowView;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ReportServiceImpl.class, ClientLookupServiceImpl.class, PageLimits.class,
+        ReportServiceIntegrationTest.ClientServiceStub.class})
+@TestPropertySource(properties = "reports.export.fetch-size=10")
+class ReportServiceIntegrationTest extends LedgerIntegrationTestSupport {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 12, 31, 23, 59);
+    private static final int MOVEMENTS = 250;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void setUp() {
+        insertAccount("200001", 7L);
+        insertAccount("200002", 7L);
+        for (int i = 0; i < MOVEMENTS; i++) {
+            insertMovement("200001", START.plusHours(i), MovementType.CREDITO, "1.00", String.valueOf(i + 1));
+        }
+        // Outside the requested range
+        insertMovement("200001", START.minusDays(1), MovementType.DEBITO, "1.00", "0.00");
+    }
+
+    @Test
+    void whenExportNdjson_thenOneJsonLinePerReportRow() throws Exception {
+        String body = write(reportService.exportReportByClientId(7L, START, END, ReportFormat.NDJSON));
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(MOVEMENTS + 1);
+        ReportDto first = objectMapper.readValue(lines.get(0), ReportDto.class);
+        assertThat(first.getNombre()).isEqualTo("Lema, Jose");
+        assertThat(first.getNumeroCuenta()).isEqualTo("200001");
+        assertThat(first.getFecha()).isEqualTo(START);
+        ReportDto last = objectMapper.readValue(lines.get(MOVEMENTS), ReportDto.class);
+        assertThat(last.getNumeroCuenta()).isEqualTo("200002");
+        assertThat(last.getTipoMovimiento()).isNull();
+    }
+
+    @Test
+    void whenExportCsv_thenHeaderAndQuotedFields() throws Exception {
+        String body = write(reportService.exportReportByPersonaId("1234567890", START, END, ReportFormat.CSV));
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(MOVEMENTS + 2);
+        assertThat(lines.get(0)).startsWith("clientId,nombre,identificacion,numeroCuenta");
+        assertThat(lines.get(1)).startsWith("7,\"Lema, Jose\",1234567890,200001,AHORRO,");
+        assertThat(lines.get(MOVEMENTS + 1)).endsWith("200002,AHORRO,100.00,100.00,,,,,");
+    }
+
+    @Test
+    void whenExportMatchesInMemoryReport_thenSameRows() throws Exception {
+        List<ReportDto> report = reportService.getReportByClientId(7L, START, END);
+
+        String body = write(reportService.exportReportByClientId(7L, START, END, ReportFormat.NDJSON));
+
+        List<ReportDto> exported = body.lines().map(line -> {
+            try {
+                return objectMapper.readValue(line, ReportDto.class);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+        assertThat(exported).usingRecursiveFieldByFieldElementComparatorIgnoringFields("createdAt")
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactlyElementsOf(report);
+    }
+
+    @Test
+    void whenWalkingReportPages_thenEveryRowIsReturnedOnceInOrder() {
+        insertAccount("210000", 8L);
+        insertAccount("210001", 8L);
+        insertAccount("210002", 8L);
+        for (int i = 0; i < 5; i++) {
+            // Same timestamp for all: the movement id breaks the tie
+            insertMovement("210001", START.plusDays(1), MovementType.CREDITO, "1.00", String.valueOf(101 + i));
+        }
+        List<ReportDto> unpaged = reportService.getReportByClientId(8L, START, END);
+
+        for (int limit : new int[]{1, 2, 50}) {
+            List<ReportDto> walked = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                CursorPageDto<ReportDto> page = reportService.getReportPageByClientId(8L, START, END, cursor, limit);
+                assertThat(page.getItems()).hasSizeLessThanOrEqualTo(limit);
+                walked.addAll(page.getItems());
+                cursor = page.getNextCursor();
+                pages++;
+            } while (cursor != null);
+
+            assertThat(walked).hasSize(7).isEqualTo(unpaged);
+            assertThat(pages).isEqualTo((7 + limit - 1) / limit);
+        }
+        assertThat(unpaged).extracting(ReportDto::getSaldoMovimiento).containsExactly(null,
+                new BigDecimal("101.00"), new BigDecimal("102.00"), new BigDecimal("103.00"),
+                new BigDecimal("104.00"), new BigDecimal("105.00"), null);
+    }
+
+    @Test
+    void whenStreamingReportRows_thenSameRowsAsTheListAndKeysetQueries() {
+        insertAccount("210000", 8L);
+        insertAccount("210001", 8L);
+        insertAccount("210002", 8L);
+        for (int i = 0; i < 3; i++) {
+            insertMovement("210001", START.plusDays(1), MovementType.DEBITO, "1.00", String.valueOf(99 - i));
+        }
+        List<ReportRowView> streamed = new ArrayList<>();
+        accountRepository.streamReportRows(8L, START, END, streamed::add);
+
+        List<ReportRowView> listed = accountRepository.findReportRows(8L, START, END);
+        List<ReportRowView> keyset = new ArrayList<>(accountRepository.findReportRowsAfterAccount(
+                8L, START, END, "", Limit.of(2)));
+        ReportRowView last = keyset.get(keyset.size() - 1);
+        keyset.addAll(accountRepository.findReportRowsAfterMovement(8L, START, END,
+                last.getNumeroCuenta(), last.getFecha(), last.getMovementId(), Limit.of(10)));
+
+        assertThat(streamed).hasSize(5);
+        assertThat(streamed.get(0).getMovementId()).isNull();
+        assertThat(streamed.get(4).getTipoMovimiento()).isNull();
+        assertThat(values(streamed)).isEqualTo(values(listed)).isEqualTo(values(keyset));
+    }
+
+    @Test
+    void whenReportCursorIsMalformed_thenInvalidCursor() {
+        assertThatThrownBy(() -> reportService.getReportPageByClientId(7L, START, END, "not a cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static List<List<Object>> values(List<ReportRowView> rows) {
+        return rows.stream().map(row -> Arrays.<Object>asList(row.getNumeroCuenta(), row.getTipoCuenta(),
+                row.getSaldoInicial(), row.getSaldoActual(), row.getMovementId(), row.getFecha(),
+                row.getTipoMovimiento(), row.getValor(), row.getSaldo(), row.getCreatedAt())).toList();
+    }
+
+    private static String write(ReportExport export) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void insertAccount(String numeroCuenta, long clienteId) {
+        insertAccount(numeroCuenta, "AHORRO", "100.00", true, clienteId);
+    }
+
+    @TestConfiguration
+    static class ClientServiceStub {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        WebClient clientServiceWebClient() {
+            return WebClient.builder()
+                    .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("{\"clienteId\":7,\"estado\":true,"
+                                    + "\"persona\":{\"nombre\":\"Lema, Jose\",\"identificacion\":\"1234567890\"}}")
+                            .build()))
+                    .build();
+        }
+    }
+}
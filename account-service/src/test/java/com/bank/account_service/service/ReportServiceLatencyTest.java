@@ -0,0 +1,89 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.ReportDto;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.utils.PageLimits;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Report latency with a slow client-service and a slow database: the two round trips overlap.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportServiceLatencyTest {
+
+    private static final Duration CLIENT_SERVICE_DELAY = Duration.ofMillis(400);
+    private static final long QUERY_MILLIS = 400;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Test
+    void whenReportByClientId_thenLatencyIsMaxOfLookupAndQuery() {
+        when(accountRepository.findReportRows(eq(7L), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(QUERY_MILLIS);
+            return Collections.emptyList();
+        });
+        ReportService reportService = new ReportServiceImpl(clientLookup(HttpStatus.OK), accountRepository,
+                new PageLimits(100, 500), new ObjectMapper());
+
+        long start = System.nanoTime();
+        List<ReportDto> report = reportService.getReportByClientId(7L, LocalDateTime.now().minusDays(1),
+                LocalDateTime.now());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(report).isEmpty();
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(QUERY_MILLIS);
+        // Sequential calls would take at least 800 ms
+        assertThat(elapsedMillis).isLessThan(QUERY_MILLIS + CLIENT_SERVICE_DELAY.toMillis() - 100);
+    }
+
+    @Test
+    void whenClientLookupFails_thenErrorIsRethrownUnwrapped() {
+        when(accountRepository.findReportRows(eq(7L), any(), any())).thenReturn(Collections.emptyList());
+        ReportService reportService = new ReportServiceImpl(clientLookup(HttpStatus.NOT_FOUND),
+                accountRepository, new PageLimits(100, 500), new ObjectMapper());
+
+        assertThatThrownBy(() -> reportService.getReportByClientId(7L, LocalDateTime.now().minusDays(1),
+                LocalDateTime.now()))
+                .isInstanceOf(WebClientResponseException.NotFound.class);
+    }
+
+    private static ClientLookupService clientLookup(HttpStatus status) {
+        return new ClientLookupServiceImpl(slowClientService(status), new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(10), Duration.ofMinutes(1));
+    }
+
+    private static WebClient slowClientService(HttpStatus status) {
+        return WebClient.builder()
+                .exchangeFunction(request -> Mono.delay(CLIENT_SERVICE_DELAY)
+                        .map(tick -> ClientResponse.create(status)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body("{\"clienteId\":7,\"estado\":true,"
+                                        + "\"persona\":{\"nombre\":\"Jose Lema\",\"identificacion\":\"1234567890\"}}")
+                                .build()))
+                .build();
+    }
+}
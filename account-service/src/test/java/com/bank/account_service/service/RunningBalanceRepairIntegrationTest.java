@@ -0,0 +1,112 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import({MovementServiceImpl.class, PageLimits.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, VelocityRuleServiceImpl.class, RunningBalanceRepairServiceImpl.class})
+@TestPropertySource(properties = "movements.repair.delay=PT0.2S")
+class RunningBalanceRepairIntegrationTest extends LedgerIntegrationTestSupport {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private RunningBalanceRepairService repairService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        insertAccount("REP-1", "100.00");
+        insertMovement("REP-1", START, Movement.MovementType.CREDITO, "50.00", "150.00");
+        insertMovement("REP-1", START.plusMinutes(1), Movement.MovementType.DEBITO, "30.00", "120.00");
+        insertMovement("REP-1", START.plusMinutes(2), Movement.MovementType.CREDITO, "20.00", "140.00");
+        insertMovement("REP-1", START.plusMinutes(3), Movement.MovementType.DEBITO, "10.00", "130.00");
+        jdbcTemplate.update("UPDATE cuentas SET saldo_actual = 130.00 WHERE numero_cuenta = 'REP-1'");
+        ids = jdbcTemplate.queryForList("SELECT id FROM movimientos WHERE numero_cuenta = 'REP-1' ORDER BY fecha, id",
+                Long.class);
+    }
+
+    @Test
+    void whenAMovementIsDeleted_thenTheLaterBalancesAreRepairedInTheBackground() throws Exception {
+        long repairs = repairs();
+
+        movementService.deleteMovement(ids.get(1));
+
+        assertThat(saldoActual("REP-1")).isEqualByComparingTo("160.00");
+        awaitRepairs(repairs + 1);
+        assertThat(saldos()).extracting(BigDecimal::toPlainString).containsExactly("150.00", "170.00", "160.00");
+    }
+
+    @Test
+    void whenRepairsArriveInABurst_thenOneRepairRunsFromTheEarliestPoint() throws Exception {
+        long repairs = repairs();
+        double coalesced = meterRegistry.get("movements.repair.requests").tag("outcome", "coalesced").counter()
+                .count();
+        jdbcTemplate.update("UPDATE movimientos SET saldo = 0 WHERE numero_cuenta = 'REP-1' AND id <> ?", ids.get(0));
+
+        repairService.scheduleRepair("REP-1", START.plusMinutes(2), ids.get(2));
+        repairService.scheduleRepair("REP-1", START, ids.get(0));
+        repairService.scheduleRepair("REP-1", START.plusMinutes(1), ids.get(1));
+
+        awaitRepairs(repairs + 1);
+        assertThat(saldos()).extracting(BigDecimal::toPlainString)
+                .containsExactly("150.00", "120.00", "140.00", "130.00");
+        assertThat(meterRegistry.get("movements.repair.requests").tag("outcome", "coalesced").counter().count())
+                .isEqualTo(coalesced + 2);
+        Thread.sleep(500);
+        assertThat(repairs()).isEqualTo(repairs + 1);
+    }
+
+    @Test
+    void whenRepairing_thenOnlyTheMovementsAfterThePointAreRewritten() {
+        jdbcTemplate.update("UPDATE movimientos SET saldo = 999 WHERE id = ?", ids.get(0));
+        jdbcTemplate.update("UPDATE movimientos SET saldo = 0 WHERE id IN (?, ?)", ids.get(2), ids.get(3));
+
+        assertThat(repairService.repair("REP-1", START.plusMinutes(1), ids.get(1))).isEqualTo(2);
+        assertThat(saldos()).extracting(BigDecimal::toPlainString)
+                .containsExactly("999.00", "120.00", "140.00", "130.00");
+
+        // Without an earlier movement the tail starts from the opening balance
+        assertThat(repairService.repair("REP-1", START.minusDays(1), 0L)).isEqualTo(1);
+        assertThat(saldos()).extracting(BigDecimal::toPlainString)
+                .containsExactly("150.00", "120.00", "140.00", "130.00");
+    }
+
+    private List<BigDecimal> saldos() {
+        return jdbcTemplate.queryForList("SELECT saldo FROM movimientos WHERE numero_cuenta = 'REP-1' "
+                + "ORDER BY fecha, id", BigDecimal.class);
+    }
+
+    private long repairs() {
+        return meterRegistry.get("movements.repair.latency").timer().count();
+    }
+
+    private void awaitRepairs(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (repairs() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(repairs()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,265 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.CursorPageDto;
+import com.bank.account_service.dto.StandingOrderCreateDto;
+import com.bank.account_service.dto.StandingOrderExecutionResponseDto;
+import com.bank.account_service.dto.StandingOrderResponseDto;
+import com.bank.account_service.entity.StandingOrder;
+import com.bank.account_service.entity.StandingOrderExecution;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.exception.InvalidFrequencyException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.StandingOrderExecutionRepository;
+import com.bank.account_service.repository.StandingOrderRepository;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import com.bank.account_service.utils.PageLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Import({TransferServiceImpl.class, AccountPostingApplier.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, PageLimits.class, RunningBalanceRepairServiceImpl.class})
+class StandingOrderIntegrationTest extends LedgerIntegrationTestSupport {
+
+    @Autowired
+    private StandingOrderRepository orderRepository;
+
+    @Autowired
+    private StandingOrderExecutionRepository executionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PageLimits pageLimits;
+
+    private final List<StandingOrderServiceImpl> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(StandingOrderServiceImpl::shutdown);
+    }
+
+    @Test
+    void whenAnOrderIsDue_thenItRunsOnceAndMovesToItsNextRun() throws Exception {
+        insertAccount("SO-A", "1000.00");
+        insertAccount("SO-B", "0.00");
+        StandingOrderServiceImpl service = node();
+        LocalDateTime primera = LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+
+        StandingOrderResponseDto created = service.createStandingOrder(order("SO-A", "SO-B", "250.00", "P1D", primera));
+        StandingOrderResponseDto order = awaitRuns(service, created.getId(), 1);
+
+        assertThat(order.getEstado()).isEqualTo(StandingOrder.StandingOrderStatus.ACTIVE);
+        assertThat(order.getProximaEjecucion()).isEqualTo(primera.plusDays(1));
+        assertThat(saldoActual("SO-A")).isEqualByComparingTo("750.00");
+        assertThat(saldoActual("SO-B")).isEqualByComparingTo("250.00");
+        List<StandingOrderExecutionResponseDto> runs = service.getExecutions(created.getId(), null, null).getItems();
+        assertThat(runs).singleElement().satisfies(run -> {
+            assertThat(run.getNumero()).isZero();
+            assertThat(run.getEstado()).isEqualTo(StandingOrderExecution.ExecutionStatus.POSTED);
+            assertThat(run.getFechaProgramada()).isEqualTo(primera);
+            assertThat(run.getDebitoId()).isNotNull();
+            assertThat(run.getCreditoId()).isNotNull();
+        });
+        // The next run is a day away, beyond the horizon
+        assertThat(service.loadDue()).isZero();
+    }
+
+    @Test
+    void whenRunsWereMissed_thenTheyCatchUpUntilTheEndDate() throws Exception {
+        insertAccount("SO-A", "1000.00");
+        insertAccount("SO-B", "0.00");
+        StandingOrderServiceImpl service = node();
+        LocalDateTime primera = LocalDateTime.now().minusDays(5).truncatedTo(ChronoUnit.SECONDS);
+        StandingOrderCreateDto orderDto = order("SO-A", "SO-B", "10.00", "P1D", primera);
+        orderDto.setFin(primera.plusDays(3));
+
+        StandingOrderResponseDto created = service.createStandingOrder(orderDto);
+        StandingOrderResponseDto order = awaitRuns(service, created.getId(), 4);
+
+        assertThat(order.getEstado()).isEqualTo(StandingOrder.StandingOrderStatus.COMPLETED);
+        assertThat(order.getProximaEjecucion()).isNull();
+        assertThat(saldoActual("SO-B")).isEqualByComparingTo("40.00");
+        CursorPageDto<StandingOrderExecutionResponseDto> first = service.getExecutions(created.getId(), null, 3);
+        CursorPageDto<StandingOrderExecutionResponseDto> second = service.getExecutions(created.getId(),
+                first.getNextCursor(), 3);
+        assertThat(first.getItems()).extracting(StandingOrderExecutionResponseDto::getNumero).containsExactly(0, 1, 2);
+        assertThat(second.getItems()).extracting(StandingOrderExecutionResponseDto::getFechaProgramada)
+                .containsExactly(primera.plusDays(3));
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void whenATransferIsRejected_thenTheRunIsRecordedAndTheOrderMovesOn() throws Exception {
+        insertAccount("SO-A", "5.00");
+        insertAccount("SO-B", "0.00");
+        StandingOrderServiceImpl service = node();
+
+        StandingOrderResponseDto created = service.createStandingOrder(
+                order("SO-A", "SO-B", "10.00", "P1M", LocalDateTime.now().minusSeconds(1)));
+        awaitRuns(service, created.getId(), 1);
+
+        assertThat(service.getExecutions(created.getId(), null, null).getItems()).singleElement()
+                .satisfies(run -> {
+                    assertThat(run.getEstado()).isEqualTo(StandingOrderExecution.ExecutionStatus.REJECTED);
+                    assertThat(run.getError()).isEqualTo("Insufficient funds");
+                    assertThat(run.getDebitoId()).isNull();
+                });
+        assertThat(saldoActual("SO-A")).isEqualByComparingTo("5.00");
+        assertThat(movementCount("SO-A")).isZero();
+    }
+
+    @Test
+    void whenSeveralNodesLoadTheSameOrders_thenEachRunExecutesOnce() throws Exception {
+        insertAccount("SO-A", "100000.00");
+        insertAccount("SO-B", "0.00");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(savedOrder(LocalDateTime.now().minusSeconds(i + 1)).getId());
+        }
+        StandingOrderServiceImpl first = node();
+        StandingOrderServiceImpl second = node();
+
+        CompletableFuture<Integer> loadedFirst = CompletableFuture.supplyAsync(first::loadDue);
+        CompletableFuture<Integer> loadedSecond = CompletableFuture.supplyAsync(second::loadDue);
+        assertThat(loadedFirst.get(1, TimeUnit.MINUTES)).isEqualTo(30);
+        assertThat(loadedSecond.get(1, TimeUnit.MINUTES)).isEqualTo(30);
+        for (Long id : ids) {
+            awaitRuns(first, id, 1);
+        }
+        // Give a duplicate run the chance to show up
+        Thread.sleep(200);
+
+        assertThat(executionRepository.count()).isEqualTo(30);
+        assertThat(movementCount("SO-B")).isEqualTo(30);
+        assertThat(saldoActual("SO-B")).isEqualByComparingTo("300.00");
+        assertThat(saldoActual("SO-A")).isEqualByComparingTo("99700.00");
+    }
+
+    @Test
+    void whenCancelled_thenTheOrderIsNotLoadedAgain() {
+        insertAccount("SO-A", "100.00");
+        insertAccount("SO-B", "0.00");
+        StandingOrderServiceImpl service = node();
+        StandingOrder order = savedOrder(LocalDateTime.now().minusMinutes(1));
+
+        StandingOrderResponseDto cancelled = service.cancelStandingOrder(order.getId());
+
+        assertThat(cancelled.getEstado()).isEqualTo(StandingOrder.StandingOrderStatus.CANCELLED);
+        assertThat(cancelled.getProximaEjecucion()).isNull();
+        assertThat(service.cancelStandingOrder(order.getId()).getEstado())
+                .isEqualTo(StandingOrder.StandingOrderStatus.CANCELLED);
+        assertThat(service.loadDue()).isZero();
+        assertThat(saldoActual("SO-A")).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void whenTheSourceAccountDoesNotExist_thenNoOrderIsCreated() {
+        StandingOrderServiceImpl service = node();
+
+        assertThatThrownBy(() -> service.createStandingOrder(
+                order("NOPE", "SO-B", "1.00", "P1M", LocalDateTime.now().plusDays(1))))
+                .isInstanceOf(AccountNotFoundException.class);
+        assertThat(orderRepository.count()).isZero();
+    }
+
+    @Test
+    void whenTheFrequencyIsNotAPeriod_thenNoOrderIsCreated() {
+        insertAccount("SO-A", "1000.00");
+        StandingOrderServiceImpl service = node();
+
+        for (String frecuencia : new String[]{"monthly", "PT1H", "1M"}) {
+            assertThatThrownBy(() -> service.createStandingOrder(
+                    order("SO-A", "SO-B", "1.00", frecuencia, LocalDateTime.now().plusDays(1))))
+                    .isInstanceOf(InvalidFrequencyException.class);
+        }
+        assertThat(orderRepository.count()).isZero();
+    }
+
+    @Test
+    void whenTheFrequencyIsNotPositive_thenNoOrderIsCreated() {
+        insertAccount("SO-A", "1000.00");
+        insertAccount("SO-B", "0.00");
+        StandingOrderServiceImpl service = node();
+
+        // Would otherwise be due again as soon as it ran, moving money each time
+        for (String frecuencia : new String[]{"P0D", "P-1M", "P1M-31D"}) {
+            assertThatThrownBy(() -> service.createStandingOrder(
+                    order("SO-A", "SO-B", "1.00", frecuencia, LocalDateTime.now().minusMinutes(1))))
+                    .isInstanceOf(InvalidFrequencyException.class);
+        }
+        assertThat(orderRepository.count()).isZero();
+        assertThat(saldoActual("SO-A")).isEqualByComparingTo("1000.00");
+    }
+
+    private StandingOrderServiceImpl node() {
+        BalanceEngineService disabledEngine = new BalanceEngineServiceImpl(null, null, null, null, null, null, null,
+                new SimpleMeterRegistry(), false, false, Path.of("unused"), DataSize.ofMegabytes(1), 1);
+        StandingOrderServiceImpl node = new StandingOrderServiceImpl(orderRepository, executionRepository,
+                accountRepository, transferService, disabledEngine, transactionTemplate, pageLimits,
+                new SimpleMeterRegistry(), Duration.ofMinutes(5), 4, 4);
+        nodes.add(node);
+        return node;
+    }
+
+    private StandingOrder savedOrder(LocalDateTime primera) {
+        StandingOrder order = new StandingOrder();
+        order.setCuentaOrigen("SO-A");
+        order.setCuentaDestino("SO-B");
+        order.setValor(new BigDecimal("10.00"));
+        order.setFrecuencia("P1M");
+        order.setPrimeraEjecucion(primera);
+        order.setProximaEjecucion(primera);
+        order.setEjecuciones(0);
+        order.setEstado(StandingOrder.StandingOrderStatus.ACTIVE);
+        order.setCreatedAt(LocalDateTime.now());
+        return orderRepository.save(order);
+    }
+
+    private static StandingOrderResponseDto awaitRuns(StandingOrderService service, Long id, int runs)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        StandingOrderResponseDto order = service.getStandingOrder(id);
+        while (order.getEjecuciones() < runs && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            order = service.getStandingOrder(id);
+        }
+        assertThat(order.getEjecuciones()).isEqualTo(runs);
+        return order;
+    }
+
+    private static StandingOrderCreateDto order(String origen, String destino, String valor, String frecuencia,
+                                                LocalDateTime primera) {
+        StandingOrderCreateDto dto = new StandingOrderCreateDto();
+        dto.setCuentaOrigen(origen);
+        dto.setCuentaDestino(destino);
+        dto.setValor(new BigDecimal(valor));
+        dto.setFrecuencia(frecuencia);
+        dto.setPrimeraEjecucion(primera);
+        return dto;
+    }
+}
@@ -0,0 +1,144 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.dto.TransferCreateDto;
+import com.bank.account_service.dto.TransferResponseDto;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.exception.InsufficientFundsException;
+import com.bank.account_service.support.LedgerIntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Import({TransferServiceImpl.class, AccountPostingApplier.class, AccountSubLedgerServiceImpl.class,
+        DailyDebitLimitServiceImpl.class, RunningBalanceRepairServiceImpl.class})
+class TransferIntegrationTest extends LedgerIntegrationTestSupport {
+
+    private static final int ACCOUNTS = 5;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 400;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountSubLedgerService subLedger;
+
+    @Test
+    void whenTransferring_thenBothLegsArePostedTogether() {
+        insertAccount("TRF-A", "100.00");
+        insertAccount("TRF-B", "50.00");
+
+        TransferResponseDto transfer = transferService.createTransfer(transfer("TRF-B", "TRF-A", "30.00"));
+
+        assertThat(transfer.getDebito().getCuentaId()).isEqualTo("TRF-B");
+        assertThat(transfer.getDebito().getTipoMovimiento()).isEqualTo(Movement.MovementType.DEBITO);
+        assertThat(transfer.getDebito().getSaldo()).isEqualByComparingTo("20.00");
+        assertThat(transfer.getDebito().getDescripcion()).isEqualTo("Transferencia a TRF-A");
+        assertThat(transfer.getCredito().getCuentaId()).isEqualTo("TRF-A");
+        assertThat(transfer.getCredito().getSaldo()).isEqualByComparingTo("130.00");
+        assertThat(saldoActual("TRF-A")).isEqualByComparingTo("130.00");
+        assertThat(saldoActual("TRF-B")).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void whenEitherLegIsRejected_thenNeitherIsPosted() {
+        insertAccount("TRF-A", "100.00");
+        insertAccount("TRF-B", "50.00");
+        insertAccount("TRF-C", "CORRIENTE", "10.00", false, 1L);
+
+        // The credit leg is posted first here, since TRF-A sorts before TRF-B
+        assertThatThrownBy(() -> transferService.createTransfer(transfer("TRF-B", "TRF-A", "50.01")))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThatThrownBy(() -> transferService.createTransfer(transfer("TRF-B", "TRF-A0", "10.00")))
+                .isInstanceOf(AccountNotFoundException.class);
+        assertThatThrownBy(() -> transferService.createTransfer(transfer("TRF-C", "TRF-A", "1.00")))
+                .hasMessage("Cannot create movement for inactive account");
+        assertThatThrownBy(() -> transferService.createTransfer(transfer("TRF-B", "TRF-C", "1.00")))
+                .hasMessage("Cannot create movement for inactive account");
+
+        assertThat(saldoActual("TRF-A")).isEqualByComparingTo("100.00");
+        assertThat(saldoActual("TRF-B")).isEqualByComparingTo("50.00");
+        assertThat(movementCount("TRF-A") + movementCount("TRF-B") + movementCount("TRF-C")).isZero();
+    }
+
+    @Test
+    void whenTransferringConcurrentlyInBothDirections_thenMoneyIsConserved() throws Exception {
+        for (int a = 0; a < ACCOUNTS; a++) {
+            insertAccount("TRF-" + a, "1000.00");
+        }
+        // One split account, whose sub-balances are locked ahead of its row
+        subLedger.splitAccount("TRF-0", 4);
+        subLedger.rebalance();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    try {
+                        transferService.createTransfer(transfer("TRF-" + from, "TRF-" + to,
+                                String.valueOf(random.nextInt(1, 400))));
+                        accepted.incrementAndGet();
+                    } catch (InsufficientFundsException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        BigDecimal total = jdbcTemplate.queryForObject("SELECT SUM(saldo_actual) FROM cuentas", BigDecimal.class)
+                .add(jdbcTemplate.queryForObject("SELECT COALESCE(SUM(saldo), 0) FROM cuenta_subsaldos",
+                        BigDecimal.class));
+        assertThat(total).isEqualByComparingTo(new BigDecimal(ACCOUNTS * 1000));
+        assertThat(accepted.get() + rejected.get()).isEqualTo(THREADS * TRANSFERS_PER_THREAD);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movimientos", Integer.class))
+                .isEqualTo(2 * accepted.get());
+        assertThat(jdbcTemplate.queryForObject("SELECT "
+                + "SUM(CASE WHEN tipo_movimiento = 'CREDITO' THEN valor ELSE -valor END) FROM movimientos",
+                BigDecimal.class)).isEqualByComparingTo("0");
+        for (int a = 0; a < ACCOUNTS; a++) {
+            assertThat(accountTotal("TRF-" + a).signum()).isNotNegative();
+        }
+    }
+
+    private BigDecimal accountTotal(String numeroCuenta) {
+        return saldoActual(numeroCuenta).add(jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(saldo), 0) FROM cuenta_subsaldos WHERE numero_cuenta = ?", BigDecimal.class,
+                numeroCuenta));
+    }
+
+    private static TransferCreateDto transfer(String origen, String destino, String valor) {
+        TransferCreateDto dto = new TransferCreateDto();
+        dto.setCuentaOrigen(origen);
+        dto.setCuentaDestino(destino);
+        dto.setValor(new BigDecimal(valor));
+        return dto;
+    }
+}
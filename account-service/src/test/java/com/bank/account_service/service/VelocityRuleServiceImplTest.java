@@ -0,0 +1,153 @@
+package com.bank.account_service.service;
+
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.Movement;
+import com.bank.account_service.exception.VelocityLimitExceededException;
+import com.bank.account_service.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VelocityRuleServiceImplTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void whenAnAccountGoesOverARule_thenThePostingIsRejected() {
+        givenAccount("123456", Account.AccountType.AHORRO);
+        VelocityRuleService velocityRules = service("DEBITO:3/1h");
+
+        for (int i = 0; i < 3; i++) {
+            velocityRules.check("123456", Movement.MovementType.DEBITO);
+        }
+        // Credits have no rule
+        velocityRules.check("123456", Movement.MovementType.CREDITO);
+
+        assertThatThrownBy(() -> velocityRules.check("123456", Movement.MovementType.DEBITO))
+                .isInstanceOf(VelocityLimitExceededException.class)
+                .hasMessage("More than 3 DEBITO postings in PT1H on account 123456");
+        assertThat(meterRegistry.get("movements.velocity.rejected").tag("tipoCuenta", "AHORRO").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("movements.velocity.evaluation").timer().count()).isEqualTo(5);
+        verify(accountRepository, times(1)).findTipoCuentaByNumeroCuenta("123456");
+    }
+
+    @Test
+    void whenTheOldestPostingLeavesTheWindow_thenPostingsAreAcceptedAgain() throws InterruptedException {
+        givenAccount("123456", Account.AccountType.AHORRO);
+        VelocityRuleService velocityRules = service("DEBITO:2/300ms");
+
+        velocityRules.check("123456", Movement.MovementType.DEBITO);
+        velocityRules.check("123456", Movement.MovementType.DEBITO);
+        assertThatThrownBy(() -> velocityRules.check("123456", Movement.MovementType.DEBITO))
+                .isInstanceOf(VelocityLimitExceededException.class);
+        Thread.sleep(350);
+
+        // The rejected attempt was not counted
+        velocityRules.check("123456", Movement.MovementType.DEBITO);
+        velocityRules.check("123456", Movement.MovementType.DEBITO);
+    }
+
+    @Test
+    void whenSeveralRulesApply_thenEachIsEnforced() {
+        givenAccount("123456", Account.AccountType.AHORRO);
+        VelocityRuleService velocityRules = service("DEBITO:5/1h", "DEBITO:2/1m", "CREDITO:1/1m");
+
+        velocityRules.check("123456", Movement.MovementType.DEBITO);
+        velocityRules.check("123456", Movement.MovementType.DEBITO);
+        velocityRules.check("123456", Movement.MovementType.CREDITO);
+
+        assertThatThrownBy(() -> velocityRules.check("123456", Movement.MovementType.DEBITO))
+                .hasMessage("More than 2 DEBITO postings in PT1M on account 123456");
+        assertThatThrownBy(() -> velocityRules.check("123456", Movement.MovementType.CREDITO))
+                .hasMessage("More than 1 CREDITO postings in PT1M on account 123456");
+    }
+
+    @Test
+    void whenThePostingRollsBack_thenItDoesNotCount() {
+        givenAccount("123456", Account.AccountType.AHORRO);
+        VelocityRuleService velocityRules = service("DEBITO:2/1h");
+
+        inTransaction(() -> velocityRules.check("123456", Movement.MovementType.DEBITO), true);
+        // Rejected after the check, e.g. for insufficient funds
+        inTransaction(() -> velocityRules.check("123456", Movement.MovementType.DEBITO), false);
+        inTransaction(() -> velocityRules.check("123456", Movement.MovementType.DEBITO), true);
+
+        assertThatThrownBy(() -> velocityRules.check("123456", Movement.MovementType.DEBITO))
+                .isInstanceOf(VelocityLimitExceededException.class);
+    }
+
+    @Test
+    void whenAPostingIsReleased_thenItDoesNotCount() {
+        givenAccount("123456", Account.AccountType.AHORRO);
+        VelocityRuleService velocityRules = service("DEBITO:2/1h", "CREDITO:1/1h");
+
+        velocityRules.check("123456", Movement.MovementType.DEBITO);
+        velocityRules.check("123456", Movement.MovementType.CREDITO);
+        velocityRules.check("123456", Movement.MovementType.DEBITO);
+        velocityRules.release("123456", Movement.MovementType.DEBITO);
+        velocityRules.check("123456", Movement.MovementType.DEBITO);
+
+        assertThatThrownBy(() -> velocityRules.check("123456", Movement.MovementType.DEBITO))
+                .isInstanceOf(VelocityLimitExceededException.class);
+        // Releasing a debit leaves the credit counted
+        assertThatThrownBy(() -> velocityRules.check("123456", Movement.MovementType.CREDITO))
+                .isInstanceOf(VelocityLimitExceededException.class);
+    }
+
+    @Test
+    void whenTheAccountTypeHasNoRules_thenPostingsAreNotLimited() {
+        givenAccount("654321", Account.AccountType.CORRIENTE);
+        VelocityRuleService velocityRules = service("DEBITO:1/1h");
+
+        for (int i = 0; i < 10; i++) {
+            velocityRules.check("654321", Movement.MovementType.DEBITO);
+        }
+
+        verify(accountRepository, times(1)).findTipoCuentaByNumeroCuenta("654321");
+    }
+
+    @Test
+    void whenARuleIsMalformed_thenTheServiceDoesNotStart() {
+        assertThatThrownBy(() -> service("DEBITO-3/1h")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service("DEBITO:0/1h")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void inTransaction(Runnable posting, boolean commit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            posting.run();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(commit
+                        ? TransactionSynchronization.STATUS_COMMITTED
+                        : TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void givenAccount(String numeroCuenta, Account.AccountType tipoCuenta) {
+        when(accountRepository.findTipoCuentaByNumeroCuenta(numeroCuenta)).thenReturn(Optional.of(tipoCuenta));
+    }
+
+    private VelocityRuleService service(String... ahorroRules) {
+        return new VelocityRuleServiceImpl(accountRepository, meterRegistry, ahorroRules, new String[0], 1000);
+    }
+}
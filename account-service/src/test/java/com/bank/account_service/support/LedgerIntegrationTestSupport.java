@@ -0,0 +1,84 @@
+package com.bank.account_service.support;
+
+import com.bank.account_service.entity.Movement;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Base class for H2 integration tests of the services that write {@code cuentas} and
+ * {@code movimientos}.
+ * <p>
+ * Tests run outside a test-managed transaction so the services commit (and contend) as in
+ * production; rows are seeded with plain SQL and every ledger table is emptied after each test.
+ * A simple meter registry backs the services that publish metrics.
+ */
+@DataJpaTest(showSql = false)
+@ImportAutoConfiguration({MetricsAutoConfiguration.class, SimpleMetricsExportAutoConfiguration.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public abstract class LedgerIntegrationTestSupport {
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clearLedger() {
+        jdbcTemplate.update("DELETE FROM movimiento_claves_idempotencia");
+        jdbcTemplate.update("DELETE FROM nomina_pagos");
+        jdbcTemplate.update("DELETE FROM nominas");
+        jdbcTemplate.update("DELETE FROM retenciones");
+        jdbcTemplate.update("DELETE FROM orden_permanente_ejecuciones");
+        jdbcTemplate.update("DELETE FROM ordenes_permanentes");
+        jdbcTemplate.update("DELETE FROM conciliacion_discrepancias");
+        jdbcTemplate.update("DELETE FROM conciliacion_tramos");
+        jdbcTemplate.update("DELETE FROM conciliaciones");
+        jdbcTemplate.update("DELETE FROM cobro_comision_omisiones");
+        jdbcTemplate.update("DELETE FROM cobro_comision_tramos");
+        jdbcTemplate.update("DELETE FROM cobros_comision");
+        jdbcTemplate.update("DELETE FROM devengo_interes_tramos");
+        jdbcTemplate.update("DELETE FROM devengos_interes");
+        jdbcTemplate.update("DELETE FROM cuenta_subsaldos");
+        jdbcTemplate.update("DELETE FROM movimientos");
+        jdbcTemplate.update("DELETE FROM cuentas");
+    }
+
+    protected void insertAccount(String numeroCuenta, String saldo) {
+        insertAccount(numeroCuenta, "AHORRO", saldo, true, 1L);
+    }
+
+    protected void insertAccount(String numeroCuenta, String tipoCuenta, String saldo, boolean estado,
+                                 long clienteId) {
+        jdbcTemplate.update("INSERT INTO cuentas (numero_cuenta, tipo_cuenta, saldo_inicial, saldo_actual, estado, " +
+                "cliente_id) VALUES (?, ?, ?, ?, ?, ?)", numeroCuenta, tipoCuenta, new BigDecimal(saldo),
+                new BigDecimal(saldo), estado, clienteId);
+    }
+
+    protected void insertMovement(String numeroCuenta, LocalDateTime fecha, Movement.MovementType tipo,
+                                  String valor, String saldo) {
+        jdbcTemplate.update("INSERT INTO movimientos (id, numero_cuenta, fecha, tipo_movimiento, valor, saldo) " +
+                "VALUES (NEXT VALUE FOR movimientos_id_seq, ?, ?, ?, ?, ?)", numeroCuenta, Timestamp.valueOf(fecha),
+                tipo.name(), new BigDecimal(valor), new BigDecimal(saldo));
+    }
+
+    protected BigDecimal saldoActual(String numeroCuenta) {
+        return jdbcTemplate.queryForObject("SELECT saldo_actual FROM cuentas WHERE numero_cuenta = ?",
+                BigDecimal.class, numeroCuenta);
+    }
+
+    protected int movementCount(String numeroCuenta) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movimientos WHERE numero_cuenta = ?",
+                Integer.class, numeroCuenta);
+    }
+}
@@ -0,0 +1,35 @@
+package com.bank.account_service.utils;
+
+import com.bank.account_service.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void whenEncodingKey_thenDecodeReturnsSameParts() {
+        LocalDateTime fecha = LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_456_000);
+
+        String cursor = KeysetCursor.encode("478758", fecha, 42L);
+
+        assertThat(cursor).doesNotContain("478758");
+        assertThat(KeysetCursor.decode(cursor, 3)).containsExactly("478758", fecha.toString(), "42");
+    }
+
+    @Test
+    void whenKeyPartIsNull_thenDecodesAsEmpty() {
+        assertThat(KeysetCursor.decode(KeysetCursor.encode("478758", null, null), 3))
+                .containsExactly("478758", "", "");
+    }
+
+    @Test
+    void whenCursorIsMalformedOrHasWrongArity_thenInvalidCursor() {
+        assertThatThrownBy(() -> KeysetCursor.decode("***", 1)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(KeysetCursor.encode("a", "b"), 3))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+}
@@ -2,6 +2,7 @@ package com.bank.client_service.controller;
 
 import com.bank.client_service.dto.ClientDto;
 import com.bank.client_service.dto.ClientUpdateDto;
+import com.bank.client_service.dto.CursorPageDto;
 import com.bank.client_service.service.ClientService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +16,8 @@ import java.util.List;
 @RequestMapping("/api/clientes")
 public class ClientController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private ClientService clientService;
 
@@ -37,7 +40,18 @@ public class ClientController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ClientDto>> getAllClients(@RequestParam(required = false) Boolean estado) {
+    public ResponseEntity<List<ClientDto>> getAllClients(@RequestParam(required = false) Boolean estado,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer limit) {
+        // Unpaged unless the caller asks for a page; the next page's cursor goes in a header
+        if (cursor != null || limit != null) {
+            CursorPageDto<ClientDto> page = clientService.getClientsPage(estado, cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        }
         List<ClientDto> clients = estado != null ? 
             clientService.getClientsByEstado(estado) : 
             clientService.getAllClients();
@@ -1,6 +1,7 @@
 package com.bank.client_service.repository;
 
 import com.bank.client_service.entity.Client;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -20,4 +21,9 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
 
     List<Client> findByPersonaNombreStartingWithIgnoreCase(String prefix);
 
+    // Keyset pages ordered by the primary key
+    List<Client> findByClienteIdGreaterThanOrderByClienteId(Long clienteId, Limit limit);
+
+    List<Client> findByEstadoAndClienteIdGreaterThanOrderByClienteId(Boolean estado, Long clienteId, Limit limit);
+
 }
@@ -2,6 +2,7 @@ package com.bank.client_service.service;
 
 import com.bank.client_service.dto.ClientDto;
 import com.bank.client_service.dto.ClientUpdateDto;
+import com.bank.client_service.dto.CursorPageDto;
 
 import java.util.List;
 
@@ -11,6 +12,7 @@ public interface ClientService {
     ClientDto getClientByIdentificacion(String identificacion);
     List<ClientDto> getAllClients();
     List<ClientDto> getClientsByEstado(Boolean estado);
+    CursorPageDto<ClientDto> getClientsPage(Boolean estado, String cursor, Integer limit);
     ClientDto updateClient(Long id, ClientUpdateDto clientDto);
     void deleteClient(Long id);
 }
\ No newline at end of file
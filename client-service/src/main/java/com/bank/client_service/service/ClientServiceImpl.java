@@ -2,6 +2,7 @@ package com.bank.client_service.service;
 
 import com.bank.client_service.dto.ClientDto;
 import com.bank.client_service.dto.ClientUpdateDto;
+import com.bank.client_service.dto.CursorPageDto;
 import com.bank.client_service.dto.PersonDto;
 import com.bank.client_service.entity.Client;
 import com.bank.client_service.entity.Person;
@@ -9,9 +10,13 @@ import com.bank.client_service.exception.ClientNotFoundException;
 import com.bank.client_service.repository.ClientRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,6 +28,12 @@ public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository clientRepository;
 
+    @Value("${pagination.default-page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size:500}")
+    private int maxPageSize;
+
     @Override
     public ClientDto createClient(ClientDto clientDto) {
         String identificacion = clientDto.getPersona() != null ? clientDto.getPersona().getIdentificacion() : null;
@@ -92,6 +103,29 @@ public class ClientServiceImpl implements ClientService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<ClientDto> getClientsPage(Boolean estado, String cursor, Integer limit) {
+        int pageSize = Math.max(1, Math.min(limit == null ? defaultPageSize : limit, maxPageSize));
+        long after = cursor == null ? 0L : decodeCursor(cursor);
+        log.info("Getting clients page after {} (size {}, status {})", after, pageSize, estado);
+
+        // One extra row tells whether another page follows
+        Limit fetch = Limit.of(pageSize + 1);
+        List<Client> clients = estado == null
+                ? clientRepository.findByClienteIdGreaterThanOrderByClienteId(after, fetch)
+                : clientRepository.findByEstadoAndClienteIdGreaterThanOrderByClienteId(estado, after, fetch);
+
+        List<ClientDto> page = clients.stream()
+                .limit(pageSize)
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        String nextCursor = clients.size() > pageSize
+                ? encodeCursor(page.get(page.size() - 1).getClienteId())
+                : null;
+        return new CursorPageDto<>(page, nextCursor);
+    }
+
     @Override
     public ClientDto updateClient(Long id, ClientUpdateDto clientDto) {
         log.info("Updating client with ID: {}", id);
@@ -199,4 +233,18 @@ public class ClientServiceImpl implements ClientService {
         dto.setContrasena(null);
         return dto;
     }
-}
\ No newline at end of file
+
+    private static String encodeCursor(Long clienteId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(clienteId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            // NumberFormatException is an IllegalArgumentException too
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.bank.client_service.controller;
 
 import com.bank.client_service.dto.ClientDto;
 import com.bank.client_service.dto.ClientUpdateDto;
+import com.bank.client_service.dto.CursorPageDto;
 import com.bank.client_service.service.ClientService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -69,7 +70,7 @@ class ClientControllerTest {
         List<ClientDto> clients = List.of(mock(ClientDto.class));
         when(clientService.getAllClients()).thenReturn(clients);
 
-        ResponseEntity<List<ClientDto>> response = controller.getAllClients(null);
+        ResponseEntity<List<ClientDto>> response = controller.getAllClients(null, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertSame(clients, response.getBody());
@@ -83,7 +84,7 @@ class ClientControllerTest {
         List<ClientDto> clients = List.of(mock(ClientDto.class), mock(ClientDto.class));
         when(clientService.getClientsByEstado(estado)).thenReturn(clients);
 
-        ResponseEntity<List<ClientDto>> response = controller.getAllClients(estado);
+        ResponseEntity<List<ClientDto>> response = controller.getAllClients(estado, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertSame(clients, response.getBody());
@@ -116,4 +117,17 @@ class ClientControllerTest {
         assertNull(response.getBody());
         verify(clientService, times(1)).deleteClient(id);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllClients_withLimit_shouldReturnPageAndNextCursorHeader() {
+        List<ClientDto> clients = List.of(mock(ClientDto.class));
+        when(clientService.getClientsPage(null, null, 1)).thenReturn(new CursorPageDto<>(clients, "next"));
+
+        ResponseEntity<List<ClientDto>> response = controller.getAllClients(null, null, 1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(clients, response.getBody());
+        assertEquals("next", response.getHeaders().getFirst(ClientController.NEXT_CURSOR_HEADER));
+        verify(clientService, never()).getAllClients();
+    }
+}
@@ -5,6 +5,7 @@ import com.bank.client_service.entity.Person;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
@@ -111,4 +112,24 @@ class ClientRepositoryTest {
         assertTrue(result.stream().anyMatch(c -> "Carlos".equals(c.getPersona().getNombre())));
         assertTrue(result.stream().anyMatch(c -> "carolina".equals(c.getPersona().getNombre())));
     }
+
+    @Test
+    void findByClienteIdGreaterThan_shouldReturnKeysetPageInIdOrder() {
+        List<Client> saved = repository.saveAllAndFlush(List.of(
+                newClient("ID-600", "Page A", true),
+                newClient("ID-601", "Page B", false),
+                newClient("ID-602", "Page C", true),
+                newClient("ID-603", "Page D", true)
+        ));
+        Long firstId = saved.get(0).getClienteId();
+
+        List<Client> page = repository.findByClienteIdGreaterThanOrderByClienteId(firstId, Limit.of(2));
+        List<Client> active = repository.findByEstadoAndClienteIdGreaterThanOrderByClienteId(true, firstId,
+                Limit.of(10));
+
+        assertEquals(List.of("ID-601", "ID-602"),
+                page.stream().map(c -> c.getPersona().getIdentificacion()).toList());
+        assertEquals(List.of("ID-602", "ID-603"),
+                active.stream().map(c -> c.getPersona().getIdentificacion()).toList());
+    }
 }
@@ -2,6 +2,7 @@ package com.bank.client_service.service;
 
 import com.bank.client_service.dto.ClientDto;
 import com.bank.client_service.dto.ClientUpdateDto;
+import com.bank.client_service.dto.CursorPageDto;
 import com.bank.client_service.dto.PersonDto;
 import com.bank.client_service.entity.Client;
 import com.bank.client_service.entity.Person;
@@ -12,6 +13,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 import java.util.Optional;
@@ -179,6 +182,44 @@ class ClientServiceImplTest {
         assertNull(result.get(1).getContrasena());
     }
 
+    @Test
+    void getClientsPage_fetchesOneExtraRowAndReturnsNextCursor() {
+        ReflectionTestUtils.setField(service, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(service, "maxPageSize", 5);
+        when(clientRepository.findByClienteIdGreaterThanOrderByClienteId(0L, Limit.of(3))).thenReturn(List.of(
+                cloneClientWithId(sampleClientEntity, 1L),
+                cloneClientWithId(sampleClientEntity, 2L),
+                cloneClientWithId(sampleClientEntity, 3L)));
+        when(clientRepository.findByClienteIdGreaterThanOrderByClienteId(2L, Limit.of(3))).thenReturn(List.of(
+                cloneClientWithId(sampleClientEntity, 3L)));
+
+        CursorPageDto<ClientDto> first = service.getClientsPage(null, null, null);
+        CursorPageDto<ClientDto> second = service.getClientsPage(null, first.getNextCursor(), null);
+
+        assertEquals(List.of(1L, 2L), first.getItems().stream().map(ClientDto::getClienteId).toList());
+        assertNotNull(first.getNextCursor());
+        assertEquals(List.of(3L), second.getItems().stream().map(ClientDto::getClienteId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getClientsPage_capsLimitAndFiltersByEstado() {
+        ReflectionTestUtils.setField(service, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(service, "maxPageSize", 5);
+        when(clientRepository.findByEstadoAndClienteIdGreaterThanOrderByClienteId(true, 0L, Limit.of(6)))
+                .thenReturn(List.of());
+
+        CursorPageDto<ClientDto> page = service.getClientsPage(true, null, 1000);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getClientsPage_invalidCursor_throws() {
+        assertThrows(IllegalArgumentException.class, () -> service.getClientsPage(null, "not-a-cursor", 10));
+    }
+
     @Test
     void getClientsByEstado_mapsEntitiesToDtos() {
         Client active = cloneClientWithId(sampleClientEntity, 3L);